@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.benchmarks;
+
+import lightEngine.core.ObjectController;
+import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.modules.controls.Controller;
+import lightEngine.gameObjects.modules.physics.MovementModule;
+import lightEngine.util.resources.PreferenceHelper;
+import lightEngine.util.resources.ResourceHelper;
+import lightEngine.util.time.TimeHelper;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how much garbage the update phase creates once the game is running.
+ * Game objects with a MovementModule and a controller that moves them every tick are updated like in the game loop,
+ * after a warmup the allocated bytes per tick and the garbage collections are counted.
+ * <p>
+ * Arguments: [objects, 10000 by default] [ticks, 600 by default]
+ */
+public class AllocationRate {
+
+    private static final int TICKS_PER_SECOND = 60;
+
+    public static void main(String[] args) {
+
+        int objectCount = args.length > 0 ? Integer.valueOf(args[0]) : 10000;
+        int ticks = args.length > 1 ? Integer.valueOf(args[1]) : 600;
+
+        ResourceHelper.initialize();
+        PreferenceHelper.loadPreferences("lightEngine");
+        TimeHelper.setTickRate(TICKS_PER_SECOND);
+
+        for (int i = 0; i < objectCount; i++) {
+
+            new GameObject(new Vector3f(i % 100, 0, i / 100), new Vector3f(i % 90, i % 360, 0))
+              .addModule(new MovementModule())
+              .addModule(new WalkingController(i))
+              .createModules();
+
+        }
+
+        ObjectController.applyStructuralChanges();
+
+        //Warmup, so the JIT has compiled the update and the pools and indices have grown to their final size
+        runTicks(ticks);
+
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long collectionsBefore = getCollectionCount();
+        long start = System.nanoTime();
+
+        runTicks(ticks);
+
+        long time = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        long collections = getCollectionCount() - collectionsBefore;
+
+        double bytesPerTick = (double) allocated / ticks;
+
+        System.out.printf("%d game objects, %d ticks: %.3f ms per tick%n", objectCount, ticks, time / 1e6 / ticks);
+        System.out.printf("Allocated %.1f bytes per tick, %.3f per game object, %.2f MB/s at %d ticks per second, %d garbage collections%n",
+          bytesPerTick, bytesPerTick / objectCount, bytesPerTick * TICKS_PER_SECOND / (1024 * 1024), TICKS_PER_SECOND, collections);
+
+        System.exit(0);
+
+    }
+
+    private static void runTicks(int ticks) {
+
+        for (int tick = 0; tick < ticks; tick++) {
+
+            TimeHelper.startTick(0, 0);
+            ObjectController.gameObjects.forEach(GameObject::update);
+
+        }
+
+    }
+
+    private static long getCollectionCount() {
+
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) count += Math.max(0, bean.getCollectionCount());
+
+        return count;
+
+    }
+
+    /**
+     * Walks forward and sideways in turns and looks around, without reading any input.
+     */
+    private static class WalkingController extends Controller {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private int tick;
+
+        WalkingController(int index) {
+
+            super(new float[]{0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0}, true);
+
+            this.index = index;
+
+        }
+
+        @Override
+        protected void updateObject() {
+
+            MovementModule movementModule = parent.getModule(MovementModule.class);
+
+            if ((tick++ + index) % 60 < 30) movementModule.moveForward();
+            else movementModule.moveLeft();
+
+            movementModule.rotate(parent.rotation.x, (parent.rotation.y + 0.5f) % 360);
+
+        }
+
+    }
+
+}
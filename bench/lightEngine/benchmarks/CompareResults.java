@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares the results of EngineBenchmarks with a baseline and exits with 1 if a benchmark got slower.
+ * A change counts if it's larger than the threshold and larger than the errors of both measurements together.
+ * <p>
+ * Arguments: baseline.csv results.csv [thresholdPercent, 10 by default]
+ */
+public class CompareResults {
+
+    public static void main(String[] args) {
+
+        if (args.length < 2) {
+            System.out.println("Usage: CompareResults <baseline.csv> <results.csv> [thresholdPercent]");
+            System.exit(1);
+        }
+
+        Map<String, double[]> baseline = read(new File(args[0]));
+        Map<String, double[]> current = read(new File(args[1]));
+        double threshold = args.length > 2 ? Double.valueOf(args[2]) / 100 : 0.1;
+
+        int regressions = 0;
+
+        System.out.printf(Locale.ROOT, "%-45s %14s %14s %9s%n", "benchmark", "baseline ns/op", "current ns/op", "change");
+
+        for (Map.Entry<String, double[]> entry : current.entrySet()) {
+
+            double[] now = entry.getValue();
+            double[] before = baseline.get(entry.getKey());
+
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "%-45s %14s %14.2f %9s  NEW%n", entry.getKey(), "-", now[0], "");
+                continue;
+            }
+
+            double difference = now[0] - before[0];
+            double change = difference / before[0];
+            String verdict = "";
+
+            if (Math.abs(change) > threshold && Math.abs(difference) > before[1] + now[1]) {
+
+                if (difference > 0) {
+                    verdict = "REGRESSION";
+                    regressions++;
+                } else verdict = "IMPROVEMENT";
+
+            }
+
+            //Allocations are deterministic enough to be compared without the error
+            if (now[2] > before[2] * (1 + threshold) + 1)
+                verdict += String.format(Locale.ROOT, "%sallocates %.0f instead of %.0f B/op", verdict.isEmpty() ? "" : ", ", now[2], before[2]);
+
+            System.out.printf(Locale.ROOT, "%-45s %14.2f %14.2f %+8.1f%%  %s%n", entry.getKey(), before[0], now[0], change * 100, verdict);
+
+        }
+
+        for (String name : baseline.keySet())
+            if (!current.containsKey(name)) System.out.printf(Locale.ROOT, "%-45s %14.2f %14s %9s  MISSING%n", name, baseline.get(name)[0], "-", "");
+
+        System.out.println(regressions == 0 ? "No regressions" : regressions + " regression(s)");
+        System.exit(regressions == 0 ? 0 : 1);
+
+    }
+
+    /**
+     * Reads a result file.
+     *
+     * @param file The CSV file written by EngineBenchmarks.
+     * @return The nanoseconds per operation, their error and the bytes per operation of every benchmark.
+     */
+    private static Map<String, double[]> read(File file) {
+
+        Map<String, double[]> results = new LinkedHashMap<>();
+
+        try {
+
+            List<String> lines = Files.readAllLines(file.toPath());
+
+            for (String line : lines.subList(1, lines.size())) {
+
+                if (line.trim().isEmpty()) continue;
+
+                //The name may contain commas, the values are the last three columns
+                String[] columns = line.split(",");
+                int count = columns.length;
+                String name = line.substring(0, line.length() - columns[count - 1].length() - columns[count - 2].length() - columns[count - 3].length() - 3);
+
+                results.put(name, new double[]{Double.valueOf(columns[count - 3]), Double.valueOf(columns[count - 2]), Double.valueOf(columns[count - 1])});
+
+            }
+
+        } catch (IOException e) {
+
+            e.printStackTrace();
+            System.exit(1);
+
+        }
+
+        return results;
+
+    }
+
+}
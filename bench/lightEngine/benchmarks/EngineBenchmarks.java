@@ -0,0 +1,383 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.benchmarks;
+
+import lightEngine.core.ObjectController;
+import lightEngine.core.events.Event;
+import lightEngine.core.events.EventController;
+import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.modules.renderable.Camera;
+import lightEngine.gameObjects.modules.renderable.ModuleRenderable3D;
+import lightEngine.gameObjects.modules.renderable.RenderModule;
+import lightEngine.graphics.renderable.models.Model;
+import lightEngine.graphics.renderable.models.SubModel;
+import lightEngine.util.input.Input;
+import lightEngine.util.input.InputEventType;
+import lightEngine.util.math.AABBTree;
+import lightEngine.util.math.Frustum;
+import lightEngine.util.math.vectors.Matrix3f;
+import lightEngine.util.math.vectors.VectorHelper;
+import lightEngine.util.rendering.MeshHelper;
+import lightEngine.util.rendering.ObjParser;
+import lightEngine.util.rendering.RenderHelper;
+import lightEngine.util.resources.PreferenceHelper;
+import lightEngine.util.resources.ResourceHelper;
+import lightEngine.util.time.LatencyHistogram;
+import lightEngine.util.time.Profiler;
+import org.lwjgl.input.Keyboard;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The micro benchmarks of the engine's hot paths: vector math, OBJ parsing of every bundled model, mesh compilation (the face expansion of RenderModule),
+ * events, module lookups, input events, the vertex visibility check, frustum culling, the queries of the spatial index and the recording of frame times and profiler markers.
+ * The results are written into a CSV file that CompareResults can compare with bench/baseline.csv.
+ * <p>
+ * Arguments are key=value pairs, e.g. "filter=VectorHelper iterations=20", see the defaults below for all keys.
+ */
+public class EngineBenchmarks {
+
+    private static final String[][] DEFAULTS = {
+      {"filter", ""}, //Only benchmarks whose name contains this are run
+      {"warmupIterations", "5"},
+      {"iterations", "10"},
+      {"iterationMillis", "200"},
+      {"output", ""} //bench/results/<date>.csv if empty
+    };
+
+    private static Map<String, String> options = new LinkedHashMap<>();
+    private static List<MicroBenchmark.Result> results = new ArrayList<>();
+    private static MicroBenchmark harness;
+
+    public static void main(String[] args) {
+
+        for (String[] option : DEFAULTS) options.put(option[0], option[1]);
+
+        for (String arg : args) {
+
+            String[] keyValue = arg.split("=", 2);
+
+            if (keyValue.length != 2 || !options.containsKey(keyValue[0])) {
+                System.out.println("Unknown argument " + arg + ", the options are " + options.keySet());
+                System.exit(1);
+            }
+
+            options.put(keyValue[0], keyValue[1]);
+
+        }
+
+        harness = new MicroBenchmark(Integer.valueOf(options.get("warmupIterations")), Integer.valueOf(options.get("iterations")),
+          Integer.valueOf(options.get("iterationMillis")));
+
+        ResourceHelper.initialize();
+        PreferenceHelper.loadPreferences("lightEngine");
+        Input.initialize();
+
+        benchmarkVectors();
+        benchmarkModels();
+        benchmarkEvents();
+        benchmarkGameObjects();
+        benchmarkInput();
+        benchmarkCulling();
+        benchmarkTiming();
+
+        String output = options.get("output");
+        if (output.isEmpty()) output = "bench/results/" + new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss").format(new Date()) + ".csv";
+
+        File file = new File(output);
+        if (file.getAbsoluteFile().getParentFile().mkdirs()) System.out.println("Created " + file.getAbsoluteFile().getParent());
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+
+            writer.println("benchmark,nanosPerOperation,error,bytesPerOperation");
+
+            for (MicroBenchmark.Result result : results)
+                writer.println(String.format(Locale.ROOT, "%s,%.3f,%.3f,%.1f", result.name, result.nanosPerOperation, result.error, result.bytesPerOperation));
+
+        } catch (IOException e) {
+
+            e.printStackTrace();
+            System.exit(1);
+
+        }
+
+        System.out.println("Written to " + file);
+        System.exit(0);
+
+    }
+
+    private static void run(String name, MicroBenchmark.Operation operation) {
+
+        if (!name.contains(options.get("filter"))) return;
+
+        MicroBenchmark.Result result = harness.run(name, operation);
+        results.add(result);
+
+        System.out.printf(Locale.ROOT, "%-45s %12.2f ns/op  +- %9.2f  %10.1f B/op%n", name, result.nanosPerOperation, result.error, result.bytesPerOperation);
+
+    }
+
+    private static void benchmarkVectors() {
+
+        Vector3f a = new Vector3f(1.5f, -2, 3), b = new Vector3f(-0.5f, 4, 1), c = new Vector3f(0.25f, 0.5f, -1);
+        Matrix3f matrix = new Matrix3f(new Vector3f(0.8f, 0, 0.6f), new Vector3f(0, 1, 0), new Vector3f(-0.6f, 0, 0.8f));
+
+        run("VectorHelper.sumVectors", () -> VectorHelper.sumVectors(new Vector3f[]{a, b, c}));
+        run("VectorHelper.subtractVectors", () -> VectorHelper.subtractVectors(a, b));
+        run("VectorHelper.multiplyVectors", () -> VectorHelper.multiplyVectors(new Vector3f[]{a, b}));
+        run("VectorHelper.multiplyVectorByFloat", () -> VectorHelper.multiplyVectorByFloat(a, 0.5f));
+        run("VectorHelper.normalizeVector", () -> VectorHelper.normalizeVector(a));
+        run("VectorHelper.getVectorProduct", () -> VectorHelper.getVectorProduct(a, b));
+        run("VectorHelper.getAngle", () -> VectorHelper.getAngle(a, b));
+        run("Matrix3f.multiplyByVector", () -> matrix.multiplyByVector(a));
+
+        Vector3f dest = new Vector3f(), direction = new Vector3f(0.6f, 0, 0.8f);
+
+        run("VectorHelper.add", () -> VectorHelper.add(a, b, dest));
+        run("VectorHelper.multiplyAdd", () -> VectorHelper.multiplyAdd(a, b, 0.5f, dest));
+        run("VectorHelper.cross", () -> VectorHelper.cross(a, b, dest));
+        run("VectorHelper.normalize", () -> VectorHelper.normalize(direction));
+
+    }
+
+    private static void benchmarkModels() {
+
+        File modelDirectory = ResourceHelper.getResource("sphere", ResourceHelper.RES_MODEL).getParentFile();
+        File[] modelFiles = modelDirectory.listFiles((directory, name) -> name.endsWith(".obj"));
+        if (modelFiles == null) modelFiles = new File[0];
+        Arrays.sort(modelFiles);
+
+        for (File modelFile : modelFiles) {
+
+            String name = modelFile.getName().substring(0, modelFile.getName().length() - 4);
+
+            run("ObjParser.parse:" + name, () -> {
+
+                try {
+                    return ObjParser.parse(modelFile);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+
+            });
+
+        }
+
+        //RenderModule gets its meshes from the sub models, which expand the faces into an indexed mesh
+        try {
+
+            Model sphere = ObjParser.parse(ResourceHelper.getResource("sphere", ResourceHelper.RES_MODEL));
+            SubModel subModel = sphere.subModels.get(0);
+
+            run("MeshHelper.compileMesh:sphere", () -> MeshHelper.compileMesh(subModel));
+
+        } catch (IOException e) {
+
+            e.printStackTrace();
+            System.exit(1);
+
+        }
+
+    }
+
+    private static void benchmarkEvents() {
+
+        int[] calls = new int[1];
+        Event<Integer> event = Event.get("benchmarkEvent");
+        Event<Object> emptyEvent = Event.get("benchmarkEmptyEvent");
+
+        for (int i = 0; i < 4; i++) EventController.addEventListener(event, payload -> calls[0] += payload);
+
+        Integer payload = 1;
+
+        run("EventController.triggerEvent:name", () -> {
+            EventController.triggerEvent("benchmarkEmptyEvent");
+            return emptyEvent;
+        });
+
+        run("EventController.triggerEvent:4 listeners", () -> {
+            EventController.triggerEvent(event, payload);
+            return calls;
+        });
+
+    }
+
+    private static void benchmarkGameObjects() {
+
+        GameObject gameObject = new GameObject(new Vector3f(0, 5, 20), new Vector3f(10, 30, 0));
+        gameObject.addModule(new Camera());
+        gameObject.addModule(new RenderModule(new Model(new ArrayList<>())));
+        gameObject.createModules();
+        ObjectController.applyStructuralChanges();
+
+        run("GameObject.getModule", () -> gameObject.getModule(Camera.class));
+        run("GameObject.getModule:supertype", () -> gameObject.getModule(ModuleRenderable3D.class));
+
+        //The lookup getModule() used before the module index, for comparison
+        run("GameObject.getModule:stream", () -> gameObject.modules.stream().filter(Camera.class::isInstance).findAny().orElse(null));
+        run("GameObject.getModule:stream supertype", () -> gameObject.modules.stream().filter(ModuleRenderable3D.class::isInstance).findAny().orElse(null));
+
+        int[] angle = new int[1];
+
+        run("Transform.getModelMatrix:cached", () -> gameObject.transform.getModelMatrix());
+        run("Transform.getModelMatrix:rotated", () -> {
+            gameObject.rotation.y = angle[0]++ % 360;
+            return gameObject.transform.getModelMatrix();
+        });
+
+        Vector3f[] vertices = {new Vector3f(0, 5, 0), new Vector3f(30, 5, 20), new Vector3f(0, 40, 10), new Vector3f(-5, 2, 25)};
+        int[] index = new int[1];
+
+        //The camera is found among the game objects, like during loading when no render queue exists
+        run("RenderHelper.isVertexOnScreen", () -> RenderHelper.isVertexOnScreen(vertices[index[0]++ & 3]));
+
+    }
+
+    private static void benchmarkInput() {
+
+        Input.assignInputEvent("benchmarkKey", true, InputEventType.PRESSED, Keyboard.KEY_W);
+        Input.assignInputEvent("benchmarkKeyDown", true, InputEventType.ACTIVATED, Keyboard.KEY_S);
+
+        //Without a window the keyboard isn't created, so this measures the lookup of the assignment
+        run("Input.inputEventTriggered:pressed", () -> Input.inputEventTriggered("benchmarkKey"));
+        run("Input.inputEventTriggered:activated", () -> Input.inputEventTriggered("benchmarkKeyDown"));
+
+    }
+
+    private static void benchmarkCulling() {
+
+        //A 70 degree perspective camera at the origin, looking down the negative z axis
+        Matrix4f projectionMatrix = new Matrix4f();
+        float yScale = (float) (1 / Math.tan(Math.toRadians(35)));
+        projectionMatrix.m00 = yScale / (16f / 9f);
+        projectionMatrix.m11 = yScale;
+        projectionMatrix.m22 = -(1000 + 0.1f) / (1000 - 0.1f);
+        projectionMatrix.m23 = -1;
+        projectionMatrix.m32 = -(2 * 0.1f * 1000) / (1000 - 0.1f);
+        projectionMatrix.m33 = 0;
+
+        Frustum frustum = new Frustum(projectionMatrix);
+        Random random = new Random(42);
+
+        int count = 10000;
+        float[] bounds = new float[count * 6];
+
+        for (int i = 0; i < count; i++) {
+
+            float x = random.nextFloat() * 2000 - 1000, y = random.nextFloat() * 2000 - 1000, z = random.nextFloat() * 2000 - 1000;
+            float size = random.nextFloat() * 5;
+
+            bounds[i * 6] = x - size;
+            bounds[i * 6 + 1] = y - size;
+            bounds[i * 6 + 2] = z - size;
+            bounds[i * 6 + 3] = x + size;
+            bounds[i * 6 + 4] = y + size;
+            bounds[i * 6 + 5] = z + size;
+
+        }
+
+        int[] visible = new int[count];
+
+        run("Frustum.cull:10000 boxes", () -> frustum.cull(bounds, count, visible));
+
+        AABBTree<Integer> tree = new AABBTree<>(1);
+        int[] leaves = new int[count];
+        for (int i = 0; i < count; i++) leaves[i] = tree.insert(i, bounds, i * 6);
+
+        //What keeping a copy of the tree in sync with the copied bounds would cost per frame, if nothing moved at all
+        run("AABBTree.move:10000 unmoved boxes", () -> {
+            for (int i = 0; i < count; i++) tree.move(leaves[i], bounds, i * 6);
+            return tree;
+        });
+
+        List<Integer> result = new ArrayList<>();
+        int[] query = new int[1];
+
+        run("AABBTree.queryFrustum:10000 boxes", () -> {
+            result.clear();
+            tree.queryFrustum(frustum, result);
+            return result;
+        });
+
+        run("AABBTree.querySphere:10000 boxes", () -> {
+
+            query[0] = (query[0] + 7919) % count;
+            int center = query[0] * 6;
+
+            result.clear();
+            tree.querySphere(bounds[center], bounds[center + 1], bounds[center + 2], 50, result);
+
+            return result;
+
+        });
+
+    }
+
+    private static void benchmarkTiming() {
+
+        LatencyHistogram histogram = new LatencyHistogram(10);
+        Random random = new Random(42);
+
+        //Frame times around 16.6 ms, recording must neither lock nor allocate
+        long[] samples = new long[1024];
+        for (int i = 0; i < samples.length; i++) samples[i] = (long) (16600000 + random.nextGaussian() * 500000);
+
+        int[] index = new int[1];
+
+        run("LatencyHistogram.record", () -> {
+            histogram.record(samples[index[0]++ & 1023]);
+            return histogram;
+        });
+
+        Profiler.Marker outer = Profiler.addMarker("Benchmark outer");
+        Profiler.Marker inner = Profiler.addMarker("Benchmark inner");
+        int[] pairs = new int[1];
+
+        Profiler.enabled = false;
+
+        run("Profiler.begin+end:disabled", () -> {
+            Profiler.begin(outer);
+            Profiler.end(outer);
+            return pairs;
+        });
+
+        //Two nested pairs per operation, a frame is completed every 1000 operations
+        Profiler.enabled = true;
+        Profiler.endFrame();
+
+        run("Profiler.begin+end:enabled nested", () -> {
+
+            Profiler.begin(outer);
+            Profiler.begin(inner);
+            Profiler.end(inner);
+            Profiler.end(outer);
+
+            if (++pairs[0] % 1000 == 0) Profiler.endFrame();
+
+            return pairs;
+
+        });
+
+        Profiler.enabled = false;
+
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.benchmarks;
+
+import lightEngine.core.events.Event;
+import lightEngine.core.events.EventController;
+import lightEngine.core.events.EventHandler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares triggering events with the linear handler scan EventController used before.
+ * 10k handlers are spread over 1000 events, the events are triggered round robin, right away and queued.
+ * <p>
+ * Arguments: [triggers, 100000 by default]
+ */
+public class EventDispatch {
+
+    public static void main(String[] args) {
+
+        int triggers = args.length > 0 ? Integer.valueOf(args[0]) : 100000;
+        int eventCount = 1000, handlerCount = 10000;
+
+        int[] calls = new int[1];
+        EventHandler handler = () -> calls[0]++;
+
+        //The old layout: one list of all handlers and a map from handler to its event name
+        List<EventHandler> oldHandlers = new ArrayList<>();
+        Map<EventHandler, String> oldEventMap = new HashMap<>();
+
+        String[] names = new String[eventCount];
+        List<Event<Integer>> events = new ArrayList<>();
+
+        for (int i = 0; i < eventCount; i++) {
+
+            names[i] = "benchmark-" + i;
+            events.add(Event.get(names[i]));
+
+        }
+
+        for (int i = 0; i < handlerCount; i++) {
+
+            EventHandler oldHandler = () -> calls[0]++;
+            oldHandlers.add(oldHandler);
+            oldEventMap.put(oldHandler, names[i % eventCount]);
+
+            EventController.addEventHandler(names[i % eventCount], handler);
+
+        }
+
+        //The linear scan is too slow for all triggers, its time per trigger is measured on a fraction of them
+        int oldTriggers = Math.max(1, triggers / 100);
+
+        for (int run = 0; run < 3; run++) {
+
+            calls[0] = 0;
+            long start = System.nanoTime();
+
+            for (int i = 0; i < oldTriggers; i++) {
+                String event = names[i % eventCount];
+                oldHandlers.stream().filter(oldHandler -> oldEventMap.get(oldHandler).equals(event)).forEach(EventHandler::handle);
+            }
+
+            double oldTime = (System.nanoTime() - start) / (double) oldTriggers;
+            int oldCalls = calls[0];
+
+            calls[0] = 0;
+            start = System.nanoTime();
+
+            for (int i = 0; i < triggers; i++) EventController.triggerEvent(events.get(i % eventCount), i);
+
+            double newTime = (System.nanoTime() - start) / (double) triggers;
+            int newCalls = calls[0];
+
+            calls[0] = 0;
+            start = System.nanoTime();
+
+            for (int i = 0; i < triggers; i++) EventController.queueEvent(events.get(i % eventCount), i);
+            EventController.triggerQueuedEvents();
+
+            double queuedTime = (System.nanoTime() - start) / (double) triggers;
+
+            System.out.printf("linear scan: %.0f ns per trigger (%d handlers called) | indexed: %.0f ns per trigger (%d handlers called), %.0f triggers per second | queued: %.0f ns per trigger%n",
+              oldTime, oldCalls, newTime, newCalls, 1e9 / newTime, queuedTime);
+
+        }
+
+    }
+
+}
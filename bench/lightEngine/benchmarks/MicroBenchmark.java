@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures single operations the way JMH does it, without depending on it.
+ * Every benchmark is called in batches for a few warmup iterations (so the JIT compiles it) and then for the measured iterations, each running for a fixed time.
+ * All return values go into a blackhole, so the JIT can't remove the measured work. Allocations are counted with the thread's allocation counter.
+ */
+public class MicroBenchmark {
+
+    /**
+     * The measured operation.
+     */
+    public interface Operation {
+
+        /**
+         * Runs the operation once.
+         *
+         * @return Anything that depends on the work, it gets consumed by the blackhole.
+         */
+        Object run();
+
+    }
+
+    /**
+     * The measurement of one benchmark.
+     */
+    public static class Result {
+
+        public final String name;
+        public final double nanosPerOperation;
+        public final double error; //Standard deviation between the measured iterations
+        public final double bytesPerOperation;
+
+        public Result(String name, double nanosPerOperation, double error, double bytesPerOperation) {
+
+            this.name = name;
+            this.nanosPerOperation = nanosPerOperation;
+            this.error = error;
+            this.bytesPerOperation = bytesPerOperation;
+
+        }
+
+    }
+
+    private static volatile Object blackhole;
+
+    private final int warmupIterations;
+    private final int measuredIterations;
+    private final long iterationNanos;
+    private final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private Object consumed; //Storing the results in a field makes them escape, so they have to be created
+
+    /**
+     * Creates a harness.
+     *
+     * @param warmupIterations   The number of iterations that are not measured.
+     * @param measuredIterations The number of measured iterations.
+     * @param iterationMillis    The duration of every iteration in milliseconds.
+     */
+    public MicroBenchmark(int warmupIterations, int measuredIterations, int iterationMillis) {
+
+        this.warmupIterations = warmupIterations;
+        this.measuredIterations = measuredIterations;
+        this.iterationNanos = iterationMillis * 1000000L;
+
+    }
+
+    /**
+     * Measures an operation.
+     *
+     * @param name      The name of the benchmark.
+     * @param operation The operation.
+     * @return The time and allocations per call.
+     */
+    public Result run(String name, Operation operation) {
+
+        int batch = calibrateBatch(operation);
+        for (int i = 0; i < warmupIterations; i++) runIteration(operation, batch, null);
+
+        //Calibrated again with the compiled code, the first calls (e.g. linking the lambda) are much slower and would keep the batch small
+        batch = calibrateBatch(operation);
+
+        double[] nanos = new double[measuredIterations];
+        long[] allocation = new long[2]; //Bytes and calls
+
+        for (int i = 0; i < measuredIterations; i++) nanos[i] = runIteration(operation, batch, allocation);
+
+        double mean = 0;
+        for (double value : nanos) mean += value / nanos.length;
+
+        double variance = 0;
+        for (double value : nanos) variance += (value - mean) * (value - mean) / Math.max(1, nanos.length - 1);
+
+        blackhole = consumed;
+
+        return new Result(name, mean, Math.sqrt(variance), allocation[1] == 0 ? 0 : (double) allocation[0] / allocation[1]);
+
+    }
+
+    /**
+     * Finds the number of calls between two clock reads, large enough that reading the clock doesn't matter.
+     *
+     * @param operation The operation.
+     * @return The batch size.
+     */
+    private int calibrateBatch(Operation operation) {
+
+        int batch = 1;
+
+        while (batch < 1 << 20) {
+
+            long start = System.nanoTime();
+            runBatch(operation, batch);
+            if (System.nanoTime() - start > 20000) break;
+            batch <<= 1;
+
+        }
+
+        return batch;
+
+    }
+
+    private double runIteration(Operation operation, int batch, long[] allocation) {
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long calls = 0;
+
+        long start = System.nanoTime(), end = start + iterationNanos, now;
+
+        do {
+
+            runBatch(operation, batch);
+            calls += batch;
+            now = System.nanoTime();
+
+        } while (now < end);
+
+        if (allocation != null) {
+
+            allocation[0] += threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            allocation[1] += calls;
+
+        }
+
+        return (double) (now - start) / calls;
+
+    }
+
+    private void runBatch(Operation operation, int batch) {
+        for (int i = 0; i < batch; i++) consumed = operation.run();
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.benchmarks;
+
+import lightEngine.graphics.renderable.models.Model;
+import lightEngine.util.rendering.ModelCacheHelper;
+import lightEngine.util.rendering.ObjParser;
+import lightEngine.util.resources.ResourceHelper;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Callable;
+
+/**
+ * Compiles all models and compares the time and heap allocations of loading them from OBJ and from the compiled files (.lem).
+ * Has to be run from the project directory, so the models can be found.
+ * <p>
+ * Arguments: [loads per model and format, 10 by default]
+ */
+public class ModelLoading {
+
+    public static void main(String[] args) {
+
+        int runs = args.length > 0 ? Integer.valueOf(args[0]) : 10;
+
+        ResourceHelper.initialize();
+        ModelCacheHelper.compileAllModels();
+
+        File[] files = ResourceHelper.getResource("", ResourceHelper.RES_MODEL).getParentFile().listFiles((dir, fileName) -> fileName.endsWith(".obj"));
+        if (files == null) return;
+
+        System.out.println("model, obj ms, lem ms, obj allocated KB, lem allocated KB");
+
+        for (File file : files) {
+
+            String name = file.getName().substring(0, file.getName().length() - 4);
+
+            long[] obj = new long[2];
+            long[] lem = new long[2];
+
+            for (int i = 0; i < runs; i++) {
+                measureLoad(obj, () -> new Model(ObjParser.parse(file).subModels));
+                measureLoad(lem, () -> ModelCacheHelper.readModel(name));
+            }
+
+            System.out.printf("%s, %.2f, %.2f, %d, %d%n", name, obj[0] / 1e6 / runs, lem[0] / 1e6 / runs, obj[1] / 1024 / runs, lem[1] / 1024 / runs);
+
+        }
+
+    }
+
+    /**
+     * Loads a model once and adds the elapsed nanoseconds and the allocated heap bytes to the totals.
+     */
+    private static void measureLoad(long[] totals, Callable<Model> loader) {
+
+        long allocated = getAllocatedBytes();
+        long start = System.nanoTime();
+        Model model = null;
+
+        try {
+            model = loader.call();
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+
+        totals[0] += System.nanoTime() - start;
+        totals[1] += getAllocatedBytes() - allocated;
+
+        if (model == null) throw new IllegalStateException("Model could not be loaded");
+
+    }
+
+    /**
+     * Returns the number of bytes the current thread allocated so far or 0 if the JVM doesn't track it.
+     */
+    private static long getAllocatedBytes() {
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+
+        return 0;
+
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.benchmarks;
+
+import lightEngine.core.ObjectController;
+import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.ModuleRegistry;
+import lightEngine.gameObjects.modules.Module;
+import lightEngine.gameObjects.modules.controls.Controller;
+import lightEngine.gameObjects.modules.physics.MovementModule;
+import lightEngine.gameObjects.modules.renderable.light.GlobalLightSource;
+import lightEngine.util.resources.PreferenceHelper;
+import lightEngine.util.resources.ResourceHelper;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Measures getModule() on many game objects against the stream based lookup it replaced
+ * and iterating all movement modules via the ModuleRegistry against visiting every game object.
+ * Has to be run from the project directory, so the preferences can be found.
+ * <p>
+ * Arguments: [objects, 100000 by default]
+ */
+public class ModuleLookup {
+
+    public static void main(String[] args) {
+
+        int objectCount = args.length > 0 ? Integer.valueOf(args[0]) : 100000;
+
+        ResourceHelper.initialize();
+        PreferenceHelper.loadPreferences("lightEngine");
+
+        for (int i = 0; i < objectCount; i++) {
+
+            GameObject gameObject = new GameObject(new Vector3f(i % 100, 0, i / 100), new Vector3f());
+
+            //Every tenth object moves, the others only have a light, like static scenery
+            if (i % 10 == 0) gameObject.addModule(new MovementModule()).addModule(new IdleController());
+            else gameObject.addModule(new GlobalLightSource(0.1f));
+
+            gameObject.createModules();
+
+        }
+
+        ObjectController.applyStructuralChanges();
+
+        List<GameObject> gameObjects = ObjectController.gameObjects;
+        Class<?>[] lookups = {Controller.class, MovementModule.class, GlobalLightSource.class};
+
+        for (int run = 0; run < 3; run++) {
+
+            int found = 0;
+            long start = System.nanoTime();
+
+            for (GameObject gameObject : gameObjects)
+                for (Class<?> lookup : lookups) {
+                    try {
+                        if (gameObject.modules.stream().filter(lookup::isInstance).findAny().get() != null) found++;
+                    } catch (NoSuchElementException e) {
+                        //Not found
+                    }
+                }
+
+            long streamTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+
+            for (GameObject gameObject : gameObjects)
+                for (Class<?> lookup : lookups) if (gameObject.getModule(lookup.asSubclass(Module.class)) != null) found--;
+
+            long indexTime = System.nanoTime() - start;
+
+            int visited = 0;
+            start = System.nanoTime();
+            for (GameObject gameObject : gameObjects) if (gameObject.getModule(MovementModule.class) != null) visited++;
+            long visitTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (MovementModule ignored : ModuleRegistry.getModules(MovementModule.class)) visited--;
+            long registryTime = System.nanoTime() - start;
+
+            if (run > 0)
+                System.out.printf("%d lookups: stream %.2f ms, index %.2f ms (%s) | all movement modules: visiting objects %.3f ms, registry %.3f ms (%s)%n",
+                  gameObjects.size() * lookups.length, streamTime / 1e6, indexTime / 1e6, found == 0 ? "same modules found" : "RESULT DIFFERS",
+                  visitTime / 1e6, registryTime / 1e6, visited == 0 ? "same count" : "COUNT DIFFERS");
+
+        }
+
+    }
+
+    /**
+     * A controller without any behaviour, so the moving objects have one to look up.
+     */
+    private static class IdleController extends Controller {
+
+        private static final long serialVersionUID = 1L;
+
+        IdleController() {
+            super(new float[7], true);
+        }
+
+        @Override
+        protected void updateObject() {
+        }
+
+    }
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.benchmarks;
+
+import lightEngine.core.ObjectController;
+import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.modules.controls.Controller;
+import lightEngine.gameObjects.modules.physics.MovementModule;
+import lightEngine.gameObjects.modules.physics.MovementSystem;
+import lightEngine.util.resources.PreferenceHelper;
+import lightEngine.util.resources.ResourceHelper;
+import lightEngine.util.time.TimeHelper;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Compares moving game objects with MovementModules updating themselves against the same objects in the MovementSystem.
+ * Both runs have to end with the same positions.
+ * Has to be run from the project directory, so the preferences can be found.
+ * <p>
+ * Arguments: [objects, 100000 by default] [ticks, 100 by default]
+ */
+public class MovementSystemUpdate {
+
+    public static void main(String[] args) {
+
+        int objectCount = args.length > 0 ? Integer.valueOf(args[0]) : 100000;
+        int ticks = args.length > 1 ? Integer.valueOf(args[1]) : 100;
+
+        ResourceHelper.initialize();
+        PreferenceHelper.loadPreferences("lightEngine");
+        TimeHelper.setTickRate(60);
+
+        float[] expected = null;
+
+        for (int run = 0; run < 4; run++) {
+
+            boolean useMovementSystem = run % 2 == 1;
+
+            createObjects(objectCount, useMovementSystem);
+
+            long updateTime = 0, systemTime = 0;
+
+            for (int tick = 0; tick < ticks; tick++) {
+
+                TimeHelper.startTick(0, 0);
+
+                long start = System.nanoTime();
+                ObjectController.gameObjects.forEach(GameObject::update);
+                long systemStart = System.nanoTime();
+                MovementSystem.update();
+                long end = System.nanoTime();
+
+                updateTime += systemStart - start;
+                systemTime += end - systemStart;
+
+            }
+
+            float[] positions = new float[objectCount * 3];
+
+            for (int i = 0; i < objectCount; i++) {
+
+                Vector3f position = ObjectController.gameObjects.get(i).position;
+                positions[i * 3] = position.x;
+                positions[i * 3 + 1] = position.y;
+                positions[i * 3 + 2] = position.z;
+
+            }
+
+            if (!useMovementSystem) expected = positions;
+
+            //The first two runs warm up the JIT
+            if (run < 2) continue;
+
+            if (useMovementSystem) {
+
+                System.out.printf("movement system: %.3f ms per tick (object updates %.3f, integration and copy back %.3f), %s%n",
+                  (updateTime + systemTime) / 1e6 / ticks, updateTime / 1e6 / ticks, systemTime / 1e6 / ticks,
+                  Arrays.equals(expected, positions) ? "same result" : "RESULT DIFFERS");
+
+            } else {
+
+                System.out.printf("object graph: %.3f ms per tick%n", updateTime / 1e6 / ticks);
+
+            }
+
+        }
+
+    }
+
+    private static void createObjects(int count, boolean useMovementSystem) {
+
+        new ArrayList<>(ObjectController.gameObjects).forEach(GameObject::destroy);
+        ObjectController.applyStructuralChanges();
+        MovementSystem.update();
+
+        for (int i = 0; i < count; i++) {
+
+            new GameObject(new Vector3f(i % 100, 0, i / 100), new Vector3f(0, i % 360, 0))
+              .addModule(new MovementModule(useMovementSystem))
+              .addModule(new PatternController(i))
+              .createModules();
+
+        }
+
+        //Registers the new modules in the system, nothing moves yet because no forces were applied
+        ObjectController.applyStructuralChanges();
+        MovementSystem.update();
+
+    }
+
+    /**
+     * Moves its game object in a pattern that depends on its index, without reading any input.
+     */
+    private static class PatternController extends Controller {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private int tick;
+
+        PatternController(int index) {
+
+            super(new float[]{0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0}, true);
+
+            this.index = index;
+
+        }
+
+        @Override
+        protected void updateObject() {
+
+            MovementModule movementModule = parent.getModule(MovementModule.class);
+
+            if ((tick++ + index) % 60 < 30) movementModule.moveForward();
+            else movementModule.moveLeft();
+
+            if (index % 3 == 0) movementModule.moveUp();
+
+        }
+
+    }
+
+}
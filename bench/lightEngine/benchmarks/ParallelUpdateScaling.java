@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.benchmarks;
+
+import lightEngine.core.ObjectController;
+import lightEngine.core.ParallelUpdater;
+import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.modules.controls.Controller;
+import lightEngine.gameObjects.modules.physics.MovementModule;
+import lightEngine.util.resources.PreferenceHelper;
+import lightEngine.util.resources.ResourceHelper;
+import lightEngine.util.time.TimeHelper;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.ArrayList;
+
+/**
+ * Measures how the parallel update phase scales with the number of worker threads.
+ * Game objects with a MovementModule and a thread safe controller are updated serially first, then with 1, 2, 4, ... threads.
+ * Has to be run from the project directory, so the preferences can be found.
+ * <p>
+ * Arguments: [objects, 20000 by default] [ticks, 200 by default] [highest thread count, processor count by default]
+ */
+public class ParallelUpdateScaling {
+
+    public static void main(String[] args) {
+
+        int objectCount = args.length > 0 ? Integer.valueOf(args[0]) : 20000;
+        int ticks = args.length > 1 ? Integer.valueOf(args[1]) : 200;
+        int maxThreads = args.length > 2 ? Integer.valueOf(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        ResourceHelper.initialize();
+        PreferenceHelper.loadPreferences("lightEngine");
+        TimeHelper.setTickRate(60);
+
+        long serialTime = 0;
+
+        for (int threads = 0; threads <= maxThreads; threads = threads == 0 ? 1 : threads * 2) {
+
+            createObjects(objectCount);
+
+            if (threads == 0) ParallelUpdater.shutdown();
+            else ParallelUpdater.initialize(threads);
+
+            long start = System.nanoTime();
+
+            for (int tick = 0; tick < ticks; tick++) {
+
+                TimeHelper.startTick(0, 0);
+
+                if (ParallelUpdater.isEnabled()) ParallelUpdater.update(ObjectController.gameObjects);
+                else ObjectController.gameObjects.forEach(GameObject::update);
+
+            }
+
+            long time = System.nanoTime() - start;
+
+            if (threads == 0) {
+
+                serialTime = time;
+                System.out.printf("serial: %.3f ms per tick%n", time / 1e6 / ticks);
+
+            } else {
+
+                System.out.printf("%d threads: %.3f ms per tick, speedup %.2f%n", threads, time / 1e6 / ticks, (double) serialTime / time);
+
+            }
+
+        }
+
+        ParallelUpdater.shutdown();
+
+    }
+
+    private static void createObjects(int count) {
+
+        new ArrayList<>(ObjectController.gameObjects).forEach(GameObject::destroy);
+
+        for (int i = 0; i < count; i++) {
+
+            new GameObject(new Vector3f(i % 100, 0, i / 100), new Vector3f(0, i % 360, 0))
+              .addModule(new MovementModule())
+              .addModule(new PatternController(i))
+              .createModules();
+
+        }
+
+        ObjectController.applyStructuralChanges();
+
+    }
+
+    /**
+     * Moves its game object in a pattern that depends on its index, without reading any input.
+     */
+    private static class PatternController extends Controller {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+        private int tick;
+
+        PatternController(int index) {
+
+            super(new float[]{0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0}, true);
+
+            this.index = index;
+
+        }
+
+        @Override
+        protected void updateObject() {
+
+            MovementModule movementModule = parent.getModule(MovementModule.class);
+
+            if ((tick++ + index) % 60 < 30) movementModule.moveForward();
+            else movementModule.moveLeft();
+
+            if (index % 3 == 0) movementModule.moveUp();
+
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+    }
+
+}
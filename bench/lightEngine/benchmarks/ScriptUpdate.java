@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.benchmarks;
+
+import lightEngine.core.scripts.ScriptScheduler;
+import lightEngine.core.scripts.ScriptSequence;
+
+/**
+ * Measures the time per tick of many concurrent scripts with different waits, until all of them are finished.
+ * <p>
+ * Arguments: [scripts, 10000 by default] [runs, 5 by default, the first one is a warmup]
+ */
+public class ScriptUpdate {
+
+    private static final float TICK_LENGTH = 1000f / 60;
+
+    public static void main(String[] args) {
+
+        int scriptCount = args.length > 0 ? Integer.valueOf(args[0]) : 10000;
+        int runs = args.length > 1 ? Integer.valueOf(args[1]) : 5;
+
+        for (int run = 0; run < runs; run++) {
+
+            ScriptScheduler scheduler = new ScriptScheduler();
+            long[] checksum = new long[1];
+
+            for (int i = 0; i < scriptCount; i++) {
+
+                int index = i;
+
+                scheduler.start(new ScriptSequence()
+                  .waitTicks(1 + index % 7)
+                  .run(() -> checksum[0] = checksum[0] * 31 + index)
+                  .waitSeconds((index % 5) * 0.1f)
+                  .run(() -> checksum[0] = checksum[0] * 31 + index)
+                  .during(0.25f + (index % 3) * 0.25f, seconds -> checksum[0] += 1));
+
+            }
+
+            long start = System.nanoTime();
+            int ticks = 0;
+
+            do {
+                scheduler.update(TICK_LENGTH);
+                ticks++;
+            } while (scheduler.getScriptCount() > 0);
+
+            long time = System.nanoTime() - start;
+
+            if (run > 0) System.out.printf("%d scripts: %d ticks, %.3f ms per tick, checksum %d%n", scriptCount, ticks, time / 1e6 / ticks, checksum[0]);
+
+        }
+
+    }
+
+}
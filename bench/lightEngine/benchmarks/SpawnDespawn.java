@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.benchmarks;
+
+import lightEngine.core.ObjectController;
+import lightEngine.gameObjects.GameObject;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how long the game loop needs to apply the spawning and despawning of many game objects at once.
+ * The despawn time is compared with removing the same objects from a plain ArrayList one by one, which is how game objects used to be removed.
+ * <p>
+ * Arguments: [objects, 50000 by default] [runs, 5 by default, the first one is a warmup]
+ */
+public class SpawnDespawn {
+
+    public static void main(String[] args) {
+
+        int objectCount = args.length > 0 ? Integer.valueOf(args[0]) : 50000;
+        int runs = args.length > 1 ? Integer.valueOf(args[1]) : 5;
+
+        for (int run = 0; run < runs; run++) {
+
+            List<GameObject> objects = new ArrayList<>();
+            for (int i = 0; i < objectCount; i++) objects.add(new GameObject(new Vector3f(i % 100, 0, i / 100), new Vector3f()));
+
+            long start = System.nanoTime();
+            ObjectController.applyStructuralChanges();
+            long spawnTime = System.nanoTime() - start;
+
+            objects.forEach(ObjectController::removeGameObject);
+
+            start = System.nanoTime();
+            ObjectController.applyStructuralChanges();
+            long despawnTime = System.nanoTime() - start;
+
+            List<GameObject> list = new ArrayList<>(objects);
+
+            start = System.nanoTime();
+            objects.forEach(list::remove);
+            long listRemoveTime = System.nanoTime() - start;
+
+            if (run > 0)
+                System.out.printf("%d objects: spawn %.1f ms, despawn %.1f ms (ArrayList.remove alone: %.1f ms), %d left%n",
+                  objectCount, spawnTime / 1e6, despawnTime / 1e6, listRemoveTime / 1e6, ObjectController.gameObjects.size());
+
+        }
+
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.benchmarks;
+
+import lightEngine.util.time.TimeHelper;
+import lightEngine.util.time.Timer;
+import lightEngine.util.time.TimerWheel;
+
+import java.util.Random;
+
+/**
+ * Measures the cost per frame of many running timers in the TimerWheel against the polling timers it replaced.
+ * The timers are animation key frames of 100 to 1000 ms that are restarted when done, the clock advances by 16 ms per frame.
+ * <p>
+ * Arguments: [timers, 100000 by default]
+ */
+public class TimerFrames {
+
+    public static void main(String[] args) {
+
+        int timerCount = args.length > 0 ? Integer.valueOf(args[0]) : 100000;
+        Random random = new Random(42);
+        Timer[] timers = new Timer[timerCount];
+
+        for (int run = 0; run < 3; run++) {
+
+            TimerWheel wheel = new TimerWheel(0);
+            int[] delays = new int[timerCount];
+
+            for (int i = 0; i < timerCount; i++) {
+
+                delays[i] = 100 + random.nextInt(900);
+                timers[i] = new Timer(delays[i], wheel);
+                timers[i].start();
+
+            }
+
+            int frames = 600, restarts = 0;
+            long wheelTime = 0, pollTime = 0;
+
+            for (int frame = 1; frame <= frames; frame++) {
+
+                long frameStart = System.nanoTime();
+
+                wheel.advance(frame * 16);
+
+                for (Timer activeTimer : timers) {
+                    if (activeTimer.isDone()) {
+                        activeTimer.start();
+                        restarts++;
+                    }
+                }
+
+                wheelTime += System.nanoTime() - frameStart;
+
+            }
+
+            //The same work, plus the clock read per timer that Timer.isDone() did before
+            long[] startTimes = new long[timerCount];
+            int pollRestarts = 0;
+
+            for (int frame = 1; frame <= frames; frame++) {
+
+                long frameStart = System.nanoTime();
+                long frameTime = frame * 16;
+
+                for (int i = 0; i < timerCount; i++) {
+
+                    TimeHelper.getTime();
+
+                    if (delays[i] <= frameTime - startTimes[i]) {
+                        startTimes[i] = frameTime;
+                        pollRestarts++;
+                    }
+
+                }
+
+                pollTime += System.nanoTime() - frameStart;
+
+            }
+
+            System.out.printf("%d timers: wheel %.3f ms per frame (%d restarts), polling the clock %.3f ms per frame (%d restarts)%n",
+              timerCount, wheelTime / 1e6 / frames, restarts, pollTime / 1e6 / frames, pollRestarts);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.core;
+
+import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.ModuleRegistry;
+import lightEngine.gameObjects.modules.controls.Controller;
+import lightEngine.gameObjects.modules.controls.ControllerManual;
+import lightEngine.gameObjects.modules.renderable.Camera;
+import lightEngine.gameObjects.modules.renderable.ModuleRenderable3D;
+import lightEngine.gameObjects.modules.renderable.RenderModule;
+import lightEngine.graphics.GraphicsController;
+import lightEngine.graphics.RenderQueue;
+import lightEngine.graphics.Renderer;
+import lightEngine.graphics.device.RecordingGraphicsDevice;
+import lightEngine.util.input.Input;
+import lightEngine.util.math.Randomizer;
+import lightEngine.util.rendering.ShaderHelper;
+import lightEngine.util.resources.PreferenceHelper;
+import lightEngine.util.resources.ResourceHelper;
+import lightEngine.util.time.TimeHelper;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The mEnchmark runner: builds a scene with Setup.loadScene(), flies the camera along a fixed path and measures every frame.
+ * Ticks and frames alternate on one thread with the fixed tick length, so every run simulates exactly the same frames.
+ * The first frames warm up the JIT, the measured ones are written into a CSV file (one line per frame) and a JSON file (percentiles and counts).
+ * Headless runs render into a RecordingGraphicsDevice, so they need no window or GPU and also count the draw calls and uniform uploads of every frame.
+ * <p>
+ * Arguments are key=value pairs, e.g. "headless=true frames=2000 monkeys2=200", see the defaults below for all keys.
+ */
+public class Benchmark {
+
+    private static final int PATH_TICKS = 1200; //One round of the camera path
+    private static final float PATH_RADIUS = 55;
+
+    private static final String[][] DEFAULTS = {
+      {"headless", "true"},
+      {"warmupFrames", "300"},
+      {"frames", "1800"},
+      {"seed", "42"},
+      {"output", ""}, //File name without the extension, benchmarks/<date> if empty
+      {"normalLights", "2"}, {"normalLightAngle", "80"},
+      {"directionalLights", "0"},
+      {"turnableColorLights", "0"}, {"turnableColorLightAngle", "65"},
+      {"colorLights", "0"}, {"colorLightAngle", "90"},
+      {"moveableLights", "0"}, {"moveableLightAngle", "70"},
+      {"spheres1", "2"}, {"spheres2", "0"},
+      {"monkeys1", "2"}, {"monkeys2", "0"},
+      {"objects3", "0"}
+    };
+
+    private static Map<String, String> options = new LinkedHashMap<>();
+
+    public static void main(String[] args) {
+
+        for (String[] option : DEFAULTS) options.put(option[0], option[1]);
+
+        for (String arg : args) {
+
+            String[] keyValue = arg.split("=", 2);
+
+            if (keyValue.length != 2 || !options.containsKey(keyValue[0])) {
+                System.out.println("Unknown argument " + arg + ", the options are " + options.keySet());
+                System.exit(1);
+            }
+
+            options.put(keyValue[0], keyValue[1]);
+
+        }
+
+        boolean headless = Boolean.valueOf(options.get("headless"));
+        int warmupFrames = getInteger("warmupFrames");
+        int frames = getInteger("frames");
+
+        ResourceHelper.initialize();
+        PreferenceHelper.loadPreferences("lightEngine");
+        Input.initialize();
+        TimeHelper.initialize();
+        TimeHelper.setTickRate(PreferenceHelper.getInteger("ticksPerSecond"));
+
+        RecordingGraphicsDevice device = null;
+
+        if (headless) {
+
+            device = new RecordingGraphicsDevice();
+            GraphicsController.setDevice(device);
+
+        }
+
+        GraphicsController.createDisplay();
+        GraphicsController.mEnchmarkEnabled = true;
+        ShaderHelper.addShader("lighting");
+        ShaderHelper.addShader("shadowMap");
+
+        Randomizer.setSeed(getInteger("seed"));
+
+        Setup.loadScene(
+          new int[]{getInteger("normalLights"), getInteger("normalLightAngle")},
+          getInteger("directionalLights"),
+          new int[]{getInteger("turnableColorLights"), getInteger("turnableColorLightAngle")},
+          new int[]{getInteger("colorLights"), getInteger("colorLightAngle")},
+          new int[]{getInteger("moveableLights"), getInteger("moveableLightAngle")},
+          getInteger("spheres1"), getInteger("spheres2"),
+          getInteger("monkeys1"), getInteger("monkeys2"),
+          getInteger("objects3"));
+
+        ObjectController.applyStructuralChanges();
+
+        //The player is flown along the path instead of being controlled by the keyboard and mouse
+        GameObject player = ModuleRegistry.getModules(Camera.class).get(0).parent;
+        player.removeModule(ControllerManual.class);
+
+        CameraPath cameraPath = new CameraPath();
+        player.addModule(cameraPath);
+        cameraPath.onCreation(player);
+
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long[] frameTimes = new long[frames], tickTimes = new long[frames], renderTimes = new long[frames], allocations = new long[frames];
+        int[] visibleModels = new int[frames];
+        long[] drawCalls = new long[frames], uniformUploads = new long[frames];
+        int wrongDrawCounts = 0;
+        long tickLength = TimeHelper.getTickLength();
+
+        for (int frame = -warmupFrames; frame < frames; frame++) {
+
+            long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+            long frameStart = System.nanoTime();
+
+            TimeHelper.startTick(frameStart, frameStart);
+            GameLoop.tick();
+            TimeHelper.endTick(frameStart);
+
+            long renderStart = System.nanoTime();
+
+            RenderQueue queue = Renderer.renderQueues.getLatest();
+            Renderer.currentRenderQueue = queue;
+
+            GraphicsController.clearScreen();
+            queue.render();
+            GraphicsController.update();
+
+            TimeHelper.updateFPS();
+
+            long frameEnd = System.nanoTime();
+
+            if (frame < 0) continue;
+
+            frameTimes[frame] = frameEnd - frameStart;
+            tickTimes[frame] = renderStart - frameStart;
+            renderTimes[frame] = frameEnd - renderStart;
+            allocations[frame] = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            visibleModels[frame] = queue.visibleModels.size();
+
+            if (device == null) continue;
+
+            drawCalls[frame] = device.getLastFrameDrawCalls();
+            uniformUploads[frame] = device.getLastFrameUniformUploads();
+
+            //Every sub model of a visible model is drawn once per view it is visible in
+            long meshDraws = device.getLastFrameCount(RecordingGraphicsDevice.Command.DRAW_ELEMENTS) +
+              device.getLastFrameCount(RecordingGraphicsDevice.Command.CALL_DISPLAY_LIST);
+            if (meshDraws != getSubModelCount(queue)) wrongDrawCounts++;
+
+        }
+
+        String output = options.get("output");
+        if (output.isEmpty()) output = "benchmarks/" + new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss").format(new Date());
+
+        File csvFile = new File(output + ".csv"), jsonFile = new File(output + ".json");
+        if (csvFile.getAbsoluteFile().getParentFile().mkdirs()) System.out.println("Created " + csvFile.getAbsoluteFile().getParent());
+
+        try (PrintWriter csv = new PrintWriter(new FileWriter(csvFile)); PrintWriter json = new PrintWriter(new FileWriter(jsonFile))) {
+
+            csv.println("frame,frameMs,tickMs,renderMs,allocatedBytes,visibleModels,drawCalls,uniformUploads");
+
+            for (int frame = 0; frame < frames; frame++)
+                csv.println(String.format(Locale.ROOT, "%d,%.4f,%.4f,%.4f,%d,%d,%d,%d",
+                  frame, frameTimes[frame] / 1e6, tickTimes[frame] / 1e6, renderTimes[frame] / 1e6, allocations[frame], visibleModels[frame],
+                  drawCalls[frame], uniformUploads[frame]));
+
+            long totalTime = Arrays.stream(frameTimes).sum(), totalAllocated = Arrays.stream(allocations).sum();
+            List<GameObject> gameObjects = ObjectController.gameObjects;
+
+            json.println("{");
+            json.println("  \"options\": {");
+
+            int index = 0;
+            for (Map.Entry<String, String> option : options.entrySet())
+                json.println(String.format("    \"%s\": \"%s\"%s", option.getKey(), option.getValue().replace("\\", "\\\\").replace("\"", "\\\""), ++index < options.size() ? "," : ""));
+
+            json.println("  },");
+            json.println("  \"tickLengthMs\": " + tickLength / 1e6 + ",");
+            json.println("  \"frame\": " + getStatistics(frameTimes) + ",");
+            json.println("  \"tick\": " + getStatistics(tickTimes) + ",");
+            json.println("  \"render\": " + getStatistics(renderTimes) + ",");
+            json.println(String.format(Locale.ROOT, "  \"allocatedBytesPerFrame\": %.1f,", (double) totalAllocated / frames));
+            json.println(String.format(Locale.ROOT, "  \"allocationRateMBPerSecond\": %.2f,", totalAllocated / 1048576.0 / (totalTime / 1e9)));
+            json.println("  \"gameObjects\": " + gameObjects.size() + ",");
+            json.println("  \"renderModels\": " + Renderer.currentRenderQueue.modelQueue.size() + ",");
+            json.println("  \"lightSources\": " + Renderer.currentRenderQueue.lightSources.size() + ",");
+            json.println(String.format(Locale.ROOT, "  \"visibleModelsPerFrame\": %.2f,", Arrays.stream(visibleModels).average().orElse(0)));
+            json.println(String.format(Locale.ROOT, "  \"drawCallsPerFrame\": %.2f,", Arrays.stream(drawCalls).average().orElse(0)));
+            json.println(String.format(Locale.ROOT, "  \"uniformUploadsPerFrame\": %.2f,", Arrays.stream(uniformUploads).average().orElse(0)));
+            json.println("  \"framesWithWrongDrawCount\": " + wrongDrawCounts);
+            json.println("}");
+
+        } catch (IOException e) {
+
+            e.printStackTrace();
+            System.exit(1);
+
+        }
+
+        System.out.printf(Locale.ROOT, "%d frames (%s): frame %s | tick %s | %.1f bytes allocated per frame%n",
+          frames, headless ? "headless" : "windowed", getStatistics(frameTimes), getStatistics(tickTimes),
+          (double) Arrays.stream(allocations).sum() / frames);
+
+        if (device != null)
+            System.out.printf(Locale.ROOT, "%.1f draw calls and %.1f uniform uploads per frame, draw count %s | last frame: %s%n",
+              Arrays.stream(drawCalls).average().orElse(0), Arrays.stream(uniformUploads).average().orElse(0),
+              wrongDrawCounts == 0 ? "ok" : "WRONG in " + wrongDrawCounts + " frames", device.getLastFrameSummary());
+
+        System.out.println("Written to " + csvFile + " and " + jsonFile);
+
+        System.exit(0);
+
+    }
+
+    /**
+     * Counts the sub models the renderer has to draw for a render queue, in the shadow maps and on the screen.
+     *
+     * @param queue The culled render queue.
+     * @return The number of sub models.
+     */
+    private static long getSubModelCount(RenderQueue queue) {
+
+        long count = 0;
+
+        for (ModuleRenderable3D module : queue.visibleModels)
+            if (module instanceof RenderModule) count += ((RenderModule) module).model.subModels.size();
+
+        for (List<ModuleRenderable3D> shadowCasters : queue.visibleShadowCasters)
+            for (ModuleRenderable3D module : shadowCasters)
+                if (module instanceof RenderModule) count += ((RenderModule) module).model.subModels.size();
+
+        return count;
+
+    }
+
+    private static int getInteger(String key) {
+        return Integer.valueOf(options.get(key));
+    }
+
+    /**
+     * Formats the exact percentiles of the measured durations as a JSON object.
+     *
+     * @param nanos The durations in nanoseconds.
+     * @return The JSON object with the values in milliseconds.
+     */
+    private static String getStatistics(long[] nanos) {
+
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+
+        return String.format(Locale.ROOT, "{\"meanMs\": %.4f, \"p50Ms\": %.4f, \"p95Ms\": %.4f, \"p99Ms\": %.4f, \"maxMs\": %.4f}",
+          Arrays.stream(sorted).average().orElse(0) / 1e6, getPercentile(sorted, 50) / 1e6, getPercentile(sorted, 95) / 1e6,
+          getPercentile(sorted, 99) / 1e6, (sorted.length > 0 ? sorted[sorted.length - 1] : 0) / 1e6);
+
+    }
+
+    private static long getPercentile(long[] sorted, double percentile) {
+        return sorted.length == 0 ? 0 : sorted[Math.max(0, (int) Math.ceil(sorted.length * percentile / 100) - 1)];
+    }
+
+    /**
+     * Flies its game object in a circle around the scene with a slowly changing height, always looking at the center.
+     * The position only depends on the number of ticks, so every run sees the same frames.
+     */
+    private static class CameraPath extends Controller {
+
+        private static final long serialVersionUID = 1L;
+
+        private int tick;
+
+        CameraPath() {
+            super(new float[7], true);
+        }
+
+        @Override
+        protected void updateObject() {
+
+            double angle = 2 * Math.PI * tick / PATH_TICKS;
+            tick++;
+
+            float x = (float) Math.sin(angle) * PATH_RADIUS;
+            float y = 15 + (float) Math.sin(angle * 3) * 10;
+            float z = 10 + (float) Math.cos(angle) * PATH_RADIUS;
+
+            //Looking at (0, 5, 10), the camera's forward direction is (cos(pitch) sin(yaw), -sin(pitch), -cos(pitch) cos(yaw))
+            float dx = -x, dy = 5 - y, dz = 10 - z;
+            float length = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+            parent.position.set(x, y, z);
+            parent.rotation.set((float) Math.toDegrees(Math.asin(-dy / length)), (float) Math.toDegrees(Math.atan2(dx, -dz)), 0);
+
+            ObjectController.updateGameObject(parent);
+
+        }
+
+    }
+
+}
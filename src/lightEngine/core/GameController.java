@@ -7,10 +7,12 @@
 package lightEngine.core;
 
 import lightEngine.core.events.EventController;
+import lightEngine.gameObjects.modules.interaction.AsyncInteractionExecutor;
 import lightEngine.util.input.Input;
 import lightEngine.util.resources.PreferenceHelper;
 import lightEngine.util.resources.ResourceHelper;
 import lightEngine.util.threading.ThreadHelper;
+import lightEngine.util.time.Profiler;
 import lightEngine.util.time.TimeHelper;
 import org.lwjgl.input.Mouse;
 
@@ -32,6 +34,7 @@ public class GameController {
         PreferenceHelper.loadPreferences("lightEngine");
         Input.initialize();
         TimeHelper.initialize();
+        Profiler.enabled = PreferenceHelper.getBoolean("profilerEnabled");
 
         triggerEvent("initialized");
 
@@ -92,6 +95,7 @@ public class GameController {
      */
     public static void stopGame() {
         triggerEvent("gameStopped");
+        AsyncInteractionExecutor.shutdown();
         ThreadHelper.stopAllThreads();
         System.exit(0);
 
@@ -6,43 +6,131 @@
 
 package lightEngine.core;
 
+import lightEngine.core.events.EventController;
+import lightEngine.core.scripts.ScriptScheduler;
 import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.modules.physics.MovementSystem;
+import lightEngine.graphics.GraphicsController;
+import lightEngine.util.resources.PreferenceHelper;
+import lightEngine.util.time.Profiler;
 import lightEngine.util.time.TimeHelper;
-import org.lwjgl.opengl.Display;
+
+import java.util.concurrent.locks.LockSupport;
 
 public class GameLoop {
 
+    public static ScriptScheduler scripts = new ScriptScheduler(); //Resumed once per tick, on the game thread
+
+    private static final Profiler.Marker TICK = Profiler.addMarker("Tick");
+    private static final Profiler.Marker STRUCTURAL_CHANGES = Profiler.addMarker("Structural changes");
+    private static final Profiler.Marker EVENTS_AND_SCRIPTS = Profiler.addMarker("Events and scripts");
+    private static final Profiler.Marker MODULE_UPDATES = Profiler.addMarker("Module updates");
+    private static final Profiler.Marker MOVEMENT_SYSTEM = Profiler.addMarker("Movement system");
+    private static final Profiler.Marker RENDER_STATE = Profiler.addMarker("Render state");
+
     /**
-     * Runs the update loop
+     * Runs the update loop with a fixed timestep.
+     * Ticks are scheduled ticksPerSecond times per second, the thread is parked in between.
+     * If the loop falls behind, it runs up to maxTicksPerFrame ticks in a row to catch up (0 means no limit) and skips the rest.
      */
     public static void startLoop() {
 
         //Waiting for Display creation
-        while (!Display.isCreated()) {
+        while (!GraphicsController.device.isDisplayCreated()) {
             TimeHelper.sleep(10);
         }
 
-        while (!Display.isCloseRequested() && !Thread.interrupted()) {
+        TimeHelper.setTickRate(PreferenceHelper.getInteger("ticksPerSecond"));
+        int maxTicksPerFrame = PreferenceHelper.getInteger("maxTicksPerFrame");
+
+        if (PreferenceHelper.getBoolean("parallelUpdate")) ParallelUpdater.initialize(PreferenceHelper.getInteger("updateThreads"));
+
+        long tickLength = TimeHelper.getTickLength();
+        long nextTick = System.nanoTime();
+
+        while (!GraphicsController.device.isCloseRequested() && !Thread.interrupted()) {
+
+            long now = System.nanoTime();
+
+            if (now < nextTick) {
 
-            TimeHelper.updateDeltaTime();
+                LockSupport.parkNanos(nextTick - now);
+                continue;
 
-            if (!GameController.isLoading()) {
+            }
+
+            int ticks = 0;
+
+            while (now >= nextTick && (maxTicksPerFrame <= 0 || ticks < maxTicksPerFrame)) {
+
+                TimeHelper.startTick(nextTick, now);
+                tick();
+                TimeHelper.endTick(nextTick);
+                Profiler.endFrame();
 
-                //Adds all new game objects that were added via ObjectController.addGameObject() to the game object list
-                ObjectController.addNewGameObjects();
-                //Removes all game objects that should be removed
-                ObjectController.removeGameObjects();
+                nextTick += tickLength;
+                ticks++;
 
-                ObjectController.gameObjects.forEach(GameObject::update);
+                now = System.nanoTime();
 
             }
 
-            TimeHelper.updateTPS();
+            //Catch-up cap reached, the ticks that are still due get skipped
+            if (now >= nextTick) {
+
+                int skippedTicks = (int) ((now - nextTick) / tickLength) + 1;
+
+                TimeHelper.dropTicks(skippedTicks);
+                nextTick += skippedTicks * tickLength;
+
+            }
 
         }
 
+        ParallelUpdater.shutdown();
         GameController.stopGame();
 
     }
 
+    static void tick() {
+
+        Profiler.begin(TICK);
+
+        TimeHelper.updateTimers();
+
+        if (!GameController.isLoading()) {
+
+            //Adds and removes all game objects that were queued via ObjectController.addGameObject() and removeGameObject()
+            Profiler.begin(STRUCTURAL_CHANGES);
+            ObjectController.applyStructuralChanges();
+            Profiler.end(STRUCTURAL_CHANGES);
+
+            Profiler.begin(EVENTS_AND_SCRIPTS);
+            EventController.triggerQueuedEvents();
+            scripts.update(TimeHelper.deltaTime);
+            Profiler.end(EVENTS_AND_SCRIPTS);
+
+            Profiler.begin(MODULE_UPDATES);
+            if (ParallelUpdater.isEnabled()) ParallelUpdater.update(ObjectController.gameObjects);
+            else ObjectController.gameObjects.forEach(GameObject::update);
+            Profiler.end(MODULE_UPDATES);
+
+            //Moves the game objects whose transforms are stored in the movement system's arrays
+            Profiler.begin(MOVEMENT_SYSTEM);
+            MovementSystem.update();
+            Profiler.end(MOVEMENT_SYSTEM);
+
+            //The render thread only reads this snapshot, never the game objects themselves
+            Profiler.begin(RENDER_STATE);
+            ObjectController.publishRenderState();
+            Profiler.end(RENDER_STATE);
+
+        }
+
+        TimeHelper.updateTPS();
+
+        Profiler.end(TICK);
+
+    }
+
 }
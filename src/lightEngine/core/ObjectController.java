@@ -7,40 +7,91 @@
 package lightEngine.core;
 
 import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.ModuleRegistry;
+import lightEngine.graphics.RenderQueue;
+import lightEngine.graphics.Renderer;
 import lightEngine.graphics.gui.GUIScreen;
 import lightEngine.graphics.gui.GUIScreenController;
 import lightEngine.graphics.renderable.LoadingScreen;
+import lightEngine.util.math.AABBTree;
+import lightEngine.util.math.Frustum;
+import org.lwjgl.util.vector.Vector3f;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class ObjectController {
 
-    public static List<GameObject> gameObjects = new ArrayList<>();
+    public static List<GameObject> gameObjects = new ArrayList<>(); //Unordered, removing swaps the last object into the gap
     public static List<GUIScreen> guiScreens = new ArrayList<>();
 
-    private static List<GameObject> gameObjectsToAdd = new ArrayList<>();
-    private static List<GameObject> gameObjectsToRemove = new ArrayList<>();
+    //Additions and removals from any thread, applied in order by the game loop once per tick
+    private static Queue<StructuralChange> structuralChanges = new ConcurrentLinkedQueue<>();
+    private static Map<GameObject, Integer> gameObjectIndices = new IdentityHashMap<>();
 
     private static LoadingScreen loadingScreen;
 
+    //Spatial index over the world bounds of all game objects, the margin lets objects move a bit before the tree has to change
+    private static final AABBTree<GameObject> spatialIndex = new AABBTree<>(1);
+    private static final Map<GameObject, Integer> spatialIndexLeaves = new IdentityHashMap<>();
+    private static final float[] worldBounds = new float[6];
+
     /**
-     * Adds object to the list of game objects to update and render
+     * Adds object to the list of game objects to update and render.
+     * This can be called from any thread, the object gets added at the start of the next tick
      *
      * @param object The game object to add to the list
      */
     public static void addGameObject(GameObject object) {
-        gameObjectsToAdd.add(object);
+        structuralChanges.add(new StructuralChange(object, false));
     }
 
+    /**
+     * Destroys a game object at the start of the next tick.
+     * This can be called from any thread
+     *
+     * @param object The game object to remove
+     */
     public static void removeGameObject(GameObject object) {
-        gameObjectsToRemove.add(object);
+        structuralChanges.add(new StructuralChange(object, true));
     }
 
     /**
-     * Returns the game object in the list that corresponds to the index
+     * Removes a game object from the game object list and the spatial index right away.
+     * This is called by GameObject.destroy() and has to be called on the game thread, use removeGameObject() everywhere else
      *
-     * @param index The index of the game object in the list, in order of registration
+     * @param object The game object to remove
+     */
+    public static void unregisterGameObject(GameObject object) {
+
+        Integer index = gameObjectIndices.remove(object);
+
+        if (index != null) {
+
+            //Moving the last object into the gap, so removing doesn't shift the list
+            GameObject last = gameObjects.remove(gameObjects.size() - 1);
+
+            if (last != object) {
+                gameObjects.set(index, last);
+                gameObjectIndices.put(last, index);
+            }
+
+        }
+
+        removeGameObjectFromIndex(object);
+        ModuleRegistry.removeGameObject(object);
+
+    }
+
+    /**
+     * Returns the game object in the list that corresponds to the index.
+     * Removing a game object moves the last one into its place, so an index only stays valid until the next structural change
+     *
+     * @param index The index of the game object in the list
      * @return The requested game object
      */
     public static GameObject getGameObject(int index) {
@@ -80,22 +131,157 @@ public class ObjectController {
         GUIScreenController.addGUIScreen(loadingScreen);
     }
 
-    static void removeGameObjects() {
-        if (gameObjectsToRemove.size() > 0) {
-            gameObjectsToRemove
-              .forEach(GameObject::destroy);
+    /**
+     * Updates the position of a game object in the spatial index, objects that aren't indexed yet get added.
+     * This has to be called whenever the position, rotation or bounding box of an object changed.
+     * Calls from the parallel update phase are ignored, the ParallelUpdater updates those objects afterwards.
+     *
+     * @param object The game object that was moved
+     */
+    public static void updateGameObject(GameObject object) {
+
+        if (ParallelUpdater.isUpdateThread()) return;
+
+        synchronized (spatialIndex) {
+
+            object.getWorldBounds(worldBounds, 0);
+
+            Integer leaf = spatialIndexLeaves.get(object);
+
+            if (leaf == null) spatialIndexLeaves.put(object, spatialIndex.insert(object, worldBounds, 0));
+            else spatialIndex.move(leaf, worldBounds, 0);
+
+        }
+
+    }
+
+    /**
+     * Removes a game object from the spatial index, it won't be returned by any query afterwards
+     *
+     * @param object The game object to remove
+     */
+    public static void removeGameObjectFromIndex(GameObject object) {
+
+        synchronized (spatialIndex) {
+
+            Integer leaf = spatialIndexLeaves.remove(object);
+            if (leaf != null) spatialIndex.remove(leaf);
+
+        }
+
+    }
+
+    /**
+     * Returns all game objects whose bounds intersect a sphere
+     *
+     * @param center The center of the sphere
+     * @param radius The radius of the sphere
+     * @return The game objects in range
+     */
+    public static List<GameObject> getGameObjectsInRange(Vector3f center, float radius) {
+
+        List<GameObject> result = new ArrayList<>();
+
+        synchronized (spatialIndex) {
+            spatialIndex.querySphere(center.x, center.y, center.z, radius, result);
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns all game objects whose bounds are hit by a ray, in no particular order
+     *
+     * @param origin      The start of the ray
+     * @param direction   The direction of the ray
+     * @param maxDistance The length of the ray, in multiples of the direction vector
+     * @return The game objects on the ray
+     */
+    public static List<GameObject> getGameObjectsOnRay(Vector3f origin, Vector3f direction, float maxDistance) {
+
+        List<GameObject> result = new ArrayList<>();
+
+        synchronized (spatialIndex) {
+            spatialIndex.queryRay(origin.x, origin.y, origin.z, direction.x, direction.y, direction.z, maxDistance, result);
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns all game objects whose bounds are (at least partially) inside a frustum
+     *
+     * @param frustum The frustum, e.g. of the camera
+     * @return The visible game objects
+     */
+    public static List<GameObject> getGameObjectsInFrustum(Frustum frustum) {
+
+        List<GameObject> result = new ArrayList<>();
+
+        synchronized (spatialIndex) {
+            spatialIndex.queryFrustum(frustum, result);
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Fills a render queue with the current state of all game objects and GUI screens and hands it to the render thread.
+     * This is called by the game loop at the end of every tick.
+     */
+    static void publishRenderState() {
+
+        RenderQueue queue = Renderer.renderQueues.getBack();
+        queue.fill(gameObjects, guiScreens);
+
+        Renderer.renderQueues.publish();
+
+    }
+
+    /**
+     * Applies all additions and removals that were queued since the last call, in the order they were queued.
+     * This is called by the game loop at the start of every tick and must only be called on the game thread.
+     */
+    public static void applyStructuralChanges() {
+
+        StructuralChange change;
+
+        while ((change = structuralChanges.poll()) != null) {
+
+            GameObject object = change.gameObject;
+
+            if (change.removal) {
+
+                if (gameObjectIndices.containsKey(object)) object.destroy();
+
+            } else if (!gameObjectIndices.containsKey(object)) {
+
+                updateGameObject(object);
+
+                gameObjectIndices.put(object, gameObjects.size());
+                gameObjects.add(object);
+
+                ModuleRegistry.addGameObject(object);
+
+            }
 
-            gameObjectsToRemove.clear();
         }
+
     }
 
-    static void addNewGameObjects() {
-        if (gameObjectsToAdd.size() > 0) {
-            gameObjectsToAdd.stream()
-              .forEach(gameObjects::add);
+    private static class StructuralChange {
 
-            gameObjectsToAdd.clear();
+        final GameObject gameObject;
+        final boolean removal;
+
+        StructuralChange(GameObject gameObject, boolean removal) {
+            this.gameObject = gameObject;
+            this.removal = removal;
         }
+
     }
 
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.core;
+
+import lightEngine.gameObjects.GameObject;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Updates game objects whose modules are all thread safe on a fork-join pool.
+ * The list is split into runs of thread safe game objects at every game object that isn't, those are updated on the game thread between the runs.
+ * Thread safe objects only change themselves and every serial one sees the changes of all game objects before it in the list,
+ * so the result is the same as updating everything on one thread.
+ */
+public class ParallelUpdater {
+
+    private static final int MIN_OBJECTS_PER_TASK = 256;
+
+    private static ForkJoinPool pool;
+    private static GameObject[] parallelObjects = new GameObject[0];
+
+    /**
+     * Creates the worker threads, until then update() isn't available.
+     *
+     * @param threads The number of worker threads, 0 or less for one per available processor.
+     */
+    public static void initialize(int threads) {
+
+        if (threads <= 0) threads = Runtime.getRuntime().availableProcessors();
+
+        shutdown();
+
+        pool = new ForkJoinPool(threads, forkJoinPool -> {
+
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("mengine-Update-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+
+            return thread;
+
+        }, null, false);
+
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public static void shutdown() {
+
+        if (pool != null) pool.shutdown();
+        pool = null;
+
+    }
+
+    /**
+     * Returns if the parallel update phase is available.
+     *
+     * @return True if initialize() was called, false if not.
+     */
+    public static boolean isEnabled() {
+        return pool != null;
+    }
+
+    /**
+     * Determines if the current thread is a worker of the parallel update phase.
+     *
+     * @return True if called from a module that is updated in parallel, false if not.
+     */
+    public static boolean isUpdateThread() {
+
+        Thread thread = Thread.currentThread();
+
+        return pool != null && thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == pool;
+
+    }
+
+    /**
+     * Updates a list of game objects, has to be called on the game thread.
+     *
+     * @param gameObjects The game objects to update.
+     */
+    public static void update(List<GameObject> gameObjects) {
+
+        if (parallelObjects.length < gameObjects.size()) parallelObjects = new GameObject[gameObjects.size()];
+
+        int runLength = 0;
+
+        for (GameObject object : gameObjects) {
+
+            if (object.isThreadSafe()) {
+
+                parallelObjects[runLength++] = object;
+                continue;
+
+            }
+
+            updateRun(runLength);
+            runLength = 0;
+
+            object.update();
+
+        }
+
+        updateRun(runLength);
+
+    }
+
+    /**
+     * Updates the first game objects of parallelObjects and clears them afterwards.
+     *
+     * @param length The number of game objects in the run.
+     */
+    private static void updateRun(int length) {
+
+        if (length == 0) return;
+
+        if (length <= MIN_OBJECTS_PER_TASK) {
+
+            //Not worth waking the workers, the game objects update the spatial index themselves on this thread
+            for (int i = 0; i < length; i++) parallelObjects[i].update();
+
+        } else {
+
+            pool.invoke(new UpdateTask(parallelObjects, 0, length));
+
+            //The spatial index isn't updated from the worker threads, this is done here in list order to keep the tree deterministic
+            for (int i = 0; i < length; i++) ObjectController.updateGameObject(parallelObjects[i]);
+
+        }
+
+        Arrays.fill(parallelObjects, 0, length, null);
+
+    }
+
+    private static class UpdateTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final GameObject[] objects;
+        private final int start, end;
+
+        UpdateTask(GameObject[] objects, int start, int end) {
+            this.objects = objects;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (end - start <= MIN_OBJECTS_PER_TASK) {
+
+                for (int i = start; i < end; i++) objects[i].update();
+                return;
+
+            }
+
+            int middle = (start + end) >>> 1;
+            invokeAll(new UpdateTask(objects, start, middle), new UpdateTask(objects, middle, end));
+
+        }
+
+    }
+
+}
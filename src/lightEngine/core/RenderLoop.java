@@ -6,16 +6,17 @@
 
 package lightEngine.core;
 
-import lightEngine.gameObjects.modules.gui.GUIElement;
 import lightEngine.graphics.GraphicsController;
-import lightEngine.graphics.RenderQueue;
 import lightEngine.graphics.Renderer;
 import lightEngine.util.rendering.ShaderHelper;
+import lightEngine.util.time.Profiler;
 import lightEngine.util.time.TimeHelper;
-import org.lwjgl.opengl.Display;
 
 public class RenderLoop {
 
+    private static final Profiler.Marker FRAME = Profiler.addMarker("Frame");
+    private static final Profiler.Marker DISPLAY_UPDATE = Profiler.addMarker("Display update");
+
     /**
      * Creates a new OpenGL window, sets the standard shader and runs the render loop
      */
@@ -25,23 +26,34 @@ public class RenderLoop {
         ShaderHelper.addShader("lighting");
         ShaderHelper.addShader("shadowMap");
 
-        while (!Display.isCloseRequested() && !Thread.interrupted()) {
+        while (!GraphicsController.device.isCloseRequested() && !Thread.interrupted()) {
+
+            Profiler.begin(FRAME);
 
             GraphicsController.clearScreen();
-            Renderer.currentRenderQueue = new RenderQueue();
 
-            if (!GameController.isLoading()) {
-                    //Renders all the gameObjects
-                    ObjectController.gameObjects.forEach(lightEngine.gameObjects.GameObject::addToRenderQueue);
-                    ObjectController.guiScreens.forEach(screen ->
-                            screen.getElements().forEach(GUIElement::addToRenderQueue));
+            //Animated textures switch key frames when their timers expire
+            TimeHelper.updateTimers();
+
+            //The latest state published by the game loop, the game objects themselves are never read here
+            Renderer.currentRenderQueue = Renderer.renderQueues.getLatest();
+
+            if (!GameController.isLoading() && Renderer.currentRenderQueue != null) {
+                //Renders all the gameObjects
                 Renderer.currentRenderQueue.render();
             }
 
             ObjectController.getLoadingScreen().render();
 
             TimeHelper.updateFPS();
+
+            //Buffer swap and frame rate cap
+            Profiler.begin(DISPLAY_UPDATE);
             GraphicsController.update();
+            Profiler.end(DISPLAY_UPDATE);
+
+            Profiler.end(FRAME);
+            Profiler.endFrame();
 
         }
 
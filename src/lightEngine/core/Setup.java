@@ -3,9 +3,12 @@ package lightEngine.core;
 import lightEngine.Main;
 import lightEngine.core.events.EventController;
 import lightEngine.core.events.EventHandler;
+import lightEngine.core.scripts.Script;
+import lightEngine.core.scripts.ScriptSequence;
 import lightEngine.gameObjects.GameObject;
 import lightEngine.gameObjects.modules.controls.ControllerManual;
 import lightEngine.gameObjects.modules.gui.GUIElement;
+import lightEngine.gameObjects.modules.gui.modules.ProfilerOverlay;
 import lightEngine.gameObjects.modules.gui.modules.buttons.GUIButton;
 import lightEngine.gameObjects.modules.interaction.AsyncInteraction;
 import lightEngine.gameObjects.modules.interaction.InteractionModule;
@@ -27,6 +30,9 @@ import lightEngine.util.math.MathHelper;
 import lightEngine.util.math.Randomizer;
 import lightEngine.util.math.vectors.Matrix3f;
 import lightEngine.util.math.vectors.VectorHelper;
+import lightEngine.util.resources.AssetHelper;
+import lightEngine.util.resources.AssetManifest;
+import lightEngine.util.time.Profiler;
 import org.lwjgl.input.Keyboard;
 import org.lwjgl.input.Mouse;
 import org.lwjgl.util.vector.Vector2f;
@@ -68,6 +74,8 @@ public class Setup {
 
         Input.assignInputEvent("pauseGame", true, InputEventType.ACTIVATED, Keyboard.KEY_ESCAPE);
         Input.assignInputEvent("screenshot", true, InputEventType.ACTIVATED, Keyboard.KEY_F2);
+        Input.assignInputEvent("profiler", true, InputEventType.ACTIVATED, Keyboard.KEY_F3);
+        Input.assignInputEvent("exportTrace", true, InputEventType.ACTIVATED, Keyboard.KEY_F4);
 
         alwaysActive.addElement(new GUIElement(new Vector2f()) {
             @Override
@@ -89,19 +97,25 @@ public class Setup {
                     }
                 }
                 if (Input.inputEventTriggered("screenshot")) GraphicsController.takeScreenshot();
+                if (Input.inputEventTriggered("profiler")) Profiler.enabled = !Profiler.enabled;
+                if (Input.inputEventTriggered("exportTrace")) Profiler.exportTrace();
             }
         });
 
+        alwaysActive.addElement(new GUIElement(new Vector2f(10, 10)).addModule(new ProfilerOverlay(14)));
+
     }
 
     public static void loadScene(int[] normalLight, int directionalLight, int[] turnableColorLights, int[] colorLights, int[] moveableLights,
                                  int spheres1, int spheres2, int monkeys1, int monkeys2, int objects3) {
 
-        new GameObject(new Vector3f(), new Vector3f())
-                .addModule(new RenderModule("skybox").setColor(new Vector4f(0.392f, 0.584f, 0.929f, 1)))
-                .createModules();
+        //The modules are created after all models of the scene have been loaded in parallel
+        List<GameObject> scene = new ArrayList<>();
+
+        scene.add(new GameObject(new Vector3f(), new Vector3f())
+                .addModule(new RenderModule("skybox").setColor(new Vector4f(0.392f, 0.584f, 0.929f, 1))));
 
-        new GameObject(new Vector3f(0, 5, 0), new Vector3f(0, 0, 0))
+        scene.add(new GameObject(new Vector3f(0, 5, 0), new Vector3f(0, 0, 0))
                 .addModule(new MovementModule())
                 .addModule(new RenderModule("sphere"))
                 .addModule(
@@ -110,27 +124,23 @@ public class Setup {
                                 true //Can fly
                         )
                 )
-                .addModule(new Camera())
-                .createModules();
+                .addModule(new Camera()));
 
-        new GameObject(new Vector3f(0, 0, 0), new Vector3f())
-                .addModule(new RenderModule("bigPlane", true))
-                .createModules();
+        scene.add(new GameObject(new Vector3f(0, 0, 0), new Vector3f())
+                .addModule(new RenderModule("bigPlane", true)));
 
-        new GameObject(new Vector3f(0, 10, 60), new Vector3f())
-                .addModule(new RenderModule("rotatedPlane"))
-                .createModules();
+        scene.add(new GameObject(new Vector3f(0, 10, 60), new Vector3f())
+                .addModule(new RenderModule("rotatedPlane")));
 
         normalLight[0] = (int) MathHelper.clamp(normalLight[0], 0, 8);
 
         for (int i = 0; i < normalLight[0]; i++) {
 
-            new GameObject(new Vector3f(15 + ((i % 2 == 0) ? 2.5f * i : -2.5f * i), 30, 10), new Vector3f(45, 180, 0))
+            scene.add(new GameObject(new Vector3f(15 + ((i % 2 == 0) ? 2.5f * i : -2.5f * i), 30, 10), new Vector3f(45, 180, 0))
                     .addModule(new RenderModule("sphere2"))
                     .addModule(new SpotLightSource(
                             new Vector4f(255, 255, 255, 500 / normalLight[0]), normalLight[1])
-                            .setSpecularLighting(false))
-                    .createModules();
+                            .setSpecularLighting(false)));
 
         }
 
@@ -138,10 +148,9 @@ public class Setup {
 
         for (int i = 0; i < directionalLight; i++) {
 
-            new GameObject(new Vector3f(35 - 35 * i, 30, 20 * i), new Vector3f(45, 180 + i * 90, 0))
+            scene.add(new GameObject(new Vector3f(35 - 35 * i, 30, 20 * i), new Vector3f(45, 180 + i * 90, 0))
                     .addModule(new RenderModule("sphere2"))
-                    .addModule(new DirectionalLightSource(300 / directionalLight))
-                    .createModules();
+                    .addModule(new DirectionalLightSource(300 / directionalLight)));
 
         }
 
@@ -162,53 +171,37 @@ public class Setup {
 
                 case 0:
 
-                    new GameObject(positions[i], new Vector3f(0, 180, 0))
+                    scene.add(new GameObject(positions[i], new Vector3f(0, 180, 0))
                             .addModule(new RenderModule("sphere2"))
                             .addModule(new SpotLightSource(new Vector4f(255, 0, 0, 400), turnableColorLights[1])
                                     .setSpecularLighting(false))
-                            .addModule(new InteractionModule(true, 20, Keyboard.KEY_Z, "zoom", 10, new AsyncInteraction() {
-
-                                public void interact() {
-
-                                    try {
-
-                                        SpotLightSource spotLightSource = (SpotLightSource) parent.getModule(SpotLightSource.class);
-                                        float modifier = (float) Math.toRadians(0.083);
-
-                                        for (int i = 0; i < 250; i++) {
-                                            spotLightSource.angle += modifier;
-                                            Thread.sleep(10);
-                                        }
+                            .addModule(new InteractionModule(true, 20, Keyboard.KEY_Z, "zoom", 10, new StandardInteraction() {
 
-                                        Thread.sleep(200);
+                                private Script zoom;
 
-                                        for (int i = 0; i < 500; i++) {
-                                            spotLightSource.angle -= modifier;
-                                            Thread.sleep(10);
-                                        }
+                                public void interact() {
 
-                                        Thread.sleep(200);
+                                    if (zoom != null && !zoom.isFinished()) return;
 
-                                        for (int i = 0; i < 250; i++) {
-                                            spotLightSource.angle += modifier;
-                                            Thread.sleep(10);
-                                        }
+                                    SpotLightSource spotLightSource = parent.getModule(SpotLightSource.class);
+                                    float modifier = (float) Math.toRadians(0.083) * 100; //Per second
 
-                                    } catch (InterruptedException e) {
-                                        e.printStackTrace();
-                                        System.exit(1);
-                                    }
+                                    zoom = GameLoop.scripts.start(new ScriptSequence()
+                                            .during(2.5f, seconds -> spotLightSource.angle += modifier * seconds)
+                                            .waitSeconds(0.2f)
+                                            .during(5, seconds -> spotLightSource.angle -= modifier * seconds)
+                                            .waitSeconds(0.2f)
+                                            .during(2.5f, seconds -> spotLightSource.angle += modifier * seconds));
 
                                 }
 
-                            }))
-                            .createModules();
+                            })));
 
                     break;
 
                 case 1:
 
-                    new GameObject(positions[i], new Vector3f(0, 180, 0))
+                    scene.add(new GameObject(positions[i], new Vector3f(0, 180, 0))
                             .addModule(new RenderModule("sphere2"))
                             .addModule(new SpotLightSource(new Vector4f(0, 255, 0, 400), turnableColorLights[1])
                                     .setSpecularLighting(false))
@@ -265,20 +258,18 @@ public class Setup {
                                         }
 
                                     } catch (InterruptedException e) {
-                                        e.printStackTrace();
-                                        System.exit(1);
+                                        //Cancelled because the game stops
                                     }
 
                                 }
 
-                            }))
-                            .createModules();
+                            })));
 
                     break;
 
                 case 2:
 
-                    new GameObject(positions[i], new Vector3f(0, 180, 0))
+                    scene.add(new GameObject(positions[i], new Vector3f(0, 180, 0))
                             .addModule(new RenderModule("sphere2"))
                             .addModule(new SpotLightSource(new Vector4f(0, 0, 255, 400), turnableColorLights[1])
                                     .setSpecularLighting(false))
@@ -290,6 +281,7 @@ public class Setup {
 
                                         for (int i = 0; i < 200; i++) {
                                             parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(0.05f, 0, 0)});
+                                            ObjectController.updateGameObject(parent);
                                             Thread.sleep(10);
                                         }
 
@@ -297,6 +289,7 @@ public class Setup {
 
                                         for (int i = 0; i < 200; i++) {
                                             parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(0, -0.05f, 0)});
+                                            ObjectController.updateGameObject(parent);
                                             Thread.sleep(10);
                                         }
 
@@ -304,6 +297,7 @@ public class Setup {
 
                                         for (int i = 0; i < 200; i++) {
                                             parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(-0.05f, 0, 0)});
+                                            ObjectController.updateGameObject(parent);
                                             Thread.sleep(10);
                                         }
 
@@ -311,6 +305,7 @@ public class Setup {
 
                                         for (int i = 0; i < 200; i++) {
                                             parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(0, 0.05f, 0)});
+                                            ObjectController.updateGameObject(parent);
                                             Thread.sleep(10);
                                         }
 
@@ -318,6 +313,7 @@ public class Setup {
 
                                         for (int i = 0; i < 200; i++) {
                                             parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(0, 0, 0.05f)});
+                                            ObjectController.updateGameObject(parent);
                                             Thread.sleep(10);
                                         }
 
@@ -325,6 +321,7 @@ public class Setup {
 
                                         for (int i = 0; i < 400; i++) {
                                             parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(0, 0, -0.05f)});
+                                            ObjectController.updateGameObject(parent);
                                             Thread.sleep(10);
                                         }
 
@@ -332,18 +329,17 @@ public class Setup {
 
                                         for (int i = 0; i < 200; i++) {
                                             parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(0, 0, 0.05f)});
+                                            ObjectController.updateGameObject(parent);
                                             Thread.sleep(10);
                                         }
 
                                     } catch (InterruptedException e) {
-                                        e.printStackTrace();
-                                        System.exit(1);
+                                        //Cancelled because the game stops
                                     }
 
                                 }
 
-                            }))
-                            .createModules();
+                            })));
 
                     break;
 
@@ -370,10 +366,9 @@ public class Setup {
                     800 / colorLights[0]
             );
 
-            new GameObject(position, new Vector3f(90, 0, 0))
+            scene.add(new GameObject(position, new Vector3f(90, 0, 0))
                     .addModule(new RenderModule("sphere2"))
-                    .addModule(new SpotLightSource(color, colorLights[1]))
-                    .createModules();
+                    .addModule(new SpotLightSource(color, colorLights[1])));
 
         }
 
@@ -387,7 +382,7 @@ public class Setup {
                     -45 + ((float) Randomizer.getRandomInt(0, 100) / 100f) * 35
             );
 
-            new GameObject(position, new Vector3f(90, 0, 0))
+            scene.add(new GameObject(position, new Vector3f(90, 0, 0))
                     .addModule(new RenderModule("sphere2"))
                     .addModule(new SpotLightSource(new Vector4f(255, 255, 255, 600 / moveableLights[0]), moveableLights[1]))
                     .addModule(new InteractionModule(true, 10, Keyboard.KEY_M, "move", new AsyncInteraction() {
@@ -398,6 +393,7 @@ public class Setup {
 
                                 for (int i = 0; i < 400; i++) {
                                     parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(0.05f, 0, 0)});
+                                    ObjectController.updateGameObject(parent);
                                     Thread.sleep(10);
                                 }
 
@@ -405,6 +401,7 @@ public class Setup {
 
                                 for (int i = 0; i < 400; i++) {
                                     parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(0, -0.05f, 0)});
+                                    ObjectController.updateGameObject(parent);
                                     Thread.sleep(10);
                                 }
 
@@ -412,6 +409,7 @@ public class Setup {
 
                                 for (int i = 0; i < 400; i++) {
                                     parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(-0.05f, 0, 0)});
+                                    ObjectController.updateGameObject(parent);
                                     Thread.sleep(10);
                                 }
 
@@ -419,6 +417,7 @@ public class Setup {
 
                                 for (int i = 0; i < 400; i++) {
                                     parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(0, 0.05f, 0)});
+                                    ObjectController.updateGameObject(parent);
                                     Thread.sleep(10);
                                 }
 
@@ -426,6 +425,7 @@ public class Setup {
 
                                 for (int i = 0; i < 400; i++) {
                                     parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(0, 0, 0.05f)});
+                                    ObjectController.updateGameObject(parent);
                                     Thread.sleep(10);
                                 }
 
@@ -433,6 +433,7 @@ public class Setup {
 
                                 for (int i = 0; i < 800; i++) {
                                     parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(0, 0, -0.05f)});
+                                    ObjectController.updateGameObject(parent);
                                     Thread.sleep(10);
                                 }
 
@@ -440,33 +441,30 @@ public class Setup {
 
                                 for (int i = 0; i < 400; i++) {
                                     parent.position = VectorHelper.sumVectors(new Vector3f[]{parent.position, new Vector3f(0, 0, 0.05f)});
+                                    ObjectController.updateGameObject(parent);
                                     Thread.sleep(10);
                                 }
 
                             } catch (InterruptedException e) {
-                                e.printStackTrace();
-                                System.exit(1);
+                                //Cancelled because the game stops
                             }
 
                         }
-                    }))
-                    .createModules();
+                    })));
 
         }
 
         for (int i = 0; i < spheres1; i++) {
 
-            new GameObject(new Vector3f(20 + ((i % 2 == 0) ? 2.5f * i : -2.5f * i), 10 + Randomizer.getRandomInt(-1, 1) * 5, 30), new Vector3f())
-                    .addModule(new RenderModule("sphere"))
-                    .createModules();
+            scene.add(new GameObject(new Vector3f(20 + ((i % 2 == 0) ? 2.5f * i : -2.5f * i), 10 + Randomizer.getRandomInt(-1, 1) * 5, 30), new Vector3f())
+                    .addModule(new RenderModule("sphere")));
 
         }
 
         for (int i = 0; i < monkeys1; i++) {
 
-            new GameObject(new Vector3f(20 + ((i % 2 == 0) ? 5f * i : -5f * i), 2.5f, 30 + Randomizer.getRandomInt(-2, 5) * 5), new Vector3f())
-                    .addModule(new RenderModule("rotatedMonkey"))
-                    .createModules();
+            scene.add(new GameObject(new Vector3f(20 + ((i % 2 == 0) ? 5f * i : -5f * i), 2.5f, 30 + Randomizer.getRandomInt(-2, 5) * 5), new Vector3f())
+                    .addModule(new RenderModule("rotatedMonkey")));
 
         }
 
@@ -478,9 +476,8 @@ public class Setup {
                     -45 + ((float) Randomizer.getRandomInt(0, 100) / 100f) * 40
             );
 
-            new GameObject(position, new Vector3f())
-                    .addModule(new RenderModule("sphere"))
-                    .createModules();
+            scene.add(new GameObject(position, new Vector3f())
+                    .addModule(new RenderModule("sphere")));
 
         }
 
@@ -494,9 +491,8 @@ public class Setup {
                     -45 + ((float) Randomizer.getRandomInt(0, 100) / 100f) * 40
             );
 
-            new GameObject(position, new Vector3f())
-                    .addModule(new RenderModule(renderName))
-                    .createModules();
+            scene.add(new GameObject(position, new Vector3f())
+                    .addModule(new RenderModule(renderName)));
 
         }
 
@@ -510,12 +506,14 @@ public class Setup {
                     50 + ((float) Randomizer.getRandomInt(0, 100) / 100f) * 10
             );
 
-            new GameObject(position, new Vector3f())
-                    .addModule(new RenderModule(renderName))
-                    .createModules();
+            scene.add(new GameObject(position, new Vector3f())
+                    .addModule(new RenderModule(renderName)));
 
         }
 
+        AssetHelper.preloadAssets(new AssetManifest().addGameObjects(scene));
+        scene.forEach(GameObject::createModules);
+
     }
 
 }
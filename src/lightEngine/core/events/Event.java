@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.core.events;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An interned event key, there is exactly one instance per event name.
+ * Hot code should look the event up once and keep it, triggering it then doesn't need any string handling.
+ *
+ * @param <T> The type of the payload the event is triggered with, Void for events without payload
+ */
+public class Event<T> {
+
+    private static final Map<String, Event<?>> events = new ConcurrentHashMap<>();
+
+    private static final EventListener<?>[] NO_LISTENERS = new EventListener<?>[0];
+
+    private final String name;
+
+    //Copy on write, so triggering never has to lock
+    private volatile EventListener<?>[] listeners = NO_LISTENERS;
+
+    private Event(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the event with the given name, it is created on the first call.
+     *
+     * @param name The name of the event
+     * @param <T>  The type of the payload, has to be the same wherever the event is used
+     * @return The event
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Event<T> get(String name) {
+        return (Event<T>) events.computeIfAbsent(name, Event::new);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @SuppressWarnings("unchecked")
+    EventListener<? super T>[] getListeners() {
+        return (EventListener<? super T>[]) listeners;
+    }
+
+    synchronized void addListener(EventListener<? super T> listener) {
+
+        EventListener<?>[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = listener;
+
+        listeners = newListeners;
+
+    }
+
+    synchronized void removeListener(EventListener<? super T> listener) {
+
+        for (int i = 0; i < listeners.length; i++) {
+
+            if (listeners[i] != listener) continue;
+
+            EventListener<?>[] newListeners = new EventListener<?>[listeners.length - 1];
+            System.arraycopy(listeners, 0, newListeners, 0, i);
+            System.arraycopy(listeners, i + 1, newListeners, i, newListeners.length - i);
+
+            listeners = newListeners;
+            return;
+
+        }
+
+    }
+
+    synchronized void removeAllListeners() {
+        listeners = NO_LISTENERS;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -6,10 +6,8 @@
 
 package lightEngine.core.events;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * @author mtronics_dev (Maxi Schmeller)
@@ -17,9 +15,7 @@ import java.util.Map;
  */
 public class EventController {
 
-    private static List<EventHandler> eventHandlers = new ArrayList<>();
-    private static List<String> events = new ArrayList<>();
-    private static Map<EventHandler, String> eventMap = new HashMap<>();
+    private static Queue<QueuedEvent<?>> queuedEvents = new ConcurrentLinkedQueue<>();
 
     /**
      * Used to trigger an event.
@@ -28,10 +24,50 @@ public class EventController {
      * @param event The event to trigger
      */
     public static void triggerEvent(String event) {
-        if (!events.contains(event)) events.add("event");
-        eventHandlers.stream()
-          .filter(handler -> eventMap.get(handler).equals(event))
-          .forEach(EventHandler::handle);
+        triggerEvent(Event.get(event), null);
+    }
+
+    /**
+     * Triggers an event right away, on the calling thread.
+     * Only the listeners of this event are visited.
+     *
+     * @param event   The event to trigger
+     * @param payload The payload passed to the listeners, can be null
+     * @param <T>     The payload type of the event
+     */
+    public static <T> void triggerEvent(Event<T> event, T payload) {
+        for (EventListener<? super T> listener : event.getListeners()) listener.handle(payload);
+    }
+
+    /**
+     * Queues an event, it gets triggered on the game thread during the next tick.
+     * This can be called from any thread.
+     *
+     * @param event   The event to trigger
+     * @param payload The payload passed to the listeners, can be null
+     * @param <T>     The payload type of the event
+     */
+    public static <T> void queueEvent(Event<T> event, T payload) {
+        queuedEvents.add(new QueuedEvent<>(event, payload));
+    }
+
+    /**
+     * Triggers all queued events in the order they were queued.
+     * This is called by the game loop once per tick, events queued by listeners are triggered during the next tick.
+     */
+    public static void triggerQueuedEvents() {
+
+        int count = queuedEvents.size();
+
+        for (int i = 0; i < count; i++) {
+
+            QueuedEvent<?> queuedEvent = queuedEvents.poll();
+            if (queuedEvent == null) break;
+
+            queuedEvent.trigger();
+
+        }
+
     }
 
     /**
@@ -40,10 +76,7 @@ public class EventController {
      * @param event The event to remove
      */
     public static void removeEvent(String event) {
-        events.remove(event);
-        eventHandlers.stream()
-          .filter(handler -> eventMap.get(handler).equals(event))
-          .forEach(eventMap::remove);
+        Event.get(event).removeAllListeners();
     }
 
     /**
@@ -54,10 +87,46 @@ public class EventController {
      * @param handler The handler to link to the event
      */
     public static void addEventHandler(String event, EventHandler handler) {
-        if (!events.contains(event)) events.add(event);
+        addEventListener(Event.get(event), handler);
+    }
+
+    /**
+     * Adds a listener to an event, a listener can be added to any number of events.
+     * This can be called from any thread.
+     *
+     * @param event    The event to link the listener to
+     * @param listener The listener to link to the event
+     * @param <T>      The payload type of the event
+     */
+    public static <T> void addEventListener(Event<T> event, EventListener<? super T> listener) {
+        event.addListener(listener);
+    }
+
+    /**
+     * Un-links a listener from an event.
+     *
+     * @param event    The event the listener was linked to
+     * @param listener The listener to remove
+     * @param <T>      The payload type of the event
+     */
+    public static <T> void removeEventListener(Event<T> event, EventListener<? super T> listener) {
+        event.removeListener(listener);
+    }
+
+    private static class QueuedEvent<T> {
+
+        private final Event<T> event;
+        private final T payload;
+
+        QueuedEvent(Event<T> event, T payload) {
+            this.event = event;
+            this.payload = payload;
+        }
+
+        void trigger() {
+            triggerEvent(event, payload);
+        }
 
-        eventMap.put(handler, event);
-        eventHandlers.add(handler);
     }
 
 }
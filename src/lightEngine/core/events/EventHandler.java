@@ -10,11 +10,21 @@ package lightEngine.core.events;
  * @author mtronics_dev (Maxi Schmeller)
  * @version 04.10.2014 00:06
  */
-public interface EventHandler {
+public interface EventHandler extends EventListener<Object> {
 
     /**
      * The action that should be performed once the bound event is triggered.
      */
     void handle();
 
+    /**
+     * Ignores the payload, event handlers can be added to events of any payload type.
+     *
+     * @param payload The payload the event was triggered with
+     */
+    @Override
+    default void handle(Object payload) {
+        handle();
+    }
+
 }
@@ -0,0 +1,23 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.core.events;
+
+/**
+ * Receives the payload of the events it is added to.
+ *
+ * @param <T> The type of the payload
+ */
+public interface EventListener<T> {
+
+    /**
+     * The action that should be performed once the bound event is triggered.
+     *
+     * @param payload The payload the event was triggered with, null for events without payload
+     */
+    void handle(T payload);
+
+}
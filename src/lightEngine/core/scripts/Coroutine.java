@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.core.scripts;
+
+/**
+ * A script that runs in small steps on the game thread.
+ * Every call of resume() continues where the last one stopped and has to return quickly, waiting is done by telling the script what to wait for.
+ */
+public interface Coroutine {
+
+    /**
+     * Continues the script until it has to wait.
+     * Call one of the script's wait methods before returning true, otherwise it is resumed again during the next tick.
+     *
+     * @param script The handle of the running script, it holds the wait state.
+     * @return True if the script has to be resumed later, false if it is finished.
+     */
+    boolean resume(Script script);
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.core.scripts;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * A coroutine that was started on a ScriptScheduler.
+ * The wait methods are used by the coroutine itself, at most one wait is active at a time.
+ */
+public class Script {
+
+    final Coroutine coroutine;
+
+    int waitTicks;
+    float waitSeconds;
+    BooleanSupplier waitCondition;
+
+    float secondsSinceResume;
+    float deltaSeconds;
+
+    volatile boolean cancelled;
+    volatile boolean finished;
+
+    Script(Coroutine coroutine) {
+        this.coroutine = coroutine;
+    }
+
+    /**
+     * Pauses the script for a number of ticks.
+     *
+     * @param ticks The number of ticks to wait, 1 resumes it during the next tick.
+     */
+    public void waitTicks(int ticks) {
+
+        clearWait();
+        waitTicks = ticks;
+
+    }
+
+    /**
+     * Pauses the script until at least the given game time has passed.
+     *
+     * @param seconds The time to wait in seconds of game time.
+     */
+    public void waitSeconds(float seconds) {
+
+        clearWait();
+        waitSeconds = seconds;
+
+    }
+
+    /**
+     * Pauses the script until a condition holds, it is checked once per tick on the game thread.
+     *
+     * @param condition The condition to wait for.
+     */
+    public void waitUntil(BooleanSupplier condition) {
+
+        clearWait();
+        waitCondition = condition;
+
+    }
+
+    void clearWait() {
+
+        waitTicks = 0;
+        waitSeconds = 0;
+        waitCondition = null;
+
+    }
+
+    /**
+     * Returns the game time that passed since the script was resumed the last time.
+     *
+     * @return The time in seconds, 0 during the first resume.
+     */
+    public float getDeltaSeconds() {
+        return deltaSeconds;
+    }
+
+    /**
+     * Stops the script, it isn't resumed anymore.
+     * This can be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Determines if the script ended, either because it finished or because it was cancelled.
+     *
+     * @return True if the script won't be resumed anymore, false if not.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.core.scripts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Resumes scripts once per tick, all on the thread that calls update().
+ * Waiting scripts only cost a few checks per tick, so thousands of them can run at once without any threads.
+ * The game loop owns one scheduler (GameLoop.scripts), tests can create their own and drive it with any time steps.
+ */
+public class ScriptScheduler {
+
+    //Game time is summed up in floats, this keeps e.g. 12 ticks of 1/60 s from ending up just below 0.2 s
+    static final float TIME_TOLERANCE = 1e-5f;
+
+    private final Queue<Script> startedScripts = new ConcurrentLinkedQueue<>();
+    private final List<Script> scripts = new ArrayList<>();
+
+    /**
+     * Starts a script, it is resumed the first time during the next update().
+     * This can be called from any thread.
+     *
+     * @param coroutine The script's code.
+     * @return The handle of the script, e.g. for cancelling it.
+     */
+    public Script start(Coroutine coroutine) {
+
+        Script script = new Script(coroutine);
+        startedScripts.add(script);
+
+        return script;
+
+    }
+
+    /**
+     * Resumes all scripts whose wait is over, in the order they were started.
+     *
+     * @param deltaTime The game time since the last update in milliseconds, like TimeHelper.deltaTime.
+     */
+    public void update(float deltaTime) {
+
+        float deltaSeconds = deltaTime / 1000;
+        int scriptCount = scripts.size();
+
+        Script script;
+        while ((script = startedScripts.poll()) != null) scripts.add(script);
+
+        int kept = 0;
+
+        for (int i = 0; i < scripts.size(); i++) {
+
+            script = scripts.get(i);
+
+            //Scripts that were started since the last update haven't waited for anything yet
+            if (i < scriptCount) script.secondsSinceResume += deltaSeconds;
+
+            if (!script.cancelled && (!isDue(script) || script.coroutine.resume(prepareResume(script)))) {
+
+                scripts.set(kept++, script);
+                continue;
+
+            }
+
+            script.finished = true;
+
+        }
+
+        scripts.subList(kept, scripts.size()).clear();
+
+    }
+
+    private boolean isDue(Script script) {
+
+        if (script.waitCondition != null) return script.waitCondition.getAsBoolean();
+        if (script.waitTicks > 0) return --script.waitTicks == 0;
+        if (script.waitSeconds > 0) return script.secondsSinceResume + TIME_TOLERANCE >= script.waitSeconds;
+
+        return true;
+
+    }
+
+    private Script prepareResume(Script script) {
+
+        script.deltaSeconds = script.secondsSinceResume;
+        script.secondsSinceResume = 0;
+        script.clearWait();
+
+        return script;
+
+    }
+
+    /**
+     * Returns the number of scripts that are running or waiting.
+     *
+     * @return The script count, scripts started since the last update aren't included.
+     */
+    public int getScriptCount() {
+        return scripts.size();
+    }
+
+}
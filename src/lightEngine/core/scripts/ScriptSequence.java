@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.core.scripts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A coroutine made of steps that run one after another, for scripts that would otherwise be a loop with Thread.sleep().
+ * A sequence keeps its progress, so every start of a script needs a new one.
+ */
+public class ScriptSequence implements Coroutine {
+
+    private final List<Step> steps = new ArrayList<>();
+    private int currentStep;
+    private float stepTime; //Time spent in the current during() step
+    private boolean stepStarted;
+
+    /**
+     * Adds an action that runs right after the previous step.
+     *
+     * @param action The action.
+     * @return The sequence, allows for chaining.
+     */
+    public ScriptSequence run(Runnable action) {
+
+        steps.add(script -> {
+            action.run();
+            return true;
+        });
+
+        return this;
+
+    }
+
+    /**
+     * Adds a pause of a number of ticks.
+     *
+     * @param ticks The ticks to wait.
+     * @return The sequence, allows for chaining.
+     */
+    public ScriptSequence waitTicks(int ticks) {
+        return addWait(script -> script.waitTicks(ticks));
+    }
+
+    /**
+     * Adds a pause of some game time.
+     *
+     * @param seconds The time to wait in seconds.
+     * @return The sequence, allows for chaining.
+     */
+    public ScriptSequence waitSeconds(float seconds) {
+        return addWait(script -> script.waitSeconds(seconds));
+    }
+
+    /**
+     * Adds a pause until a condition holds.
+     *
+     * @param condition The condition, checked once per tick.
+     * @return The sequence, allows for chaining.
+     */
+    public ScriptSequence waitUntil(BooleanSupplier condition) {
+        return addWait(script -> script.waitUntil(condition));
+    }
+
+    /**
+     * Adds an animation that gets called once per tick for the given game time.
+     * The time steps passed to it add up to exactly the duration.
+     *
+     * @param seconds   The duration in seconds.
+     * @param animation Gets the game time of each tick in seconds.
+     * @return The sequence, allows for chaining.
+     */
+    public ScriptSequence during(float seconds, Animation animation) {
+
+        steps.add(script -> {
+
+            if (!stepStarted) {
+
+                //The first tick of the animation is the next one, no time passed yet
+                stepStarted = true;
+                stepTime = 0;
+                script.waitTicks(1);
+
+                return false;
+
+            }
+
+            float remainingTime = seconds - stepTime;
+            boolean lastStep = script.getDeltaSeconds() + ScriptScheduler.TIME_TOLERANCE >= remainingTime;
+
+            animation.update(lastStep ? remainingTime : script.getDeltaSeconds());
+            stepTime += script.getDeltaSeconds();
+
+            if (!lastStep) {
+
+                script.waitTicks(1);
+                return false;
+
+            }
+
+            stepStarted = false;
+            return true;
+
+        });
+
+        return this;
+
+    }
+
+    private ScriptSequence addWait(Wait wait) {
+
+        steps.add(script -> {
+
+            if (stepStarted) {
+                stepStarted = false;
+                return true;
+            }
+
+            stepStarted = true;
+            wait.start(script);
+
+            return false;
+
+        });
+
+        return this;
+
+    }
+
+    @Override
+    public boolean resume(Script script) {
+
+        while (currentStep < steps.size()) {
+
+            if (!steps.get(currentStep).execute(script)) return true;
+
+            currentStep++;
+
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Gets called once per tick while a during() step runs.
+     */
+    public interface Animation {
+
+        /**
+         * Advances the animation.
+         *
+         * @param seconds The game time of this tick in seconds.
+         */
+        void update(float seconds);
+
+    }
+
+    private interface Step {
+
+        /**
+         * Runs the step, or continues it.
+         *
+         * @param script The running script.
+         * @return True if the step is done and the next one can run, false if the script has to wait first.
+         */
+        boolean execute(Script script);
+
+    }
+
+    private interface Wait {
+
+        void start(Script script);
+
+    }
+
+}
@@ -73,12 +73,12 @@ public class BoundingBox {
         }
 
         //Sorting z coords, so point a is the smaller one
-        if (a.y < b.y) {
-            this.a.y = a.y;
-            this.b.y = b.y;
+        if (a.z < b.z) {
+            this.a.z = a.z;
+            this.b.z = b.z;
         } else {
-            this.a.y = b.y;
-            this.b.y = a.y;
+            this.a.z = b.z;
+            this.b.z = a.z;
         }
 
     }
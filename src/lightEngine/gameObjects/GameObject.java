@@ -11,14 +11,14 @@ import lightEngine.gameObjects.modules.Module;
 import lightEngine.gameObjects.modules.physics.MovementModule;
 import lightEngine.gameObjects.modules.renderable.ModuleRenderable;
 import lightEngine.gameObjects.modules.renderable.RenderModule;
-import lightEngine.util.math.vectors.Matrix3f;
-import lightEngine.util.math.vectors.VectorHelper;
+import lightEngine.graphics.RenderQueue;
 import org.lwjgl.util.vector.Vector3f;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.NoSuchElementException;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -27,8 +27,13 @@ public class GameObject implements Serializable {
     public Vector3f position;
     public Vector3f rotation;
     public Vector3f percentRotation;
+    public Transform transform = new Transform(this);
     public List<Module> modules = new ArrayList<Module>();
 
+    //The first module of every type in the module list, see ModuleRegistry.getModuleTypes()
+    private Map<Class<?>, Module> moduleIndex = new HashMap<>();
+    transient boolean registered;
+
     private long uuid = UUID.randomUUID().getMostSignificantBits();
     private BoundingBox boundingBox;
 
@@ -43,23 +48,7 @@ public class GameObject implements Serializable {
         position = pos;
         rotation = rot;
 
-        percentRotation = new Vector3f(0, 0, -1);
-
-        if (!VectorHelper.areEqual(rotation, new Vector3f())) {
-
-            Matrix3f xAxisRotationMatrix = new Matrix3f(
-              new Vector3f(1, 0, 0),
-              new Vector3f(0, (float) Math.cos(Math.toRadians(-rotation.x)), (float) -Math.sin(Math.toRadians(-rotation.x))),
-              new Vector3f(0, (float) Math.sin(Math.toRadians(-rotation.x)), (float) Math.cos(Math.toRadians(-rotation.x))));
-            percentRotation = xAxisRotationMatrix.multiplyByVector(percentRotation);
-
-            Matrix3f yAxisRotationMatrix = new Matrix3f(
-              new Vector3f((float) Math.cos(Math.toRadians(rotation.y)), 0, (float) Math.sin(Math.toRadians(rotation.y))),
-              new Vector3f(0, 1, 0),
-              new Vector3f((float) -Math.sin(Math.toRadians(rotation.y)), 0, (float) Math.cos(Math.toRadians(rotation.y))));
-            percentRotation = yAxisRotationMatrix.multiplyByVector(percentRotation);
-
-        }
+        percentRotation = new Vector3f(transform.getDirection());
 
         boundingBox = new BoundingBox(new Vector3f(), new Vector3f()); //Empty bounding box to prevent null references
 
@@ -78,6 +67,8 @@ public class GameObject implements Serializable {
         rotation = src.rotation;
         percentRotation = src.percentRotation;
 
+        boundingBox = new BoundingBox(src.boundingBox.a, src.boundingBox.b);
+
         src.modules.forEach(this::addModule);
 
         ObjectController.addGameObject(this);
@@ -88,6 +79,19 @@ public class GameObject implements Serializable {
      */
     public void update() { modules.forEach(Module::onUpdate); }
 
+    /**
+     * Determines if the game object can be updated in the parallel update phase
+     *
+     * @return True if all modules are thread safe, false if not
+     */
+    public boolean isThreadSafe() {
+
+        for (Module module : modules) if (!module.isThreadSafe()) return false;
+
+        return true;
+
+    }
+
     /**
      * This is used for preparing the game object for serialization (saving it in its current state)
      * It also takes care of all of the game objects modules
@@ -113,51 +117,76 @@ public class GameObject implements Serializable {
     }
 
     /**
-     * Adds the game object and its modules to the current render queue.
-     * This method is called by the render loop
+     * Adds the game object's modules to a render queue.
+     * This method is called by the game loop at the end of every tick
+     *
+     * @param queue The render queue that is being filled
      */
-    public void addToRenderQueue() {
+    public void addToRenderQueue(RenderQueue queue) {
         //Adds this gameObject's models, particles and guiElements to the renderQueue
         modules.stream()
           .filter(module -> module instanceof ModuleRenderable)
-          .forEach(module -> ((ModuleRenderable) module).addToRenderQueue());
+          .forEach(module -> ((ModuleRenderable) module).addToRenderQueue(queue));
     }
 
     /**
-     * Adds the desired module to the game object's module list
+     * Adds the desired module to the game object's module list.
+     * Once the game object is in the game, this has to be called on the game thread
      *
      * @param module The desired module
      * @return The game object, allows for chaining module additions
      */
     public GameObject addModule(Module module) {
         modules.add(module);
+
+        for (Class<?> type : ModuleRegistry.getModuleTypes(module.getClass())) moduleIndex.putIfAbsent(type, module);
+
+        if (registered) ModuleRegistry.addModule(module);
+
         return this;
     }
 
     /**
-     * Removes the first module of the given class from the game object
+     * Removes the first module of the given class from the game object.
+     * Once the game object is in the game, this has to be called on the game thread
      *
      * @param moduleClass The module's class
      */
-    public void removeModule(Class moduleClass) {
+    public void removeModule(Class<? extends Module> moduleClass) {
         Module module = getModule(moduleClass);
 
         module.onDestroy();
         modules.remove(module);
+
+        if (registered) ModuleRegistry.removeModule(module);
+
+        //Types the module was the first of now belong to the next module of that type, if there is one
+        for (Class<?> type : ModuleRegistry.getModuleTypes(module.getClass())) {
+
+            if (moduleIndex.get(type) != module) continue;
+
+            moduleIndex.remove(type);
+
+            for (Module other : modules) {
+                if (type.isInstance(other)) {
+                    moduleIndex.put(type, other);
+                    break;
+                }
+            }
+
+        }
     }
 
     /**
      * Returns the first module of the given class in the game object's module list
      *
-     * @param moduleClass The class of the desired module
+     * @param moduleClass The class of the desired module, can be a superclass like Controller
+     * @param <T>         The class of the desired module
      * @return The first module with the desired class or null if no instance of this class is available
      */
-    public Module getModule(Class moduleClass) {
-        try {
-            return modules.stream().filter(moduleClass::isInstance).findAny().get();
-        } catch (NoSuchElementException e) {
-            return null;
-        }
+    @SuppressWarnings("unchecked")
+    public <T extends Module> T getModule(Class<T> moduleClass) {
+        return (T) moduleIndex.get(moduleClass);
     }
 
     /**
@@ -165,7 +194,7 @@ public class GameObject implements Serializable {
      */
     public void destroy() {
         modules.forEach(Module::onDestroy);
-        ObjectController.gameObjects.remove(this);
+        ObjectController.unregisterGameObject(this);
     }
 
     /**
@@ -221,4 +250,42 @@ public class GameObject implements Serializable {
 
     }
 
-}
\ No newline at end of file
+    /**
+     * Calculates the world space AABB of the game object.
+     * Rotated objects get a box around the sphere that contains their bounding box, so the result is valid for any rotation.
+     *
+     * @param bounds The array the box gets written to (minX, minY, minZ, maxX, maxY, maxZ)
+     * @param offset The index of minX in the array
+     */
+    public void getWorldBounds(float[] bounds, int offset) {
+
+        Vector3f a = boundingBox.a, b = boundingBox.b;
+
+        if (rotation.x == 0 && rotation.y == 0 && rotation.z == 0) {
+
+            bounds[offset] = position.x + a.x;
+            bounds[offset + 1] = position.y + a.y;
+            bounds[offset + 2] = position.z + a.z;
+            bounds[offset + 3] = position.x + b.x;
+            bounds[offset + 4] = position.y + b.y;
+            bounds[offset + 5] = position.z + b.z;
+
+        } else {
+
+            float x = Math.max(Math.abs(a.x), Math.abs(b.x));
+            float y = Math.max(Math.abs(a.y), Math.abs(b.y));
+            float z = Math.max(Math.abs(a.z), Math.abs(b.z));
+            float radius = (float) Math.sqrt(x * x + y * y + z * z);
+
+            bounds[offset] = position.x - radius;
+            bounds[offset + 1] = position.y - radius;
+            bounds[offset + 2] = position.z - radius;
+            bounds[offset + 3] = position.x + radius;
+            bounds[offset + 4] = position.y + radius;
+            bounds[offset + 5] = position.z + radius;
+
+        }
+
+    }
+
+}
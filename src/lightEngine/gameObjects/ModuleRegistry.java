@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.gameObjects;
+
+import lightEngine.gameObjects.modules.Module;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a list of all modules of each type whose game objects are currently in the game, so systems can iterate them without visiting every game object.
+ * A module is listed under its own class and every superclass up to Module, e.g. a SpotLightSource is also a LightSource and a ModuleRenderable.
+ * The lists are unordered and changed on the game thread only, when game objects are added or destroyed and when modules are added to or removed from them.
+ */
+public class ModuleRegistry {
+
+    private static final Map<Class<?>, Class<?>[]> moduleTypes = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, TypeList> typeLists = new HashMap<>();
+
+    /**
+     * Returns the classes a module can be looked up with: its own class and all superclasses up to Module.
+     *
+     * @param moduleClass The class of the module.
+     * @return The module types, most specific first. The array is shared and must not be changed.
+     */
+    static Class<?>[] getModuleTypes(Class<?> moduleClass) {
+
+        Class<?>[] types = moduleTypes.get(moduleClass);
+
+        if (types == null) {
+
+            List<Class<?>> typeList = new ArrayList<>();
+            for (Class<?> type = moduleClass; type != null && Module.class.isAssignableFrom(type); type = type.getSuperclass()) typeList.add(type);
+
+            types = typeList.toArray(new Class<?>[typeList.size()]);
+            moduleTypes.put(moduleClass, types);
+
+        }
+
+        return types;
+
+    }
+
+    /**
+     * Returns all registered modules of a type.
+     *
+     * @param moduleType The type of the modules, can be a superclass like Controller.
+     * @param <T>        The module type.
+     * @return A read only view of the modules, it changes when modules are registered or unregistered.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Module> List<T> getModules(Class<T> moduleType) {
+
+        TypeList typeList = typeLists.get(moduleType);
+
+        return typeList == null ? Collections.emptyList() : (List<T>) typeList.view;
+
+    }
+
+    /**
+     * Registers the modules of a game object that was added to the game.
+     * This is called by the object controller.
+     *
+     * @param gameObject The game object.
+     */
+    public static void addGameObject(GameObject gameObject) {
+
+        gameObject.registered = true;
+        gameObject.modules.forEach(ModuleRegistry::addModule);
+
+    }
+
+    /**
+     * Unregisters the modules of a game object that was removed from the game.
+     * This is called by the object controller.
+     *
+     * @param gameObject The game object.
+     */
+    public static void removeGameObject(GameObject gameObject) {
+
+        if (!gameObject.registered) return;
+
+        gameObject.registered = false;
+        gameObject.modules.forEach(ModuleRegistry::removeModule);
+
+    }
+
+    static void addModule(Module module) {
+
+        for (Class<?> type : getModuleTypes(module.getClass())) {
+
+            TypeList typeList = typeLists.get(type);
+
+            if (typeList == null) {
+                typeList = new TypeList();
+                typeLists.put(type, typeList);
+            }
+
+            typeList.add(module);
+
+        }
+
+    }
+
+    static void removeModule(Module module) {
+
+        for (Class<?> type : getModuleTypes(module.getClass())) {
+
+            TypeList typeList = typeLists.get(type);
+            if (typeList != null) typeList.remove(module);
+
+        }
+
+    }
+
+    private static class TypeList {
+
+        private final List<Module> modules = new ArrayList<>();
+        private final List<Module> view = Collections.unmodifiableList(modules);
+        private final Map<Module, Integer> indices = new IdentityHashMap<>();
+
+        void add(Module module) {
+
+            //Cloned game objects share their modules, those are listed only once
+            if (indices.containsKey(module)) return;
+
+            indices.put(module, modules.size());
+            modules.add(module);
+
+        }
+
+        void remove(Module module) {
+
+            Integer index = indices.remove(module);
+            if (index == null) return;
+
+            Module last = modules.remove(modules.size() - 1);
+
+            if (last != module) {
+                modules.set(index, last);
+                indices.put(last, index);
+            }
+
+        }
+
+    }
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.gameObjects;
+
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Quaternion;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.io.Serializable;
+
+/**
+ * The orientation of a game object as a quaternion, with the direction it faces and its model matrix cached.
+ * The position and the rotation (Euler angles in degrees) stay in the game object's fields, which are changed directly in many places,
+ * so the transform compares them with the values it last used and only recalculates what depends on a changed value.
+ * Like the game object itself, it may only be used by the thread that updates the game object, the render thread gets copies through the RenderQueue.
+ */
+public class Transform implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final GameObject gameObject;
+
+    private final Quaternion orientation = new Quaternion();
+    private final Vector3f direction = new Vector3f();
+    private final float[] directionComponents = new float[3]; //Written by computeDirection()
+    private final Matrix4f modelMatrix = new Matrix4f();
+
+    //The values the cache was calculated from, NaN is never equal to anything, so the first access calculates everything
+    private final Vector3f orientationRotation = new Vector3f(Float.NaN, Float.NaN, Float.NaN);
+    private final Vector3f matrixPosition = new Vector3f(Float.NaN, Float.NaN, Float.NaN);
+
+    private boolean directionDirty = true;
+    private boolean matrixDirty = true;
+
+    /**
+     * Creates the transform of a game object.
+     *
+     * @param gameObject The game object, its position and rotation are read on every access.
+     */
+    public Transform(GameObject gameObject) {
+        this.gameObject = gameObject;
+    }
+
+    /**
+     * Returns the orientation, yaw (rotation.y) applied after pitch (rotation.x) after roll (rotation.z).
+     *
+     * @return The cached quaternion, must not be changed.
+     */
+    public Quaternion getOrientation() {
+
+        updateOrientation();
+
+        return orientation;
+
+    }
+
+    /**
+     * Returns the direction the game object faces, the negative z axis of a view matrix rotated by pitch, yaw and roll.
+     * This is the direction Camera and the shadow maps look in, the constructor of GameObject, MovementModule and MovementSystem keep it in percentRotation.
+     * <p>
+     * A view matrix turns the world instead of the object, so this is not the forward axis of the model matrix (0, 0, -1 turned by the orientation).
+     * The direction is that axis turned by 180 - roll degrees around the world's z axis, without roll its x and y are simply negated.
+     * E.g. with a yaw of 90 degrees a model's forward axis points to (-1, 0, 0), but the direction is (1, 0, 0).
+     *
+     * @return The cached direction, must not be changed.
+     */
+    public Vector3f getDirection() {
+
+        updateOrientation();
+
+        if (directionDirty) {
+
+            computeDirection(orientationRotation.x, orientationRotation.y, orientationRotation.z, directionComponents, 0);
+
+            direction.set(directionComponents[0], directionComponents[1], directionComponents[2]);
+            directionDirty = false;
+
+        }
+
+        return direction;
+
+    }
+
+    /**
+     * Calculates the direction getDirection() returns for a rotation, for code that keeps rotations outside of game objects like MovementSystem.
+     *
+     * @param pitch  The rotation around the x axis in degrees.
+     * @param yaw    The rotation around the y axis in degrees.
+     * @param roll   The rotation around the z axis in degrees.
+     * @param out    The array the x, y and z of the direction are written to.
+     * @param offset The index of x in the array.
+     */
+    public static void computeDirection(float pitch, float yaw, float roll, float[] out, int offset) {
+
+        double pitchRadians = Math.toRadians(pitch);
+        double yawRadians = Math.toRadians(yaw);
+        double rollRadians = Math.toRadians(roll);
+
+        float x = (float) (Math.cos(pitchRadians) * Math.sin(yawRadians)), y = (float) -Math.sin(pitchRadians);
+        float sinRoll = (float) Math.sin(rollRadians), cosRoll = (float) Math.cos(rollRadians);
+
+        out[offset] = cosRoll * x + sinRoll * y;
+        out[offset + 1] = cosRoll * y - sinRoll * x;
+        out[offset + 2] = (float) (-Math.cos(pitchRadians) * Math.cos(yawRadians));
+
+    }
+
+    /**
+     * Returns the matrix that moves the vertices of the game object's models into the world, the rotation followed by the translation.
+     * The rotation is the cached orientation, see getDirection() for how the direction relates to it.
+     *
+     * @return The cached matrix, must not be changed.
+     */
+    public Matrix4f getModelMatrix() {
+
+        updateOrientation();
+
+        Vector3f position = gameObject.position;
+
+        if (!equals(position, matrixPosition)) {
+
+            matrixPosition.set(position);
+            matrixDirty = true;
+
+        }
+
+        if (matrixDirty) {
+
+            float x = orientation.x, y = orientation.y, z = orientation.z, w = orientation.w;
+
+            //The fields are named m<column><row>
+            modelMatrix.m00 = 1 - 2 * (y * y + z * z);
+            modelMatrix.m01 = 2 * (x * y + z * w);
+            modelMatrix.m02 = 2 * (x * z - y * w);
+            modelMatrix.m03 = 0;
+
+            modelMatrix.m10 = 2 * (x * y - z * w);
+            modelMatrix.m11 = 1 - 2 * (x * x + z * z);
+            modelMatrix.m12 = 2 * (y * z + x * w);
+            modelMatrix.m13 = 0;
+
+            modelMatrix.m20 = 2 * (x * z + y * w);
+            modelMatrix.m21 = 2 * (y * z - x * w);
+            modelMatrix.m22 = 1 - 2 * (x * x + y * y);
+            modelMatrix.m23 = 0;
+
+            modelMatrix.m30 = position.x;
+            modelMatrix.m31 = position.y;
+            modelMatrix.m32 = position.z;
+            modelMatrix.m33 = 1;
+
+            matrixDirty = false;
+
+        }
+
+        return modelMatrix;
+
+    }
+
+    private void updateOrientation() {
+
+        Vector3f rotation = gameObject.rotation;
+
+        if (equals(rotation, orientationRotation)) return;
+
+        orientationRotation.set(rotation);
+
+        double pitch = Math.toRadians(rotation.x) / 2;
+        double yaw = Math.toRadians(rotation.y) / 2;
+        double roll = Math.toRadians(rotation.z) / 2;
+
+        float sinPitch = (float) Math.sin(pitch), cosPitch = (float) Math.cos(pitch);
+        float sinYaw = (float) Math.sin(yaw), cosYaw = (float) Math.cos(yaw);
+        float sinRoll = (float) Math.sin(roll), cosRoll = (float) Math.cos(roll);
+
+        //yaw * pitch * roll
+        orientation.set(
+          cosYaw * sinPitch * cosRoll + sinYaw * cosPitch * sinRoll,
+          sinYaw * cosPitch * cosRoll - cosYaw * sinPitch * sinRoll,
+          cosYaw * cosPitch * sinRoll - sinYaw * sinPitch * cosRoll,
+          cosYaw * cosPitch * cosRoll + sinYaw * sinPitch * sinRoll);
+
+        directionDirty = true;
+        matrixDirty = true;
+
+    }
+
+    private static boolean equals(Vector3f vector, Vector3f cached) {
+        return vector.x == cached.x && vector.y == cached.y && vector.z == cached.z;
+    }
+
+}
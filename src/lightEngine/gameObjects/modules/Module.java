@@ -32,6 +32,17 @@ public abstract class Module implements Serializable {
     public void onUpdate() {
     }
 
+    /**
+     * Determines if onUpdate() may run on a worker thread of the parallel update phase.
+     * Thread safe modules may only change their own game object and must not use input, OpenGL or GUI state.
+     * Game objects with at least one module that isn't thread safe are updated on the game thread, at their position in the update order.
+     *
+     * @return True if the module can be updated in parallel with other game objects, false by default
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
+
     /**
      * Clear your module data here.
      * This is called when your module gets removed from the game object via removeModule()
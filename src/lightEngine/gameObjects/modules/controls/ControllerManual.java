@@ -70,7 +70,7 @@ public class ControllerManual extends Controller {
 
             }
 
-            MovementModule movementComponent = (MovementModule) parent.getModule(MovementModule.class);
+            MovementModule movementComponent = parent.getModule(MovementModule.class);
 
             if (movementComponent != null) {
 
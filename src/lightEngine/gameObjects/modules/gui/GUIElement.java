@@ -8,9 +8,9 @@ package lightEngine.gameObjects.modules.gui;
 
 import lightEngine.gameObjects.modules.gui.modules.GUIModule;
 import lightEngine.gameObjects.modules.renderable.ModuleRenderable;
-import lightEngine.graphics.Renderer;
+import lightEngine.graphics.GraphicsController;
+import lightEngine.graphics.RenderQueue;
 import lightEngine.graphics.renderable.materials.Material2D;
-import org.lwjgl.opengl.Display;
 import org.lwjgl.util.vector.Vector2f;
 import org.newdawn.slick.Color;
 
@@ -39,14 +39,14 @@ public class GUIElement extends ModuleRenderable {
 
         //Absolute position to relative position
         position = new Vector2f(
-          posInPixels.x / Display.getWidth(),
-          posInPixels.y / Display.getHeight()
+          posInPixels.x / GraphicsController.getWidth(),
+          posInPixels.y / GraphicsController.getHeight()
         );
 
         //Absolute size to relative size
         size = new Vector2f(
-          sizeInPixels.x / Display.getWidth(),
-          sizeInPixels.y / Display.getHeight()
+          sizeInPixels.x / GraphicsController.getWidth(),
+          sizeInPixels.y / GraphicsController.getHeight()
         );
 
     }
@@ -58,13 +58,13 @@ public class GUIElement extends ModuleRenderable {
 
         //Absolute size to relative size
         position = new Vector2f();
-        position.x = posInPixels.x / Display.getWidth();
-        position.y = posInPixels.y / Display.getHeight();
+        position.x = posInPixels.x / GraphicsController.getWidth();
+        position.y = posInPixels.y / GraphicsController.getHeight();
 
         //Absolute size to relative size
         size = new Vector2f();
-        size.x = sizeInPixels.x / Display.getWidth();
-        size.y = sizeInPixels.y / Display.getHeight();
+        size.x = sizeInPixels.x / GraphicsController.getWidth();
+        size.y = sizeInPixels.y / GraphicsController.getHeight();
 
     }
 
@@ -108,24 +108,24 @@ public class GUIElement extends ModuleRenderable {
     }
 
     @Override
-    public void addToRenderQueue() {
-        Renderer.currentRenderQueue.addGUIElement(this);
+    public void addToRenderQueue(RenderQueue queue) {
+        queue.addGUIElement(this);
     }
 
     public Vector2f getSize() {
-        return new Vector2f(size.x * Display.getWidth(), size.y * Display.getHeight());
+        return new Vector2f(size.x * GraphicsController.getWidth(), size.y * GraphicsController.getHeight());
     }
 
     public void setSize(Vector2f sizeInPixels) {
-        size = new Vector2f(sizeInPixels.x / Display.getWidth(), sizeInPixels.y / Display.getHeight());
+        size = new Vector2f(sizeInPixels.x / GraphicsController.getWidth(), sizeInPixels.y / GraphicsController.getHeight());
     }
 
     public Vector2f getPosition() {
-        return new Vector2f(position.x * Display.getWidth(), position.y * Display.getHeight());
+        return new Vector2f(position.x * GraphicsController.getWidth(), position.y * GraphicsController.getHeight());
     }
 
     public void setPosition(Vector2f positionInPixels) {
-        position = new Vector2f(positionInPixels.x / Display.getWidth(), positionInPixels.y / Display.getHeight());
+        position = new Vector2f(positionInPixels.x / GraphicsController.getWidth(), positionInPixels.y / GraphicsController.getHeight());
     }
 
 }
@@ -6,6 +6,7 @@
 
 package lightEngine.gameObjects.modules.gui.modules;
 
+import lightEngine.graphics.GraphicsController;
 import lightEngine.util.resources.FontHelper;
 import lightEngine.util.resources.PreferenceHelper;
 import org.lwjgl.util.vector.Vector2f;
@@ -21,6 +22,7 @@ public class GUIText extends GUIModule {
     protected int fontStyle;
     protected int fontSize;
     protected TrueTypeFont font;
+    protected boolean fontLoaded; //The font stays null if the graphics device can't draw text
 
     public GUIText(String text, int fontSize) {
 
@@ -54,8 +56,7 @@ public class GUIText extends GUIModule {
 
         super.render();
 
-        if (font == null)
-            font = FontHelper.loadFont(fontFace, fontStyle, fontSize, PreferenceHelper.getBoolean("antiAliasing"));
+        if (!fontLoaded) loadFont();
 
         org.newdawn.slick.Color temporaryColor;
 
@@ -64,7 +65,14 @@ public class GUIText extends GUIModule {
 
         Vector2f position = parent.getPosition();
 
-        font.drawString(position.x, position.y, text, temporaryColor);
+        GraphicsController.device.drawText(font, position.x, position.y, text, temporaryColor);
+
+    }
+
+    protected void loadFont() {
+
+        font = FontHelper.loadFont(fontFace, fontStyle, fontSize, PreferenceHelper.getBoolean("antiAliasing"));
+        fontLoaded = true;
 
     }
 
@@ -99,6 +107,7 @@ public class GUIText extends GUIModule {
     protected void onExternalUpdate(int fontStyle, int fontSize, String fontFace, Color color) {
 
         font = FontHelper.loadFont(fontFace, fontStyle, fontSize, PreferenceHelper.getBoolean("antiAliasing"));
+        fontLoaded = true;
         //parent.material.setColor(color);
 
     }
@@ -108,6 +117,7 @@ public class GUIText extends GUIModule {
 
         super.onSave();
         font = null;
+        fontLoaded = false;
 
     }
 
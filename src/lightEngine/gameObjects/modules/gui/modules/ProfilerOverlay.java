@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.gameObjects.modules.gui.modules;
+
+import lightEngine.graphics.GraphicsController;
+import lightEngine.util.time.Profiler;
+import lightEngine.util.time.TimeHelper;
+import org.lwjgl.util.vector.Vector2f;
+import org.newdawn.slick.Color;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Shows the average time of every profiled phase per thread while the profiler is enabled, one line per phase.
+ * The lines are built from the profiler's frame history once per second.
+ */
+public class ProfilerOverlay extends GUIText {
+
+    private static final long serialVersionUID = 1L;
+    private static final int AVERAGED_FRAMES = 60;
+
+    private String[] lines = new String[0];
+
+    public ProfilerOverlay(int fontSize) {
+
+        super("", fontSize);
+        setColor(Color.white);
+
+    }
+
+    @Override
+    public void render() {
+
+        if (!Profiler.enabled) return;
+
+        if (!fontLoaded) loadFont();
+
+        if (lines.length == 0 || TimeHelper.oneSecondPassed) lines = createLines();
+
+        Vector2f position = parent.getPosition();
+        int lineHeight = font != null ? font.getLineHeight() : fontSize;
+
+        for (int i = 0; i < lines.length; i++)
+            GraphicsController.device.drawText(font, position.x, position.y + i * lineHeight, lines[i], color);
+
+    }
+
+    private String[] createLines() {
+
+        List<String> lineList = new ArrayList<>();
+        Profiler.Marker[] markers = Profiler.getMarkers();
+
+        for (Profiler.ThreadProfile profile : Profiler.getThreadProfiles()) {
+
+            if (profile.getFrameCount() == 0) continue;
+
+            lineList.add(String.format(Locale.ROOT, "%s: %.2f ms", profile.name, profile.getAverageFrameTime(AVERAGED_FRAMES)));
+
+            for (Profiler.Marker marker : markers) {
+
+                float time = profile.getAverageTime(marker, AVERAGED_FRAMES);
+                if (time > 0) lineList.add(String.format(Locale.ROOT, "    %s: %.3f ms", marker.name, time));
+
+            }
+
+        }
+
+        text = String.join("\n", lineList);
+
+        return lineList.toArray(new String[lineList.size()]);
+
+    }
+
+}
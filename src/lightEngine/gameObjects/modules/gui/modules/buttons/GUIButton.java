@@ -6,15 +6,16 @@
 
 package lightEngine.gameObjects.modules.gui.modules.buttons;
 
+import lightEngine.core.events.Event;
 import lightEngine.core.events.EventHandler;
 import lightEngine.gameObjects.modules.gui.modules.GUIModule;
+import lightEngine.graphics.GraphicsController;
 import lightEngine.util.input.Input;
 import org.lwjgl.input.Mouse;
-import org.lwjgl.opengl.Display;
 
 import java.util.Random;
 
-import static lightEngine.core.events.EventController.addEventHandler;
+import static lightEngine.core.events.EventController.addEventListener;
 import static lightEngine.core.events.EventController.triggerEvent;
 
 public class GUIButton extends GUIModule {
@@ -23,7 +24,7 @@ public class GUIButton extends GUIModule {
     private boolean previouslyPressed = false;
     private boolean previouslyHovered = false;
     private int id; //For event ids to be unique
-    private boolean[] triggerEnabled = new boolean[6];
+    private Event<?>[] events = new Event<?>[6]; //Null for triggers without handlers
 
     public GUIButton() {
         id = new Random().nextInt();
@@ -35,12 +36,12 @@ public class GUIButton extends GUIModule {
         buttonHovered = isButtonHovered();
         boolean buttonPressed = isButtonPressed();
 
-        if (buttonPressed && triggerEnabled[0]) triggerEvent(id + "-pressed");
-        if (isButtonDown() && triggerEnabled[1]) triggerEvent(id + "-down");
-        if (isButtonUp() && triggerEnabled[2]) triggerEvent(id + "-up");
-        if (buttonHovered && triggerEnabled[3]) triggerEvent(id + "-hovered");
-        if (isButtonEntered() && triggerEnabled[4]) triggerEvent(id + "-entered");
-        if (isButtonExited() && triggerEnabled[5]) triggerEvent(id + "-exited");
+        if (buttonPressed && events[0] != null) triggerEvent(events[0], null);
+        if (isButtonDown() && events[1] != null) triggerEvent(events[1], null);
+        if (isButtonUp() && events[2] != null) triggerEvent(events[2], null);
+        if (buttonHovered && events[3] != null) triggerEvent(events[3], null);
+        if (isButtonEntered() && events[4] != null) triggerEvent(events[4], null);
+        if (isButtonExited() && events[5] != null) triggerEvent(events[5], null);
 
         previouslyPressed = buttonPressed;
         previouslyHovered = buttonHovered;
@@ -48,10 +49,10 @@ public class GUIButton extends GUIModule {
     }
 
     public GUIButton setEventHandler(ButtonEvent trigger, EventHandler handler) {
-        triggerEnabled[trigger.ordinal()] = true;
-        String event = id + "-" + trigger.name;
+        Event<?> event = Event.get(id + "-" + trigger.name);
+        events[trigger.ordinal()] = event;
 
-        addEventHandler(event, handler);
+        addEventListener(event, handler);
 
         return this;
     }
@@ -59,7 +60,7 @@ public class GUIButton extends GUIModule {
     private boolean isButtonHovered() {
 
         return Mouse.getX() >= parent.getPosition().x && Mouse.getX() <= parent.getPosition().x + parent.getSize().x &&
-          Display.getHeight() - Mouse.getY() >= parent.getPosition().y && Display.getHeight() - Mouse.getY() <= parent.getPosition().y + parent.getSize().y;
+          GraphicsController.getHeight() - Mouse.getY() >= parent.getPosition().y && GraphicsController.getHeight() - Mouse.getY() <= parent.getPosition().y + parent.getSize().y;
 
     }
 
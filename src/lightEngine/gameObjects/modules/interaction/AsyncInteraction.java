@@ -6,8 +6,21 @@
 
 package lightEngine.gameObjects.modules.interaction;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public abstract class AsyncInteraction extends Interaction implements Runnable {
 
+    final AtomicBoolean active = new AtomicBoolean(); //Set while the interaction is queued or running in the AsyncInteractionExecutor
+
+    /**
+     * Determines if the interaction was started and didn't finish yet.
+     *
+     * @return True if the interaction is queued or running, false if not.
+     */
+    public boolean isActive() {
+        return active.get();
+    }
+
     public void run() {
         interact();
     }
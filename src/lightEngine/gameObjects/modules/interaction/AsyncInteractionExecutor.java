@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.gameObjects.modules.interaction;
+
+import lightEngine.util.resources.PreferenceHelper;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs async interactions on a small pool of daemon threads instead of starting a new thread for every trigger.
+ * At most asyncInteractionThreads interactions run at the same time, further ones wait in a queue.
+ * Idle threads stop after a while, nothing keeps a reference to finished interactions.
+ */
+public class AsyncInteractionExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static ThreadPoolExecutor executor;
+    private static boolean stopped;
+
+    /**
+     * Runs an interaction asynchronously, unless it is still running or queued from an earlier trigger.
+     * This can be called from any thread.
+     *
+     * @param interaction The interaction to run.
+     * @return True if the interaction was started, false if it is already active or the executor was shut down.
+     */
+    public static boolean start(AsyncInteraction interaction) {
+
+        if (!interaction.active.compareAndSet(false, true)) return false;
+
+        try {
+
+            getExecutor().execute(() -> {
+
+                try {
+                    interaction.run();
+                } finally {
+                    interaction.active.set(false);
+                }
+
+            });
+
+        } catch (RejectedExecutionException e) {
+
+            interaction.active.set(false);
+            return false;
+
+        }
+
+        return true;
+
+    }
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+
+        if (stopped) throw new RejectedExecutionException("The executor was shut down");
+
+        if (executor == null) {
+
+            int threads = Math.max(1, PreferenceHelper.getInteger("asyncInteractionThreads"));
+            AtomicInteger threadNumber = new AtomicInteger();
+
+            executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+
+                Thread thread = new Thread(runnable, "mengine-Interaction-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+
+                return thread;
+
+            });
+
+            executor.allowCoreThreadTimeOut(true);
+
+        }
+
+        return executor;
+
+    }
+
+    /**
+     * Interrupts all running interactions and drops the queued ones.
+     * This is called when the game stops, no interactions can be started afterwards.
+     */
+    public static synchronized void shutdown() {
+
+        stopped = true;
+
+        if (executor != null) executor.shutdownNow();
+
+    }
+
+}
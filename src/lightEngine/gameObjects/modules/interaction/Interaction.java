@@ -17,7 +17,7 @@ abstract class Interaction {
 
         parent = object;
 
-        caller = (InteractionModule) parent.getModule(InteractionModule.class);
+        caller = parent.getModule(InteractionModule.class);
 
     }
 
@@ -12,16 +12,15 @@ import lightEngine.gameObjects.modules.Module;
 import lightEngine.gameObjects.modules.controls.Controller;
 import lightEngine.gameObjects.modules.gui.GUIElement;
 import lightEngine.gameObjects.modules.gui.modules.GUIText;
+import lightEngine.graphics.GraphicsController;
 import lightEngine.util.input.Input;
 import lightEngine.util.input.InputEventType;
 import lightEngine.util.math.vectors.VectorHelper;
-import lightEngine.util.threading.ThreadHelper;
+import lightEngine.util.math.vectors.VectorPool;
 import org.lwjgl.input.Keyboard;
-import org.lwjgl.opengl.Display;
 import org.lwjgl.util.vector.Vector2f;
 import org.lwjgl.util.vector.Vector3f;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class InteractionModule extends Module {
@@ -88,7 +87,7 @@ public class InteractionModule extends Module {
             interactionInstructionText = new GUIText(interactionInstruction, 15);
 
             parent.addModule(
-              new GUIElement(new Vector2f(Display.getWidth() / 2, Display.getHeight() - 100), new Vector2f()).addModule(interactionInstructionText)
+              new GUIElement(new Vector2f(GraphicsController.getWidth() / 2, GraphicsController.getHeight() - 100), new Vector2f()).addModule(interactionInstructionText)
             );
 
             this.interactionInstruction = interactionInstruction;
@@ -135,39 +134,47 @@ public class InteractionModule extends Module {
 
     private void setControllerData() {
 
+        VectorPool pool = VectorPool.get();
+        int mark = pool.mark();
+
+        Vector3f distanceVector = pool.take();
+
         for (int count = 0; count < controlledGameObjects.size(); count++) {
 
             GameObject controlledObject = controlledGameObjects.get(count);
 
-            Vector3f distanceVector = VectorHelper.subtractVectors(parent.position, controlledObject.position);
+            VectorHelper.subtract(parent.position, controlledObject.position, distanceVector);
 
             controllerDistances[count] = VectorHelper.getAbs(distanceVector);
 
-            Vector3f percentRotation = new Vector3f(controlledObject.percentRotation.x, controlledObject.percentRotation.y, -controlledObject.percentRotation.z);
-            controllerLookAngles[count] = VectorHelper.getAngle(distanceVector, percentRotation);
+            controllerLookAngles[count] = VectorHelper.getAngle(distanceVector, controlledObject.percentRotation);
 
         }
 
+        pool.release(mark);
+
     }
 
+    /**
+     * Looks up the controlled game objects within the interaction radius in the spatial index.
+     */
     private void setControlledGameObjects() {
 
-        controlledGameObjects = new ArrayList<GameObject>();
+        controlledGameObjects = ObjectController.getGameObjectsInRange(parent.position, radius);
+        controlledGameObjects.removeIf(object -> object.getModule(Controller.class) == null);
 
-        for (GameObject object : ObjectController.gameObjects) {
+        if (controllerDistances == null || controllerDistances.length < controlledGameObjects.size()) {
 
-            if (object.getModule(Controller.class) != null) controlledGameObjects.add(object);
+            controllerDistances = new float[controlledGameObjects.size()];
+            controllerLookAngles = new float[controlledGameObjects.size()];
 
         }
 
-        controllerDistances = new float[controlledGameObjects.size()];
-        controllerLookAngles = new float[controlledGameObjects.size()];
-
     }
 
     public void onUpdate() {
 
-        if (controlledGameObjects == null) setControlledGameObjects();
+        setControlledGameObjects();
 
         setControllerData();
 
@@ -198,7 +205,7 @@ public class InteractionModule extends Module {
 
             if (interaction instanceof StandardInteraction) ((StandardInteraction) interaction).interact();
 
-            else ThreadHelper.startThread(((AsyncInteraction) interaction));
+            else AsyncInteractionExecutor.start((AsyncInteraction) interaction);
 
         }
 
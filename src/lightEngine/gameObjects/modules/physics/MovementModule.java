@@ -7,17 +7,22 @@
 package lightEngine.gameObjects.modules.physics;
 
 import lightEngine.core.GameController;
+import lightEngine.core.ObjectController;
 import lightEngine.gameObjects.GameObject;
 import lightEngine.gameObjects.modules.Module;
 import lightEngine.gameObjects.modules.controls.Controller;
-import lightEngine.util.math.vectors.Matrix3f;
 import lightEngine.util.math.vectors.VectorHelper;
+import lightEngine.util.math.vectors.VectorPool;
 import lightEngine.util.resources.PreferenceHelper;
 import lightEngine.util.time.TimeHelper;
 import org.lwjgl.util.vector.Vector3f;
 
 public class MovementModule extends Module {
 
+    //Rate the speed decays with per millisecond, the terminal speed a / DRAG equals the 2 * a * deltaTime the old per tick halving reached at 60 ticks per second
+    static final float DRAG = 0.03f;
+    static final float MASS = 80;
+
     public Vector3f speed;
     public Vector3f movedSpace;
     Vector3f previousSpeed;
@@ -27,13 +32,30 @@ public class MovementModule extends Module {
     float sneakModifier;
     private float[] forces;
     public Vector3f appliedForces;
+    private Vector3f acceleration;
+    private final boolean useMovementSystem;
+    int slot = -1;
 
     public MovementModule() {
+        this(false);
+    }
+
+    /**
+     * Creates a movement module that can keep its game object's transform in the MovementSystem.
+     * The movement of those game objects is integrated in bulk after the update phase, their position and direction get overwritten from the system's arrays every tick.
+     * Use setPosition() and rotate() to change them, speed and movedSpace aren't updated.
+     *
+     * @param useMovementSystem True to store the transform in the MovementSystem, false to let the module move its game object itself.
+     */
+    public MovementModule(boolean useMovementSystem) {
+
+        this.useMovementSystem = useMovementSystem;
 
         speed = new Vector3f();
         movedSpace = new Vector3f();
         previousSpeed = new Vector3f();
         appliedForces = new Vector3f();
+        acceleration = new Vector3f();
 
         sprintModifier = PreferenceHelper.getFloat("sprintModifier");
         sneakModifier = PreferenceHelper.getFloat("sneakModifier");
@@ -44,69 +66,169 @@ public class MovementModule extends Module {
     public void onCreation(GameObject obj) {
         super.onCreation(obj);
 
-        Controller controller = (Controller) parent.getModule(Controller.class);
-        forces = controller.forceStrengths;
+        Controller controller = parent.getModule(Controller.class);
+        if (controller != null) forces = controller.forceStrengths;
+
+        if (useMovementSystem) MovementSystem.register(this);
+
+        else {
+
+            //The position and direction are changed in place every tick, the initial vectors may be shared with other game objects
+            parent.position = new Vector3f(parent.position);
+            parent.percentRotation = new Vector3f(parent.percentRotation);
+
+        }
+    }
+
+    @Override
+    public void onDestroy() {
+        if (useMovementSystem) MovementSystem.unregister(this);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+
+        //The controller is updated by this module
+        Controller controller = parent == null ? null : parent.getModule(Controller.class);
+        return controller == null || controller.isThreadSafe();
+
     }
 
     public void onUpdate() {
 
-        appliedForces = new Vector3f();
+        if (useMovementSystem) {
+
+            //The forces are written into the system's arrays, it does the rest once all game objects are updated
+            if (slot != -1 && !GameController.isGamePaused()) updateController();
+            return;
+
+        }
+
+        appliedForces.set(0, 0, 0);
 
         if (!GameController.isGamePaused()) {
 
-            Controller controller = (Controller) parent.getModule(Controller.class);
+            updateController();
 
-            if (controller != null) {
+            calculateAcceleration(appliedForces, MASS, acceleration);
 
-                if (!controller.sprintModeToggle) sprinting = false;
-                if (!controller.sneakModeToggle) sneaking = false;
+            calculateDampedMovedSpace(acceleration, previousSpeed, TimeHelper.deltaTime, movedSpace);
+            calculateDampedSpeed(acceleration, previousSpeed, TimeHelper.deltaTime, speed);
 
-                controller.onRemoteUpdate();
+            VectorHelper.add(parent.position, movedSpace, parent.position);
 
-            }
+            previousSpeed.set(speed);
+
+            parent.percentRotation.set(parent.transform.getDirection()); //Only recalculated if the rotation changed
+
+            ObjectController.updateGameObject(parent);
+
+        }
 
-            previousSpeed = VectorHelper.multiplyVectorByFloat(previousSpeed, 0.5f);
-            speed = calculateSpeed(calculateAcceleration(appliedForces, 80), previousSpeed, TimeHelper.deltaTime);
+    }
 
-            movedSpace = calculateMovedSpace(speed, TimeHelper.deltaTime);
+    private void updateController() {
 
-            parent.position = VectorHelper.sumVectors(new Vector3f[] {parent.position, movedSpace});
+        //Looked up every tick, so a controller that replaces another one is used right away, its force strengths as well
+        Controller controller = parent.getModule(Controller.class);
 
-            previousSpeed = new Vector3f(speed);
+        if (controller != null) {
 
-            parent.percentRotation = new Vector3f(0, 0, 1);
+            forces = controller.forceStrengths;
 
-            Matrix3f xAxisRotationMatrix = new Matrix3f(
-              new Vector3f(1, 0, 0),
-              new Vector3f(0, (float) Math.cos(Math.toRadians(parent.rotation.x)), (float) -Math.sin(Math.toRadians(parent.rotation.x))),
-              new Vector3f(0, (float) Math.sin(Math.toRadians(parent.rotation.x)), (float) Math.cos(Math.toRadians(parent.rotation.x))));
-            parent.percentRotation = xAxisRotationMatrix.multiplyByVector(parent.percentRotation);
+            if (!controller.sprintModeToggle) sprinting = false;
+            if (!controller.sneakModeToggle) sneaking = false;
 
-            Matrix3f yAxisRotationMatrix = new Matrix3f(
-              new Vector3f((float) Math.cos(Math.toRadians(parent.rotation.y)), 0, (float) Math.sin(Math.toRadians(parent.rotation.y))),
-              new Vector3f(0, 1, 0),
-              new Vector3f((float) -Math.sin(Math.toRadians(parent.rotation.y)), 0, (float) Math.cos(Math.toRadians(parent.rotation.y))));
-            parent.percentRotation = yAxisRotationMatrix.multiplyByVector(parent.percentRotation);
+            controller.onRemoteUpdate();
 
         }
 
     }
 
-    public Vector3f calculateSpeed(Vector3f acceleration, Vector3f startSpeed, float timeInSeconds) { //v = a * t + v0
+    public Vector3f calculateSpeed(Vector3f acceleration, Vector3f startSpeed, float timeInMilliseconds) { //v = a * t + v0
 
         Vector3f speed = new Vector3f();
 
-        speed.x = acceleration.x * timeInSeconds + startSpeed.x;
-        speed.y = acceleration.y * timeInSeconds + startSpeed.y;
-        speed.z = acceleration.z * timeInSeconds + startSpeed.z;
+        speed.x = acceleration.x * timeInMilliseconds + startSpeed.x;
+        speed.y = acceleration.y * timeInMilliseconds + startSpeed.y;
+        speed.z = acceleration.z * timeInMilliseconds + startSpeed.z;
+
+        return speed;
+
+    }
+
+    /**
+     * Calculates the speed after a time step under constant acceleration and exponential drag.
+     * The drag is integrated exactly, so splitting the time into more or fewer steps gives the same result.
+     *
+     * @param acceleration       The acceleration during the step.
+     * @param startSpeed         The speed at the start of the step.
+     * @param timeInMilliseconds The length of the step in milliseconds.
+     * @return The speed at the end of the step.
+     */
+    public Vector3f calculateDampedSpeed(Vector3f acceleration, Vector3f startSpeed, float timeInMilliseconds) {
+        return calculateDampedSpeed(acceleration, startSpeed, timeInMilliseconds, new Vector3f());
+    }
+
+    /**
+     * Calculates the speed after a time step under constant acceleration and exponential drag.
+     *
+     * @param acceleration       The acceleration during the step.
+     * @param startSpeed         The speed at the start of the step.
+     * @param timeInMilliseconds The length of the step in milliseconds.
+     * @param speed              The vector the speed is written into, may be startSpeed.
+     * @return speed
+     */
+    public Vector3f calculateDampedSpeed(Vector3f acceleration, Vector3f startSpeed, float timeInMilliseconds, Vector3f speed) { //v = a / k + (v0 - a / k) * e^(-k * t)
+
+        float decay = (float) Math.exp(-DRAG * timeInMilliseconds);
+
+        speed.x = acceleration.x / DRAG + (startSpeed.x - acceleration.x / DRAG) * decay;
+        speed.y = acceleration.y / DRAG + (startSpeed.y - acceleration.y / DRAG) * decay;
+        speed.z = acceleration.z / DRAG + (startSpeed.z - acceleration.z / DRAG) * decay;
 
         return speed;
 
     }
 
-    public Vector3f calculateAcceleration(Vector3f force, float mass) { //F = m * a | a = F / m
+    /**
+     * Calculates the distance covered during a time step under constant acceleration and exponential drag.
+     *
+     * @param acceleration       The acceleration during the step.
+     * @param startSpeed         The speed at the start of the step.
+     * @param timeInMilliseconds The length of the step in milliseconds.
+     * @return The moved space.
+     */
+    public Vector3f calculateDampedMovedSpace(Vector3f acceleration, Vector3f startSpeed, float timeInMilliseconds) {
+        return calculateDampedMovedSpace(acceleration, startSpeed, timeInMilliseconds, new Vector3f());
+    }
+
+    /**
+     * Calculates the distance covered during a time step under constant acceleration and exponential drag.
+     *
+     * @param acceleration       The acceleration during the step.
+     * @param startSpeed         The speed at the start of the step.
+     * @param timeInMilliseconds The length of the step in milliseconds.
+     * @param space              The vector the moved space is written into.
+     * @return space
+     */
+    public Vector3f calculateDampedMovedSpace(Vector3f acceleration, Vector3f startSpeed, float timeInMilliseconds, Vector3f space) { //s = a / k * t + (v0 - a / k) * (1 - e^(-k * t)) / k
+
+        float decay = (1 - (float) Math.exp(-DRAG * timeInMilliseconds)) / DRAG;
+
+        space.x = acceleration.x / DRAG * timeInMilliseconds + (startSpeed.x - acceleration.x / DRAG) * decay;
+        space.y = acceleration.y / DRAG * timeInMilliseconds + (startSpeed.y - acceleration.y / DRAG) * decay;
+        space.z = acceleration.z / DRAG * timeInMilliseconds + (startSpeed.z - acceleration.z / DRAG) * decay;
+
+        return space;
+
+    }
+
+    public Vector3f calculateAcceleration(Vector3f force, float mass) {
+        return calculateAcceleration(force, mass, new Vector3f());
+    }
 
-        Vector3f acceleration = new Vector3f();
+    public Vector3f calculateAcceleration(Vector3f force, float mass, Vector3f acceleration) { //F = m * a | a = F / m
 
         acceleration.x = force.x / mass;
         acceleration.y = force.y / mass;
@@ -116,21 +238,19 @@ public class MovementModule extends Module {
 
     }
 
-    public Vector3f calculateMovedSpace(Vector3f speed, float timeInSeconds) { //s = (1 / 2) * a * t^2 + v0 * t
+    public Vector3f calculateMovedSpace(Vector3f speed, float timeInMilliseconds) { //s = (1 / 2) * a * t^2 + v0 * t
 
         Vector3f space = new Vector3f();
 
-        space.x = speed.x * timeInSeconds;
-        space.y = speed.y * timeInSeconds;
-        space.z = speed.z * timeInSeconds;
+        space.x = speed.x * timeInMilliseconds;
+        space.y = speed.y * timeInMilliseconds;
+        space.z = speed.z * timeInMilliseconds;
 
         return space;
 
     }
 
-    private Vector3f calculateForce(Vector3f direction) {
-        Vector3f force = new Vector3f();
-
+    private Vector3f calculateForce(Vector3f direction, Vector3f force) {
         force.x = -(direction.x * (float) Math.sin(Math.toRadians(parent.rotation.y - 90)) + direction.z * (float) Math.sin(Math.toRadians(parent.rotation.y)));
         force.z = direction.x * (float) Math.cos(Math.toRadians(parent.rotation.y - 90)) + direction.z * (float) Math.cos(Math.toRadians(parent.rotation.y));
 
@@ -138,17 +258,20 @@ public class MovementModule extends Module {
 
         if (sneaking) {
 
-            Vector3f newDirection = VectorHelper.multiplyVectors(new Vector3f[]{force, new Vector3f(0.3f, 1, 0.3f)});
-
-            force.x = newDirection.x;
-            force.z = newDirection.z;
+            force.x *= 0.3f;
+            force.z *= 0.3f;
 
         }
 
         return force;
     }
 
-    private void applyForce(Vector3f direction) {
+    private void applyForce(float x, float y, float z) {
+
+        VectorPool pool = VectorPool.get();
+        int mark = pool.mark();
+
+        Vector3f direction = pool.take(x, y, z);
 
         if (sprinting) {
             direction.x *= sprintModifier;
@@ -160,43 +283,55 @@ public class MovementModule extends Module {
             direction.z *= sneakModifier;
         }
 
-        Vector3f force = calculateForce(direction);
+        Vector3f force = calculateForce(direction, pool.take());
+
+        if (slot != -1) {
+
+            MovementSystem.forces[slot * 3] += force.x;
+            MovementSystem.forces[slot * 3 + 1] += force.y;
+            MovementSystem.forces[slot * 3 + 2] += force.z;
 
-        appliedForces = VectorHelper.sumVectors(new Vector3f[] {appliedForces, force});
+        } else {
+
+            VectorHelper.add(appliedForces, force, appliedForces);
+
+        }
+
+        pool.release(mark);
 
     }
 
     public void moveForward() {
-        applyForce(new Vector3f(0, 0, -forces[0]));
+        applyForce(0, 0, -forces[0]);
     }
 
     public void moveBackward() {
-        applyForce(new Vector3f(0, 0, forces[1]));
+        applyForce(0, 0, forces[1]);
     }
 
     public void moveLeft() {
-        applyForce(new Vector3f(forces[2], 0, 0));
+        applyForce(forces[2], 0, 0);
     }
 
     public void moveRight() {
-        applyForce(new Vector3f(-forces[3], 0, 0));
+        applyForce(-forces[3], 0, 0);
     }
 
     public void moveDown() {
-        applyForce(new Vector3f(0, -forces[4], 0));
+        applyForce(0, -forces[4], 0);
     }
 
     public void moveUp() {
-        applyForce(new Vector3f(0, forces[5], 0));
+        applyForce(0, forces[5], 0);
     }
 
     public void jump() {
-        applyForce(new Vector3f(0, forces[6], 0));
+        applyForce(0, forces[6], 0);
     }
 
     public void sprint() {
 
-        Controller controller = (Controller) parent.getModule(Controller.class);
+        Controller controller = parent.getModule(Controller.class);
 
         if (controller != null) {
 
@@ -218,8 +353,7 @@ public class MovementModule extends Module {
 
     public void sneak() {
 
-        Controller controller = (Controller) parent.getModule(Controller.class);
-
+        Controller controller = parent.getModule(Controller.class);
 
         if (controller != null)
             if (!sprinting)
@@ -232,6 +366,34 @@ public class MovementModule extends Module {
         parent.rotation.x = pitch;
         parent.rotation.y = yaw;
 
+        if (slot != -1) {
+
+            MovementSystem.rotations[slot * 3] = pitch;
+            MovementSystem.rotations[slot * 3 + 1] = yaw;
+
+        }
+
+    }
+
+    /**
+     * Moves the game object to a new position, also if its transform is stored in the MovementSystem.
+     *
+     * @param position The new position.
+     */
+    public void setPosition(Vector3f position) {
+
+        parent.position = new Vector3f(position);
+
+        if (slot != -1) {
+
+            MovementSystem.positions[slot * 3] = position.x;
+            MovementSystem.positions[slot * 3 + 1] = position.y;
+            MovementSystem.positions[slot * 3 + 2] = position.z;
+
+        }
+
+        ObjectController.updateGameObject(parent);
+
     }
 
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.gameObjects.modules.physics;
+
+import lightEngine.core.GameController;
+import lightEngine.core.ObjectController;
+import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.Transform;
+import lightEngine.util.time.TimeHelper;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Struct-of-arrays storage for the transforms of game objects that use a MovementModule created with useMovementSystem = true.
+ * Positions, rotations, directions (percentRotation), speeds and the forces applied during the current tick are kept in flat float arrays, three floats per slot.
+ * The slots are packed, removing one moves the last slot into its place.
+ * The movement of all slots is integrated in one pass over the arrays after the update phase, afterwards the position and direction are copied back into the game objects.
+ * Everything besides register() and unregister() has to be called on the game thread.
+ */
+public class MovementSystem {
+
+    public static float[] positions = new float[0];
+    public static float[] rotations = new float[0];
+    public static float[] directions = new float[0];
+    public static float[] speeds = new float[0];
+    public static float[] forces = new float[0];
+
+    private static MovementModule[] modules = new MovementModule[0];
+    private static int count;
+
+    private static Queue<MovementModule> registrations = new ConcurrentLinkedQueue<>();
+    private static Queue<MovementModule> removals = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Queues a movement module for getting a slot, this happens during the next update().
+     *
+     * @param module The module, its game object has to be set already.
+     */
+    static void register(MovementModule module) {
+        registrations.add(module);
+    }
+
+    /**
+     * Queues a movement module for releasing its slot, this happens during the next update().
+     *
+     * @param module The module that is destroyed.
+     */
+    static void unregister(MovementModule module) {
+        removals.add(module);
+    }
+
+    /**
+     * Returns the number of used slots.
+     *
+     * @return The slot count.
+     */
+    public static int getCount() {
+        return count;
+    }
+
+    /**
+     * Moves all game objects in the system by the current TimeHelper.deltaTime.
+     * This is called once per tick by the game loop, after all game objects were updated.
+     */
+    public static void update() {
+
+        applyRegistrations();
+
+        if (GameController.isGamePaused()) return;
+
+        integrate(TimeHelper.deltaTime);
+        copyToGameObjects();
+
+    }
+
+    private static void applyRegistrations() {
+
+        MovementModule module;
+
+        while ((module = registrations.poll()) != null) {
+
+            if (module.slot != -1) continue;
+
+            if (count == modules.length) grow(Math.max(64, count * 2));
+
+            int slot = count++;
+            GameObject parent = module.parent;
+
+            //The game object gets its own vectors, the initial ones may be shared with other objects
+            parent.position = new Vector3f(parent.position);
+            parent.percentRotation = new Vector3f(parent.percentRotation);
+
+            setVector(positions, slot, parent.position);
+            setVector(rotations, slot, parent.rotation);
+            setVector(directions, slot, parent.percentRotation);
+            setVector(speeds, slot, module.speed);
+            setVector(forces, slot, module.appliedForces);
+
+            modules[slot] = module;
+            module.slot = slot;
+
+        }
+
+        while ((module = removals.poll()) != null) {
+
+            int slot = module.slot;
+            if (slot == -1) continue;
+
+            int last = --count;
+
+            if (slot != last) {
+
+                System.arraycopy(positions, last * 3, positions, slot * 3, 3);
+                System.arraycopy(rotations, last * 3, rotations, slot * 3, 3);
+                System.arraycopy(directions, last * 3, directions, slot * 3, 3);
+                System.arraycopy(speeds, last * 3, speeds, slot * 3, 3);
+                System.arraycopy(forces, last * 3, forces, slot * 3, 3);
+
+                modules[slot] = modules[last];
+                modules[slot].slot = slot;
+
+            }
+
+            modules[last] = null;
+            module.slot = -1;
+
+        }
+
+    }
+
+    private static void grow(int capacity) {
+
+        positions = Arrays.copyOf(positions, capacity * 3);
+        rotations = Arrays.copyOf(rotations, capacity * 3);
+        directions = Arrays.copyOf(directions, capacity * 3);
+        speeds = Arrays.copyOf(speeds, capacity * 3);
+        forces = Arrays.copyOf(forces, capacity * 3);
+        modules = Arrays.copyOf(modules, capacity);
+
+    }
+
+    private static void setVector(float[] array, int slot, Vector3f vector) {
+
+        array[slot * 3] = vector.x;
+        array[slot * 3 + 1] = vector.y;
+        array[slot * 3 + 2] = vector.z;
+
+    }
+
+    /**
+     * Integrates the applied forces and the drag of all slots, the same way MovementModule does for a single game object.
+     * Only touches the arrays, the game objects are updated by copyToGameObjects().
+     *
+     * @param deltaTime The length of the tick in milliseconds.
+     */
+    static void integrate(float deltaTime) {
+
+        float decay = (float) Math.exp(-MovementModule.DRAG * deltaTime);
+        float spaceDecay = (1 - (float) Math.exp(-MovementModule.DRAG * deltaTime)) / MovementModule.DRAG;
+
+        //Every component moves independently, so all slots are one flat loop
+        for (int i = 0; i < count * 3; i++) {
+
+            float acceleration = forces[i] / MovementModule.MASS;
+            float startSpeed = speeds[i];
+
+            positions[i] += acceleration / MovementModule.DRAG * deltaTime + (startSpeed - acceleration / MovementModule.DRAG) * spaceDecay;
+            speeds[i] = acceleration / MovementModule.DRAG + (startSpeed - acceleration / MovementModule.DRAG) * decay;
+            forces[i] = 0;
+
+        }
+
+        for (int slot = 0; slot < count; slot++)
+            Transform.computeDirection(rotations[slot * 3], rotations[slot * 3 + 1], rotations[slot * 3 + 2], directions, slot * 3);
+
+    }
+
+    /**
+     * Copies the positions and directions back into the game objects and updates their place in the spatial index.
+     */
+    static void copyToGameObjects() {
+
+        for (int slot = 0; slot < count; slot++) {
+
+            GameObject parent = modules[slot].parent;
+
+            parent.position.set(positions[slot * 3], positions[slot * 3 + 1], positions[slot * 3 + 2]);
+            parent.percentRotation.set(directions[slot * 3], directions[slot * 3 + 1], directions[slot * 3 + 2]);
+
+            ObjectController.updateGameObject(parent);
+
+        }
+
+    }
+
+}
@@ -7,12 +7,11 @@
 package lightEngine.gameObjects.modules.renderable;
 
 import lightEngine.graphics.GraphicsController;
-import lightEngine.graphics.Renderer;
+import lightEngine.graphics.RenderQueue;
 import lightEngine.util.input.Input;
 import lightEngine.util.math.vectors.VectorHelper;
 import lightEngine.util.time.TimeHelper;
 import org.lwjgl.input.Keyboard;
-import org.lwjgl.opengl.Display;
 import org.lwjgl.util.vector.Matrix4f;
 import org.lwjgl.util.vector.Vector3f;
 
@@ -28,12 +27,24 @@ public class Camera extends ModuleRenderable {
     public void onUpdate() {}
 
     public Matrix4f getViewProjectionMatrix() {
+        return getViewProjectionMatrix(parent.position, parent.rotation);
+    }
+
+    /**
+     * Calculates the view-projection matrix for a given camera transform.
+     * The render thread uses this with the transform copied into the render queue.
+     *
+     * @param position The position of the camera
+     * @param rotation The rotation of the camera in degrees
+     * @return The view-projection matrix
+     */
+    public Matrix4f getViewProjectionMatrix(Vector3f position, Vector3f rotation) {
 
         Matrix4f projectionMatrix = new Matrix4f();
         Matrix4f viewMatrix = new Matrix4f();
         Matrix4f viewProjectionMatrix = new Matrix4f();
 
-        float aspectRatio = (float) Display.getWidth() / (float)Display.getHeight();
+        float aspectRatio = GraphicsController.getAspectRatio();
         float farPlane = GraphicsController.renderDistance;
         float nearPlane = 0.1f;
         float y_scale = (float)(1f / Math.tan(Math.toRadians(GraphicsController.fieldOfView / 2)));
@@ -47,10 +58,10 @@ public class Camera extends ModuleRenderable {
         projectionMatrix.m32 = -((2 * nearPlane * farPlane) / frustum_length);
         projectionMatrix.m33 = 0;
 
-        Matrix4f.rotate((float) Math.toRadians(parent.rotation.x), new Vector3f(1, 0, 0), viewMatrix, viewMatrix);
-        Matrix4f.rotate((float) Math.toRadians(parent.rotation.y), new Vector3f(0, 1, 0), viewMatrix, viewMatrix);
-        Matrix4f.rotate((float) Math.toRadians(parent.rotation.z), new Vector3f(0, 0, 1), viewMatrix, viewMatrix);
-        Matrix4f.translate(VectorHelper.negateVector(parent.position), viewMatrix, viewMatrix);
+        Matrix4f.rotate((float) Math.toRadians(rotation.x), new Vector3f(1, 0, 0), viewMatrix, viewMatrix);
+        Matrix4f.rotate((float) Math.toRadians(rotation.y), new Vector3f(0, 1, 0), viewMatrix, viewMatrix);
+        Matrix4f.rotate((float) Math.toRadians(rotation.z), new Vector3f(0, 0, 1), viewMatrix, viewMatrix);
+        Matrix4f.translate(VectorHelper.negateVector(position), viewMatrix, viewMatrix);
 
         Matrix4f.mul(projectionMatrix, viewMatrix, viewProjectionMatrix);
 
@@ -59,10 +70,15 @@ public class Camera extends ModuleRenderable {
     }
 
     @Override
-    public void addToRenderQueue() {
+    public void addToRenderQueue(RenderQueue queue) {
 
-        Renderer.currentRenderQueue.setCamera(this);
+        queue.setCamera(this);
 
     }
 
-}
\ No newline at end of file
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+}
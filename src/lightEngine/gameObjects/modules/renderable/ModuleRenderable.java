@@ -7,9 +7,15 @@
 package lightEngine.gameObjects.modules.renderable;
 
 import lightEngine.gameObjects.modules.Module;
+import lightEngine.graphics.RenderQueue;
 
 public abstract class ModuleRenderable extends Module {
 
-    public abstract void addToRenderQueue();
+    /**
+     * Adds the module to a render queue, this is called on the game thread at the end of every tick.
+     *
+     * @param queue The render queue that is being filled
+     */
+    public abstract void addToRenderQueue(RenderQueue queue);
 
 }
@@ -19,6 +19,4 @@ public abstract class ModuleRenderable3D extends ModuleRenderable {
 
     public abstract void render();
 
-    public abstract void addToRenderQueue();
-
 }
@@ -8,24 +8,24 @@ package lightEngine.gameObjects.modules.renderable;
 
 import lightEngine.gameObjects.BoundingBox;
 import lightEngine.gameObjects.GameObject;
+import lightEngine.graphics.RenderQueue;
 import lightEngine.graphics.Renderer;
-import lightEngine.graphics.renderable.models.Face;
+import lightEngine.graphics.buffers.BufferManager;
+import lightEngine.graphics.renderable.models.Mesh;
 import lightEngine.graphics.renderable.models.Model;
 import lightEngine.graphics.renderable.models.SubModel;
 import lightEngine.util.rendering.ModelHelper;
-import org.lwjgl.util.vector.Vector2f;
 import org.lwjgl.util.vector.Vector3f;
 import org.lwjgl.util.vector.Vector4f;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class RenderModule extends ModuleRenderable3D {
 
     public transient Model model;
     public String modelFileName;
     transient boolean isStatic, displayListsGenerated;
     transient int displayListIndex;
+    transient Mesh[] acquiredMeshes; //Meshes whose buffers are used by the dynamic render path, only touched on the render thread
+    private transient volatile boolean destroyed; //A render queue can still contain the module after it was destroyed
     public Vector4f color;
 
     public RenderModule(Model model) {
@@ -66,6 +66,8 @@ public class RenderModule extends ModuleRenderable3D {
 
     public void render() {
 
+        if (destroyed) return;
+
         //If model has a texture name, set the texture
         model.subModels.stream()
           .filter(subModel -> subModel.material.hasTexture() && subModel.material.getTexture() == null)
@@ -73,48 +75,10 @@ public class RenderModule extends ModuleRenderable3D {
 
         if (isStatic && !displayListsGenerated) {
 
-            List<Vector3f> renderVertices = new ArrayList<>();
-            List<Vector3f> renderNormals = new ArrayList<>();
-            List<Vector2f> renderUVs = new ArrayList<>();
-
             displayListIndex = Renderer.displayListCounter;
 
-            for (SubModel subModel : model.subModels) {
-
-                for (Face face : subModel.faces) {
-
-                    Vector3f v1 = subModel.vertices.get((int) face.vertexIndices.x);
-                    renderVertices.add(v1);
-
-                    Vector3f v2 = subModel.vertices.get((int) face.vertexIndices.y);
-                    renderVertices.add(v2);
-
-                    Vector3f v3 = subModel.vertices.get((int) face.vertexIndices.z);
-                    renderVertices.add(v3);
-
-                    Vector2f uv1 = subModel.uvs.get((int) face.uvIndices.x);
-                    renderUVs.add(new Vector2f(uv1.x, 1 - uv1.y));
-
-                    Vector2f uv2 = subModel.uvs.get((int) face.uvIndices.y);
-                    renderUVs.add(new Vector2f(uv2.x, 1 - uv2.y));
-
-                    Vector2f uv3 = subModel.uvs.get((int) face.uvIndices.z);
-                    renderUVs.add(new Vector2f(uv3.x, 1 - uv3.y));
-
-                    Vector3f n1 = subModel.normals.get((int) face.normalIndices.x);
-                    renderNormals.add(n1);
-
-                    Vector3f n2 = subModel.normals.get((int) face.normalIndices.y);
-                    renderNormals.add(n2);
-
-                    Vector3f n3 = subModel.normals.get((int) face.normalIndices.z);
-                    renderNormals.add(n3);
-
-                }
-
-                Renderer.addDisplayList(renderVertices, renderNormals, renderUVs, subModel.material, Renderer.RENDER_TRIANGLES);
-
-            }
+            for (SubModel subModel : model.subModels)
+                Renderer.addDisplayList(subModel.getMesh(), subModel.material, Renderer.RENDER_TRIANGLES);
 
             displayListsGenerated = true;
 
@@ -122,67 +86,68 @@ public class RenderModule extends ModuleRenderable3D {
 
         if (isStatic && displayListsGenerated) {
 
+            Vector3f position = Renderer.currentRenderQueue.getPosition(parent);
+            Vector3f rotation = Renderer.currentRenderQueue.getRotation(parent);
+
             for (int i = 0; i < model.subModels.size(); i++) {
 
-                Renderer.renderObject3D(displayListIndex + i, parent.position, parent.rotation, model.subModels.get(i).material, model.subModels.get(i).color, 0);
+                Renderer.renderObject3D(displayListIndex + i, position, rotation, model.subModels.get(i).material, model.subModels.get(i).color, 0);
 
             }
 
         } else {
 
-            List<Vector3f> renderVertices;
-            List<Vector3f> renderNormals;
-            List<Vector2f> renderUVs;
+            if (acquiredMeshes == null) acquiredMeshes = new Mesh[model.subModels.size()];
 
-            for (SubModel subModel : model.subModels) {
-
-                renderVertices = new ArrayList<>();
-                renderNormals = new ArrayList<>();
-                renderUVs = new ArrayList<>();
+            for (int i = 0; i < model.subModels.size(); i++) {
 
-                for (Face face : subModel.faces) {
+                SubModel subModel = model.subModels.get(i);
+                Mesh mesh = subModel.getMesh();
 
-                    Vector3f v1 = subModel.vertices.get((int) face.vertexIndices.x);
-                    renderVertices.add(v1);
+                //The buffers stay alive until the module gets destroyed
+                if (acquiredMeshes[i] != mesh) {
+                    if (acquiredMeshes[i] != null) BufferManager.release(acquiredMeshes[i]);
+                    BufferManager.acquire(mesh);
+                    acquiredMeshes[i] = mesh;
+                }
 
-                    Vector3f v2 = subModel.vertices.get((int) face.vertexIndices.y);
-                    renderVertices.add(v2);
+                Renderer.renderObject3D(mesh, subModel.material, subModel.color, Renderer.RENDER_TRIANGLES, 0);
 
-                    Vector3f v3 = subModel.vertices.get((int) face.vertexIndices.z);
-                    renderVertices.add(v3);
+            }
 
-                    Vector2f uv1 = subModel.uvs.get((int) face.uvIndices.x);
-                    renderUVs.add(new Vector2f(uv1.x, 1 - uv1.y));
+        }
 
-                    Vector2f uv2 = subModel.uvs.get((int) face.uvIndices.y);
-                    renderUVs.add(new Vector2f(uv2.x, 1 - uv2.y));
+    }
 
-                    Vector2f uv3 = subModel.uvs.get((int) face.uvIndices.z);
-                    renderUVs.add(new Vector2f(uv3.x, 1 - uv3.y));
+    public RenderModule setColor(Vector4f color) {
 
-                    Vector3f n1 = subModel.normals.get((int) face.normalIndices.x);
-                    renderNormals.add(n1);
+        this.color = color;
+        return this;
 
-                    Vector3f n2 = subModel.normals.get((int) face.normalIndices.y);
-                    renderNormals.add(n2);
+    }
 
-                    Vector3f n3 = subModel.normals.get((int) face.normalIndices.z);
-                    renderNormals.add(n3);
+    @Override
+    public void onDestroy() {
 
-                }
+        super.onDestroy();
 
-                Renderer.renderObject3D(renderVertices, renderNormals, renderUVs, subModel.material, subModel.color, Renderer.RENDER_TRIANGLES, 0);
+        destroyed = true;
+        BufferManager.releaseLater(this::releaseMeshes);
 
-            }
+    }
 
-        }
+    /**
+     * Releases the acquired meshes, runs on the render thread via BufferManager.releaseLater().
+     * A render() that is still running when the module gets destroyed or saved finishes first, after a destroy the following ones return early.
+     */
+    private void releaseMeshes() {
 
-    }
+        if (acquiredMeshes == null) return;
 
-    public RenderModule setColor(Vector4f color) {
+        for (Mesh mesh : acquiredMeshes)
+            if (mesh != null) BufferManager.release(mesh);
 
-        this.color = color;
-        return this;
+        acquiredMeshes = null;
 
     }
 
@@ -190,6 +155,7 @@ public class RenderModule extends ModuleRenderable3D {
     public void onSave() {
 
         super.onSave();
+        BufferManager.releaseLater(this::releaseMeshes);
         model = null; //Delete unserializable model
 
     }
@@ -203,10 +169,15 @@ public class RenderModule extends ModuleRenderable3D {
     }
 
     @Override
-    public void addToRenderQueue() {
+    public void addToRenderQueue(RenderQueue queue) {
 
-        Renderer.currentRenderQueue.addModel(this);
+        queue.addModel(this);
 
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return true; //Has no update logic, everything happens on the render thread
+    }
+
 }
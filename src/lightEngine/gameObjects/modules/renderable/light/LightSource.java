@@ -7,7 +7,7 @@
 package lightEngine.gameObjects.modules.renderable.light;
 
 import lightEngine.gameObjects.modules.renderable.ModuleRenderable;
-import lightEngine.graphics.Renderer;
+import lightEngine.graphics.RenderQueue;
 import lightEngine.util.data.DataTypeHelper;
 import lightEngine.util.math.vectors.VectorHelper;
 import org.lwjgl.util.vector.Vector3f;
@@ -34,8 +34,13 @@ public abstract class LightSource extends ModuleRenderable {
         return this;
     }
 
-    public void addToRenderQueue() {
-        Renderer.currentRenderQueue.addLightSource(this);
+    public void addToRenderQueue(RenderQueue queue) {
+        queue.addLightSource(this);
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
     }
 
 }
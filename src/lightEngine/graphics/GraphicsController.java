@@ -6,16 +6,15 @@
 
 package lightEngine.graphics;
 
+import lightEngine.graphics.buffers.BufferManager;
+import lightEngine.graphics.device.GLGraphicsDevice;
+import lightEngine.graphics.device.GraphicsDevice;
 import lightEngine.util.data.ColorHelper;
 import lightEngine.util.input.Input;
 import lightEngine.util.input.InputEventType;
 import lightEngine.util.resources.PreferenceHelper;
-import org.lwjgl.BufferUtils;
-import org.lwjgl.LWJGLException;
+import lightEngine.util.time.TimeHelper;
 import org.lwjgl.input.Keyboard;
-import org.lwjgl.input.Mouse;
-import org.lwjgl.opengl.Display;
-import org.lwjgl.opengl.PixelFormat;
 import org.lwjgl.util.vector.Vector4f;
 
 import javax.imageio.ImageIO;
@@ -28,13 +27,9 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
-import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL32.GL_DEPTH_CLAMP;
-import static org.lwjgl.util.glu.GLU.gluOrtho2D;
-import static org.lwjgl.util.glu.GLU.gluPerspective;
-
 public class GraphicsController {
 
+    public static GraphicsDevice device = new GLGraphicsDevice(); //Everything that talks to the GPU or the window goes through this
     public static Dimension currentRenderDimension;
     public static boolean isFullscreen;
     public static boolean mEnchmarkEnabled;
@@ -51,43 +46,29 @@ public class GraphicsController {
     public static boolean shadowMapFullScreen = false;
 
     /**
-     * Creates a new window with OpenGL context, loads all graphics related preferences.
+     * Replaces the graphics device, the buffer management uses it as well.
+     * Has to be called before the display is created.
+     *
+     * @param device The new device, e.g. a RecordingGraphicsDevice to render without a window.
      */
-    public static void createDisplay() {
-
-        width = PreferenceHelper.getInteger("screenWidth");
-        height = PreferenceHelper.getInteger("screenHeight");
-        renderDistance = PreferenceHelper.getInteger("renderDistance");
-        fieldOfView = PreferenceHelper.getInteger("fieldOfView");
-        skyColor = ColorHelper.colorToRgba(ColorHelper.getHexColor(PreferenceHelper.getValue("skyColor")));
-
-        fps = PreferenceHelper.getInteger("framesPerSecond");
-
-        mEnchmarkEnabled = PreferenceHelper.getBoolean("mEnchmarkEnabled");
-        title = PreferenceHelper.getValue("title");
-
-        if (!PreferenceHelper.getBoolean("fullscreen")) {
-
-            setupWindow(width, height, title);
+    public static void setDevice(GraphicsDevice device) {
 
-        } else {
-
-            setupFullscreen();
-
-        }
-
-        try {
+        GraphicsController.device = device;
+        BufferManager.backend = device;
 
-            Mouse.create();
-            Input.assignInputEvent("fullscreen", true, InputEventType.ACTIVATED, Keyboard.KEY_F11);
+    }
 
-        } catch (LWJGLException e) {
+    /**
+     * Creates a new window with OpenGL context, loads all graphics related preferences.
+     */
+    public static void createDisplay() {
 
-            e.printStackTrace();
-            System.exit(1);
+        loadPreferences();
 
-        }
+        isFullscreen = PreferenceHelper.getBoolean("fullscreen");
+        device.openDisplay(width, height, title, isFullscreen);
 
+        Input.assignInputEvent("fullscreen", true, InputEventType.ACTIVATED, Keyboard.KEY_F11);
         Input.assignInputEvent("shadowMap-1", true, InputEventType.ACTIVATED, Keyboard.KEY_0);
         Input.assignInputEvent("shadowMap0", true, InputEventType.ACTIVATED, Keyboard.KEY_1);
         Input.assignInputEvent("shadowMap1", true, InputEventType.ACTIVATED, Keyboard.KEY_2);
@@ -99,7 +80,20 @@ public class GraphicsController {
         Input.assignInputEvent("shadowMap7", true, InputEventType.ACTIVATED, Keyboard.KEY_8);
         Input.assignInputEvent("shadowMapFull", true, InputEventType.ACTIVATED, Keyboard.KEY_P);
 
-        initializeOpenGL();
+    }
+
+    private static void loadPreferences() {
+
+        width = PreferenceHelper.getInteger("screenWidth");
+        height = PreferenceHelper.getInteger("screenHeight");
+        renderDistance = PreferenceHelper.getInteger("renderDistance");
+        fieldOfView = PreferenceHelper.getInteger("fieldOfView");
+        skyColor = ColorHelper.colorToRgba(ColorHelper.getHexColor(PreferenceHelper.getValue("skyColor")));
+
+        fps = PreferenceHelper.getInteger("framesPerSecond");
+
+        mEnchmarkEnabled = PreferenceHelper.getBoolean("mEnchmarkEnabled");
+        title = PreferenceHelper.getValue("title");
 
     }
 
@@ -108,8 +102,7 @@ public class GraphicsController {
      */
     public static void clearScreen() {
 
-        glClearColor(skyColor.x, skyColor.y, skyColor.z, skyColor.w);
-        glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+        device.clear(skyColor.x, skyColor.y, skyColor.z, skyColor.w);
 
     }
 
@@ -123,8 +116,8 @@ public class GraphicsController {
         if (Input.inputEventTriggered("fullscreen")) {
 
             wasResized = true;
-            if (isFullscreen) setupWindow(width, height, title);
-            else setupFullscreen();
+            isFullscreen = !isFullscreen;
+            device.openDisplay(width, height, title, isFullscreen);
 
         } else wasResized = false;
 
@@ -158,64 +151,14 @@ public class GraphicsController {
         if (Input.inputEventTriggered("shadowMapFull"))
             shadowMapFullScreen = !shadowMapFullScreen;
 
-        Display.update();
-        if (!mEnchmarkEnabled) Display.sync(fps);
-
-    }
-
-    /**
-     * Configures the window.
-     *
-     * @param width  Window width
-     * @param height Window height
-     * @param title  Window title
-     */
-    private static void setupWindow(int width, int height, String title) {
-
-        try {
-
-            Display.setDisplayMode(new org.lwjgl.opengl.DisplayMode(width, height));
-            Display.setTitle(title);
-            Display.setFullscreen(false);
-
-            if (!Display.isCreated()) Display.create(new PixelFormat(8, 8, 0, 8));
-
-        } catch (LWJGLException e) {
-
-            e.printStackTrace();
-            System.exit(1);
-
-        }
+        device.updateDisplay();
+        if (!mEnchmarkEnabled) device.sync(fps);
 
-        isFullscreen = false;
-
-        glEnable(GL_DEPTH_TEST);
-        glEnable(GL_DEPTH_CLAMP);
-        glEnable(GL_BLEND);
-
-        glEnable(GL_TEXTURE_2D);
-
-    }
-
-    /**
-     * Changes the window to be a fullscreen one.
-     */
-    private static void setupFullscreen() {
-
-        try {
-
-            Display.setDisplayMode(Display.getDesktopDisplayMode());
-            Display.setFullscreen(true);
-            if (!Display.isCreated()) Display.create(new PixelFormat(8, 8, 0, 8));
-
-        } catch (LWJGLException e) {
-
-            e.printStackTrace();
-            System.exit(1);
-
-        }
-
-        isFullscreen = true;
+        //Frame time percentiles and stutter of the last second
+        if (mEnchmarkEnabled && TimeHelper.oneSecondPassed)
+            device.setTitle(String.format("%s | %d FPS | frame p50 %.2f p95 %.2f p99 %.2f max %.2f ms | %d spikes | tick p99 %.2f ms, %d spikes",
+              title, TimeHelper.FPS, TimeHelper.frameTime50, TimeHelper.frameTime95, TimeHelper.frameTime99, TimeHelper.frameTimeMax, TimeHelper.frameSpikes,
+              TimeHelper.tickTime99, TimeHelper.tickSpikes));
 
     }
 
@@ -226,12 +169,7 @@ public class GraphicsController {
      */
     public static void setParent(Canvas parent) {
 
-        try {
-            Display.setParent(parent);
-        } catch (LWJGLException e) {
-            e.printStackTrace();
-        }
-
+        device.setParent(parent);
     }
 
     /**
@@ -239,13 +177,11 @@ public class GraphicsController {
      */
     public static void takeScreenshot() {
 
-        int width = Display.getWidth();
-        int height = Display.getHeight();
+        int width = getWidth();
+        int height = getHeight();
         int bytesPerPixel = 4; //1 byte per r/g/b/a value
 
-        glReadBuffer(GL_FRONT);
-        ByteBuffer buffer = BufferUtils.createByteBuffer(width * height * bytesPerPixel);
-        glReadPixels(0, 0, width, height, GL_RGBA, GL_UNSIGNED_BYTE, buffer);
+        ByteBuffer buffer = device.readPixels(width, height);
 
         DateFormat format = new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss");
         Date date = new Date();
@@ -284,7 +220,7 @@ public class GraphicsController {
      * @param title The desired title
      */
     public static void setWindowTitle(String title) {
-        Display.setTitle(title);
+        device.setTitle(title);
     }
 
     /**
@@ -293,7 +229,7 @@ public class GraphicsController {
      * @return The current game window width
      */
     public static int getWidth() {
-        return width;
+        return device.getDisplayWidth();
     }
 
     /**
@@ -302,7 +238,7 @@ public class GraphicsController {
      * @return The current game window height
      */
     public static int getHeight() {
-        return height;
+        return device.getDisplayHeight();
     }
 
     /**
@@ -320,22 +256,7 @@ public class GraphicsController {
      * @return The game window's current aspect ratio
      */
     public static float getAspectRatio() {
-        return (float) width / height;
-    }
-
-    /**
-     * Configures OpenGL to look nice.
-     */
-    private static void initializeOpenGL() {
-
-        glShadeModel(GL_SMOOTH);
-        glEnable(GL_TEXTURE_2D);
-        glEnable(GL_BLEND);
-        glEnable(GL_DEPTH_TEST);
-        glEnable(GL_CULL_FACE);
-        glCullFace(GL_BACK);
-        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
-
+        return (float) getWidth() / getHeight();
     }
 
     /**
@@ -346,16 +267,7 @@ public class GraphicsController {
 
         if (currentRenderDimension != Dimension.DIM_2) {
 
-            glMatrixMode(GL_MODELVIEW);
-            glMatrixMode(GL_PROJECTION);
-            glLoadIdentity();
-            gluOrtho2D(0, Display.getWidth(), Display.getHeight(), 0);
-            glViewport(0, 0, Display.getWidth(), Display.getHeight());
-            glMatrixMode(GL_MODELVIEW);
-
-            glPushMatrix();
-            glLoadIdentity();
-
+            device.setOrthographicProjection(getWidth(), getHeight());
             currentRenderDimension = Dimension.DIM_2;
 
         }
@@ -370,13 +282,7 @@ public class GraphicsController {
 
         if (currentRenderDimension != Dimension.DIM_3) {
 
-            glPopMatrix(); //From 2D
-            glMatrixMode(GL_PROJECTION);
-            glLoadIdentity();
-            gluPerspective(fieldOfView, (float) Display.getWidth() / Display.getHeight(), 0.1f, renderDistance);
-            glViewport(0, 0, Display.getWidth(), Display.getHeight());
-            glMatrixMode(GL_MODELVIEW);
-
+            device.setPerspectiveProjection(fieldOfView, getWidth(), getHeight(), 0.1f, renderDistance);
             currentRenderDimension = Dimension.DIM_3;
 
         }
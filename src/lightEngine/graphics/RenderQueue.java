@@ -6,27 +6,107 @@
 
 package lightEngine.graphics;
 
+import lightEngine.gameObjects.GameObject;
 import lightEngine.gameObjects.modules.gui.GUIElement;
+import lightEngine.graphics.gui.GUIScreen;
 import lightEngine.gameObjects.modules.renderable.Camera;
 import lightEngine.gameObjects.modules.renderable.ModuleRenderable3D;
 import lightEngine.gameObjects.modules.renderable.light.LightSource;
+import lightEngine.util.math.AABBTree;
+import lightEngine.util.math.Frustum;
+import lightEngine.util.time.Profiler;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector3f;
+import org.lwjgl.util.vector.Vector4f;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * A snapshot of everything the render thread needs for one frame.
+ * Queues are built on the game thread at the end of a tick and handed to the render thread via Renderer.renderQueues.
+ * The transforms of all queued game objects and the light colors are copied, so the render thread never reads state the game thread is changing.
+ * Queues are reused, a published queue must not be changed until it was cleared by the next fill().
+ */
 public class RenderQueue {
 
+    private static final Profiler.Marker GUI = Profiler.addMarker("GUI");
+
     public List<LightSource> lightSources = new ArrayList<>();
     public Camera camera;
     public List<ModuleRenderable3D> modelQueue = new ArrayList<>();
     public List<GUIElement> guiQueue = new ArrayList<>();
 
+    //Filled by cull(), the models that are visible for the camera and for every light source
+    public List<ModuleRenderable3D> visibleModels = new ArrayList<>();
+    public List<List<ModuleRenderable3D>> visibleShadowCasters = new ArrayList<>();
+
+    //Reused by every cull(), the world bounds of the models are copied by addModel(), 6 floats per model
+    private final Frustum frustum = new Frustum();
+    private final List<List<ModuleRenderable3D>> shadowCasterLists = new ArrayList<>();
+    private float[] modelBounds = new float[6 * 64];
+
+    //The queue's own spatial index over the copied bounds, brought up to date by cull() and kept between fills
+    private final AABBTree<ModuleRenderable3D> modelTree = new AABBTree<>(1);
+    private final Map<ModuleRenderable3D, int[]> modelLeaves = new IdentityHashMap<>(); //Leaf and the cull that last updated it
+    private int cullCount;
+
+    //Copied transforms, the vectors are pooled and reused by every fill()
+    private Map<GameObject, Integer> transformIndices = new IdentityHashMap<>();
+    private List<Vector3f> positions = new ArrayList<>();
+    private List<Vector3f> rotations = new ArrayList<>();
+    private List<Vector3f> directions = new ArrayList<>();
+    private List<Matrix4f> modelMatrices = new ArrayList<>();
+    private List<Vector4f> lightColors = new ArrayList<>();
+    private int transformCount;
+
+    /**
+     * Clears the queue and adds the renderable modules of all game objects and GUI screens.
+     * This has to be called on the game thread.
+     *
+     * @param gameObjects The game objects to render
+     * @param guiScreens  The GUI screens to render
+     */
+    public void fill(List<GameObject> gameObjects, List<GUIScreen> guiScreens) {
+
+        clear();
+
+        for (GameObject gameObject : gameObjects) gameObject.addToRenderQueue(this);
+
+        for (GUIScreen screen : guiScreens)
+            for (GUIElement element : screen.getElements()) element.addToRenderQueue(this);
+
+    }
+
+    /**
+     * Removes everything from the queue, the pooled vectors are kept.
+     */
+    public void clear() {
+
+        lightSources.clear();
+        camera = null;
+        modelQueue.clear();
+        guiQueue.clear();
+
+        visibleModels.clear();
+        visibleShadowCasters.clear();
+
+        transformIndices.clear();
+        transformCount = 0;
+
+    }
+
     /**
      * Sets the active camera.
      *
      * @param camera The desired camera
      */
     public void setCamera(Camera camera) {
+        storeTransform(camera.parent);
         this.camera = camera;
     }
 
@@ -36,7 +116,14 @@ public class RenderQueue {
      * @param module The desired model
      */
     public void addModel(ModuleRenderable3D module) {
+
+        storeTransform(module.parent);
+
+        if (modelBounds.length < (modelQueue.size() + 1) * 6) modelBounds = Arrays.copyOf(modelBounds, modelBounds.length * 2);
+        module.parent.getWorldBounds(modelBounds, modelQueue.size() * 6);
+
         modelQueue.add(module);
+
     }
 
     /**
@@ -54,7 +141,162 @@ public class RenderQueue {
      * @param lightSource The desired light source
      */
     public void addLightSource(LightSource lightSource) {
+
+        storeTransform(lightSource.parent);
+
+        if (lightColors.size() == lightSources.size()) lightColors.add(new Vector4f());
+        lightColors.get(lightSources.size()).set(lightSource.color);
+
         lightSources.add(lightSource);
+
+    }
+
+    /**
+     * Returns the position a game object had when it was added to the queue.
+     *
+     * @param gameObject A game object with a module in this queue
+     * @return The copied position, must not be changed
+     */
+    public Vector3f getPosition(GameObject gameObject) {
+        return positions.get(transformIndices.get(gameObject));
+    }
+
+    /**
+     * Returns the rotation a game object had when it was added to the queue.
+     *
+     * @param gameObject A game object with a module in this queue
+     * @return The copied rotation, must not be changed
+     */
+    public Vector3f getRotation(GameObject gameObject) {
+        return rotations.get(transformIndices.get(gameObject));
+    }
+
+    /**
+     * Returns the direction (percentRotation) a game object had when it was added to the queue.
+     *
+     * @param gameObject A game object with a module in this queue
+     * @return The copied direction, must not be changed
+     */
+    public Vector3f getDirection(GameObject gameObject) {
+        return directions.get(transformIndices.get(gameObject));
+    }
+
+    /**
+     * Returns the model matrix a game object had when it was added to the queue, all render passes of a frame use the same one.
+     *
+     * @param gameObject A game object with a module in this queue
+     * @return The copied matrix, must not be changed
+     */
+    public Matrix4f getModelMatrix(GameObject gameObject) {
+        return modelMatrices.get(transformIndices.get(gameObject));
+    }
+
+    /**
+     * Returns the color a light source had when it was added to the queue.
+     *
+     * @param index The index of the light source in lightSources
+     * @return The copied color and intensity, must not be changed
+     */
+    public Vector4f getLightColor(int index) {
+        return lightColors.get(index);
+    }
+
+    private void storeTransform(GameObject gameObject) {
+
+        if (transformIndices.containsKey(gameObject)) return;
+
+        if (transformCount == positions.size()) {
+
+            positions.add(new Vector3f());
+            rotations.add(new Vector3f());
+            directions.add(new Vector3f());
+            modelMatrices.add(new Matrix4f());
+
+        }
+
+        //This runs on the game thread, so the transform's cached matrix can be used, it's only recalculated for game objects that moved
+        positions.get(transformCount).set(gameObject.position);
+        rotations.get(transformCount).set(gameObject.rotation);
+        directions.get(transformCount).set(gameObject.percentRotation);
+        modelMatrices.get(transformCount).load(gameObject.transform.getModelMatrix());
+
+        transformIndices.put(gameObject, transformCount++);
+
+    }
+
+    /**
+     * Determines which models are visible for the camera and for each light source.
+     * The models are looked up in a spatial index of the queue itself, which is updated from the bounds copied by fill().
+     * So the render thread never touches the spatial index of the ObjectController that the game thread is changing.
+     *
+     * @param cameraMatrix  The view-projection matrix of the camera
+     * @param lightMatrices The view-projection matrices of the light sources, in the order of lightSources
+     */
+    public void cull(Matrix4f cameraMatrix, Matrix4f[] lightMatrices) {
+
+        updateModelTree();
+
+        collectVisibleModels(frustum.setFromMatrix(cameraMatrix), visibleModels);
+
+        visibleShadowCasters.clear();
+
+        for (int i = 0; i < lightMatrices.length; i++) {
+
+            if (shadowCasterLists.size() == i) shadowCasterLists.add(new ArrayList<>());
+
+            List<ModuleRenderable3D> shadowCasters = shadowCasterLists.get(i);
+            collectVisibleModels(frustum.setFromMatrix(lightMatrices[i]), shadowCasters);
+
+            visibleShadowCasters.add(shadowCasters);
+
+        }
+
+    }
+
+    /**
+     * Moves the leaves of all queued models to their copied bounds, adds new models and removes the ones that aren't queued anymore.
+     * Most models don't leave their fat boxes between two frames, so the tree only changes for the ones that moved far enough.
+     */
+    private void updateModelTree() {
+
+        cullCount++;
+
+        for (int i = 0; i < modelQueue.size(); i++) {
+
+            ModuleRenderable3D module = modelQueue.get(i);
+            int[] leaf = modelLeaves.get(module);
+
+            if (leaf == null) modelLeaves.put(module, new int[]{modelTree.insert(module, modelBounds, i * 6), cullCount});
+            else {
+                modelTree.move(leaf[0], modelBounds, i * 6);
+                leaf[1] = cullCount;
+            }
+
+        }
+
+        //If every leaf was updated, no model was removed since the last cull
+        if (modelLeaves.size() == modelQueue.size()) return;
+
+        Iterator<int[]> leaves = modelLeaves.values().iterator();
+
+        while (leaves.hasNext()) {
+
+            int[] leaf = leaves.next();
+
+            if (leaf[1] != cullCount) {
+                modelTree.remove(leaf[0]);
+                leaves.remove();
+            }
+
+        }
+
+    }
+
+    private void collectVisibleModels(Frustum frustum, List<ModuleRenderable3D> models) {
+
+        models.clear();
+        modelTree.queryFrustum(frustum, models);
+
     }
 
     /**
@@ -66,7 +308,10 @@ public class RenderQueue {
         Renderer.renderScene();
 
         GraphicsController.switchTo2D();
+
+        Profiler.begin(GUI);
         guiQueue.forEach(GUIElement::render);
+        Profiler.end(GUI);
 
     }
 
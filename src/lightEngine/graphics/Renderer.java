@@ -6,21 +6,27 @@
 
 package lightEngine.graphics;
 
+import lightEngine.gameObjects.modules.renderable.Camera;
 import lightEngine.gameObjects.modules.renderable.ModuleRenderable3D;
 import lightEngine.gameObjects.modules.renderable.light.DirectionalLightSource;
 import lightEngine.gameObjects.modules.renderable.light.LightSource;
 import lightEngine.gameObjects.modules.renderable.light.SpotLightSource;
+import lightEngine.graphics.buffers.BufferManager;
+import lightEngine.graphics.buffers.MeshBuffers;
 import lightEngine.graphics.renderable.materials.Material2D;
 import lightEngine.graphics.renderable.materials.Material3D;
+import lightEngine.graphics.renderable.models.Mesh;
 import lightEngine.util.data.DataTypeHelper;
 import lightEngine.util.math.MathHelper;
 import lightEngine.util.math.NumberFormatHelper;
 import lightEngine.util.math.vectors.VectorHelper;
 import lightEngine.util.rendering.ShaderHelper;
 import lightEngine.util.rendering.TextureHelper;
+import lightEngine.util.rendering.UniformRegistry;
 import lightEngine.util.resources.ResourceHelper;
+import lightEngine.util.threading.TripleBuffer;
+import lightEngine.util.time.Profiler;
 import org.lwjgl.BufferUtils;
-import org.lwjgl.opengl.Display;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.util.vector.Matrix4f;
 import org.lwjgl.util.vector.Vector2f;
@@ -30,15 +36,9 @@ import org.newdawn.slick.opengl.Texture;
 
 import java.io.File;
 import java.nio.*;
+import java.util.Arrays;
 import java.util.List;
 
-import static org.lwjgl.opengl.EXTFramebufferObject.*;
-import static org.lwjgl.opengl.GL11.*;
-import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
-import static org.lwjgl.opengl.GL13.glActiveTexture;
-import static org.lwjgl.opengl.GL15.*;
-import static org.lwjgl.opengl.GL20.*;
-
 public class Renderer {
 
     //Legitimately copying all of OpenGL's render modes
@@ -58,52 +58,66 @@ public class Renderer {
 
     public static RenderQueue currentRenderQueue;
 
+    //Render queues are filled by the game thread at the end of every tick and rendered by the render thread
+    public static TripleBuffer<RenderQueue> renderQueues = new TripleBuffer<>(RenderQueue::new);
+
     public static int displayListCounter = 0;
 
     public static boolean shadowCalculation;
     public static boolean shadowsSetUp = false;
 
-    private static int[] shadowMaps;
-    private static int[] shadowMapFBOs;
-    private static int[] shadowMapRBOs;
+    private static final int MAX_LIGHT_SOURCES = 8; //Has to match maxLightSourceCount in the lighting shader
+    private static final String[] SHADOW_MAP_UNIFORMS = {"shadowMap0", "shadowMap1", "shadowMap2", "shadowMap3", "shadowMap4", "shadowMap5", "shadowMap6", "shadowMap7"};
+
+    //Reused every frame to upload the light source data
+    private static FloatBuffer lightPositions = BufferUtils.createFloatBuffer(MAX_LIGHT_SOURCES * 3);
+    private static FloatBuffer lightDirections = BufferUtils.createFloatBuffer(MAX_LIGHT_SOURCES * 3);
+    private static FloatBuffer lightColors = BufferUtils.createFloatBuffer(MAX_LIGHT_SOURCES * 3);
+    private static FloatBuffer lightStrengths = BufferUtils.createFloatBuffer(MAX_LIGHT_SOURCES);
+    private static FloatBuffer lightAngles = BufferUtils.createFloatBuffer(MAX_LIGHT_SOURCES);
+    private static FloatBuffer lightTransitions = BufferUtils.createFloatBuffer(MAX_LIGHT_SOURCES);
+    private static IntBuffer lightSourceTypes = BufferUtils.createIntBuffer(MAX_LIGHT_SOURCES);
+    private static IntBuffer specularLighting = BufferUtils.createIntBuffer(MAX_LIGHT_SOURCES);
+    private static IntBuffer shadowThrowing = BufferUtils.createIntBuffer(MAX_LIGHT_SOURCES);
+
+    private static final Profiler.Marker SHADOW_PASS = Profiler.addMarker("Shadow pass");
+    private static final Profiler.Marker CULLING = Profiler.addMarker("Culling");
+    private static final Profiler.Marker LIGHTING_PASS = Profiler.addMarker("Lighting pass");
+
+    private static final Vector3f X_AXIS = new Vector3f(1, 0, 0);
+    private static final Vector3f Y_AXIS = new Vector3f(0, 1, 0);
+    private static final Vector3f Z_AXIS = new Vector3f(0, 0, 1);
+
+    //Calculated by prepareScene() for the current render queue, one matrix per shadow throwing light source (at most MAX_LIGHT_SOURCES)
+    private static Matrix4f[] viewProjectionMatrices = new Matrix4f[0];
+    private static Matrix4f cameraMatrix;
+
+    //Reused every frame by prepareScene() and renderScene()
+    private static final Matrix4f projectionMatrix = new Matrix4f();
+    private static final Matrix4f viewMatrix = new Matrix4f();
+    private static final Vector3f negatedPosition = new Vector3f();
+    private static final FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
+
+    private static int[] shadowMaps = new int[0];
+    private static int[] shadowMapFBOs = new int[0];
 
+    /**
+     * Creates a shadow map for every light source of the current render queue that doesn't have one yet, up to MAX_LIGHT_SOURCES.
+     */
     public static void setUpShadowMapPreferences() {
 
         shadowsSetUp = true;
 
-        shadowMapRBOs = new int[currentRenderQueue.lightSources.size()];
-        shadowMapFBOs = new int[currentRenderQueue.lightSources.size()];
-        shadowMaps = new int[currentRenderQueue.lightSources.size()];
-
-        for (int i = 0; i < currentRenderQueue.lightSources.size(); i++) {
-
-            shadowMapFBOs[i] = glGenFramebuffersEXT();
-            glBindFramebufferEXT(GL_FRAMEBUFFER_EXT, shadowMapFBOs[i]);
-
-            shadowMapRBOs[i] = glGenRenderbuffersEXT();
-            glBindRenderbufferEXT(GL_RENDERBUFFER_EXT, shadowMapRBOs[i]);
+        int oldCount = shadowMaps.length;
+        int count = Math.max(oldCount, Math.min(currentRenderQueue.lightSources.size(), MAX_LIGHT_SOURCES));
 
-            glRenderbufferStorageEXT(GL_RENDERBUFFER_EXT,
-                GL_DEPTH_COMPONENT, shadowMapResolution, shadowMapResolution);
+        shadowMapFBOs = Arrays.copyOf(shadowMapFBOs, count);
+        shadowMaps = Arrays.copyOf(shadowMaps, count);
 
-            glFramebufferRenderbufferEXT(GL_FRAMEBUFFER_EXT,
-                GL_DEPTH_ATTACHMENT_EXT, GL_RENDERBUFFER_EXT, shadowMapRBOs[i]);
+        for (int i = oldCount; i < count; i++) {
 
-            shadowMaps[i] = glGenTextures();
-            glBindTexture(GL_TEXTURE_2D, shadowMaps[i]);
-            glTexImage2D(GL_TEXTURE_2D, 0, GL_DEPTH_COMPONENT,
-                    shadowMapResolution, shadowMapResolution, 0,
-                    GL_DEPTH_COMPONENT, GL_UNSIGNED_BYTE,
-                    (java.nio.ByteBuffer) null);
-            glTexParameterf(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
-
-            glFramebufferTexture2DEXT(GL_FRAMEBUFFER_EXT,
-                    GL_DEPTH_ATTACHMENT_EXT, GL_TEXTURE_2D, shadowMaps[i], 0);
-
-            glDrawBuffer(GL_NONE);
-            glReadBuffer(GL_NONE);
-
-            glBindFramebufferEXT(GL_FRAMEBUFFER_EXT, 0);
+            shadowMaps[i] = GraphicsController.device.createDepthTexture(shadowMapResolution);
+            shadowMapFBOs[i] = GraphicsController.device.createDepthFramebuffer(shadowMaps[i], shadowMapResolution);
 
         }
 
@@ -121,9 +135,9 @@ public class Renderer {
      */
     public static void addDisplayList(List<Vector3f> vertices, List<Vector3f> normals, List<Vector2f> uvs, Material3D material, int mode) {
 
-        int displayListHandle = glGenLists(1);
+        int displayListHandle = GraphicsController.device.createDisplayList();
 
-        glNewList(displayListHandle, GL_COMPILE_AND_EXECUTE);
+        GraphicsController.device.beginDisplayList(displayListHandle);
 
         FloatBuffer vertexData = BufferUtils.createFloatBuffer(vertices.size() * 3);
         FloatBuffer normalData = BufferUtils.createFloatBuffer(normals.size() * 3);
@@ -137,51 +151,25 @@ public class Renderer {
         normalData.flip();
         textureData.flip();
 
-        int vboVertexHandle = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        glBufferData(GL_ARRAY_BUFFER, vertexData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-        int vboNormalHandle = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboNormalHandle);
-        glBufferData(GL_ARRAY_BUFFER, normalData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-        int vboTextureHandle = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboTextureHandle);
-        glBufferData(GL_ARRAY_BUFFER, textureData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        int vboVertexHandle = GraphicsController.device.createStaticBuffer(vertexData);
+        int vboNormalHandle = GraphicsController.device.createStaticBuffer(normalData);
+        int vboTextureHandle = GraphicsController.device.createStaticBuffer(textureData);
 
         material.bind();
 
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        glVertexPointer(3, GL_FLOAT, 0, 0l);
-
-        glBindBuffer(GL_ARRAY_BUFFER, vboNormalHandle);
-        glNormalPointer(GL_FLOAT, 0, 0l);
+        GraphicsController.device.setVertexArrays(3, vboVertexHandle, vboNormalHandle, vboTextureHandle);
 
-        glBindBuffer(GL_ARRAY_BUFFER, vboTextureHandle);
-        glTexCoordPointer(2, GL_FLOAT, 0, 0l);
+        GraphicsController.device.drawArrays(mode, vertices.size());
 
-        glEnableClientState(GL_VERTEX_ARRAY);
-        glEnableClientState(GL_NORMAL_ARRAY);
-        glEnableClientState(GL_TEXTURE_COORD_ARRAY);
+        GraphicsController.device.resetVertexArrays();
 
-        glDrawArrays(mode, 0, vertices.size());
-
-        glDisableClientState(GL_TEXTURE_COORD_ARRAY);
-        glDisableClientState(GL_NORMAL_ARRAY);
-        glDisableClientState(GL_VERTEX_ARRAY);
-
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-        glDeleteBuffers(vboVertexHandle);
-        glDeleteBuffers(vboNormalHandle);
-        glDeleteBuffers(vboTextureHandle);
+        GraphicsController.device.deleteBuffer(vboVertexHandle);
+        GraphicsController.device.deleteBuffer(vboNormalHandle);
+        GraphicsController.device.deleteBuffer(vboTextureHandle);
 
         material.release();
 
-        glEndList();
+        GraphicsController.device.endDisplayList();
 
         displayListCounter++;
 
@@ -205,7 +193,7 @@ public class Renderer {
 
         if (!textureFile.exists()) {
 
-            glNewList(displayListHandle, GL_COMPILE_AND_EXECUTE);
+            GraphicsController.device.beginDisplayList(displayListHandle);
 
             FloatBuffer vertexData = BufferUtils.createFloatBuffer(vertices.size() * 3);
             FloatBuffer normalData = BufferUtils.createFloatBuffer(normals.size() * 3);
@@ -216,42 +204,25 @@ public class Renderer {
             vertexData.flip();
             normalData.flip();
 
-            int vboVertexHandle = glGenBuffers();
-            glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-            glBufferData(GL_ARRAY_BUFFER, vertexData, GL_STATIC_DRAW);
-            glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-            int vboNormalHandle = glGenBuffers();
-            glBindBuffer(GL_ARRAY_BUFFER, vboNormalHandle);
-            glBufferData(GL_ARRAY_BUFFER, normalData, GL_STATIC_DRAW);
-            glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-            glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-            glVertexPointer(3, GL_FLOAT, 0, 0l);
-
-            glBindBuffer(GL_ARRAY_BUFFER, vboNormalHandle);
-            glNormalPointer(GL_FLOAT, 0, 0l);
+            int vboVertexHandle = GraphicsController.device.createStaticBuffer(vertexData);
+            int vboNormalHandle = GraphicsController.device.createStaticBuffer(normalData);
 
-            glEnableClientState(GL_VERTEX_ARRAY);
-            glEnableClientState(GL_NORMAL_ARRAY);
+            GraphicsController.device.setVertexArrays(3, vboVertexHandle, vboNormalHandle, 0);
 
-            glDrawArrays(mode, 0, vertices.size());
+            GraphicsController.device.drawArrays(mode, vertices.size());
 
-            glDisableClientState(GL_NORMAL_ARRAY);
-            glDisableClientState(GL_VERTEX_ARRAY);
+            GraphicsController.device.resetVertexArrays();
 
-            glBindBuffer(GL_ARRAY_BUFFER, 0);
+            GraphicsController.device.deleteBuffer(vboNormalHandle);
+            GraphicsController.device.deleteBuffer(vboVertexHandle);
 
-            glDeleteBuffers(vboNormalHandle);
-            glDeleteBuffers(vboVertexHandle);
-
-            glEndList();
+            GraphicsController.device.endDisplayList();
 
         } else {
 
             Texture texture = TextureHelper.getTexture(textureName).getTexture();
 
-            glNewList(displayListHandle, GL_COMPILE_AND_EXECUTE);
+            GraphicsController.device.beginDisplayList(displayListHandle);
 
             FloatBuffer vertexData = BufferUtils.createFloatBuffer(vertices.size() * 3);
             FloatBuffer normalData = BufferUtils.createFloatBuffer(normals.size() * 3);
@@ -265,49 +236,23 @@ public class Renderer {
             normalData.flip();
             textureData.flip();
 
-            int vboVertexHandle = glGenBuffers();
-            glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-            glBufferData(GL_ARRAY_BUFFER, vertexData, GL_STATIC_DRAW);
-            glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-            int vboNormalHandle = glGenBuffers();
-            glBindBuffer(GL_ARRAY_BUFFER, vboNormalHandle);
-            glBufferData(GL_ARRAY_BUFFER, normalData, GL_STATIC_DRAW);
-            glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-            int vboTextureHandle = glGenBuffers();
-            glBindBuffer(GL_ARRAY_BUFFER, vboTextureHandle);
-            glBufferData(GL_ARRAY_BUFFER, textureData, GL_STATIC_DRAW);
-            glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-            glBindTexture(GL_TEXTURE_2D, texture.getTextureID());
-
-            glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-            glVertexPointer(3, GL_FLOAT, 0, 0l);
-
-            glBindBuffer(GL_ARRAY_BUFFER, vboNormalHandle);
-            glNormalPointer(GL_FLOAT, 0, 0l);
+            int vboVertexHandle = GraphicsController.device.createStaticBuffer(vertexData);
+            int vboNormalHandle = GraphicsController.device.createStaticBuffer(normalData);
+            int vboTextureHandle = GraphicsController.device.createStaticBuffer(textureData);
 
-            glBindBuffer(GL_ARRAY_BUFFER, vboTextureHandle);
-            glTexCoordPointer(2, GL_FLOAT, 0, 0l);
+            GraphicsController.device.bindTexture(texture.getTextureID());
 
-            glEnableClientState(GL_VERTEX_ARRAY);
-            glEnableClientState(GL_NORMAL_ARRAY);
-            glEnableClientState(GL_TEXTURE_COORD_ARRAY);
+            GraphicsController.device.setVertexArrays(3, vboVertexHandle, vboNormalHandle, vboTextureHandle);
 
-            glDrawArrays(mode, 0, vertices.size());
+            GraphicsController.device.drawArrays(mode, vertices.size());
 
-            glDisableClientState(GL_TEXTURE_COORD_ARRAY);
-            glDisableClientState(GL_NORMAL_ARRAY);
-            glDisableClientState(GL_VERTEX_ARRAY);
+            GraphicsController.device.resetVertexArrays();
 
-            glBindBuffer(GL_ARRAY_BUFFER, 0);
+            GraphicsController.device.deleteBuffer(vboVertexHandle);
+            GraphicsController.device.deleteBuffer(vboNormalHandle);
+            GraphicsController.device.deleteBuffer(vboTextureHandle);
 
-            glDeleteBuffers(vboVertexHandle);
-            glDeleteBuffers(vboNormalHandle);
-            glDeleteBuffers(vboTextureHandle);
-
-            glEndList();
+            GraphicsController.device.endDisplayList();
 
         }
 
@@ -322,9 +267,9 @@ public class Renderer {
      */
     public static void addDisplayList(List<Vector3f> vertices, List<Vector3f> normals, int mode) {
 
-        int displayListHandle = glGenLists(1);
+        int displayListHandle = GraphicsController.device.createDisplayList();
 
-        glNewList(displayListHandle, GL_COMPILE_AND_EXECUTE);
+        GraphicsController.device.beginDisplayList(displayListHandle);
 
         FloatBuffer vertexData = BufferUtils.createFloatBuffer(vertices.size() * 3);
         FloatBuffer normalData = BufferUtils.createFloatBuffer(normals.size() * 3);
@@ -335,68 +280,49 @@ public class Renderer {
         vertexData.flip();
         normalData.flip();
 
-        int vboVertexHandle = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        glBufferData(GL_ARRAY_BUFFER, vertexData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-        int vboNormalHandle = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboNormalHandle);
-        glBufferData(GL_ARRAY_BUFFER, normalData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        glVertexPointer(3, GL_FLOAT, 0, 0l);
-
-        glBindBuffer(GL_ARRAY_BUFFER, vboNormalHandle);
-        glNormalPointer(GL_FLOAT, 0, 0l);
+        int vboVertexHandle = GraphicsController.device.createStaticBuffer(vertexData);
+        int vboNormalHandle = GraphicsController.device.createStaticBuffer(normalData);
 
-        glEnableClientState(GL_VERTEX_ARRAY);
-        glEnableClientState(GL_NORMAL_ARRAY);
+        GraphicsController.device.setVertexArrays(3, vboVertexHandle, vboNormalHandle, 0);
 
-        glDrawArrays(mode, 0, vertices.size());
+        GraphicsController.device.drawArrays(mode, vertices.size());
 
-        glDisableClientState(GL_NORMAL_ARRAY);
-        glDisableClientState(GL_VERTEX_ARRAY);
+        GraphicsController.device.resetVertexArrays();
 
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        GraphicsController.device.deleteBuffer(vboNormalHandle);
+        GraphicsController.device.deleteBuffer(vboVertexHandle);
 
-        glDeleteBuffers(vboNormalHandle);
-        glDeleteBuffers(vboVertexHandle);
-
-        glEndList();
+        GraphicsController.device.endDisplayList();
 
         displayListCounter++;
 
     }
 
-    public static void renderScene() {
+    /**
+     * Calculates the view-projection matrices of the camera and all light sources and culls the current render queue with them.
+     * Only the first MAX_LIGHT_SOURCES light sources are passed to the shaders, so only they throw shadows.
+     * This only does CPU work, renderScene() calls it before the shadow pass.
+     */
+    public static void prepareScene() {
 
-        if (!shadowsSetUp)
-            setUpShadowMapPreferences();
+        int lightSourceCount = Math.min(currentRenderQueue.lightSources.size(), MAX_LIGHT_SOURCES);
 
-        //first render loop
-        ShaderHelper.useShader("shadowMap");
-        shadowCalculation = true;
+        if (viewProjectionMatrices.length != lightSourceCount) {
 
-        glUniform1f(glGetUniformLocation(ShaderHelper.shaderPrograms.get("shadowMap"), "renderDistance"), GraphicsController.renderDistance);
+            viewProjectionMatrices = new Matrix4f[lightSourceCount];
+            for (int i = 0; i < lightSourceCount; i++) viewProjectionMatrices[i] = new Matrix4f();
 
-        Matrix4f[] viewProjectionMatrices = new Matrix4f[currentRenderQueue.lightSources.size()];
-        Matrix4f[] modelMatrices = new Matrix4f[currentRenderQueue.modelQueue.size()];
+        }
 
-        float aspectRatio = (float)Display.getWidth() / (float)Display.getHeight();
+        float aspectRatio = GraphicsController.getAspectRatio();
         float farPlane = GraphicsController.renderDistance;
         float nearPlane = 0.1f;
 
-        FloatBuffer matrixBuffer = BufferUtils.createFloatBuffer(16);
-
-        for (int i = 0; i < currentRenderQueue.lightSources.size(); i++) {
-
-            matrixBuffer.clear();
+        for (int i = 0; i < lightSourceCount; i++) {
 
             LightSource lightSource = currentRenderQueue.lightSources.get(i);
 
-            Matrix4f projectionMatrix = new Matrix4f();
+            projectionMatrix.setIdentity();
 
             if (lightSource instanceof SpotLightSource) {
 
@@ -413,86 +339,114 @@ public class Renderer {
 
             } else {
 
-                projectionMatrix.m00 = 1f / ((float)Display.getWidth() / 8f);
-                projectionMatrix.m11 = 1f / ((float)Display.getHeight() / 8f);
+                projectionMatrix.m00 = 1f / ((float) GraphicsController.getWidth() / 8f);
+                projectionMatrix.m11 = 1f / ((float) GraphicsController.getHeight() / 8f);
                 projectionMatrix.m22 = -2f / (farPlane - nearPlane);
                 projectionMatrix.m32 = -((farPlane + nearPlane) / (farPlane - nearPlane));
                 projectionMatrix.m33 = 1;
 
             }
 
-            Matrix4f viewMatrix = new Matrix4f();
-            Matrix4f.rotate((float) Math.toRadians(lightSource.parent.rotation.x), new Vector3f(1, 0, 0), viewMatrix, viewMatrix);
-            Matrix4f.rotate((float) Math.toRadians(lightSource.parent.rotation.y), new Vector3f(0, 1, 0), viewMatrix, viewMatrix);
-            Matrix4f.rotate((float) Math.toRadians(lightSource.parent.rotation.z), new Vector3f(0, 0, 1), viewMatrix, viewMatrix);
-            Matrix4f.translate(VectorHelper.negateVector(lightSource.parent.position), viewMatrix, viewMatrix);
+            Vector3f lightRotation = currentRenderQueue.getRotation(lightSource.parent);
+
+            viewMatrix.setIdentity();
+            Matrix4f.rotate((float) Math.toRadians(lightRotation.x), X_AXIS, viewMatrix, viewMatrix);
+            Matrix4f.rotate((float) Math.toRadians(lightRotation.y), Y_AXIS, viewMatrix, viewMatrix);
+            Matrix4f.rotate((float) Math.toRadians(lightRotation.z), Z_AXIS, viewMatrix, viewMatrix);
+            Matrix4f.translate(VectorHelper.scale(currentRenderQueue.getPosition(lightSource.parent), -1, negatedPosition), viewMatrix, viewMatrix);
 
-            viewProjectionMatrices[i] = new Matrix4f();
             Matrix4f.mul(projectionMatrix, viewMatrix, viewProjectionMatrices[i]);
 
-            viewProjectionMatrices[i].store(matrixBuffer);
-            matrixBuffer.flip();
-            glUniformMatrix4(glGetUniformLocation(ShaderHelper.shaderPrograms.get("shadowMap"), "viewProjectionMatrix"), false, matrixBuffer);
-            glUniform3f(glGetUniformLocation(ShaderHelper.shaderPrograms.get("shadowMap"), "lightPosition"),
-                    lightSource.parent.position.x, lightSource.parent.position.y, lightSource.parent.position.z);
+        }
+
+        Camera camera = currentRenderQueue.camera;
+        cameraMatrix = camera.getViewProjectionMatrix(currentRenderQueue.getPosition(camera.parent), currentRenderQueue.getRotation(camera.parent));
+
+        //Only objects inside a view's frustum get rendered for that view
+        Profiler.begin(CULLING);
+        currentRenderQueue.cull(cameraMatrix, viewProjectionMatrices);
+        Profiler.end(CULLING);
 
-            glBindFramebufferEXT(GL_FRAMEBUFFER_EXT, shadowMapFBOs[i]);
-            glPushAttrib(GL_VIEWPORT_BIT);
-            glViewport(0, 0, shadowMapResolution, shadowMapResolution);
-            glClear(GL_DEPTH_BUFFER_BIT);
+    }
 
-            for (int j = 0; j < currentRenderQueue.modelQueue.size(); j++) {
+    public static void renderScene() {
 
-                matrixBuffer.clear();
+        BufferManager.processReleases();
 
-                ModuleRenderable3D module = currentRenderQueue.modelQueue.get(j);
+        UniformRegistry shadowMapUniforms = ShaderHelper.getUniforms("shadowMap");
+        UniformRegistry lightingUniforms = ShaderHelper.getUniforms("lighting");
 
-                modelMatrices[j] = new Matrix4f();
-                Matrix4f.translate(module.parent.position, modelMatrices[j], modelMatrices[j]);
-                Matrix4f.rotate(module.parent.rotation.x, new Vector3f(1, 0, 0), modelMatrices[j], modelMatrices[j]);
-                Matrix4f.rotate(module.parent.rotation.y, new Vector3f(0, 1, 0), modelMatrices[j], modelMatrices[j]);
-                Matrix4f.rotate(module.parent.rotation.z, new Vector3f(0, 0, 1), modelMatrices[j], modelMatrices[j]);
+        if (!shadowsSetUp || shadowMaps.length < Math.min(currentRenderQueue.lightSources.size(), MAX_LIGHT_SOURCES))
+            setUpShadowMapPreferences();
 
-                modelMatrices[j].store(matrixBuffer);
-                matrixBuffer.flip();
-                glUniformMatrix4(glGetUniformLocation(ShaderHelper.shaderPrograms.get("shadowMap"), "modelMatrix"), false, matrixBuffer);
-                glUniform3f(glGetUniformLocation(ShaderHelper.shaderPrograms.get("shadowMap"), "modelPosition"),
-                        module.parent.position.x, module.parent.position.y, module.parent.position.z);
+        prepareScene();
+
+        //first render loop
+        Profiler.begin(SHADOW_PASS);
+        ShaderHelper.useShader("shadowMap");
+        shadowCalculation = true;
+
+        GraphicsController.device.setUniform1f(shadowMapUniforms.getLocation("renderDistance"), GraphicsController.renderDistance);
+
+        for (int i = 0; i < viewProjectionMatrices.length; i++) {
+
+            matrixBuffer.clear();
+
+            Vector3f lightPosition = currentRenderQueue.getPosition(currentRenderQueue.lightSources.get(i).parent);
+
+            viewProjectionMatrices[i].store(matrixBuffer);
+            matrixBuffer.flip();
+            GraphicsController.device.setUniformMatrix4(shadowMapUniforms.getLocation("viewProjectionMatrix"), matrixBuffer);
+            GraphicsController.device.setUniform3f(shadowMapUniforms.getLocation("lightPosition"), lightPosition.x, lightPosition.y, lightPosition.z);
+
+            GraphicsController.device.bindFramebuffer(shadowMapFBOs[i]);
+            GraphicsController.device.setViewport(shadowMapResolution, shadowMapResolution);
+            GraphicsController.device.clearDepth();
+
+            for (ModuleRenderable3D module : currentRenderQueue.visibleShadowCasters.get(i)) {
+
+                Vector3f modelPosition = currentRenderQueue.getPosition(module.parent);
+
+                storeModelMatrix(module, matrixBuffer);
+                GraphicsController.device.setUniformMatrix4(shadowMapUniforms.getLocation("modelMatrix"), matrixBuffer);
+                GraphicsController.device.setUniform3f(shadowMapUniforms.getLocation("modelPosition"), modelPosition.x, modelPosition.y, modelPosition.z);
 
                 module.render();
 
             }
 
-            glPopAttrib();
-            glBindFramebufferEXT(GL_FRAMEBUFFER_EXT, 0);
-            glViewport(0, 0, Display.getWidth(), Display.getHeight());
+            GraphicsController.device.bindFramebuffer(0);
+            GraphicsController.device.setViewport(GraphicsController.getWidth(), GraphicsController.getHeight());
 
         }
 
         ShaderHelper.useNoShader();
+        Profiler.end(SHADOW_PASS);
 
         //second render loop
+        Profiler.begin(LIGHTING_PASS);
         ShaderHelper.useShader("lighting");
         shadowCalculation = false;
 
         int shadowMapToDisplay;
 
-        if (GraphicsController.shadowMapToDisplay >= currentRenderQueue.lightSources.size())
+        if (GraphicsController.shadowMapToDisplay >= viewProjectionMatrices.length)
             shadowMapToDisplay = -1;
 
         else shadowMapToDisplay = GraphicsController.shadowMapToDisplay;
 
-        glUniform1i(glGetUniformLocation(ShaderHelper.shaderPrograms.get("lighting"), "shadowMapToDisplay"), shadowMapToDisplay);
-        glUniform1i(glGetUniformLocation(ShaderHelper.shaderPrograms.get("lighting"), "shadowMapFullScreen"), DataTypeHelper.booleanToInteger(GraphicsController.shadowMapFullScreen));
+        GraphicsController.device.setUniform1i(lightingUniforms.getLocation("shadowMapToDisplay"), shadowMapToDisplay);
+        GraphicsController.device.setUniform1i(lightingUniforms.getLocation("shadowMapFullScreen"), DataTypeHelper.booleanToInteger(GraphicsController.shadowMapFullScreen));
+
+        GraphicsController.device.setUniform1f(lightingUniforms.getLocation("renderDistance"), GraphicsController.renderDistance);
 
-        glUniform1f(glGetUniformLocation(ShaderHelper.shaderPrograms.get("lighting"), "renderDistance"), GraphicsController.renderDistance);
+        setUpLightUniforms(lightingUniforms);
 
         matrixBuffer.clear();
 
-        Matrix4f cameraMatrix = currentRenderQueue.camera.getViewProjectionMatrix();
         cameraMatrix.store(matrixBuffer);
         matrixBuffer.flip();
-        glUniformMatrix4(glGetUniformLocation(ShaderHelper.shaderPrograms.get("lighting"), "viewProjectionMatrix"), false, matrixBuffer);
+        GraphicsController.device.setUniformMatrix4(lightingUniforms.getLocation("viewProjectionMatrix"), matrixBuffer);
 
         for (int i = 0; i < viewProjectionMatrices.length; i++) {
 
@@ -500,29 +454,79 @@ public class Renderer {
 
             viewProjectionMatrices[i].store(matrixBuffer);
             matrixBuffer.flip();
-            glUniformMatrix4(glGetUniformLocation(ShaderHelper.shaderPrograms.get("lighting"), "shadowMapCoordinates[" + i + "]"), false, matrixBuffer);
+            GraphicsController.device.setUniformMatrix4(lightingUniforms.getLocation("shadowMapCoordinates", i), matrixBuffer);
 
-            glActiveTexture(GL_TEXTURE0 + i);
-            glBindTexture(GL_TEXTURE_2D, shadowMaps[i]);
-            glUniform1i(glGetUniformLocation(ShaderHelper.shaderPrograms.get("lighting"), "shadowMap" + i), i);
+            GraphicsController.device.setTextureUnit(i);
+            GraphicsController.device.bindTexture(shadowMaps[i]);
+            GraphicsController.device.setUniform1i(lightingUniforms.getLocation(SHADOW_MAP_UNIFORMS[i]), i);
 
         }
 
-        for (int j = 0; j < currentRenderQueue.modelQueue.size(); j++) {
-
-            matrixBuffer.clear();
+        for (ModuleRenderable3D module : currentRenderQueue.visibleModels) {
 
-            modelMatrices[j].store(matrixBuffer);
-            matrixBuffer.flip();
-            glUniformMatrix4(glGetUniformLocation(ShaderHelper.shaderPrograms.get("lighting"), "modelMatrix"), false, matrixBuffer);
+            storeModelMatrix(module, matrixBuffer);
+            GraphicsController.device.setUniformMatrix4(lightingUniforms.getLocation("modelMatrix"), matrixBuffer);
 
-            currentRenderQueue.modelQueue.get(j).render();
+            module.render();
 
         }
 
-        glBindTexture(GL_TEXTURE_2D, 0);
+        GraphicsController.device.bindTexture(0);
 
         ShaderHelper.useNoShader();
+        Profiler.end(LIGHTING_PASS);
+
+    }
+
+    /**
+     * Writes the model matrix of a renderable module into a buffer.
+     * The matrix was copied from the game object's transform when the render queue was filled, so the shadow passes and the lighting pass share it.
+     *
+     * @param module       The module to be rendered
+     * @param matrixBuffer The buffer to store the matrix in, gets flipped afterwards
+     */
+    private static void storeModelMatrix(ModuleRenderable3D module, FloatBuffer matrixBuffer) {
+
+        matrixBuffer.clear();
+        currentRenderQueue.getModelMatrix(module.parent).store(matrixBuffer);
+        matrixBuffer.flip();
+
+    }
+
+    /**
+     * Adds a display list for a compiled mesh to the OpenGL context.
+     *
+     * @param mesh     The mesh to be used
+     * @param material The material to be used
+     * @param mode     The render mode to be used
+     */
+    public static void addDisplayList(Mesh mesh, Material3D material, int mode) {
+
+        int displayListHandle = GraphicsController.device.createDisplayList();
+
+        GraphicsController.device.beginDisplayList(displayListHandle);
+
+        material.bind();
+        drawMesh(mesh, mode);
+        material.release();
+
+        GraphicsController.device.endDisplayList();
+
+        displayListCounter++;
+
+    }
+
+    /**
+     * Draws a mesh from client side arrays.
+     *
+     * @param mesh The mesh to be drawn
+     * @param mode The render mode to be used
+     */
+    private static void drawMesh(Mesh mesh, int mode) {
+
+        GraphicsController.device.setVertexArrays(mesh.getVertexBuffer(), mesh.getNormalBuffer(), mesh.getUvBuffer());
+        GraphicsController.device.drawElements(mode, mesh.getIndexBuffer());
+        GraphicsController.device.resetVertexArrays();
 
     }
 
@@ -538,237 +542,248 @@ public class Renderer {
      */
     public static void renderObject3D(List<Vector3f> vertices, List<Vector3f> normals, List<Vector2f> uvs, Material3D material, Vector4f color, int mode, float emissiveLightStrength) {
 
-        int shader = shadowCalculation ? ShaderHelper.shaderPrograms.get("shadowMap") : ShaderHelper.shaderPrograms.get("lighting");
+        UniformRegistry uniforms = getCurrentUniforms();
 
-        if (!shadowCalculation) {
+        setUpObjectUniforms(uniforms, material, color, emissiveLightStrength);
 
-            if (GraphicsController.isBlackAndWhite)
-                glUniform4f(glGetUniformLocation(shader, "color"), 1, 1, 1, 1);
-            if (color != null)
-                glUniform4f(glGetUniformLocation(shader, "color"), color.x, color.y, color.z, color.w);
-            glUniform1i(glGetUniformLocation(shader, "lightSourceCount"), currentRenderQueue.lightSources.size());
-            emissiveLightStrength = (float) MathHelper.clamp(emissiveLightStrength, 0, 1);
-            glUniform1f(glGetUniformLocation(shader, "emissiveLightStrength"), emissiveLightStrength);
-            Vector3f cameraPosition = currentRenderQueue.camera.parent.position;
-            glUniform3f(glGetUniformLocation(shader, "cameraPosition"), cameraPosition.x, cameraPosition.y, cameraPosition.z);
+        FloatBuffer vertexData = BufferUtils.createFloatBuffer(vertices.size() * 3);
+        FloatBuffer normalData = BufferUtils.createFloatBuffer(normals.size() * 3);
+        FloatBuffer textureData = BufferUtils.createFloatBuffer(uvs.size() * 2);
 
-            glUniform1f(glGetUniformLocation(shader, "materialShininess"), material.specularHighlightStrength);
-            glUniform1i(glGetUniformLocation(shader, "materialType"), material.type);
-            glUniform1f(glGetUniformLocation(shader, "materialTransparency"), material.color.a);
+        vertices.forEach((vertex) -> vertexData.put(new float[]{vertex.x, vertex.y, vertex.z}));
+        normals.forEach((normal) -> normalData.put(new float[]{normal.x, normal.y, normal.z}));
+        uvs.forEach((uv) -> textureData.put(new float[]{uv.x, uv.y}));
 
-            Vector3f ambientReflectivity = material.ambientReflectivity;
-            glUniform3f(glGetUniformLocation(shader, "reflectionAssets[0]"), ambientReflectivity.x, ambientReflectivity.y, ambientReflectivity.z);
+        vertexData.flip();
+        normalData.flip();
+        textureData.flip();
 
-            Vector3f diffuseReflectivity = material.diffuseReflectivity;
-            glUniform3f(glGetUniformLocation(shader, "reflectionAssets[1]"), diffuseReflectivity.x, diffuseReflectivity.y, diffuseReflectivity.z);
+        int vboVertexHandle = GraphicsController.device.createStaticBuffer(vertexData);
+        int vboNormalHandle = GraphicsController.device.createStaticBuffer(normalData);
+        int vboTextureHandle = GraphicsController.device.createStaticBuffer(textureData);
 
-            Vector3f specularReflectivity = material.specularReflectivity;
-            glUniform3f(glGetUniformLocation(shader, "reflectionAssets[2]"), specularReflectivity.x, specularReflectivity.y, specularReflectivity.z);
+        material.bind();
 
-            for (int count = 0; count < currentRenderQueue.lightSources.size(); count++) {
+        GraphicsController.device.setVertexArrays(3, vboVertexHandle, vboNormalHandle, vboTextureHandle);
 
-                LightSource lightSource = currentRenderQueue.lightSources.get(count);
+        GraphicsController.device.drawArrays(mode, vertices.size());
 
-                Vector3f lightPosition = lightSource.parent.position;
-                glUniform3f(glGetUniformLocation(shader, "lightPositions[" + count + "]"), lightPosition.x, lightPosition.y, lightPosition.z);
+        GraphicsController.device.resetVertexArrays();
 
-                Vector3f lightDirection = lightSource.parent.percentRotation;
-                glUniform3f(glGetUniformLocation(shader, "lightDirections[" + count + "]"), lightDirection.x, lightDirection.y, lightDirection.z);
-                glUniform1f(glGetUniformLocation(shader, "lightStrengths[" + count + "]"), lightSource.color.w);
-                glUniform1i(glGetUniformLocation(shader, "specularLighting[" + count + "]"), lightSource.specularLighting);
-                glUniform1i(glGetUniformLocation(shader, "shadowThrowing[" + count + "]"), lightSource.shadowThrowing);
+        GraphicsController.device.deleteBuffer(vboVertexHandle);
+        GraphicsController.device.deleteBuffer(vboNormalHandle);
+        GraphicsController.device.deleteBuffer(vboTextureHandle);
 
-                if (GraphicsController.isBlackAndWhite) {
+        if (GraphicsController.isBlackAndWhite)
+            GraphicsController.device.setUniform4f(uniforms.getLocation("color"), 0, 0, 0, 0);
 
-                    glUniform3f(glGetUniformLocation(shader, "lightColors[" + count + "]"), 1, 1, 1);
+        material.release();
 
-                } else {
+    }
 
-                    Vector3f lightColor = new Vector3f(lightSource.color);
-                    glUniform3f(glGetUniformLocation(shader, "lightColors[" + count + "]"), lightColor.x, lightColor.y, lightColor.z);
+    /**
+     * Returns the uniforms of the shader used by the current render pass.
+     *
+     * @return The uniforms of either the shadow map or the lighting shader
+     */
+    private static UniformRegistry getCurrentUniforms() {
+        return ShaderHelper.getUniforms(shadowCalculation ? "shadowMap" : "lighting");
+    }
 
-                }
+    /**
+     * Uploads the camera and light source data to the lighting shader.
+     * This data is the same for every object, so it is only uploaded once per frame, each light array with a single call.
+     *
+     * @param uniforms The uniforms of the lighting shader
+     */
+    private static void setUpLightUniforms(UniformRegistry uniforms) {
 
-                if (lightSource instanceof SpotLightSource) {
+        int lightSourceCount = Math.min(currentRenderQueue.lightSources.size(), MAX_LIGHT_SOURCES);
 
-                    SpotLightSource spotLightSource = (SpotLightSource) lightSource;
-                    glUniform1i(glGetUniformLocation(shader, "lightSourceTypes[" + count + "]"), 0);
-                    glUniform1f(glGetUniformLocation(shader, "lightAngles[" + count + "]"), spotLightSource.angle);
-                    glUniform1f(glGetUniformLocation(shader, "transitions[" + count + "]"), spotLightSource.transition);
+        GraphicsController.device.setUniform1i(uniforms.getLocation("lightSourceCount"), lightSourceCount);
+        Vector3f cameraPosition = currentRenderQueue.getPosition(currentRenderQueue.camera.parent);
+        GraphicsController.device.setUniform3f(uniforms.getLocation("cameraPosition"), cameraPosition.x, cameraPosition.y, cameraPosition.z);
 
-                } else if (lightSource instanceof DirectionalLightSource) {
+        if (lightSourceCount == 0) return;
 
-                    glUniform1i(glGetUniformLocation(shader, "lightSourceTypes[" + count + "]"), 1);
+        lightPositions.clear();
+        lightDirections.clear();
+        lightColors.clear();
+        lightStrengths.clear();
+        lightAngles.clear();
+        lightTransitions.clear();
+        lightSourceTypes.clear();
+        specularLighting.clear();
+        shadowThrowing.clear();
 
-                } else {
+        for (int count = 0; count < lightSourceCount; count++) {
 
-                    glUniform1i(glGetUniformLocation(shader, "lightSourceTypes[" + count + "]"), 2);
+            LightSource lightSource = currentRenderQueue.lightSources.get(count);
 
-                }
+            Vector3f lightPosition = currentRenderQueue.getPosition(lightSource.parent);
+            lightPositions.put(lightPosition.x).put(lightPosition.y).put(lightPosition.z);
 
-            }
+            Vector3f lightDirection = currentRenderQueue.getDirection(lightSource.parent);
+            lightDirections.put(lightDirection.x).put(lightDirection.y).put(lightDirection.z);
 
-        }
+            Vector4f color = currentRenderQueue.getLightColor(count);
 
-        FloatBuffer vertexData = BufferUtils.createFloatBuffer(vertices.size() * 3);
-        FloatBuffer normalData = BufferUtils.createFloatBuffer(normals.size() * 3);
-        FloatBuffer textureData = BufferUtils.createFloatBuffer(uvs.size() * 2);
+            if (GraphicsController.isBlackAndWhite) lightColors.put(1).put(1).put(1);
+            else lightColors.put(color.x).put(color.y).put(color.z);
 
-        vertices.forEach((vertex) -> vertexData.put(new float[]{vertex.x, vertex.y, vertex.z}));
-        normals.forEach((normal) -> normalData.put(new float[]{normal.x, normal.y, normal.z}));
-        uvs.forEach((uv) -> textureData.put(new float[]{uv.x, uv.y}));
+            lightStrengths.put(color.w);
+            specularLighting.put(lightSource.specularLighting);
+            shadowThrowing.put(lightSource.shadowThrowing);
 
-        vertexData.flip();
-        normalData.flip();
-        textureData.flip();
+            if (lightSource instanceof SpotLightSource) {
 
-        int vboVertexHandle = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        glBufferData(GL_ARRAY_BUFFER, vertexData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
+                SpotLightSource spotLightSource = (SpotLightSource) lightSource;
+                lightSourceTypes.put(0);
+                lightAngles.put(spotLightSource.angle);
+                lightTransitions.put(spotLightSource.transition);
 
-        int vboNormalHandle = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboNormalHandle);
-        glBufferData(GL_ARRAY_BUFFER, normalData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
+            } else {
 
-        int vboTextureHandle = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboTextureHandle);
-        glBufferData(GL_ARRAY_BUFFER, textureData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
+                lightSourceTypes.put(lightSource instanceof DirectionalLightSource ? 1 : 2);
+                lightAngles.put(0);
+                lightTransitions.put(0);
 
-        material.bind();
+            }
 
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        glVertexPointer(3, GL_FLOAT, 0, 0l);
+        }
 
-        glBindBuffer(GL_ARRAY_BUFFER, vboNormalHandle);
-        glNormalPointer(GL_FLOAT, 0, 0l);
+        lightPositions.flip();
+        lightDirections.flip();
+        lightColors.flip();
+        lightStrengths.flip();
+        lightAngles.flip();
+        lightTransitions.flip();
+        lightSourceTypes.flip();
+        specularLighting.flip();
+        shadowThrowing.flip();
+
+        GraphicsController.device.setUniform3(uniforms.getLocation("lightPositions", 0), lightPositions);
+        GraphicsController.device.setUniform3(uniforms.getLocation("lightDirections", 0), lightDirections);
+        GraphicsController.device.setUniform3(uniforms.getLocation("lightColors", 0), lightColors);
+        GraphicsController.device.setUniform1(uniforms.getLocation("lightStrengths", 0), lightStrengths);
+        GraphicsController.device.setUniform1(uniforms.getLocation("lightAngles", 0), lightAngles);
+        GraphicsController.device.setUniform1(uniforms.getLocation("transitions", 0), lightTransitions);
+        GraphicsController.device.setUniform1(uniforms.getLocation("lightSourceTypes", 0), lightSourceTypes);
+        GraphicsController.device.setUniform1(uniforms.getLocation("specularLighting", 0), specularLighting);
+        GraphicsController.device.setUniform1(uniforms.getLocation("shadowThrowing", 0), shadowThrowing);
 
-        glBindBuffer(GL_ARRAY_BUFFER, vboTextureHandle);
-        glTexCoordPointer(2, GL_FLOAT, 0, 0l);
+    }
 
-        glEnableClientState(GL_VERTEX_ARRAY);
-        glEnableClientState(GL_NORMAL_ARRAY);
-        glEnableClientState(GL_TEXTURE_COORD_ARRAY);
+    /**
+     * Sets the material uniforms of the lighting shader.
+     *
+     * @param uniforms              The uniforms of the lighting shader
+     * @param material              The material to be used
+     * @param emissiveLightStrength The strength of light that is emitted by the rendered object
+     */
+    private static void setUpMaterialUniforms(UniformRegistry uniforms, Material3D material, float emissiveLightStrength) {
 
-        glDrawArrays(mode, 0, vertices.size());
+        emissiveLightStrength = (float) MathHelper.clamp(emissiveLightStrength, 0, 1);
+        GraphicsController.device.setUniform1f(uniforms.getLocation("emissiveLightStrength"), emissiveLightStrength);
 
-        glDisableClientState(GL_TEXTURE_COORD_ARRAY);
-        glDisableClientState(GL_NORMAL_ARRAY);
-        glDisableClientState(GL_VERTEX_ARRAY);
+        GraphicsController.device.setUniform1f(uniforms.getLocation("materialShininess"), material.specularHighlightStrength);
+        GraphicsController.device.setUniform1i(uniforms.getLocation("materialType"), material.type);
+        GraphicsController.device.setUniform1f(uniforms.getLocation("materialTransparency"), material.color.a);
 
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
+        Vector3f ambientReflectivity = material.ambientReflectivity;
+        GraphicsController.device.setUniform3f(uniforms.getLocation("reflectionAssets", 0), ambientReflectivity.x, ambientReflectivity.y, ambientReflectivity.z);
 
-        glDeleteBuffers(vboVertexHandle);
-        glDeleteBuffers(vboNormalHandle);
-        glDeleteBuffers(vboTextureHandle);
+        Vector3f diffuseReflectivity = material.diffuseReflectivity;
+        GraphicsController.device.setUniform3f(uniforms.getLocation("reflectionAssets", 1), diffuseReflectivity.x, diffuseReflectivity.y, diffuseReflectivity.z);
 
-        if (GraphicsController.isBlackAndWhite)
-            glUniform4f(glGetUniformLocation(shader, "color"), 0, 0, 0, 0);
-
-        material.release();
+        Vector3f specularReflectivity = material.specularReflectivity;
+        GraphicsController.device.setUniform3f(uniforms.getLocation("reflectionAssets", 2), specularReflectivity.x, specularReflectivity.y, specularReflectivity.z);
 
     }
 
     /**
-     * Renders a 3D object that is registered in a display list.
+     * Sets the uniforms of the lighting shader for a 3D object.
      *
-     * @param displayListIndex      The index of the display list to edit
-     * @param modelPosition         The position of the model to render
-     * @param modelRotation         The rotation of the model to render
+     * @param uniforms              The uniforms of the shader in use
      * @param material              The material to be used
+     * @param color                 The color of the object, can be null
      * @param emissiveLightStrength The strength of light that is emitted by the rendered object
      */
-    public static void renderObject3D(int displayListIndex, Vector3f modelPosition, Vector3f modelRotation, Material3D material, Vector4f color, float emissiveLightStrength) {
-
-        int shader = shadowCalculation ? ShaderHelper.shaderPrograms.get("shadowMap") : ShaderHelper.shaderPrograms.get("lighting");
+    private static void setUpObjectUniforms(UniformRegistry uniforms, Material3D material, Vector4f color, float emissiveLightStrength) {
 
         if (!shadowCalculation) {
 
-            if (GraphicsController.isBlackAndWhite || !material.hasTexture())
-                glUniform4f(glGetUniformLocation(shader, "color"), 1, 1, 1, 1);
+            if (GraphicsController.isBlackAndWhite)
+                GraphicsController.device.setUniform4f(uniforms.getLocation("color"), 1, 1, 1, 1);
             if (color != null)
-                glUniform4f(glGetUniformLocation(shader, "color"), color.x, color.y, color.z, color.w);
-            glUniform1i(glGetUniformLocation(shader, "lightSourceCount"), currentRenderQueue.lightSources.size());
-            emissiveLightStrength = (float) MathHelper.clamp(emissiveLightStrength, 0, 1);
-            glUniform1f(glGetUniformLocation(shader, "emissiveLightStrength"), emissiveLightStrength);
-            Vector3f cameraPosition = currentRenderQueue.camera.parent.position;
-            glUniform3f(glGetUniformLocation(shader, "cameraPosition"), cameraPosition.x, cameraPosition.y, cameraPosition.z);
-            glUniform3f(glGetUniformLocation(shader, "modelPosition"), modelPosition.x, modelPosition.y, modelPosition.z);
-
-            glUniform1f(glGetUniformLocation(shader, "materialShininess"), material.specularHighlightStrength);
-            glUniform1i(glGetUniformLocation(shader, "materialType"), material.type);
-            glUniform1f(glGetUniformLocation(shader, "materialTransparency"), material.color.a);
-
-            Vector3f ambientReflectivity = material.ambientReflectivity;
-            glUniform3f(glGetUniformLocation(shader, "reflectionAssets[0]"), ambientReflectivity.x, ambientReflectivity.y, ambientReflectivity.z);
-
-            Vector3f diffuseReflectivity = material.diffuseReflectivity;
-            glUniform3f(glGetUniformLocation(shader, "reflectionAssets[1]"), diffuseReflectivity.x, diffuseReflectivity.y, diffuseReflectivity.z);
+                GraphicsController.device.setUniform4f(uniforms.getLocation("color"), color.x, color.y, color.z, color.w);
 
-            Vector3f specularReflectivity = material.specularReflectivity;
-            glUniform3f(glGetUniformLocation(shader, "reflectionAssets[2]"), specularReflectivity.x, specularReflectivity.y, specularReflectivity.z);
+            setUpMaterialUniforms(uniforms, material, emissiveLightStrength);
 
-            for (int count = 0; count < currentRenderQueue.lightSources.size(); count++) {
-
-                LightSource lightSource = currentRenderQueue.lightSources.get(count);
+        }
 
-                Vector3f lightPosition = lightSource.parent.position;
-                glUniform3f(glGetUniformLocation(shader, "lightPositions[" + count + "]"), lightPosition.x, lightPosition.y, lightPosition.z);
+    }
 
-                Vector3f lightDirection = lightSource.parent.percentRotation;
-                glUniform3f(glGetUniformLocation(shader, "lightDirections[" + count + "]"), lightDirection.x, lightDirection.y, lightDirection.z);
-                glUniform1f(glGetUniformLocation(shader, "lightStrengths[" + count + "]"), lightSource.color.w);
-                glUniform1i(glGetUniformLocation(shader, "specularLighting[" + count + "]"), lightSource.specularLighting);
-                glUniform1i(glGetUniformLocation(shader, "shadowThrowing[" + count + "]"), lightSource.shadowThrowing);
+    /**
+     * Renders a compiled mesh from its persistent vertex buffers.
+     * The mesh has to be acquired via BufferManager.acquire() first.
+     *
+     * @param mesh                  The mesh to be rendered
+     * @param material              The material to be used
+     * @param color                 The color of the object, can be null
+     * @param mode                  The render mode to be used
+     * @param emissiveLightStrength The strength of light that is emitted by the rendered object
+     */
+    public static void renderObject3D(Mesh mesh, Material3D material, Vector4f color, int mode, float emissiveLightStrength) {
 
-                if (GraphicsController.isBlackAndWhite) {
+        UniformRegistry uniforms = getCurrentUniforms();
 
-                    glUniform3f(glGetUniformLocation(shader, "lightColors[" + count + "]"), 1, 1, 1);
+        setUpObjectUniforms(uniforms, material, color, emissiveLightStrength);
 
-                } else {
+        MeshBuffers buffers = BufferManager.getBuffers(mesh);
 
-                    Vector3f lightColor = new Vector3f(lightSource.color);
-                    glUniform3f(glGetUniformLocation(shader, "lightColors[" + count + "]"), lightColor.x, lightColor.y, lightColor.z);
+        material.bind();
 
-                }
+        GraphicsController.device.setVertexArrays(3, buffers.vertexBuffer, buffers.normalBuffer, buffers.uvBuffer);
+        GraphicsController.device.drawElements(mode, buffers.indexBuffer, buffers.indexCount);
+        GraphicsController.device.resetVertexArrays();
 
-                if (lightSource instanceof SpotLightSource) {
+        if (GraphicsController.isBlackAndWhite)
+            GraphicsController.device.setUniform4f(uniforms.getLocation("color"), 0, 0, 0, 0);
 
-                    SpotLightSource spotLightSource = (SpotLightSource) lightSource;
-                    glUniform1i(glGetUniformLocation(shader, "lightSourceTypes[" + count + "]"), 0);
-                    glUniform1f(glGetUniformLocation(shader, "lightAngles[" + count + "]"), spotLightSource.angle);
-                    glUniform1f(glGetUniformLocation(shader, "transitions[" + count + "]"), spotLightSource.transition);
+        material.release();
 
-                } else if (lightSource instanceof DirectionalLightSource) {
+    }
 
-                    glUniform1i(glGetUniformLocation(shader, "lightSourceTypes[" + count + "]"), 1);
+    /**
+     * Renders a 3D object that is registered in a display list.
+     *
+     * @param displayListIndex      The index of the display list to edit
+     * @param modelPosition         The position of the model to render
+     * @param modelRotation         The rotation of the model to render
+     * @param material              The material to be used
+     * @param emissiveLightStrength The strength of light that is emitted by the rendered object
+     */
+    public static void renderObject3D(int displayListIndex, Vector3f modelPosition, Vector3f modelRotation, Material3D material, Vector4f color, float emissiveLightStrength) {
 
-                } else {
+        UniformRegistry uniforms = getCurrentUniforms();
 
-                    glUniform1i(glGetUniformLocation(shader, "lightSourceTypes[" + count + "]"), 2);
+        if (!shadowCalculation) {
 
-                }
+            if (GraphicsController.isBlackAndWhite || !material.hasTexture())
+                GraphicsController.device.setUniform4f(uniforms.getLocation("color"), 1, 1, 1, 1);
+            if (color != null)
+                GraphicsController.device.setUniform4f(uniforms.getLocation("color"), color.x, color.y, color.z, color.w);
+            GraphicsController.device.setUniform3f(uniforms.getLocation("modelPosition"), modelPosition.x, modelPosition.y, modelPosition.z);
 
-            }
+            setUpMaterialUniforms(uniforms, material, emissiveLightStrength);
 
         }
 
-        glPushMatrix();
-
-        glTranslatef(modelPosition.x, modelPosition.y, modelPosition.z);
-
-        /*glRotatef(modelRotation.x, 1, 0, 0);
-        glRotatef(modelRotation.y, 0, 1, 0);
-        glRotatef(modelRotation.z, 0, 0, 1);*/
-
-        glCallList(displayListIndex + 1);
-
-        glPopMatrix();
+        GraphicsController.device.callDisplayList(displayListIndex + 1, modelPosition.x, modelPosition.y, modelPosition.z);
 
         if (GraphicsController.isBlackAndWhite || !material.hasTexture())
-            glUniform4f(glGetUniformLocation(shader, "color"), 0, 0, 0, 0);
+            GraphicsController.device.setUniform4f(uniforms.getLocation("color"), 0, 0, 0, 0);
 
         material.release();
 
@@ -795,34 +810,17 @@ public class Renderer {
 
         material.bind();
 
-        int vboVertexHandle = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        glBufferData(GL_ARRAY_BUFFER, vertexData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-        int vboTextureHandle = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboTextureHandle);
-        glBufferData(GL_ARRAY_BUFFER, textureData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        glVertexPointer(2, GL_FLOAT, 0, 0l);
+        int vboVertexHandle = GraphicsController.device.createStaticBuffer(vertexData);
+        int vboTextureHandle = GraphicsController.device.createStaticBuffer(textureData);
 
-        glBindBuffer(GL_ARRAY_BUFFER, vboTextureHandle);
-        glTexCoordPointer(2, GL_FLOAT, 0, 0l);
+        GraphicsController.device.setVertexArrays(2, vboVertexHandle, 0, vboTextureHandle);
 
-        glEnableClientState(GL_VERTEX_ARRAY);
-        glEnableClientState(GL_TEXTURE_COORD_ARRAY);
+        GraphicsController.device.drawArrays(mode, vertices.size());
 
-        glDrawArrays(mode, 0, vertices.size());
+        GraphicsController.device.resetVertexArrays();
 
-        glDisableClientState(GL_TEXTURE_COORD_ARRAY);
-        glDisableClientState(GL_VERTEX_ARRAY);
-
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-        glDeleteBuffers(vboVertexHandle);
-        glDeleteBuffers(vboTextureHandle);
+        GraphicsController.device.deleteBuffer(vboVertexHandle);
+        GraphicsController.device.deleteBuffer(vboTextureHandle);
 
         material.release();
 
@@ -842,19 +840,12 @@ public class Renderer {
 
         vertexData.flip();
 
-        int vboVertexHandle = glGenBuffers();
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        glBufferData(GL_ARRAY_BUFFER, vertexData, GL_STATIC_DRAW);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-
-        glBindBuffer(GL_ARRAY_BUFFER, vboVertexHandle);
-        glVertexPointer(2, GL_FLOAT, 0, 0l);
+        int vboVertexHandle = GraphicsController.device.createStaticBuffer(vertexData);
 
-        glEnableClientState(GL_VERTEX_ARRAY);
-        glDrawArrays(mode, 0, vertices.size());
-        glDisableClientState(GL_VERTEX_ARRAY);
-        glBindBuffer(GL_ARRAY_BUFFER, 0);
-        glDeleteBuffers(vboVertexHandle);
+        GraphicsController.device.setVertexArrays(2, vboVertexHandle, 0, 0);
+        GraphicsController.device.drawArrays(mode, vertices.size());
+        GraphicsController.device.resetVertexArrays();
+        GraphicsController.device.deleteBuffer(vboVertexHandle);
 
     }
 
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.graphics.buffers;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * The buffer operations used by the BufferManager.
+ * Everything besides GLBufferBackend is meant for running the buffer management without an OpenGL context.
+ */
+public interface BufferBackend {
+
+    int ARRAY_BUFFER = 0x8892; //GL15.GL_ARRAY_BUFFER
+    int ELEMENT_ARRAY_BUFFER = 0x8893; //GL15.GL_ELEMENT_ARRAY_BUFFER
+
+    /**
+     * Creates a new, empty buffer.
+     *
+     * @return The handle of the buffer.
+     */
+    int createBuffer();
+
+    /**
+     * (Re-)allocates the storage of a buffer and fills it.
+     *
+     * @param target The buffer target (ARRAY_BUFFER or ELEMENT_ARRAY_BUFFER).
+     * @param buffer The handle of the buffer.
+     * @param data   The data to upload.
+     */
+    void uploadData(int target, int buffer, FloatBuffer data);
+
+    /**
+     * (Re-)allocates the storage of a buffer and fills it.
+     *
+     * @param target The buffer target (ARRAY_BUFFER or ELEMENT_ARRAY_BUFFER).
+     * @param buffer The handle of the buffer.
+     * @param data   The data to upload.
+     */
+    void uploadData(int target, int buffer, IntBuffer data);
+
+    /**
+     * Overwrites the content of a buffer without reallocating it.
+     *
+     * @param target The buffer target (ARRAY_BUFFER or ELEMENT_ARRAY_BUFFER).
+     * @param buffer The handle of the buffer.
+     * @param data   The new data, has to have the size of the data the buffer was allocated with.
+     */
+    void updateData(int target, int buffer, FloatBuffer data);
+
+    /**
+     * Overwrites the content of a buffer without reallocating it.
+     *
+     * @param target The buffer target (ARRAY_BUFFER or ELEMENT_ARRAY_BUFFER).
+     * @param buffer The handle of the buffer.
+     * @param data   The new data, has to have the size of the data the buffer was allocated with.
+     */
+    void updateData(int target, int buffer, IntBuffer data);
+
+    /**
+     * Deletes a buffer.
+     *
+     * @param buffer The handle of the buffer.
+     */
+    void deleteBuffer(int buffer);
+
+}
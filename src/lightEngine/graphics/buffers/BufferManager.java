@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.graphics.buffers;
+
+import lightEngine.graphics.renderable.models.Mesh;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps the GPU buffers of dynamic meshes alive between frames.
+ * Buffers are created when a mesh is acquired for the first time, updated only when the mesh changed and deleted once nobody uses the mesh anymore.
+ * Meshes are shared between instances of a model, so are their buffers.
+ * Everything besides release() and releaseLater() has to be called on the render thread.
+ */
+public class BufferManager {
+
+    public static BufferBackend backend = new GLBufferBackend();
+
+    private static Map<Mesh, MeshBuffers> meshBuffers = new IdentityHashMap<>();
+    private static Queue<Mesh> releasedMeshes = new ConcurrentLinkedQueue<>();
+    private static Queue<Runnable> releaseCommands = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Registers a user of a mesh, its buffers get created if needed.
+     * Every call has to be matched with a call to release().
+     *
+     * @param mesh The mesh that is going to be rendered.
+     */
+    public static void acquire(Mesh mesh) {
+
+        MeshBuffers buffers = meshBuffers.get(mesh);
+
+        if (buffers == null) {
+
+            buffers = new MeshBuffers(backend.createBuffer(), backend.createBuffer(), backend.createBuffer(), backend.createBuffer(),
+              mesh.getIndexCount(), mesh.getVersion());
+
+            backend.uploadData(BufferBackend.ARRAY_BUFFER, buffers.vertexBuffer, mesh.getVertexBuffer());
+            backend.uploadData(BufferBackend.ARRAY_BUFFER, buffers.normalBuffer, mesh.getNormalBuffer());
+            backend.uploadData(BufferBackend.ARRAY_BUFFER, buffers.uvBuffer, mesh.getUvBuffer());
+            backend.uploadData(BufferBackend.ELEMENT_ARRAY_BUFFER, buffers.indexBuffer, mesh.getIndexBuffer());
+
+            meshBuffers.put(mesh, buffers);
+
+        }
+
+        buffers.references++;
+
+    }
+
+    /**
+     * Returns the buffers of an acquired mesh.
+     * If the mesh was changed since the last upload, the buffers get updated in place.
+     *
+     * @param mesh The mesh to be rendered.
+     * @return The up to date buffers of the mesh.
+     */
+    public static MeshBuffers getBuffers(Mesh mesh) {
+
+        MeshBuffers buffers = meshBuffers.get(mesh);
+        if (buffers == null) throw new IllegalStateException("Mesh has to be acquired before it can be rendered");
+
+        int version = mesh.getVersion();
+
+        if (buffers.uploadedVersion != version) {
+
+            backend.updateData(BufferBackend.ARRAY_BUFFER, buffers.vertexBuffer, mesh.getVertexBuffer());
+            backend.updateData(BufferBackend.ARRAY_BUFFER, buffers.normalBuffer, mesh.getNormalBuffer());
+            backend.updateData(BufferBackend.ARRAY_BUFFER, buffers.uvBuffer, mesh.getUvBuffer());
+            backend.updateData(BufferBackend.ELEMENT_ARRAY_BUFFER, buffers.indexBuffer, mesh.getIndexBuffer());
+
+            buffers.uploadedVersion = version;
+
+        }
+
+        return buffers;
+
+    }
+
+    /**
+     * Unregisters a user of a mesh.
+     * This can be called from any thread, the buffers get deleted on the render thread during the next processReleases().
+     *
+     * @param mesh The mesh that isn't used anymore.
+     */
+    public static void release(Mesh mesh) {
+        releasedMeshes.add(mesh);
+    }
+
+    /**
+     * Runs a command on the render thread during the next processReleases(), before the released meshes are handled.
+     * Users that acquire meshes on the render thread release them this way from other threads, so acquiring and releasing never race.
+     *
+     * @param command The command that releases the meshes of a user.
+     */
+    public static void releaseLater(Runnable command) {
+        releaseCommands.add(command);
+    }
+
+    /**
+     * Runs the queued release commands and deletes the buffers of all meshes that aren't used anymore.
+     * This is called once per frame by the Renderer.
+     */
+    public static void processReleases() {
+
+        Runnable command;
+
+        while ((command = releaseCommands.poll()) != null) command.run();
+
+        Mesh mesh;
+
+        while ((mesh = releasedMeshes.poll()) != null) {
+
+            MeshBuffers buffers = meshBuffers.get(mesh);
+            if (buffers == null || --buffers.references > 0) continue;
+
+            backend.deleteBuffer(buffers.vertexBuffer);
+            backend.deleteBuffer(buffers.normalBuffer);
+            backend.deleteBuffer(buffers.uvBuffer);
+            backend.deleteBuffer(buffers.indexBuffer);
+
+            meshBuffers.remove(mesh);
+
+        }
+
+    }
+
+    /**
+     * Returns the number of meshes that currently have buffers.
+     *
+     * @return The mesh count.
+     */
+    public static int getBufferedMeshCount() {
+        return meshBuffers.size();
+    }
+
+}
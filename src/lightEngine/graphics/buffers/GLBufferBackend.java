@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.graphics.buffers;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.GL15.*;
+
+/**
+ * Buffer backend that uses OpenGL vertex buffer objects.
+ * All methods have to be called on the render thread.
+ */
+public class GLBufferBackend implements BufferBackend {
+
+    public int createBuffer() {
+        return glGenBuffers();
+    }
+
+    public void uploadData(int target, int buffer, FloatBuffer data) {
+        glBindBuffer(target, buffer);
+        glBufferData(target, data, GL_DYNAMIC_DRAW);
+        glBindBuffer(target, 0);
+    }
+
+    public void uploadData(int target, int buffer, IntBuffer data) {
+        glBindBuffer(target, buffer);
+        glBufferData(target, data, GL_DYNAMIC_DRAW);
+        glBindBuffer(target, 0);
+    }
+
+    public void updateData(int target, int buffer, FloatBuffer data) {
+        glBindBuffer(target, buffer);
+        glBufferSubData(target, 0, data);
+        glBindBuffer(target, 0);
+    }
+
+    public void updateData(int target, int buffer, IntBuffer data) {
+        glBindBuffer(target, buffer);
+        glBufferSubData(target, 0, data);
+        glBindBuffer(target, 0);
+    }
+
+    public void deleteBuffer(int buffer) {
+        glDeleteBuffers(buffer);
+    }
+
+}
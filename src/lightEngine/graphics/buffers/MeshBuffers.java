@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.graphics.buffers;
+
+/**
+ * The GPU buffers of a single mesh, created and updated by the BufferManager.
+ */
+public class MeshBuffers {
+
+    public final int vertexBuffer;
+    public final int normalBuffer;
+    public final int uvBuffer;
+    public final int indexBuffer;
+    public final int indexCount;
+
+    int uploadedVersion;
+    int references;
+
+    MeshBuffers(int vertexBuffer, int normalBuffer, int uvBuffer, int indexBuffer, int indexCount, int uploadedVersion) {
+        this.vertexBuffer = vertexBuffer;
+        this.normalBuffer = normalBuffer;
+        this.uvBuffer = uvBuffer;
+        this.indexBuffer = indexBuffer;
+        this.indexCount = indexCount;
+        this.uploadedVersion = uploadedVersion;
+    }
+
+}
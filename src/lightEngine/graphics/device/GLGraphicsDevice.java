@@ -0,0 +1,404 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.graphics.device;
+
+import lightEngine.graphics.buffers.GLBufferBackend;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.LWJGLException;
+import org.lwjgl.input.Mouse;
+import org.lwjgl.opengl.Display;
+import org.lwjgl.opengl.DisplayMode;
+import org.lwjgl.opengl.PixelFormat;
+import org.newdawn.slick.Color;
+import org.newdawn.slick.TrueTypeFont;
+import org.newdawn.slick.opengl.Texture;
+import org.newdawn.slick.opengl.TextureImpl;
+import org.newdawn.slick.opengl.TextureLoader;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import static org.lwjgl.opengl.EXTFramebufferObject.*;
+import static org.lwjgl.opengl.GL11.*;
+import static org.lwjgl.opengl.GL13.GL_TEXTURE0;
+import static org.lwjgl.opengl.GL13.glActiveTexture;
+import static org.lwjgl.opengl.GL15.*;
+import static org.lwjgl.opengl.GL20.*;
+import static org.lwjgl.opengl.GL32.GL_DEPTH_CLAMP;
+import static org.lwjgl.util.glu.GLU.gluOrtho2D;
+import static org.lwjgl.util.glu.GLU.gluPerspective;
+
+/**
+ * The graphics device that renders with OpenGL into an LWJGL display.
+ */
+public class GLGraphicsDevice extends GLBufferBackend implements GraphicsDevice {
+
+    public int createStaticBuffer(FloatBuffer data) {
+
+        int buffer = glGenBuffers();
+        glBindBuffer(GL_ARRAY_BUFFER, buffer);
+        glBufferData(GL_ARRAY_BUFFER, data, GL_STATIC_DRAW);
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+        return buffer;
+
+    }
+
+    public void setVertexArrays(int vertexSize, int vertexBuffer, int normalBuffer, int uvBuffer) {
+
+        glBindBuffer(GL_ARRAY_BUFFER, vertexBuffer);
+        glVertexPointer(vertexSize, GL_FLOAT, 0, 0l);
+
+        if (normalBuffer != 0) {
+            glBindBuffer(GL_ARRAY_BUFFER, normalBuffer);
+            glNormalPointer(GL_FLOAT, 0, 0l);
+        }
+
+        if (uvBuffer != 0) {
+            glBindBuffer(GL_ARRAY_BUFFER, uvBuffer);
+            glTexCoordPointer(2, GL_FLOAT, 0, 0l);
+        }
+
+        glEnableClientState(GL_VERTEX_ARRAY);
+        if (normalBuffer != 0) glEnableClientState(GL_NORMAL_ARRAY);
+        if (uvBuffer != 0) glEnableClientState(GL_TEXTURE_COORD_ARRAY);
+
+    }
+
+    public void setVertexArrays(FloatBuffer vertices, FloatBuffer normals, FloatBuffer uvs) {
+
+        glVertexPointer(3, 0, vertices);
+        glNormalPointer(0, normals);
+        glTexCoordPointer(2, 0, uvs);
+
+        glEnableClientState(GL_VERTEX_ARRAY);
+        glEnableClientState(GL_NORMAL_ARRAY);
+        glEnableClientState(GL_TEXTURE_COORD_ARRAY);
+
+    }
+
+    public void resetVertexArrays() {
+
+        glDisableClientState(GL_TEXTURE_COORD_ARRAY);
+        glDisableClientState(GL_NORMAL_ARRAY);
+        glDisableClientState(GL_VERTEX_ARRAY);
+
+        glBindBuffer(GL_ARRAY_BUFFER, 0);
+
+    }
+
+    public void drawArrays(int mode, int count) {
+        glDrawArrays(mode, 0, count);
+    }
+
+    public void drawElements(int mode, int indexBuffer, int indexCount) {
+
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, indexBuffer);
+        glDrawElements(mode, indexCount, GL_UNSIGNED_INT, 0l);
+        glBindBuffer(GL_ELEMENT_ARRAY_BUFFER, 0);
+
+    }
+
+    public void drawElements(int mode, IntBuffer indices) {
+        glDrawElements(mode, indices);
+    }
+
+    public int createDisplayList() {
+        return glGenLists(1);
+    }
+
+    public void beginDisplayList(int displayList) {
+        glNewList(displayList, GL_COMPILE_AND_EXECUTE);
+    }
+
+    public void endDisplayList() {
+        glEndList();
+    }
+
+    public void callDisplayList(int displayList, float x, float y, float z) {
+
+        glPushMatrix();
+        glTranslatef(x, y, z);
+        glCallList(displayList);
+        glPopMatrix();
+
+    }
+
+    public int createProgram(CharSequence vertexSource, CharSequence fragmentSource) {
+
+        int program = glCreateProgram();
+
+        int vertexShader = glCreateShader(GL_VERTEX_SHADER);
+        int fragmentShader = glCreateShader(GL_FRAGMENT_SHADER);
+
+        glShaderSource(vertexShader, vertexSource);
+        glCompileShader(vertexShader);
+
+        glShaderSource(fragmentShader, fragmentSource);
+        glCompileShader(fragmentShader);
+
+        glAttachShader(program, vertexShader);
+        glAttachShader(program, fragmentShader);
+
+        glLinkProgram(program);
+        glValidateProgram(program);
+
+        glDeleteShader(fragmentShader);
+        glDeleteShader(vertexShader);
+
+        return program;
+
+    }
+
+    public void useProgram(int program) {
+        glUseProgram(program);
+    }
+
+    public int getUniformLocation(int program, String name) {
+        return glGetUniformLocation(program, name);
+    }
+
+    public void setUniform1f(int location, float value) {
+        glUniform1f(location, value);
+    }
+
+    public void setUniform1i(int location, int value) {
+        glUniform1i(location, value);
+    }
+
+    public void setUniform3f(int location, float x, float y, float z) {
+        glUniform3f(location, x, y, z);
+    }
+
+    public void setUniform4f(int location, float x, float y, float z, float w) {
+        glUniform4f(location, x, y, z, w);
+    }
+
+    public void setUniform1(int location, FloatBuffer values) {
+        glUniform1(location, values);
+    }
+
+    public void setUniform1(int location, IntBuffer values) {
+        glUniform1(location, values);
+    }
+
+    public void setUniform3(int location, FloatBuffer values) {
+        glUniform3(location, values);
+    }
+
+    public void setUniformMatrix4(int location, FloatBuffer matrix) {
+        glUniformMatrix4(location, false, matrix);
+    }
+
+    public Texture loadTexture(String format, InputStream in) throws IOException {
+        return TextureLoader.getTexture(format, in);
+    }
+
+    public int createDepthTexture(int resolution) {
+
+        int texture = glGenTextures();
+        glBindTexture(GL_TEXTURE_2D, texture);
+        glTexImage2D(GL_TEXTURE_2D, 0, GL_DEPTH_COMPONENT, resolution, resolution, 0, GL_DEPTH_COMPONENT, GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        glTexParameterf(GL_TEXTURE_2D, GL_TEXTURE_MIN_FILTER, GL_LINEAR);
+
+        return texture;
+
+    }
+
+    public void bindTexture(Texture texture) {
+        texture.bind();
+    }
+
+    public void bindTexture(int texture) {
+        glBindTexture(GL_TEXTURE_2D, texture);
+    }
+
+    public void unbindTexture() {
+        TextureImpl.bindNone();
+    }
+
+    public void setTextureUnit(int unit) {
+        glActiveTexture(GL_TEXTURE0 + unit);
+    }
+
+    public void setColor(Color color) {
+        color.bind();
+    }
+
+    public int createDepthFramebuffer(int depthTexture, int resolution) {
+
+        int framebuffer = glGenFramebuffersEXT();
+        glBindFramebufferEXT(GL_FRAMEBUFFER_EXT, framebuffer);
+
+        int renderbuffer = glGenRenderbuffersEXT();
+        glBindRenderbufferEXT(GL_RENDERBUFFER_EXT, renderbuffer);
+        glRenderbufferStorageEXT(GL_RENDERBUFFER_EXT, GL_DEPTH_COMPONENT, resolution, resolution);
+        glFramebufferRenderbufferEXT(GL_FRAMEBUFFER_EXT, GL_DEPTH_ATTACHMENT_EXT, GL_RENDERBUFFER_EXT, renderbuffer);
+
+        glFramebufferTexture2DEXT(GL_FRAMEBUFFER_EXT, GL_DEPTH_ATTACHMENT_EXT, GL_TEXTURE_2D, depthTexture, 0);
+
+        glDrawBuffer(GL_NONE);
+        glReadBuffer(GL_NONE);
+
+        glBindFramebufferEXT(GL_FRAMEBUFFER_EXT, 0);
+
+        return framebuffer;
+
+    }
+
+    public void bindFramebuffer(int framebuffer) {
+        glBindFramebufferEXT(GL_FRAMEBUFFER_EXT, framebuffer);
+    }
+
+    public void setViewport(int width, int height) {
+        glViewport(0, 0, width, height);
+    }
+
+    public void clear(float r, float g, float b, float a) {
+
+        glClearColor(r, g, b, a);
+        glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+
+    }
+
+    public void clearDepth() {
+        glClear(GL_DEPTH_BUFFER_BIT);
+    }
+
+    public void setOrthographicProjection(int width, int height) {
+
+        glMatrixMode(GL_PROJECTION);
+        glLoadIdentity();
+        gluOrtho2D(0, width, height, 0);
+        glViewport(0, 0, width, height);
+        glMatrixMode(GL_MODELVIEW);
+
+        glPushMatrix();
+        glLoadIdentity();
+
+    }
+
+    public void setPerspectiveProjection(float fieldOfView, int width, int height, float nearPlane, float farPlane) {
+
+        glPopMatrix(); //From 2D
+        glMatrixMode(GL_PROJECTION);
+        glLoadIdentity();
+        gluPerspective(fieldOfView, (float) width / height, nearPlane, farPlane);
+        glViewport(0, 0, width, height);
+        glMatrixMode(GL_MODELVIEW);
+
+    }
+
+    public TrueTypeFont createFont(Font font, boolean antiAliasing) {
+        return new TrueTypeFont(font, antiAliasing);
+    }
+
+    public void drawText(TrueTypeFont font, float x, float y, String text, Color color) {
+        font.drawString(x, y, text, color);
+    }
+
+    public void openDisplay(int width, int height, String title, boolean fullscreen) {
+
+        boolean created = Display.isCreated();
+
+        try {
+
+            if (fullscreen) {
+
+                Display.setDisplayMode(Display.getDesktopDisplayMode());
+                Display.setFullscreen(true);
+                if (!created) Display.create(new PixelFormat(8, 8, 0, 8));
+
+            } else {
+
+                Display.setDisplayMode(new DisplayMode(width, height));
+                Display.setTitle(title);
+                Display.setFullscreen(false);
+                if (!created) Display.create(new PixelFormat(8, 8, 0, 8));
+
+                glEnable(GL_DEPTH_TEST);
+                glEnable(GL_DEPTH_CLAMP);
+                glEnable(GL_BLEND);
+                glEnable(GL_TEXTURE_2D);
+
+            }
+
+            if (!created) Mouse.create();
+
+        } catch (LWJGLException e) {
+
+            e.printStackTrace();
+            System.exit(1);
+
+        }
+
+        if (created) return;
+
+        glShadeModel(GL_SMOOTH);
+        glEnable(GL_TEXTURE_2D);
+        glEnable(GL_BLEND);
+        glEnable(GL_DEPTH_TEST);
+        glEnable(GL_CULL_FACE);
+        glCullFace(GL_BACK);
+        glBlendFunc(GL_SRC_ALPHA, GL_ONE_MINUS_SRC_ALPHA);
+
+    }
+
+    public void setParent(Canvas parent) {
+
+        try {
+            Display.setParent(parent);
+        } catch (LWJGLException e) {
+            e.printStackTrace();
+        }
+
+    }
+
+    public void setTitle(String title) {
+        Display.setTitle(title);
+    }
+
+    public void updateDisplay() {
+        Display.update();
+    }
+
+    public void sync(int fps) {
+        Display.sync(fps);
+    }
+
+    public boolean isDisplayCreated() {
+        return Display.isCreated();
+    }
+
+    public boolean isCloseRequested() {
+        return Display.isCloseRequested();
+    }
+
+    public int getDisplayWidth() {
+        return Display.getWidth();
+    }
+
+    public int getDisplayHeight() {
+        return Display.getHeight();
+    }
+
+    public ByteBuffer readPixels(int width, int height) {
+
+        ByteBuffer pixels = BufferUtils.createByteBuffer(width * height * 4);
+
+        glReadBuffer(GL_FRONT);
+        glReadPixels(0, 0, width, height, GL_RGBA, GL_UNSIGNED_BYTE, pixels);
+
+        return pixels;
+
+    }
+
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.graphics.device;
+
+import lightEngine.graphics.buffers.BufferBackend;
+import org.newdawn.slick.Color;
+import org.newdawn.slick.TrueTypeFont;
+import org.newdawn.slick.opengl.Texture;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Everything the engine asks from the graphics hardware and the window: buffers, programs, uniforms, textures, framebuffers, draws and the display.
+ * GLGraphicsDevice does it with LWJGL, RecordingGraphicsDevice only counts the calls, so the render path can run without a window.
+ * The active device is GraphicsController.device, all methods have to be called on the render thread.
+ */
+public interface GraphicsDevice extends BufferBackend {
+
+    /**
+     * Creates a buffer that is filled once and never changed.
+     *
+     * @param data The data to upload.
+     * @return The handle of the buffer.
+     */
+    int createStaticBuffer(FloatBuffer data);
+
+    /**
+     * Uses vertex buffers as the vertex, normal and texture coordinate arrays of the following draws.
+     *
+     * @param vertexSize   The number of coordinates per vertex (2 or 3).
+     * @param vertexBuffer The buffer with the vertices.
+     * @param normalBuffer The buffer with the normals, 0 if there are none.
+     * @param uvBuffer     The buffer with the texture coordinates, 0 if there are none.
+     */
+    void setVertexArrays(int vertexSize, int vertexBuffer, int normalBuffer, int uvBuffer);
+
+    /**
+     * Uses client side data as the vertex, normal and texture coordinate arrays of the following draws.
+     *
+     * @param vertices The vertices, 3 coordinates each.
+     * @param normals  The normals.
+     * @param uvs      The texture coordinates.
+     */
+    void setVertexArrays(FloatBuffer vertices, FloatBuffer normals, FloatBuffer uvs);
+
+    /**
+     * Stops using the arrays set by setVertexArrays().
+     */
+    void resetVertexArrays();
+
+    /**
+     * Draws the vertices of the current arrays in their order.
+     *
+     * @param mode  The render mode (e.g. Renderer.RENDER_TRIANGLES).
+     * @param count The number of vertices.
+     */
+    void drawArrays(int mode, int count);
+
+    /**
+     * Draws the vertices of the current arrays in the order of an index buffer.
+     *
+     * @param mode        The render mode.
+     * @param indexBuffer The buffer with the indices.
+     * @param indexCount  The number of indices.
+     */
+    void drawElements(int mode, int indexBuffer, int indexCount);
+
+    /**
+     * Draws the vertices of the current arrays in the order of client side indices.
+     *
+     * @param mode    The render mode.
+     * @param indices The indices.
+     */
+    void drawElements(int mode, IntBuffer indices);
+
+    /**
+     * Creates a new, empty display list.
+     *
+     * @return The handle of the display list.
+     */
+    int createDisplayList();
+
+    /**
+     * Starts recording a display list, the following commands get recorded and executed.
+     *
+     * @param displayList The handle of the display list, its old content is replaced.
+     */
+    void beginDisplayList(int displayList);
+
+    /**
+     * Stops recording the display list.
+     */
+    void endDisplayList();
+
+    /**
+     * Executes a display list at a position.
+     *
+     * @param displayList The handle of the display list.
+     * @param x           The x translation.
+     * @param y           The y translation.
+     * @param z           The z translation.
+     */
+    void callDisplayList(int displayList, float x, float y, float z);
+
+    /**
+     * Compiles and links a shader program.
+     *
+     * @param vertexSource   The source of the vertex shader.
+     * @param fragmentSource The source of the fragment shader.
+     * @return The handle of the program.
+     */
+    int createProgram(CharSequence vertexSource, CharSequence fragmentSource);
+
+    /**
+     * Sets a program active.
+     *
+     * @param program The handle of the program, 0 for none.
+     */
+    void useProgram(int program);
+
+    /**
+     * Looks up the location of a uniform.
+     *
+     * @param program The handle of the program.
+     * @param name    The name of the uniform.
+     * @return The location, -1 if the program has no such uniform.
+     */
+    int getUniformLocation(int program, String name);
+
+    void setUniform1f(int location, float value);
+
+    void setUniform1i(int location, int value);
+
+    void setUniform3f(int location, float x, float y, float z);
+
+    void setUniform4f(int location, float x, float y, float z, float w);
+
+    void setUniform1(int location, FloatBuffer values);
+
+    void setUniform1(int location, IntBuffer values);
+
+    void setUniform3(int location, FloatBuffer values);
+
+    /**
+     * Sets a 4x4 matrix uniform.
+     *
+     * @param location The location of the uniform.
+     * @param matrix   The 16 values of the matrix in column major order.
+     */
+    void setUniformMatrix4(int location, FloatBuffer matrix);
+
+    /**
+     * Decodes an image and uploads it as a texture.
+     *
+     * @param format The image format (e.g. "PNG").
+     * @param in     The stream with the image data.
+     * @return The texture.
+     * @throws IOException If the image can't be read.
+     */
+    Texture loadTexture(String format, InputStream in) throws IOException;
+
+    /**
+     * Creates a texture that can be used as the depth attachment of a framebuffer.
+     *
+     * @param resolution The width and height of the texture.
+     * @return The handle of the texture.
+     */
+    int createDepthTexture(int resolution);
+
+    /**
+     * Binds a texture to the active texture unit.
+     *
+     * @param texture The texture.
+     */
+    void bindTexture(Texture texture);
+
+    /**
+     * Binds a texture to the active texture unit.
+     *
+     * @param texture The handle of the texture, 0 for none.
+     */
+    void bindTexture(int texture);
+
+    /**
+     * Unbinds the current texture, so it doesn't leak onto other objects.
+     */
+    void unbindTexture();
+
+    /**
+     * Changes the active texture unit.
+     *
+     * @param unit The index of the unit, starting at 0.
+     */
+    void setTextureUnit(int unit);
+
+    /**
+     * Sets the color of the following fixed function draws.
+     *
+     * @param color The color.
+     */
+    void setColor(Color color);
+
+    /**
+     * Creates a framebuffer that only renders depth into a texture.
+     *
+     * @param depthTexture The texture created by createDepthTexture().
+     * @param resolution   The resolution of the texture.
+     * @return The handle of the framebuffer.
+     */
+    int createDepthFramebuffer(int depthTexture, int resolution);
+
+    /**
+     * Redirects the following draws into a framebuffer.
+     *
+     * @param framebuffer The handle of the framebuffer, 0 for the display.
+     */
+    void bindFramebuffer(int framebuffer);
+
+    /**
+     * Sets the area of the framebuffer the draws end up in.
+     *
+     * @param width  The width in pixels.
+     * @param height The height in pixels.
+     */
+    void setViewport(int width, int height);
+
+    /**
+     * Fills the color buffer with a color and clears the depth buffer.
+     *
+     * @param r The red value.
+     * @param g The green value.
+     * @param b The blue value.
+     * @param a The alpha value.
+     */
+    void clear(float r, float g, float b, float a);
+
+    /**
+     * Clears only the depth buffer.
+     */
+    void clearDepth();
+
+    /**
+     * Saves the 3D projection and sets up a 2D one with the origin in the upper left corner.
+     *
+     * @param width  The width of the screen.
+     * @param height The height of the screen.
+     */
+    void setOrthographicProjection(int width, int height);
+
+    /**
+     * Restores the state from before setOrthographicProjection() and sets up a perspective projection.
+     *
+     * @param fieldOfView The vertical field of view in degrees.
+     * @param width       The width of the screen.
+     * @param height      The height of the screen.
+     * @param nearPlane   The distance of the near plane.
+     * @param farPlane    The distance of the far plane.
+     */
+    void setPerspectiveProjection(float fieldOfView, int width, int height, float nearPlane, float farPlane);
+
+    /**
+     * Turns a font into one that can be drawn.
+     *
+     * @param font         The font.
+     * @param antiAliasing Should anti aliasing be applied to this font?
+     * @return The font, null if the device can't draw text.
+     */
+    TrueTypeFont createFont(Font font, boolean antiAliasing);
+
+    /**
+     * Draws a text.
+     *
+     * @param font  The font created by createFont().
+     * @param x     The x position of the upper left corner.
+     * @param y     The y position of the upper left corner.
+     * @param text  The text.
+     * @param color The color of the text.
+     */
+    void drawText(TrueTypeFont font, float x, float y, String text, Color color);
+
+    /**
+     * Creates the display or changes its mode and sets up the render state.
+     *
+     * @param width      The width of the window, ignored in fullscreen mode.
+     * @param height     The height of the window, ignored in fullscreen mode.
+     * @param title      The window title.
+     * @param fullscreen Should the display cover the whole screen?
+     */
+    void openDisplay(int width, int height, String title, boolean fullscreen);
+
+    /**
+     * Embeds the display into an AWT canvas.
+     *
+     * @param parent The canvas.
+     */
+    void setParent(Canvas parent);
+
+    void setTitle(String title);
+
+    /**
+     * Shows the rendered frame and processes the window messages.
+     * This is the end of a frame.
+     */
+    void updateDisplay();
+
+    /**
+     * Waits until the next frame is due.
+     *
+     * @param fps The frames per second to keep.
+     */
+    void sync(int fps);
+
+    boolean isDisplayCreated();
+
+    boolean isCloseRequested();
+
+    int getDisplayWidth();
+
+    int getDisplayHeight();
+
+    /**
+     * Reads the pixels of the last shown frame.
+     *
+     * @param width  The width of the area to read.
+     * @param height The height of the area to read.
+     * @return The pixels, 4 bytes (RGBA) each, starting at the lower left corner.
+     */
+    ByteBuffer readPixels(int width, int height);
+
+}
@@ -0,0 +1,527 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.graphics.device;
+
+import org.newdawn.slick.Color;
+import org.newdawn.slick.TrueTypeFont;
+import org.newdawn.slick.opengl.Texture;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * A graphics device without a window or GPU: every call is only counted, together with the bytes that would have been uploaded.
+ * Handles are made up, textures are decoded for their size but never kept, text can't be drawn (createFont() returns null).
+ * The counts are kept for the whole run and for the last completed frame, updateDisplay() completes a frame.
+ */
+public class RecordingGraphicsDevice implements GraphicsDevice {
+
+    public enum Command {
+        CREATE_BUFFER, UPLOAD_DATA, UPDATE_DATA, DELETE_BUFFER,
+        SET_VERTEX_ARRAYS, RESET_VERTEX_ARRAYS, DRAW_ARRAYS, DRAW_ELEMENTS,
+        CREATE_DISPLAY_LIST, BEGIN_DISPLAY_LIST, END_DISPLAY_LIST, CALL_DISPLAY_LIST,
+        CREATE_PROGRAM, USE_PROGRAM, GET_UNIFORM_LOCATION, SET_UNIFORM,
+        LOAD_TEXTURE, CREATE_TEXTURE, BIND_TEXTURE, SET_TEXTURE_UNIT, SET_COLOR,
+        CREATE_FRAMEBUFFER, BIND_FRAMEBUFFER, SET_VIEWPORT, CLEAR, SET_PROJECTION,
+        CREATE_FONT, DRAW_TEXT, DISPLAY, READ_PIXELS
+    }
+
+    private static final Command[] COMMANDS = Command.values();
+
+    private final long[] totalCounts = new long[COMMANDS.length];
+    private final long[] frameCounts = new long[COMMANDS.length];
+    private final long[] lastFrameCounts = new long[COMMANDS.length];
+    private long totalBufferBytes, frameBufferBytes, lastFrameBufferBytes;
+    private long totalUniformBytes, frameUniformBytes, lastFrameUniformBytes;
+    private long textureBytes;
+    private long frames;
+
+    private final int frameLimit;
+    private boolean displayCreated;
+    private int width;
+    private int height;
+    private int nextHandle = 1;
+
+    /**
+     * Creates a device that runs until it is closed.
+     */
+    public RecordingGraphicsDevice() {
+        this(0);
+    }
+
+    /**
+     * Creates a device that requests to be closed after a number of frames, so render loops end on their own.
+     *
+     * @param frameLimit The number of frames, 0 for no limit.
+     */
+    public RecordingGraphicsDevice(int frameLimit) {
+        this.frameLimit = frameLimit;
+    }
+
+    private void record(Command command) {
+        frameCounts[command.ordinal()]++;
+    }
+
+    private void recordBufferBytes(Buffer data, int bytesPerElement) {
+        frameBufferBytes += (long) data.remaining() * bytesPerElement;
+    }
+
+    private void recordUniform(int bytes) {
+
+        record(Command.SET_UNIFORM);
+        frameUniformBytes += bytes;
+
+    }
+
+    /**
+     * Returns how often a command was called during the last completed frame.
+     *
+     * @param command The command.
+     * @return The number of calls.
+     */
+    public long getLastFrameCount(Command command) {
+        return lastFrameCounts[command.ordinal()];
+    }
+
+    /**
+     * Returns how often a command was called since the device was created, including the current frame.
+     *
+     * @param command The command.
+     * @return The number of calls.
+     */
+    public long getTotalCount(Command command) {
+        return totalCounts[command.ordinal()] + frameCounts[command.ordinal()];
+    }
+
+    /**
+     * Returns the number of draws during the last completed frame, every executed display list and every text counts as one.
+     *
+     * @return The number of draw calls.
+     */
+    public long getLastFrameDrawCalls() {
+        return getLastFrameCount(Command.DRAW_ARRAYS) + getLastFrameCount(Command.DRAW_ELEMENTS) +
+          getLastFrameCount(Command.CALL_DISPLAY_LIST) + getLastFrameCount(Command.DRAW_TEXT);
+    }
+
+    public long getLastFrameUniformUploads() {
+        return getLastFrameCount(Command.SET_UNIFORM);
+    }
+
+    public long getLastFrameBufferBytes() {
+        return lastFrameBufferBytes;
+    }
+
+    public long getLastFrameUniformBytes() {
+        return lastFrameUniformBytes;
+    }
+
+    /**
+     * Returns all bytes uploaded since the device was created: buffer data, uniform values and decoded textures (4 bytes per pixel).
+     *
+     * @return The number of bytes.
+     */
+    public long getTotalUploadedBytes() {
+        return totalBufferBytes + frameBufferBytes + totalUniformBytes + frameUniformBytes + textureBytes;
+    }
+
+    /**
+     * Returns the number of completed frames.
+     *
+     * @return The frame count.
+     */
+    public long getFrameCount() {
+        return frames;
+    }
+
+    /**
+     * Formats the counts of the last completed frame, only the commands that were called are listed.
+     *
+     * @return e.g. "SET_UNIFORM 42, CALL_DISPLAY_LIST 6, ..."
+     */
+    public String getLastFrameSummary() {
+
+        StringBuilder summary = new StringBuilder();
+
+        for (Command command : COMMANDS) {
+
+            if (lastFrameCounts[command.ordinal()] == 0) continue;
+            if (summary.length() > 0) summary.append(", ");
+            summary.append(command).append(' ').append(lastFrameCounts[command.ordinal()]);
+
+        }
+
+        return summary.toString();
+
+    }
+
+    public int createBuffer() {
+
+        record(Command.CREATE_BUFFER);
+        return nextHandle++;
+
+    }
+
+    public void uploadData(int target, int buffer, FloatBuffer data) {
+
+        record(Command.UPLOAD_DATA);
+        recordBufferBytes(data, 4);
+
+    }
+
+    public void uploadData(int target, int buffer, IntBuffer data) {
+
+        record(Command.UPLOAD_DATA);
+        recordBufferBytes(data, 4);
+
+    }
+
+    public void updateData(int target, int buffer, FloatBuffer data) {
+
+        record(Command.UPDATE_DATA);
+        recordBufferBytes(data, 4);
+
+    }
+
+    public void updateData(int target, int buffer, IntBuffer data) {
+
+        record(Command.UPDATE_DATA);
+        recordBufferBytes(data, 4);
+
+    }
+
+    public void deleteBuffer(int buffer) {
+        record(Command.DELETE_BUFFER);
+    }
+
+    public int createStaticBuffer(FloatBuffer data) {
+
+        record(Command.CREATE_BUFFER);
+        record(Command.UPLOAD_DATA);
+        recordBufferBytes(data, 4);
+
+        return nextHandle++;
+
+    }
+
+    public void setVertexArrays(int vertexSize, int vertexBuffer, int normalBuffer, int uvBuffer) {
+        record(Command.SET_VERTEX_ARRAYS);
+    }
+
+    public void setVertexArrays(FloatBuffer vertices, FloatBuffer normals, FloatBuffer uvs) {
+        record(Command.SET_VERTEX_ARRAYS);
+    }
+
+    public void resetVertexArrays() {
+        record(Command.RESET_VERTEX_ARRAYS);
+    }
+
+    public void drawArrays(int mode, int count) {
+        record(Command.DRAW_ARRAYS);
+    }
+
+    public void drawElements(int mode, int indexBuffer, int indexCount) {
+        record(Command.DRAW_ELEMENTS);
+    }
+
+    public void drawElements(int mode, IntBuffer indices) {
+        record(Command.DRAW_ELEMENTS);
+    }
+
+    public int createDisplayList() {
+
+        record(Command.CREATE_DISPLAY_LIST);
+        return nextHandle++;
+
+    }
+
+    public void beginDisplayList(int displayList) {
+        record(Command.BEGIN_DISPLAY_LIST);
+    }
+
+    public void endDisplayList() {
+        record(Command.END_DISPLAY_LIST);
+    }
+
+    public void callDisplayList(int displayList, float x, float y, float z) {
+        record(Command.CALL_DISPLAY_LIST);
+    }
+
+    public int createProgram(CharSequence vertexSource, CharSequence fragmentSource) {
+
+        record(Command.CREATE_PROGRAM);
+        return nextHandle++;
+
+    }
+
+    public void useProgram(int program) {
+        record(Command.USE_PROGRAM);
+    }
+
+    public int getUniformLocation(int program, String name) {
+
+        record(Command.GET_UNIFORM_LOCATION);
+        return nextHandle++;
+
+    }
+
+    public void setUniform1f(int location, float value) {
+        recordUniform(4);
+    }
+
+    public void setUniform1i(int location, int value) {
+        recordUniform(4);
+    }
+
+    public void setUniform3f(int location, float x, float y, float z) {
+        recordUniform(12);
+    }
+
+    public void setUniform4f(int location, float x, float y, float z, float w) {
+        recordUniform(16);
+    }
+
+    public void setUniform1(int location, FloatBuffer values) {
+        recordUniform(values.remaining() * 4);
+    }
+
+    public void setUniform1(int location, IntBuffer values) {
+        recordUniform(values.remaining() * 4);
+    }
+
+    public void setUniform3(int location, FloatBuffer values) {
+        recordUniform(values.remaining() * 4);
+    }
+
+    public void setUniformMatrix4(int location, FloatBuffer matrix) {
+        recordUniform(matrix.remaining() * 4);
+    }
+
+    public Texture loadTexture(String format, InputStream in) throws IOException {
+
+        record(Command.LOAD_TEXTURE);
+
+        BufferedImage image = ImageIO.read(in);
+        if (image == null) throw new IOException("Unsupported " + format + " image");
+
+        textureBytes += (long) image.getWidth() * image.getHeight() * 4;
+
+        return new RecordedTexture(nextHandle++, image.getWidth(), image.getHeight(), image.getColorModel().hasAlpha());
+
+    }
+
+    public int createDepthTexture(int resolution) {
+
+        record(Command.CREATE_TEXTURE);
+        return nextHandle++;
+
+    }
+
+    public void bindTexture(Texture texture) {
+        record(Command.BIND_TEXTURE);
+    }
+
+    public void bindTexture(int texture) {
+        record(Command.BIND_TEXTURE);
+    }
+
+    public void unbindTexture() {
+        record(Command.BIND_TEXTURE);
+    }
+
+    public void setTextureUnit(int unit) {
+        record(Command.SET_TEXTURE_UNIT);
+    }
+
+    public void setColor(Color color) {
+        record(Command.SET_COLOR);
+    }
+
+    public int createDepthFramebuffer(int depthTexture, int resolution) {
+
+        record(Command.CREATE_FRAMEBUFFER);
+        return nextHandle++;
+
+    }
+
+    public void bindFramebuffer(int framebuffer) {
+        record(Command.BIND_FRAMEBUFFER);
+    }
+
+    public void setViewport(int width, int height) {
+        record(Command.SET_VIEWPORT);
+    }
+
+    public void clear(float r, float g, float b, float a) {
+        record(Command.CLEAR);
+    }
+
+    public void clearDepth() {
+        record(Command.CLEAR);
+    }
+
+    public void setOrthographicProjection(int width, int height) {
+        record(Command.SET_PROJECTION);
+    }
+
+    public void setPerspectiveProjection(float fieldOfView, int width, int height, float nearPlane, float farPlane) {
+        record(Command.SET_PROJECTION);
+    }
+
+    public TrueTypeFont createFont(Font font, boolean antiAliasing) {
+
+        record(Command.CREATE_FONT);
+        return null;
+
+    }
+
+    public void drawText(TrueTypeFont font, float x, float y, String text, Color color) {
+        record(Command.DRAW_TEXT);
+    }
+
+    public void openDisplay(int width, int height, String title, boolean fullscreen) {
+
+        record(Command.DISPLAY);
+
+        this.width = width;
+        this.height = height;
+        displayCreated = true;
+
+    }
+
+    public void setParent(Canvas parent) {
+        record(Command.DISPLAY);
+    }
+
+    public void setTitle(String title) {
+        record(Command.DISPLAY);
+    }
+
+    public void updateDisplay() {
+
+        record(Command.DISPLAY);
+
+        for (int i = 0; i < COMMANDS.length; i++) totalCounts[i] += frameCounts[i];
+        System.arraycopy(frameCounts, 0, lastFrameCounts, 0, COMMANDS.length);
+        Arrays.fill(frameCounts, 0);
+
+        totalBufferBytes += frameBufferBytes;
+        lastFrameBufferBytes = frameBufferBytes;
+        frameBufferBytes = 0;
+
+        totalUniformBytes += frameUniformBytes;
+        lastFrameUniformBytes = frameUniformBytes;
+        frameUniformBytes = 0;
+
+        frames++;
+
+    }
+
+    public void sync(int fps) {
+    }
+
+    public boolean isDisplayCreated() {
+        return displayCreated;
+    }
+
+    public boolean isCloseRequested() {
+        return frameLimit > 0 && frames >= frameLimit;
+    }
+
+    public int getDisplayWidth() {
+        return width;
+    }
+
+    public int getDisplayHeight() {
+        return height;
+    }
+
+    public ByteBuffer readPixels(int width, int height) {
+
+        record(Command.READ_PIXELS);
+        return ByteBuffer.allocate(width * height * 4);
+
+    }
+
+    /**
+     * Stands in for a texture that was never uploaded.
+     */
+    private static class RecordedTexture implements Texture {
+
+        private final int id;
+        private final int width;
+        private final int height;
+        private final boolean alpha;
+
+        RecordedTexture(int id, int width, int height, boolean alpha) {
+
+            this.id = id;
+            this.width = width;
+            this.height = height;
+            this.alpha = alpha;
+
+        }
+
+        public boolean hasAlpha() {
+            return alpha;
+        }
+
+        public String getTextureRef() {
+            return "recorded" + id;
+        }
+
+        public void bind() {
+        }
+
+        public int getImageHeight() {
+            return height;
+        }
+
+        public int getImageWidth() {
+            return width;
+        }
+
+        public float getHeight() {
+            return 1;
+        }
+
+        public float getWidth() {
+            return 1;
+        }
+
+        public int getTextureHeight() {
+            return height;
+        }
+
+        public int getTextureWidth() {
+            return width;
+        }
+
+        public void release() {
+        }
+
+        public int getTextureID() {
+            return id;
+        }
+
+        public byte[] getTextureData() {
+            return new byte[width * height * 4];
+        }
+
+        public void setTextureFilter(int textureFilter) {
+        }
+
+    }
+
+}
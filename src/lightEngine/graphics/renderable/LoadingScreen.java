@@ -7,11 +7,12 @@
 package lightEngine.graphics.renderable;
 
 import lightEngine.gameObjects.modules.gui.GUIElement;
+import lightEngine.graphics.GraphicsController;
 import lightEngine.graphics.Renderer;
 import lightEngine.graphics.gui.GUIScreen;
 import lightEngine.graphics.renderable.materials.Material2D;
-import org.lwjgl.opengl.Display;
 import org.lwjgl.util.vector.Vector2f;
+import org.newdawn.slick.Color;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,6 +23,9 @@ public class LoadingScreen extends GUIScreen {
     private Material2D material;
     private List<Vector2f> vertices;
     private List<Vector2f> uvs;
+    private volatile float progress = -1; //Negative if no progress is reported
+    private Material2D progressMaterial;
+    private List<Vector2f> progressVertices;
 
     /**
      * Default constructor for loading screens.
@@ -42,6 +46,50 @@ public class LoadingScreen extends GUIScreen {
         uvs.add(new Vector2f(1, 0));
         uvs.add(new Vector2f(0, 0));
 
+        progressMaterial = new Material2D();
+        progressMaterial.setColor(Color.white);
+        progressVertices = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) progressVertices.add(new Vector2f());
+
+    }
+
+    /**
+     * Sets the loading progress that is shown as a bar below the background.
+     * Can be called from any thread.
+     *
+     * @param progress The progress from 0 to 1, negative values hide the bar.
+     */
+    public void setProgress(float progress) {
+        this.progress = progress > 1 ? 1 : progress;
+    }
+
+    /**
+     * Returns the loading progress.
+     *
+     * @return The progress from 0 to 1 or a negative value if no progress is reported.
+     */
+    public float getProgress() {
+        return progress;
+    }
+
+    /**
+     * Updates the progress bar vertices (in the same relative coordinates as the background).
+     *
+     * @param progress The progress from 0 to 1.
+     */
+    private void calculateProgressVertexPositions(float progress) {
+
+        float left = -0.5f;
+        float right = left + progress;
+        float bottom = -0.85f;
+        float top = -0.82f;
+
+        progressVertices.get(0).set(left, bottom);
+        progressVertices.get(1).set(right, bottom);
+        progressVertices.get(2).set(right, top);
+        progressVertices.get(3).set(left, top);
+
     }
 
     /**
@@ -52,8 +100,8 @@ public class LoadingScreen extends GUIScreen {
         int ox = material.getTexture().getTexture().getImageWidth() / 2; //Offset x
         int oy = material.getTexture().getTexture().getImageHeight() / 2; //Offset y
 
-        int cx = Display.getWidth() / 2; //Center x
-        int cy = Display.getHeight() / 2; //Center y
+        int cx = GraphicsController.getWidth() / 2; //Center x
+        int cy = GraphicsController.getHeight() / 2; //Center y
 
         float pox = (float) ox / cx; //x offset in percent
         float poy = (float) oy / cy; //y offset in percent
@@ -74,6 +122,14 @@ public class LoadingScreen extends GUIScreen {
             }
 
             Renderer.renderObject2D(vertices, uvs, material, Renderer.RENDER_QUADS);
+
+            float progress = this.progress;
+
+            if (progress >= 0) {
+                calculateProgressVertexPositions(progress);
+                Renderer.renderObject2D(progressVertices, uvs, progressMaterial, Renderer.RENDER_QUADS);
+            }
+
             elements.forEach(GUIElement::render);
         }
 
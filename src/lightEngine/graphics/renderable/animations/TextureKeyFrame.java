@@ -7,7 +7,6 @@
 package lightEngine.graphics.renderable.animations;
 
 import org.newdawn.slick.opengl.Texture;
-import org.newdawn.slick.opengl.TextureImpl;
 
 public class TextureKeyFrame extends KeyFrame {
 
@@ -28,7 +27,7 @@ public class TextureKeyFrame extends KeyFrame {
      */
     @Override
     public Texture getData() {
-        return (TextureImpl) data;
+        return (Texture) data;
     }
 
 }
@@ -6,10 +6,10 @@
 
 package lightEngine.graphics.renderable.materials;
 
+import lightEngine.graphics.GraphicsController;
 import lightEngine.graphics.renderable.textures.Texture;
 import lightEngine.util.rendering.TextureHelper;
 import org.newdawn.slick.Color;
-import org.newdawn.slick.opengl.TextureImpl;
 
 import java.io.Serializable;
 
@@ -23,7 +23,7 @@ public abstract class Material implements Serializable {
      * Releases the texture from the render context, prevents textures leaking onto other objects
      */
     public void release() {
-        TextureImpl.bindNone();
+        GraphicsController.device.unbindTexture();
     }
 
     /**
@@ -127,8 +127,8 @@ public abstract class Material implements Serializable {
      * Automatically gets unbound when another material is bound
      */
     public void bind() {
-        if (texture != null) texture.getTexture().bind();
-        else if (color != null) color.bind();
+        if (texture != null) GraphicsController.device.bindTexture(texture.getTexture());
+        else if (color != null) GraphicsController.device.setColor(color);
     }
 
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.graphics.renderable.models;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Render ready data of a sub model.
+ * Every unique combination of vertex, normal and uv index is stored once, faces only reference them via indices.
+ * Meshes are created by MeshHelper.compileMesh().
+ */
+public class Mesh {
+
+    public final float[] vertices; //x, y, z per vertex
+    public final float[] normals; //x, y, z per vertex
+    public final float[] uvs; //u, v per vertex, v is already flipped for OpenGL
+    public final int[] indices; //3 per triangle
+
+    private volatile Buffers buffers; //Replaced as a whole by markChanged(), the render thread never sees a buffer that is being written
+    private volatile int version;
+
+    public Mesh(float[] vertices, float[] normals, float[] uvs, int[] indices) {
+        this.vertices = vertices;
+        this.normals = normals;
+        this.uvs = uvs;
+        this.indices = indices;
+    }
+
+    /**
+     * Returns the number of unique vertices.
+     *
+     * @return The vertex count.
+     */
+    public int getVertexCount() {
+        return vertices.length / 3;
+    }
+
+    /**
+     * Returns the number of indices, this is the number of vertices OpenGL draws.
+     *
+     * @return The index count.
+     */
+    public int getIndexCount() {
+        return indices.length;
+    }
+
+    /**
+     * Has to be called after the arrays were edited, so buffers that were created from them get updated.
+     * This can be called from any thread: the data is copied into new buffers, which replace the old ones at once.
+     * The arrays must not be edited while this runs.
+     */
+    public synchronized void markChanged() {
+
+        if (buffers != null) buffers = new Buffers(this);
+
+        version++;
+
+    }
+
+    /**
+     * Returns the number of changes made to the mesh, see markChanged().
+     * Buffers returned after the version was read contain at least this version.
+     *
+     * @return The version of the mesh data.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public FloatBuffer getVertexBuffer() {
+        return getBuffers().vertexBuffer;
+    }
+
+    public FloatBuffer getNormalBuffer() {
+        return getBuffers().normalBuffer;
+    }
+
+    public FloatBuffer getUvBuffer() {
+        return getBuffers().uvBuffer;
+    }
+
+    public IntBuffer getIndexBuffer() {
+        return getBuffers().indexBuffer;
+    }
+
+    private Buffers getBuffers() {
+
+        Buffers buffers = this.buffers;
+
+        if (buffers == null) {
+
+            synchronized (this) {
+                if (this.buffers == null) this.buffers = new Buffers(this);
+                buffers = this.buffers;
+            }
+
+        }
+
+        return buffers;
+
+    }
+
+    /**
+     * Direct buffers with a copy of the mesh data, they are never written after creation.
+     */
+    private static class Buffers {
+
+        final FloatBuffer vertexBuffer, normalBuffer, uvBuffer;
+        final IntBuffer indexBuffer;
+
+        Buffers(Mesh mesh) {
+
+            vertexBuffer = createBuffer(mesh.vertices);
+            normalBuffer = createBuffer(mesh.normals);
+            uvBuffer = createBuffer(mesh.uvs);
+
+            indexBuffer = BufferUtils.createIntBuffer(mesh.indices.length);
+            indexBuffer.put(mesh.indices).flip();
+
+        }
+
+        private static FloatBuffer createBuffer(float[] data) {
+
+            FloatBuffer buffer = BufferUtils.createFloatBuffer(data.length);
+            buffer.put(data).flip();
+
+            return buffer;
+
+        }
+
+    }
+
+}
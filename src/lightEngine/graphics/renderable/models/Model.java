@@ -21,14 +21,28 @@ public class Model {
         subModels = new ArrayList<>();
     }
 
+    /**
+     * Creates a model from sub models and centers it.
+     *
+     * @param subModels The sub models, their vertices get moved so the model's center is at the origin.
+     */
     public Model(ArrayList<SubModel> subModels) {
         this.subModels = subModels;
 
         //Centering the model
         Vector3f center = getCenter();
         for (SubModel subModel : subModels)
-            for (int i = 0; i < subModel.vertices.size(); i++)
-                subModel.vertices.set(i, VectorHelper.subtractVectors(subModel.vertices.get(i), center));
+            for (Vector3f vertex : subModel.vertices) VectorHelper.subtract(vertex, center, vertex);
+    }
+
+    /**
+     * This constructor is used to clone existing models.
+     * The sub models are shared and don't get centered again.
+     *
+     * @param src The model to clone
+     */
+    public Model(Model src) {
+        subModels = src.subModels;
     }
 
     public ArrayList<Vector3f> getVertices() {
@@ -114,9 +128,12 @@ public class Model {
     public Vector3f getCenter() {
 
         Vector3f[] extremeVertexPositions = getExtremeVertexPositions();
+        Vector3f center = extremeVertexPositions[1];
+
+        //min + (max - min) / 2, computed in the vector that holds the maximum
+        VectorHelper.subtract(extremeVertexPositions[1], extremeVertexPositions[0], center);
 
-        return VectorHelper.sumVectors(new Vector3f[]
-          {VectorHelper.divideVectorByFloat(VectorHelper.subtractVectors(extremeVertexPositions[1], extremeVertexPositions[0]), 2), extremeVertexPositions[0]});
+        return VectorHelper.multiplyAdd(extremeVertexPositions[0], center, 0.5f, center);
 
     }
 
@@ -7,6 +7,7 @@
 package lightEngine.graphics.renderable.models;
 
 import lightEngine.graphics.renderable.materials.Material3D;
+import lightEngine.util.rendering.MeshHelper;
 import org.lwjgl.util.vector.Vector2f;
 import org.lwjgl.util.vector.Vector3f;
 import org.lwjgl.util.vector.Vector4f;
@@ -21,6 +22,7 @@ public class SubModel {
     public ArrayList<Vector2f> uvs;
     public ArrayList<Face> faces;
     public Vector4f color;
+    private Mesh mesh;
 
     public SubModel() {
         vertices = new ArrayList<>();
@@ -44,4 +46,16 @@ public class SubModel {
 
     }
 
+    /**
+     * Returns the indexed mesh of the sub model, it gets compiled the first time it is requested.
+     *
+     * @return The compiled mesh.
+     */
+    public Mesh getMesh() {
+
+        if (mesh == null) mesh = MeshHelper.compileMesh(this);
+        return mesh;
+
+    }
+
 }
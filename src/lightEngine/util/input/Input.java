@@ -88,7 +88,7 @@ public class Input {
      * @return True if the key is pressed, false if not.
      */
     public static boolean isKeyPressed(int keyCode) {
-        return Keyboard.isKeyDown(keyCode);
+        return Keyboard.isCreated() && Keyboard.isKeyDown(keyCode); //Not created without a window
     }
 
     /**
@@ -98,7 +98,7 @@ public class Input {
      * @return True if the button is pressed, false if not.
      */
     public static boolean isButtonPressed(int button) {
-        return Mouse.isButtonDown(button);
+        return Mouse.isCreated() && Mouse.isButtonDown(button);
     }
 
     /**
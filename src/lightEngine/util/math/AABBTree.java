@@ -0,0 +1,698 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.math;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A dynamic bounding volume hierarchy over axis aligned boxes.
+ * Every item is a leaf with its exact box and a "fat" box that is bigger by a margin, so small movements don't change the tree.
+ * Inner nodes are kept balanced by tree rotations, inserting, removing and querying are O(log n) for well distributed items.
+ * Boxes are passed as 6 floats (minX, minY, minZ, maxX, maxY, maxZ), the tree isn't thread safe.
+ *
+ * @param <T> The type of the stored items
+ */
+public class AABBTree<T> {
+
+    private static final int NULL = -1;
+
+    private final float margin;
+
+    private float[] fatBoxes; //6 per node, leaves and inner nodes
+    private float[] boxes; //6 per node, only used by leaves
+    private int[] parents; //Also the next free node for nodes in the free list
+    private int[] firstChildren;
+    private int[] secondChildren;
+    private int[] heights; //0 for leaves, -1 for free nodes
+    private Object[] items;
+
+    private int root = NULL;
+    private int freeNode = NULL;
+    private int leafCount;
+
+    private int[] stack = new int[64];
+
+    /**
+     * Creates an empty tree.
+     *
+     * @param margin The distance the fat boxes extend beyond the exact boxes in every direction.
+     */
+    public AABBTree(float margin) {
+
+        this.margin = margin;
+
+        allocateNodes(16);
+
+    }
+
+    /**
+     * Adds an item to the tree.
+     *
+     * @param item   The item.
+     * @param bounds The array containing the box of the item.
+     * @param offset The index of minX in the array.
+     * @return The id of the item's leaf, needed for moving and removing it.
+     */
+    public int insert(T item, float[] bounds, int offset) {
+
+        int leaf = allocateNode();
+
+        items[leaf] = item;
+        heights[leaf] = 0;
+        setLeafBounds(leaf, bounds, offset);
+
+        insertLeaf(leaf);
+        leafCount++;
+
+        return leaf;
+
+    }
+
+    /**
+     * Removes an item from the tree.
+     *
+     * @param leaf The id that was returned by insert().
+     */
+    public void remove(int leaf) {
+
+        removeLeaf(leaf);
+        freeNode(leaf);
+
+        leafCount--;
+
+    }
+
+    /**
+     * Updates the box of an item.
+     * The tree only changes if the new box isn't inside the item's fat box anymore.
+     *
+     * @param leaf   The id that was returned by insert().
+     * @param bounds The array containing the new box of the item.
+     * @param offset The index of minX in the array.
+     * @return True if the item was moved inside the tree, false if only its exact box was updated.
+     */
+    public boolean move(int leaf, float[] bounds, int offset) {
+
+        System.arraycopy(bounds, offset, boxes, leaf * 6, 6);
+
+        int fat = leaf * 6;
+
+        if (fatBoxes[fat] <= bounds[offset] && fatBoxes[fat + 1] <= bounds[offset + 1] && fatBoxes[fat + 2] <= bounds[offset + 2]
+          && fatBoxes[fat + 3] >= bounds[offset + 3] && fatBoxes[fat + 4] >= bounds[offset + 4] && fatBoxes[fat + 5] >= bounds[offset + 5])
+            return false;
+
+        removeLeaf(leaf);
+        setLeafBounds(leaf, bounds, offset);
+        insertLeaf(leaf);
+
+        return true;
+
+    }
+
+    /**
+     * Returns the item of a leaf.
+     *
+     * @param leaf The id that was returned by insert().
+     * @return The item.
+     */
+    @SuppressWarnings("unchecked")
+    public T getItem(int leaf) {
+        return (T) items[leaf];
+    }
+
+    /**
+     * Returns the number of items in the tree.
+     *
+     * @return The item count.
+     */
+    public int size() {
+        return leafCount;
+    }
+
+    /**
+     * Returns the height of the tree, a balanced tree has a height of about log2(size()).
+     *
+     * @return The height of the root node, 0 if the tree is empty.
+     */
+    public int getHeight() {
+        return root == NULL ? 0 : heights[root];
+    }
+
+    /**
+     * Removes all items.
+     */
+    public void clear() {
+
+        root = NULL;
+        leafCount = 0;
+
+        Arrays.fill(items, null);
+        linkFreeNodes(0, heights.length);
+
+    }
+
+    /**
+     * Collects all items whose box intersects the given box.
+     *
+     * @param minX   The smallest x coordinate of the box.
+     * @param minY   The smallest y coordinate of the box.
+     * @param minZ   The smallest z coordinate of the box.
+     * @param maxX   The biggest x coordinate of the box.
+     * @param maxY   The biggest y coordinate of the box.
+     * @param maxZ   The biggest z coordinate of the box.
+     * @param result The list the items get added to.
+     */
+    public void queryBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, List<T> result) {
+
+        if (root == NULL) return;
+
+        int stackSize = 0;
+        stack[stackSize++] = root;
+
+        while (stackSize > 0) {
+
+            int node = stack[--stackSize];
+
+            boolean leaf = firstChildren[node] == NULL;
+            float[] nodeBoxes = leaf ? boxes : fatBoxes;
+            int o = node * 6;
+
+            if (nodeBoxes[o] > maxX || nodeBoxes[o + 1] > maxY || nodeBoxes[o + 2] > maxZ
+              || nodeBoxes[o + 3] < minX || nodeBoxes[o + 4] < minY || nodeBoxes[o + 5] < minZ) continue;
+
+            if (leaf) result.add(getItem(node));
+            else stackSize = pushChildren(node, stackSize);
+
+        }
+
+    }
+
+    /**
+     * Collects all items whose box intersects the given sphere.
+     *
+     * @param x      The x coordinate of the sphere's center.
+     * @param y      The y coordinate of the sphere's center.
+     * @param z      The z coordinate of the sphere's center.
+     * @param radius The radius of the sphere.
+     * @param result The list the items get added to.
+     */
+    public void querySphere(float x, float y, float z, float radius, List<T> result) {
+
+        if (root == NULL) return;
+
+        float squaredRadius = radius * radius;
+
+        int stackSize = 0;
+        stack[stackSize++] = root;
+
+        while (stackSize > 0) {
+
+            int node = stack[--stackSize];
+
+            boolean leaf = firstChildren[node] == NULL;
+            float[] nodeBoxes = leaf ? boxes : fatBoxes;
+            int o = node * 6;
+
+            //Squared distance between the center and the closest point of the box
+            float dx = Math.max(0, Math.max(nodeBoxes[o] - x, x - nodeBoxes[o + 3]));
+            float dy = Math.max(0, Math.max(nodeBoxes[o + 1] - y, y - nodeBoxes[o + 4]));
+            float dz = Math.max(0, Math.max(nodeBoxes[o + 2] - z, z - nodeBoxes[o + 5]));
+
+            if (dx * dx + dy * dy + dz * dz > squaredRadius) continue;
+
+            if (leaf) result.add(getItem(node));
+            else stackSize = pushChildren(node, stackSize);
+
+        }
+
+    }
+
+    /**
+     * Collects all items whose box is hit by a ray.
+     * The items are not sorted by distance.
+     *
+     * @param originX     The x coordinate of the ray's origin.
+     * @param originY     The y coordinate of the ray's origin.
+     * @param originZ     The z coordinate of the ray's origin.
+     * @param directionX  The x component of the ray's direction.
+     * @param directionY  The y component of the ray's direction.
+     * @param directionZ  The z component of the ray's direction.
+     * @param maxDistance The length of the ray, in multiples of the direction vector.
+     * @param result      The list the items get added to.
+     */
+    public void queryRay(float originX, float originY, float originZ, float directionX, float directionY, float directionZ, float maxDistance, List<T> result) {
+
+        if (root == NULL) return;
+
+        //Dividing by zero results in infinity, which the slab test handles correctly
+        float inverseX = 1 / directionX, inverseY = 1 / directionY, inverseZ = 1 / directionZ;
+
+        int stackSize = 0;
+        stack[stackSize++] = root;
+
+        while (stackSize > 0) {
+
+            int node = stack[--stackSize];
+
+            boolean leaf = firstChildren[node] == NULL;
+            float[] nodeBoxes = leaf ? boxes : fatBoxes;
+            int o = node * 6;
+
+            float near = 0, far = maxDistance;
+
+            float t1 = (nodeBoxes[o] - originX) * inverseX, t2 = (nodeBoxes[o + 3] - originX) * inverseX;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+
+            t1 = (nodeBoxes[o + 1] - originY) * inverseY;
+            t2 = (nodeBoxes[o + 4] - originY) * inverseY;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+
+            t1 = (nodeBoxes[o + 2] - originZ) * inverseZ;
+            t2 = (nodeBoxes[o + 5] - originZ) * inverseZ;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+
+            if (near > far) continue;
+
+            if (leaf) result.add(getItem(node));
+            else stackSize = pushChildren(node, stackSize);
+
+        }
+
+    }
+
+    /**
+     * Collects all items whose box is (at least partially) inside a frustum.
+     *
+     * @param frustum The frustum.
+     * @param result  The list the items get added to.
+     */
+    public void queryFrustum(Frustum frustum, List<T> result) {
+
+        if (root == NULL) return;
+
+        int stackSize = 0;
+        stack[stackSize++] = root;
+
+        while (stackSize > 0) {
+
+            int node = stack[--stackSize];
+
+            boolean leaf = firstChildren[node] == NULL;
+            float[] nodeBoxes = leaf ? boxes : fatBoxes;
+            int o = node * 6;
+
+            if (!frustum.intersectsBox(nodeBoxes[o], nodeBoxes[o + 1], nodeBoxes[o + 2], nodeBoxes[o + 3], nodeBoxes[o + 4], nodeBoxes[o + 5]))
+                continue;
+
+            if (leaf) result.add(getItem(node));
+
+            //Every item below a node that is completely inside is visible, no need to test them
+            else if (frustum.containsBox(nodeBoxes[o], nodeBoxes[o + 1], nodeBoxes[o + 2], nodeBoxes[o + 3], nodeBoxes[o + 4], nodeBoxes[o + 5]))
+                stackSize = addLeaves(node, stackSize, result);
+
+            else stackSize = pushChildren(node, stackSize);
+
+        }
+
+    }
+
+    /**
+     * Adds all items below a node to the result, uses the part of the stack above stackSize.
+     */
+    private int addLeaves(int node, int stackSize, List<T> result) {
+
+        int bottom = stackSize;
+        stack[stackSize++] = node;
+
+        while (stackSize > bottom) {
+
+            node = stack[--stackSize];
+
+            if (firstChildren[node] == NULL) result.add(getItem(node));
+            else stackSize = pushChildren(node, stackSize);
+
+        }
+
+        return stackSize;
+
+    }
+
+    private int pushChildren(int node, int stackSize) {
+
+        if (stackSize + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+
+        stack[stackSize++] = firstChildren[node];
+        stack[stackSize++] = secondChildren[node];
+
+        return stackSize;
+
+    }
+
+    private void setLeafBounds(int leaf, float[] bounds, int offset) {
+
+        int o = leaf * 6;
+
+        System.arraycopy(bounds, offset, boxes, o, 6);
+
+        fatBoxes[o] = bounds[offset] - margin;
+        fatBoxes[o + 1] = bounds[offset + 1] - margin;
+        fatBoxes[o + 2] = bounds[offset + 2] - margin;
+        fatBoxes[o + 3] = bounds[offset + 3] + margin;
+        fatBoxes[o + 4] = bounds[offset + 4] + margin;
+        fatBoxes[o + 5] = bounds[offset + 5] + margin;
+
+    }
+
+    private void insertLeaf(int leaf) {
+
+        if (root == NULL) {
+
+            root = leaf;
+            parents[leaf] = NULL;
+            return;
+
+        }
+
+        //Finding the cheapest sibling by the surface area heuristic
+        int sibling = root;
+
+        while (firstChildren[sibling] != NULL) {
+
+            int first = firstChildren[sibling], second = secondChildren[sibling];
+
+            float area = getArea(sibling);
+            float combinedArea = getCombinedArea(sibling, leaf);
+
+            //Cost of creating a new parent for this node and the leaf
+            float cost = 2 * combinedArea;
+
+            //Minimum cost of pushing the leaf further down
+            float inheritanceCost = 2 * (combinedArea - area);
+
+            float firstCost = getDescendCost(first, leaf) + inheritanceCost;
+            float secondCost = getDescendCost(second, leaf) + inheritanceCost;
+
+            if (cost < firstCost && cost < secondCost) break;
+
+            sibling = firstCost < secondCost ? first : second;
+
+        }
+
+        int oldParent = parents[sibling];
+        int newParent = allocateNode();
+
+        parents[newParent] = oldParent;
+        heights[newParent] = heights[sibling] + 1;
+        setUnion(newParent, sibling, leaf);
+
+        if (oldParent != NULL) {
+            if (firstChildren[oldParent] == sibling) firstChildren[oldParent] = newParent;
+            else secondChildren[oldParent] = newParent;
+        } else root = newParent;
+
+        firstChildren[newParent] = sibling;
+        secondChildren[newParent] = leaf;
+        parents[sibling] = newParent;
+        parents[leaf] = newParent;
+
+        refit(parents[leaf]);
+
+    }
+
+    private void removeLeaf(int leaf) {
+
+        if (leaf == root) {
+
+            root = NULL;
+            return;
+
+        }
+
+        int parent = parents[leaf];
+        int grandParent = parents[parent];
+        int sibling = firstChildren[parent] == leaf ? secondChildren[parent] : firstChildren[parent];
+
+        if (grandParent != NULL) {
+
+            if (firstChildren[grandParent] == parent) firstChildren[grandParent] = sibling;
+            else secondChildren[grandParent] = sibling;
+
+            parents[sibling] = grandParent;
+            freeNode(parent);
+
+            refit(grandParent);
+
+        } else {
+
+            root = sibling;
+            parents[sibling] = NULL;
+            freeNode(parent);
+
+        }
+
+    }
+
+    /**
+     * Walks up from a node to the root, balancing and updating the boxes and heights of all nodes on the way.
+     */
+    private void refit(int node) {
+
+        while (node != NULL) {
+
+            node = balance(node);
+
+            int first = firstChildren[node], second = secondChildren[node];
+
+            heights[node] = 1 + Math.max(heights[first], heights[second]);
+            setUnion(node, first, second);
+
+            node = parents[node];
+
+        }
+
+    }
+
+    /**
+     * Rotates the taller child of a node up if the node is unbalanced.
+     *
+     * @return The node that is now at the position of the given node.
+     */
+    private int balance(int a) {
+
+        if (firstChildren[a] == NULL || heights[a] < 2) return a;
+
+        int b = firstChildren[a], c = secondChildren[a];
+        int balance = heights[c] - heights[b];
+
+        if (balance > 1) {
+
+            int f = firstChildren[c], g = secondChildren[c];
+
+            //C becomes the parent of A
+            firstChildren[c] = a;
+            parents[c] = parents[a];
+            parents[a] = c;
+            replaceChild(parents[c], a, c);
+
+            if (heights[f] > heights[g]) {
+
+                secondChildren[c] = f;
+                secondChildren[a] = g;
+                parents[g] = a;
+
+                setUnion(a, b, g);
+                setUnion(c, a, f);
+
+                heights[a] = 1 + Math.max(heights[b], heights[g]);
+                heights[c] = 1 + Math.max(heights[a], heights[f]);
+
+            } else {
+
+                secondChildren[c] = g;
+                secondChildren[a] = f;
+                parents[f] = a;
+
+                setUnion(a, b, f);
+                setUnion(c, a, g);
+
+                heights[a] = 1 + Math.max(heights[b], heights[f]);
+                heights[c] = 1 + Math.max(heights[a], heights[g]);
+
+            }
+
+            return c;
+
+        }
+
+        if (balance < -1) {
+
+            int d = firstChildren[b], e = secondChildren[b];
+
+            //B becomes the parent of A
+            firstChildren[b] = a;
+            parents[b] = parents[a];
+            parents[a] = b;
+            replaceChild(parents[b], a, b);
+
+            if (heights[d] > heights[e]) {
+
+                secondChildren[b] = d;
+                firstChildren[a] = e;
+                parents[e] = a;
+
+                setUnion(a, c, e);
+                setUnion(b, a, d);
+
+                heights[a] = 1 + Math.max(heights[c], heights[e]);
+                heights[b] = 1 + Math.max(heights[a], heights[d]);
+
+            } else {
+
+                secondChildren[b] = e;
+                firstChildren[a] = d;
+                parents[d] = a;
+
+                setUnion(a, c, d);
+                setUnion(b, a, e);
+
+                heights[a] = 1 + Math.max(heights[c], heights[d]);
+                heights[b] = 1 + Math.max(heights[a], heights[e]);
+
+            }
+
+            return b;
+
+        }
+
+        return a;
+
+    }
+
+    private void replaceChild(int parent, int oldChild, int newChild) {
+
+        if (parent == NULL) root = newChild;
+        else if (firstChildren[parent] == oldChild) firstChildren[parent] = newChild;
+        else secondChildren[parent] = newChild;
+
+    }
+
+    private void setUnion(int node, int first, int second) {
+
+        int o = node * 6, f = first * 6, s = second * 6;
+
+        fatBoxes[o] = Math.min(fatBoxes[f], fatBoxes[s]);
+        fatBoxes[o + 1] = Math.min(fatBoxes[f + 1], fatBoxes[s + 1]);
+        fatBoxes[o + 2] = Math.min(fatBoxes[f + 2], fatBoxes[s + 2]);
+        fatBoxes[o + 3] = Math.max(fatBoxes[f + 3], fatBoxes[s + 3]);
+        fatBoxes[o + 4] = Math.max(fatBoxes[f + 4], fatBoxes[s + 4]);
+        fatBoxes[o + 5] = Math.max(fatBoxes[f + 5], fatBoxes[s + 5]);
+
+    }
+
+    private float getDescendCost(int node, int leaf) {
+
+        float combinedArea = getCombinedArea(node, leaf);
+
+        return firstChildren[node] == NULL ? combinedArea : combinedArea - getArea(node);
+
+    }
+
+    private float getArea(int node) {
+
+        int o = node * 6;
+
+        float x = fatBoxes[o + 3] - fatBoxes[o], y = fatBoxes[o + 4] - fatBoxes[o + 1], z = fatBoxes[o + 5] - fatBoxes[o + 2];
+
+        return x * y + y * z + z * x;
+
+    }
+
+    private float getCombinedArea(int first, int second) {
+
+        int f = first * 6, s = second * 6;
+
+        float x = Math.max(fatBoxes[f + 3], fatBoxes[s + 3]) - Math.min(fatBoxes[f], fatBoxes[s]);
+        float y = Math.max(fatBoxes[f + 4], fatBoxes[s + 4]) - Math.min(fatBoxes[f + 1], fatBoxes[s + 1]);
+        float z = Math.max(fatBoxes[f + 5], fatBoxes[s + 5]) - Math.min(fatBoxes[f + 2], fatBoxes[s + 2]);
+
+        return x * y + y * z + z * x;
+
+    }
+
+    private int allocateNode() {
+
+        if (freeNode == NULL) allocateNodes(heights.length * 2);
+
+        int node = freeNode;
+        freeNode = parents[node];
+
+        parents[node] = NULL;
+        firstChildren[node] = NULL;
+        secondChildren[node] = NULL;
+        heights[node] = 0;
+
+        return node;
+
+    }
+
+    private void freeNode(int node) {
+
+        items[node] = null;
+        heights[node] = -1;
+        parents[node] = freeNode;
+        freeNode = node;
+
+    }
+
+    private void allocateNodes(int capacity) {
+
+        int oldCapacity = heights == null ? 0 : heights.length;
+
+        if (oldCapacity == 0) {
+
+            fatBoxes = new float[capacity * 6];
+            boxes = new float[capacity * 6];
+            parents = new int[capacity];
+            firstChildren = new int[capacity];
+            secondChildren = new int[capacity];
+            heights = new int[capacity];
+            items = new Object[capacity];
+
+        } else {
+
+            fatBoxes = Arrays.copyOf(fatBoxes, capacity * 6);
+            boxes = Arrays.copyOf(boxes, capacity * 6);
+            parents = Arrays.copyOf(parents, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            secondChildren = Arrays.copyOf(secondChildren, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            items = Arrays.copyOf(items, capacity);
+
+        }
+
+        linkFreeNodes(oldCapacity, capacity);
+
+    }
+
+    private void linkFreeNodes(int from, int to) {
+
+        for (int i = from; i < to; i++) {
+
+            parents[i] = i + 1 < to ? i + 1 : NULL;
+            heights[i] = -1;
+
+        }
+
+        freeNode = from < to ? from : freeNode;
+
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.math;
+
+import org.lwjgl.util.vector.Matrix4f;
+
+/**
+ * The six clipping planes of a view-projection matrix.
+ * Planes are stored as (a, b, c, d) with the normal pointing inwards, so a point p is inside if a * p.x + b * p.y + c * p.z + d >= 0 holds for all of them.
+ */
+public class Frustum {
+
+    private final float[] planes = new float[24]; //left, right, bottom, top, near, far
+
+    /**
+     * Creates a frustum that contains everything, use setFromMatrix() to set it up.
+     */
+    public Frustum() {
+        for (int i = 0; i < 6; i++) planes[i * 4 + 3] = Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Creates the frustum of a view-projection matrix.
+     *
+     * @param viewProjectionMatrix The combined view and projection matrix (OpenGL clip space).
+     */
+    public Frustum(Matrix4f viewProjectionMatrix) {
+        setFromMatrix(viewProjectionMatrix);
+    }
+
+    /**
+     * Extracts the planes from a view-projection matrix (Gribb/Hartmann method).
+     * LWJGL matrices are column major, so mXY is the element in column X and row Y.
+     *
+     * @param m The combined view and projection matrix (OpenGL clip space).
+     * @return The frustum, allows for chaining.
+     */
+    public Frustum setFromMatrix(Matrix4f m) {
+
+        setPlane(0, m.m03 + m.m00, m.m13 + m.m10, m.m23 + m.m20, m.m33 + m.m30); //Left
+        setPlane(1, m.m03 - m.m00, m.m13 - m.m10, m.m23 - m.m20, m.m33 - m.m30); //Right
+        setPlane(2, m.m03 + m.m01, m.m13 + m.m11, m.m23 + m.m21, m.m33 + m.m31); //Bottom
+        setPlane(3, m.m03 - m.m01, m.m13 - m.m11, m.m23 - m.m21, m.m33 - m.m31); //Top
+        setPlane(4, m.m03 + m.m02, m.m13 + m.m12, m.m23 + m.m22, m.m33 + m.m32); //Near
+        setPlane(5, m.m03 - m.m02, m.m13 - m.m12, m.m23 - m.m22, m.m33 - m.m32); //Far
+
+        return this;
+
+    }
+
+    private void setPlane(int plane, float a, float b, float c, float d) {
+
+        //Normalizing isn't needed for the box test, but makes the plane distances meaningful
+        float length = (float) Math.sqrt(a * a + b * b + c * c);
+        if (length == 0) length = 1;
+
+        planes[plane * 4] = a / length;
+        planes[plane * 4 + 1] = b / length;
+        planes[plane * 4 + 2] = c / length;
+        planes[plane * 4 + 3] = d / length;
+
+    }
+
+    /**
+     * Determines if an axis aligned box is (at least partially) inside the frustum.
+     * The test is conservative: boxes close to a frustum corner may be reported as visible even if they aren't.
+     *
+     * @param minX The smallest x coordinate of the box.
+     * @param minY The smallest y coordinate of the box.
+     * @param minZ The smallest z coordinate of the box.
+     * @param maxX The biggest x coordinate of the box.
+     * @param maxY The biggest y coordinate of the box.
+     * @param maxZ The biggest z coordinate of the box.
+     * @return False if the box is completely outside, true if not.
+     */
+    public boolean intersectsBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+
+        for (int i = 0; i < 24; i += 4) {
+
+            float a = planes[i], b = planes[i + 1], c = planes[i + 2];
+
+            //The corner that is furthest in the direction of the plane normal
+            float x = a >= 0 ? maxX : minX;
+            float y = b >= 0 ? maxY : minY;
+            float z = c >= 0 ? maxZ : minZ;
+
+            if (a * x + b * y + c * z + planes[i + 3] < 0) return false;
+
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Determines if an axis aligned box is completely inside the frustum.
+     *
+     * @param minX The smallest x coordinate of the box.
+     * @param minY The smallest y coordinate of the box.
+     * @param minZ The smallest z coordinate of the box.
+     * @param maxX The biggest x coordinate of the box.
+     * @param maxY The biggest y coordinate of the box.
+     * @param maxZ The biggest z coordinate of the box.
+     * @return True if every corner of the box is inside, false if not.
+     */
+    public boolean containsBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+
+        for (int i = 0; i < 24; i += 4) {
+
+            float a = planes[i], b = planes[i + 1], c = planes[i + 2];
+
+            //The corner that is furthest in the opposite direction of the plane normal
+            float x = a >= 0 ? minX : maxX;
+            float y = b >= 0 ? minY : maxY;
+            float z = c >= 0 ? minZ : maxZ;
+
+            if (a * x + b * y + c * z + planes[i + 3] < 0) return false;
+
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Determines if a point is inside the frustum.
+     *
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @param z The z coordinate of the point.
+     * @return True if the point is inside, false if not.
+     */
+    public boolean containsPoint(float x, float y, float z) {
+        return intersectsBox(x, y, z, x, y, z);
+    }
+
+    /**
+     * Tests a list of boxes and writes the indices of all visible ones into an array.
+     *
+     * @param bounds  The boxes, 6 floats each (minX, minY, minZ, maxX, maxY, maxZ).
+     * @param count   The number of boxes.
+     * @param visible The array the visible indices get written to, needs room for count indices.
+     * @return The number of visible boxes.
+     */
+    public int cull(float[] bounds, int count, int[] visible) {
+
+        int visibleCount = 0;
+
+        for (int i = 0; i < count; i++) {
+
+            int offset = i * 6;
+            if (intersectsBox(bounds[offset], bounds[offset + 1], bounds[offset + 2], bounds[offset + 3], bounds[offset + 4], bounds[offset + 5]))
+                visible[visibleCount++] = i;
+
+        }
+
+        return visibleCount;
+
+    }
+
+}
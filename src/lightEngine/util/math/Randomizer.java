@@ -13,6 +13,17 @@ public class Randomizer {
 
     }
 
+    /**
+     * Makes the following random numbers repeatable, e.g. for building the same scene in every benchmark run.
+     *
+     * @param seed The seed of the random number generator.
+     */
+    public static void setSeed(long seed) {
+
+        random.setSeed(seed);
+
+    }
+
     public static String getRandomUUID() {
 
         UUID randomUUID = UUID.randomUUID();
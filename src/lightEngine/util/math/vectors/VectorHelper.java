@@ -144,6 +144,120 @@ public class VectorHelper {
         return (float) Math.acos(getScalarProduct(vectorA, vectorB) / (getAbs(vectorA) * getAbs(vectorB)));
     }
 
+    //The methods below write into a destination vector instead of allocating one, the destination may be one of the operands.
+    //Use them (together with VectorPool for temporary vectors) in code that runs every tick or frame.
+
+    /**
+     * Adds two vectors.
+     *
+     * @param vectorA The first vector.
+     * @param vectorB The second vector.
+     * @param dest    The vector the sum is written into.
+     * @return dest
+     */
+    public static Vector3f add(Vector3f vectorA, Vector3f vectorB, Vector3f dest) {
+
+        dest.x = vectorA.x + vectorB.x;
+        dest.y = vectorA.y + vectorB.y;
+        dest.z = vectorA.z + vectorB.z;
+
+        return dest;
+
+    }
+
+    /**
+     * Subtracts a vector from another one.
+     *
+     * @param vectorA The minuend.
+     * @param vectorB The subtrahend.
+     * @param dest    The vector the difference is written into.
+     * @return dest
+     */
+    public static Vector3f subtract(Vector3f vectorA, Vector3f vectorB, Vector3f dest) {
+
+        dest.x = vectorA.x - vectorB.x;
+        dest.y = vectorA.y - vectorB.y;
+        dest.z = vectorA.z - vectorB.z;
+
+        return dest;
+
+    }
+
+    /**
+     * Multiplies a vector by a float.
+     *
+     * @param vector     The vector.
+     * @param multiplier The factor.
+     * @param dest       The vector the product is written into.
+     * @return dest
+     */
+    public static Vector3f scale(Vector3f vector, float multiplier, Vector3f dest) {
+
+        dest.x = vector.x * multiplier;
+        dest.y = vector.y * multiplier;
+        dest.z = vector.z * multiplier;
+
+        return dest;
+
+    }
+
+    /**
+     * Adds a scaled vector to another one (vectorA + vectorB * multiplier) in one step, e.g. to move a position by speed * time.
+     *
+     * @param vectorA    The vector that gets added to.
+     * @param vectorB    The vector that gets scaled.
+     * @param multiplier The factor for vectorB.
+     * @param dest       The vector the result is written into.
+     * @return dest
+     */
+    public static Vector3f multiplyAdd(Vector3f vectorA, Vector3f vectorB, float multiplier, Vector3f dest) {
+
+        dest.x = vectorA.x + vectorB.x * multiplier;
+        dest.y = vectorA.y + vectorB.y * multiplier;
+        dest.z = vectorA.z + vectorB.z * multiplier;
+
+        return dest;
+
+    }
+
+    /**
+     * Calculates the vector product of two vectors.
+     *
+     * @param vectorA The first vector.
+     * @param vectorB The second vector.
+     * @param dest    The vector the product is written into.
+     * @return dest
+     */
+    public static Vector3f cross(Vector3f vectorA, Vector3f vectorB, Vector3f dest) {
+
+        float x = vectorA.y * vectorB.z - vectorA.z * vectorB.y;
+        float y = vectorA.z * vectorB.x - vectorA.x * vectorB.z;
+        float z = vectorA.x * vectorB.y - vectorA.y * vectorB.x;
+
+        dest.set(x, y, z);
+
+        return dest;
+
+    }
+
+    /**
+     * Scales a vector to the length 1.
+     *
+     * @param vector The vector, it gets changed.
+     * @return The vector.
+     */
+    public static Vector3f normalize(Vector3f vector) {
+
+        float abs = getAbs(vector);
+
+        vector.x /= abs;
+        vector.y /= abs;
+        vector.z /= abs;
+
+        return vector;
+
+    }
+
     public static boolean isVectorInsideRectangle(Vector2f vector, Rectangle rectangle) {
 
         return vector.x > rectangle.x
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.math.vectors;
+
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * Temporary vectors for calculations that run every tick, so they don't create garbage.
+ * Every thread has its own pool (the parallel update phase uses the pools of its worker threads), the vectors are used like a stack:
+ * <pre>
+ * VectorPool pool = VectorPool.get();
+ * int mark = pool.mark();
+ * Vector3f temporary = pool.take();
+ * ...
+ * pool.release(mark);
+ * </pre>
+ * The vectors taken after mark() must not be used after release(), so they must not be stored in fields or returned.
+ */
+public class VectorPool {
+
+    private static final ThreadLocal<VectorPool> pools = ThreadLocal.withInitial(VectorPool::new);
+
+    private Vector3f[] vectors = new Vector3f[16];
+    private int used;
+
+    private VectorPool() {
+    }
+
+    /**
+     * Returns the pool of the current thread.
+     *
+     * @return The pool.
+     */
+    public static VectorPool get() {
+        return pools.get();
+    }
+
+    /**
+     * Takes a vector from the pool, the pool grows if all vectors are taken.
+     *
+     * @return A vector set to (0, 0, 0).
+     */
+    public Vector3f take() {
+        return take(0, 0, 0);
+    }
+
+    /**
+     * Takes a vector from the pool and sets it.
+     *
+     * @param x The x value.
+     * @param y The y value.
+     * @param z The z value.
+     * @return The vector.
+     */
+    public Vector3f take(float x, float y, float z) {
+
+        if (used == vectors.length) vectors = Arrays.copyOf(vectors, vectors.length * 2);
+
+        Vector3f vector = vectors[used];
+        if (vector == null) vector = vectors[used] = new Vector3f();
+
+        used++;
+        vector.set(x, y, z);
+
+        return vector;
+
+    }
+
+    /**
+     * Remembers how many vectors are taken.
+     *
+     * @return The mark to pass to release().
+     */
+    public int mark() {
+        return used;
+    }
+
+    /**
+     * Gives back all vectors taken since mark() was called.
+     *
+     * @param mark The value returned by mark().
+     */
+    public void release(int mark) {
+        used = mark;
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.rendering;
+
+import lightEngine.graphics.renderable.models.Face;
+import lightEngine.graphics.renderable.models.Mesh;
+import lightEngine.graphics.renderable.models.SubModel;
+import org.lwjgl.util.vector.Vector2f;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.Arrays;
+
+public class MeshHelper {
+
+    /**
+     * Turns the faces of a sub model into an indexed mesh.
+     * Corners that share their vertex, normal and uv index become a single mesh vertex.
+     * Drawing the mesh's indices results in exactly the triangles that expanding every face would create.
+     *
+     * @param subModel The sub model to compile.
+     * @return The compiled mesh.
+     */
+    public static Mesh compileMesh(SubModel subModel) {
+
+        int cornerCount = subModel.faces.size() * 3;
+
+        int[] indices = new int[cornerCount];
+        int[] corners = new int[cornerCount * 3]; //vertex, normal and uv index of every unique corner
+        int uniqueCount = 0;
+
+        //Open addressing hash table from corner to its mesh index, -1 marks empty slots
+        int[] table = new int[Integer.highestOneBit(Math.max(cornerCount, 1)) << 2];
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+
+        int corner = 0;
+
+        for (Face face : subModel.faces) {
+
+            for (int i = 0; i < 3; i++) {
+
+                int vertexIndex = (int) getComponent(face.vertexIndices, i);
+                int normalIndex = (int) getComponent(face.normalIndices, i);
+                int uvIndex = (int) getComponent(face.uvIndices, i);
+
+                int slot = hash(vertexIndex, normalIndex, uvIndex) & mask;
+
+                while (true) {
+
+                    int index = table[slot];
+
+                    if (index == -1) {
+
+                        index = uniqueCount++;
+                        table[slot] = index;
+                        corners[index * 3] = vertexIndex;
+                        corners[index * 3 + 1] = normalIndex;
+                        corners[index * 3 + 2] = uvIndex;
+                        indices[corner++] = index;
+                        break;
+
+                    } else if (corners[index * 3] == vertexIndex && corners[index * 3 + 1] == normalIndex && corners[index * 3 + 2] == uvIndex) {
+
+                        indices[corner++] = index;
+                        break;
+
+                    }
+
+                    slot = (slot + 1) & mask;
+
+                }
+
+            }
+
+        }
+
+        float[] vertices = new float[uniqueCount * 3];
+        float[] normals = new float[uniqueCount * 3];
+        float[] uvs = new float[uniqueCount * 2];
+
+        for (int i = 0; i < uniqueCount; i++) {
+
+            Vector3f vertex = subModel.vertices.get(corners[i * 3]);
+            vertices[i * 3] = vertex.x;
+            vertices[i * 3 + 1] = vertex.y;
+            vertices[i * 3 + 2] = vertex.z;
+
+            Vector3f normal = subModel.normals.get(corners[i * 3 + 1]);
+            normals[i * 3] = normal.x;
+            normals[i * 3 + 1] = normal.y;
+            normals[i * 3 + 2] = normal.z;
+
+            Vector2f uv = subModel.uvs.get(corners[i * 3 + 2]);
+            uvs[i * 2] = uv.x;
+            uvs[i * 2 + 1] = 1 - uv.y;
+
+        }
+
+        return new Mesh(vertices, normals, uvs, indices);
+
+    }
+
+    private static float getComponent(Vector3f vector, int component) {
+        return component == 0 ? vector.x : component == 1 ? vector.y : vector.z;
+    }
+
+    private static int hash(int vertexIndex, int normalIndex, int uvIndex) {
+
+        int hash = vertexIndex * 0x9E3779B1;
+        hash = (hash ^ normalIndex) * 0x85EBCA6B;
+        hash = (hash ^ uvIndex) * 0xC2B2AE35;
+
+        return hash ^ (hash >>> 16);
+
+    }
+
+}
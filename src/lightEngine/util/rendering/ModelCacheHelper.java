@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.rendering;
+
+import lightEngine.graphics.renderable.materials.Material3D;
+import lightEngine.graphics.renderable.models.Face;
+import lightEngine.graphics.renderable.models.Model;
+import lightEngine.graphics.renderable.models.SubModel;
+import lightEngine.util.resources.ResourceHelper;
+import org.lwjgl.util.vector.Vector2f;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes compiled models (.lem files).
+ * A compiled model contains the parsed and centered sub models and the names of their materials, so loading it doesn't need to parse the OBJ file.
+ * The materials themselves come from ModelHelper's material libraries, like the ones of a parsed model.
+ * Every file also stores the modification time, size and checksum of the OBJ and MTL files it was compiled from,
+ * outdated files are ignored and get replaced the next time the model is loaded.
+ */
+public class ModelCacheHelper {
+
+    private static final int MAGIC = 0x4C454D31; //"LEM1"
+    private static final int VERSION = 2;
+
+    /**
+     * Loads a compiled model.
+     *
+     * @param name The name of the model.
+     * @return The centered model or null if there is no up to date compiled version.
+     */
+    public static Model readModel(String name) {
+
+        File file = ResourceHelper.getResource(name, ResourceHelper.RES_MODEL_CACHE);
+        if (!file.isFile()) return null;
+
+        try {
+
+            //Read into the heap, a mapped file stays locked until the buffer is garbage collected and couldn't be replaced on Windows
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+
+            //Source files
+            int sourceCount = buffer.getInt();
+            for (int i = 0; i < sourceCount; i++)
+                if (!isUpToDate(new File(getString(buffer)), buffer.getLong(), buffer.getLong(), buffer.getLong()))
+                    return null;
+
+            //Materials, the same instances a parsed model gets
+            Material3D[] materials = new Material3D[buffer.getInt()];
+            for (int i = 0; i < materials.length; i++) materials[i] = ModelHelper.getMaterial(getString(buffer), getString(buffer));
+
+            //Sub models
+            Model model = new Model();
+            int subModelCount = buffer.getInt();
+
+            for (int i = 0; i < subModelCount; i++) {
+
+                int materialIndex = buffer.getInt();
+                SubModel subModel = new SubModel(materialIndex < 0 ? null : materials[materialIndex]);
+
+                int vertexCount = buffer.getInt();
+                int normalCount = buffer.getInt();
+                int uvCount = buffer.getInt();
+                int faceCount = buffer.getInt();
+
+                subModel.vertices.ensureCapacity(vertexCount);
+                for (int j = 0; j < vertexCount; j++)
+                    subModel.vertices.add(new Vector3f(buffer.getFloat(), buffer.getFloat(), buffer.getFloat()));
+
+                subModel.normals.ensureCapacity(normalCount);
+                for (int j = 0; j < normalCount; j++)
+                    subModel.normals.add(new Vector3f(buffer.getFloat(), buffer.getFloat(), buffer.getFloat()));
+
+                subModel.uvs.ensureCapacity(uvCount);
+                for (int j = 0; j < uvCount; j++)
+                    subModel.uvs.add(new Vector2f(buffer.getFloat(), buffer.getFloat()));
+
+                subModel.faces.ensureCapacity(faceCount);
+                for (int j = 0; j < faceCount; j++)
+                    subModel.faces.add(new Face(
+                      new Vector3f(buffer.getInt(), buffer.getInt(), buffer.getInt()),
+                      new Vector3f(buffer.getInt(), buffer.getInt(), buffer.getInt()),
+                      new Vector3f(buffer.getInt(), buffer.getInt(), buffer.getInt())));
+
+                model.subModels.add(subModel);
+
+            }
+
+            return model;
+
+        } catch (IOException | BufferUnderflowException e) {
+
+            //A broken cache file is no reason to stop, the model just gets parsed again
+            System.err.println("Ignoring corrupt model cache " + file.getPath() + ": " + e);
+            return null;
+
+        }
+
+    }
+
+    /**
+     * Writes a compiled model.
+     * Failures are reported but not fatal, the model will simply be parsed again next time.
+     *
+     * @param name              The name of the model.
+     * @param model             The centered model.
+     * @param materialLibraries The names of the material libraries the model uses.
+     */
+    public static void writeModel(String name, Model model, List<String> materialLibraries) {
+
+        File file = ResourceHelper.getResource(name, ResourceHelper.RES_MODEL_CACHE);
+
+        try {
+
+            List<File> sources = new ArrayList<>();
+            sources.add(ResourceHelper.getResource(name, ResourceHelper.RES_MODEL));
+            for (String library : materialLibraries)
+                sources.add(ResourceHelper.getResource(library, ResourceHelper.RES_MATERIAL));
+
+            //Material table with the library and the name of every material, materials are shared between sub models
+            Map<Material3D, Integer> materialIndices = new IdentityHashMap<>();
+            List<String[]> materials = new ArrayList<>();
+            for (SubModel subModel : model.subModels)
+                if (subModel.material != null && !materialIndices.containsKey(subModel.material)) {
+                    materialIndices.put(subModel.material, materials.size());
+                    materials.add(getMaterialName(subModel.material, materialLibraries));
+                }
+
+            List<String> sourcePaths = new ArrayList<>();
+            for (File source : sources) sourcePaths.add(source.getCanonicalPath());
+
+            //Calculating the size up front allows for a single buffer
+            int size = 12;
+            for (String sourcePath : sourcePaths) size += getStringSize(sourcePath) + 24;
+            size += 4;
+            for (String[] material : materials) size += getStringSize(material[0]) + getStringSize(material[1]);
+            size += 4;
+            for (SubModel subModel : model.subModels)
+                size += 20 + subModel.vertices.size() * 12 + subModel.normals.size() * 12 + subModel.uvs.size() * 8 + subModel.faces.size() * 36;
+
+            ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+
+            buffer.putInt(sources.size());
+            for (int i = 0; i < sources.size(); i++) {
+                File source = sources.get(i);
+                putString(buffer, sourcePaths.get(i));
+                buffer.putLong(source.lastModified());
+                buffer.putLong(source.length());
+                buffer.putLong(getChecksum(source));
+            }
+
+            buffer.putInt(materials.size());
+            for (String[] material : materials) {
+                putString(buffer, material[0]);
+                putString(buffer, material[1]);
+            }
+
+            buffer.putInt(model.subModels.size());
+            for (SubModel subModel : model.subModels) {
+
+                buffer.putInt(subModel.material == null ? -1 : materialIndices.get(subModel.material));
+                buffer.putInt(subModel.vertices.size());
+                buffer.putInt(subModel.normals.size());
+                buffer.putInt(subModel.uvs.size());
+                buffer.putInt(subModel.faces.size());
+
+                for (Vector3f vertex : subModel.vertices) putVector(buffer, vertex);
+                for (Vector3f normal : subModel.normals) putVector(buffer, normal);
+                for (Vector2f uv : subModel.uvs) buffer.putFloat(uv.x).putFloat(uv.y);
+
+                for (Face face : subModel.faces) {
+                    putIndices(buffer, face.vertexIndices);
+                    putIndices(buffer, face.normalIndices);
+                    putIndices(buffer, face.uvIndices);
+                }
+
+            }
+
+            buffer.flip();
+
+            //Writing to a temporary file first, so a crash never leaves a half written cache file behind
+            File directory = file.getParentFile();
+            if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Could not create " + directory.getPath());
+
+            File temporaryFile = File.createTempFile(name, ".tmp", directory);
+
+            try {
+
+                try (FileChannel channel = new RandomAccessFile(temporaryFile, "rw").getChannel()) {
+                    while (buffer.hasRemaining()) channel.write(buffer);
+                }
+
+                Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+            } finally {
+                Files.deleteIfExists(temporaryFile.toPath());
+            }
+
+        } catch (IOException e) {
+
+            System.err.println("Could not write model cache " + file.getPath() + ": " + e);
+
+        }
+
+    }
+
+    /**
+     * Compiles all OBJ files in the model directory.
+     * Meant to be run before shipping a game, so the first start doesn't need to parse any models.
+     */
+    public static void compileAllModels() {
+
+        File[] files = ResourceHelper.getResource("", ResourceHelper.RES_MODEL).getParentFile().listFiles((dir, fileName) -> fileName.endsWith(".obj"));
+        if (files == null) return;
+
+        for (File file : files) {
+
+            String name = file.getName().substring(0, file.getName().length() - 4);
+            ModelHelper.compileModel(name);
+            System.out.println("Compiled " + name);
+
+        }
+
+    }
+
+    /**
+     * Determines if a source file still matches the state it had when the model was compiled.
+     * If only the modification time changed (e.g. after a checkout), the checksum decides.
+     */
+    private static boolean isUpToDate(File source, long lastModified, long length, long checksum) throws IOException {
+
+        if (!source.isFile() || source.length() != length) return false;
+        return source.lastModified() == lastModified || getChecksum(source) == checksum;
+
+    }
+
+    private static long getChecksum(File file) throws IOException {
+
+        CRC32 crc = new CRC32();
+        byte[] bytes = new byte[8192];
+
+        try (InputStream stream = new FileInputStream(file)) {
+            int count;
+            while ((count = stream.read(bytes)) != -1) crc.update(bytes, 0, count);
+        }
+
+        return crc.getValue();
+
+    }
+
+    /**
+     * Finds the library and the name a material was loaded with.
+     *
+     * @throws IOException if the material isn't part of the model's libraries, it couldn't be found again when loading.
+     */
+    private static String[] getMaterialName(Material3D material, List<String> materialLibraries) throws IOException {
+
+        for (String library : materialLibraries)
+            for (Map.Entry<String, Material3D> entry : ModelHelper.getMaterialLibrary(library).entrySet())
+                if (entry.getValue() == material) return new String[]{library, entry.getKey()};
+
+        throw new IOException("The material isn't part of the model's material libraries");
+
+    }
+
+    private static void putVector(ByteBuffer buffer, Vector3f vector) {
+        buffer.putFloat(vector.x).putFloat(vector.y).putFloat(vector.z);
+    }
+
+    private static void putIndices(ByteBuffer buffer, Vector3f indices) {
+        buffer.putInt((int) indices.x).putInt((int) indices.y).putInt((int) indices.z);
+    }
+
+    private static int getStringSize(String string) {
+        return 4 + (string == null ? 0 : string.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+
+        int length = buffer.getInt();
+        if (length < 0) return null;
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+
+    }
+
+    private static void putString(ByteBuffer buffer, String string) {
+
+        if (string == null) {
+            buffer.putInt(-1);
+            return;
+        }
+
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+
+    }
+
+}
@@ -7,111 +7,66 @@
 package lightEngine.util.rendering;
 
 import lightEngine.graphics.renderable.materials.Material3D;
-import lightEngine.graphics.renderable.models.Face;
 import lightEngine.graphics.renderable.models.Model;
-import lightEngine.graphics.renderable.models.SubModel;
-import lightEngine.util.math.vectors.VectorHelper;
 import lightEngine.util.resources.ResourceHelper;
-import org.lwjgl.util.vector.Vector2f;
+import lightEngine.util.threading.LoadingCache;
 import org.lwjgl.util.vector.Vector3f;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ModelHelper {
 
-    private static Map<String, Model> loadedModels = new HashMap<>();
-    private static Map<String, Material3D> loadedMaterials = new HashMap<>();
+    private static LoadingCache<Model> loadedModels = new LoadingCache<>(ModelHelper::loadModel);
+    private static LoadingCache<Map<String, Material3D>> loadedMaterialLibraries = new LoadingCache<>(ModelHelper::loadMaterialLibrary);
 
     /**
-     * Loads a model into loadedModels.
+     * Loads a model.
+     * The compiled version is used if it is up to date, otherwise the OBJ file gets parsed and compiled.
      *
      * @param fileName The name of the desired model.
+     * @return The centered model.
+     * @throws IOException if the model file can't be read.
      */
-    private static void loadModel(String fileName) {
+    private static Model loadModel(String fileName) throws IOException {
 
-        try {
-
-            BufferedReader reader = new BufferedReader(new FileReader(ResourceHelper.getResource(fileName, ResourceHelper.RES_MODEL)));
-            String line;
-            int currentVertexCount = 0;
-            int currentNormalCount = 0;
-            int currentUvCount = 0;
-            Model currentModel = new Model();
-            SubModel currentSubModel = new SubModel();
-            String currentMaterialName = null;
-
-            while ((line = reader.readLine()) != null) {
-
-                if (line.startsWith("mtllib "))
-                    loadMaterialLibrary(line.split(" ")[1].replace(".mtl", "")); //line.split("")[1] is the stuff after mtllib
-                else if (line.startsWith("usemtl ")) {
-                    currentMaterialName = line.split(" ")[1];
-                    currentSubModel.material = loadedMaterials.get(currentMaterialName);
-                } else if (line.startsWith("o ")) {
-                    currentVertexCount += currentSubModel.vertices.size();
-                    currentNormalCount += currentSubModel.normals.size();
-                    currentUvCount += currentSubModel.uvs.size();
+        Model model = ModelCacheHelper.readModel(fileName);
+        return model != null ? model : parseModel(fileName);
 
-                    currentSubModel = new SubModel(loadedMaterials.get(currentMaterialName));
-                    currentModel.subModels.add(currentSubModel);
-                } else if (line.startsWith("v ")) {
-
-                    currentSubModel.vertices.add(new Vector3f(
-                      Float.valueOf(line.split(" ")[1]),
-                      Float.valueOf(line.split(" ")[2]),
-                      Float.valueOf(line.split(" ")[3])));
-
-                } else if (line.startsWith("vn ")) {
+    }
 
-                    currentSubModel.normals.add(new Vector3f(
-                      Float.valueOf(line.split(" ")[1]),
-                      Float.valueOf(line.split(" ")[2]),
-                      Float.valueOf(line.split(" ")[3])));
+    /**
+     * Parses and centers a model and writes the compiled version.
+     *
+     * @param fileName The name of the desired model.
+     * @return The centered model.
+     * @throws IOException if the model file can't be read.
+     */
+    private static Model parseModel(String fileName) throws IOException {
 
-                } else if (line.startsWith("vt ")) {
+        List<String> materialLibraries = new ArrayList<>();
+        Model model = new Model(ObjParser.parse(ResourceHelper.getResource(fileName, ResourceHelper.RES_MODEL), materialLibraries).subModels);
 
-                    currentSubModel.uvs.add(new Vector2f(
-                      Float.valueOf(line.split(" ")[1]),
-                      Float.valueOf(line.split(" ")[2])));
-
-                } else if (line.startsWith("f ")) {
-
-                    //[0]: "f", [1]:([0]:vertexIndex, [1]:uvIndex, [2]: normalIndex), [...]
-                    Vector3f vertexIndices = new Vector3f(
-                      Float.valueOf(line.split(" ")[1].split("/")[0]) - currentVertexCount,
-                      Float.valueOf(line.split(" ")[2].split("/")[0]) - currentVertexCount,
-                      Float.valueOf(line.split(" ")[3].split("/")[0]) - currentVertexCount);
-
-                    Vector3f normalIndices = new Vector3f(
-                      Float.valueOf(line.split(" ")[1].split("/")[2]) - currentNormalCount,
-                      Float.valueOf(line.split(" ")[2].split("/")[2]) - currentNormalCount,
-                      Float.valueOf(line.split(" ")[3].split("/")[2]) - currentNormalCount);
-
-                    Vector3f uvIndices;
-                    if (!line.split(" ")[1].split("/")[1].equals(""))
-                        uvIndices = new Vector3f(
-                          Float.valueOf(line.split(" ")[1].split("/")[1]) - currentUvCount,
-                          Float.valueOf(line.split(" ")[2].split("/")[1]) - currentUvCount,
-                          Float.valueOf(line.split(" ")[3].split("/")[1]) - currentUvCount);
-                    else if (currentSubModel.uvs.size() == 0) {
-                        currentSubModel.uvs.add(new Vector2f());
-                        uvIndices = new Vector3f(1, 1, 1);
-                    } else uvIndices = new Vector3f(1, 1, 1);
-
-                    currentSubModel.faces.add(new Face(VectorHelper.subtractVectorAndFloat(vertexIndices, 1),
-                      VectorHelper.subtractVectorAndFloat(normalIndices, 1),
-                      VectorHelper.subtractVectorAndFloat(uvIndices, 1)));
+        ModelCacheHelper.writeModel(fileName, model, materialLibraries);
 
-                }
+        return model;
 
-            }
+    }
 
-            loadedModels.put(fileName, currentModel);
+    /**
+     * Compiles a model, even if an up to date compiled version exists.
+     *
+     * @param name The name of the model.
+     */
+    static void compileModel(String name) {
 
+        try {
+            parseModel(name);
         } catch (IOException e) {
             e.printStackTrace();
             System.exit(1);
@@ -120,15 +75,18 @@ public class ModelHelper {
     }
 
     /**
-     * Loads all materials in a library into loadedMaterials.
+     * Loads all materials in a library.
      *
      * @param fileName The name of the desired library.
+     * @return The materials of the library, mapped by their names.
+     * @throws IOException if the library file can't be read.
      */
-    private static void loadMaterialLibrary(String fileName) {
+    private static Map<String, Material3D> loadMaterialLibrary(String fileName) throws IOException {
 
-        try {
+        Map<String, Material3D> materials = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(ResourceHelper.getResource(fileName, ResourceHelper.RES_MATERIAL)))) {
 
-            BufferedReader reader = new BufferedReader(new FileReader(ResourceHelper.getResource(fileName, ResourceHelper.RES_MATERIAL)));
             String line;
             Material3D currentMaterial = null;
             String currentMaterialName = null;
@@ -136,7 +94,7 @@ public class ModelHelper {
             while ((line = reader.readLine()) != null) {
 
                 if (line.startsWith("newmtl ")) {
-                    if (currentMaterial != null) loadedMaterials.put(currentMaterialName, currentMaterial);
+                    if (currentMaterial != null) materials.put(currentMaterialName, currentMaterial);
                     currentMaterial = new Material3D();
                     currentMaterialName = line.split(" ")[1];
                 } else if (currentMaterial != null) {
@@ -163,16 +121,55 @@ public class ModelHelper {
 
             }
 
-            if (currentMaterial != null) loadedMaterials.put(currentMaterialName, currentMaterial);
-            reader.close();
+            if (currentMaterial != null) materials.put(currentMaterialName, currentMaterial);
 
+        }
+
+        return materials;
+
+    }
+
+    /**
+     * Returns all materials of a material library.
+     * The library gets loaded if needed, concurrent requests for the same library only load it once.
+     *
+     * @param fileName The name of the desired library.
+     * @return The materials of the library, mapped by their names.
+     */
+    public static Map<String, Material3D> getMaterialLibrary(String fileName) {
+
+        try {
+            return loadedMaterialLibraries.get(fileName);
         } catch (IOException e) {
             e.printStackTrace();
             System.exit(1);
+            return null;
         }
 
     }
 
+    /**
+     * Returns a material of a material library.
+     * The library gets loaded if needed, materials are only found in the library they are defined in.
+     *
+     * @param libraryName The name of the library.
+     * @param name        The name of the material.
+     * @return The material or null if the library has no material with this name.
+     */
+    static Material3D getMaterial(String libraryName, String name) {
+        return getMaterialLibrary(libraryName).get(name);
+    }
+
+    /**
+     * Loads a model (and its materials) without creating a model instance.
+     * This is thread safe, concurrent requests for the same model only load it once.
+     *
+     * @param name The name of the desired model.
+     */
+    public static void preloadModel(String name) {
+        getLoadedModel(name);
+    }
+
     /**
      * Returns the requested model.
      * The model and its materials get loaded if needed.
@@ -181,13 +178,17 @@ public class ModelHelper {
      * @return The requested model.
      */
     public static Model getModel(String name) {
+        return new Model(getLoadedModel(name));
+    }
 
-        if (loadedModels.containsKey(name)) return new Model(loadedModels.get(name).subModels);
-        else {
-
-            loadModel(name);
-            return new Model(getModel(name).subModels);
+    private static Model getLoadedModel(String name) {
 
+        try {
+            return loadedModels.get(name);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+            return null;
         }
 
     }
@@ -0,0 +1,490 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.rendering;
+
+import lightEngine.graphics.renderable.materials.Material3D;
+import lightEngine.graphics.renderable.models.Face;
+import lightEngine.graphics.renderable.models.Model;
+import lightEngine.graphics.renderable.models.SubModel;
+import org.lwjgl.util.vector.Vector2f;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single pass OBJ parser that works directly on a memory mapped file.
+ * Numbers are parsed in place, all data is collected in primitive arrays and only turned into vectors once per sub model.
+ */
+public class ObjParser {
+
+    private static final float[] POWERS_OF_TEN = {1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+    private static final int MAX_EXACT_MANTISSA = 1 << 24; //Every integer below this is exactly representable as float
+
+    private MappedByteBuffer buffer;
+    private int position;
+    private int limit;
+    private File file;
+    private List<String> materialLibraries;
+
+    //Data of the sub model that is currently being parsed
+    private FloatArray vertices = new FloatArray();
+    private FloatArray normals = new FloatArray();
+    private FloatArray uvs = new FloatArray();
+    private IntArray faces = new IntArray(); //9 ints per face: vertex indices, normal indices, uv indices
+    private int[] faceIndices = new int[9];
+    private SubModel currentSubModel = new SubModel();
+    private boolean currentSubModelInModel = false;
+
+    private ObjParser(File file, List<String> materialLibraries) {
+        this.file = file;
+        this.materialLibraries = materialLibraries;
+    }
+
+    /**
+     * Parses an OBJ file.
+     * Material libraries referenced in the file get loaded via the ModelHelper.
+     * This is thread safe, so several models can be parsed at the same time.
+     *
+     * @param file The OBJ file.
+     * @return The parsed (not yet centered) model.
+     * @throws IOException if the file can't be read or contains unsupported data.
+     */
+    public static Model parse(File file) throws IOException {
+        return new ObjParser(file, new ArrayList<>()).parseModel();
+    }
+
+    /**
+     * Parses an OBJ file and collects the names of all referenced material libraries.
+     *
+     * @param file              The OBJ file.
+     * @param materialLibraries The list the library names (without ".mtl") get added to.
+     * @return The parsed (not yet centered) model.
+     * @throws IOException if the file can't be read or contains unsupported data.
+     */
+    public static Model parse(File file, List<String> materialLibraries) throws IOException {
+        return new ObjParser(file, materialLibraries).parseModel();
+    }
+
+    private Model parseModel() throws IOException {
+
+        Model model = new Model();
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r"); FileChannel channel = randomAccessFile.getChannel()) {
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            limit = buffer.limit();
+            position = 0;
+
+            int vertexOffset = 0;
+            int normalOffset = 0;
+            int uvOffset = 0;
+            String currentMaterialName = null;
+
+            while (position < limit) {
+
+                int lineStart = position;
+
+                if (startsWith(lineStart, "v ")) {
+
+                    position += 2;
+                    vertices.add(nextFloat());
+                    vertices.add(nextFloat());
+                    vertices.add(nextFloat());
+
+                } else if (startsWith(lineStart, "vn ")) {
+
+                    position += 3;
+                    normals.add(nextFloat());
+                    normals.add(nextFloat());
+                    normals.add(nextFloat());
+
+                } else if (startsWith(lineStart, "vt ")) {
+
+                    position += 3;
+                    uvs.add(nextFloat());
+                    uvs.add(nextFloat());
+
+                } else if (startsWith(lineStart, "f ")) {
+
+                    position += 2;
+                    parseFace(vertexOffset, normalOffset, uvOffset);
+
+                } else if (startsWith(lineStart, "o ")) {
+
+                    vertexOffset += vertices.size / 3;
+                    normalOffset += normals.size / 3;
+                    uvOffset += uvs.size / 2;
+
+                    finishSubModel();
+
+                    currentSubModel = new SubModel(getMaterial(currentMaterialName));
+                    currentSubModelInModel = true;
+                    model.subModels.add(currentSubModel);
+
+                } else if (startsWith(lineStart, "usemtl ")) {
+
+                    position += 7;
+                    currentMaterialName = nextWord();
+                    currentSubModel.material = getMaterial(currentMaterialName);
+
+                } else if (startsWith(lineStart, "mtllib ")) {
+
+                    position += 7;
+                    materialLibraries.add(nextWord().replace(".mtl", ""));
+
+                }
+
+                skipLine();
+
+            }
+
+            finishSubModel();
+
+        } finally {
+            buffer = null;
+        }
+
+        return model;
+
+    }
+
+    /**
+     * Looks up a material in the libraries referenced by the model so far, the first library that contains it wins.
+     * Equally named materials of other models' libraries don't interfere.
+     */
+    private Material3D getMaterial(String name) {
+
+        if (name == null) return null;
+
+        for (String libraryName : materialLibraries) {
+
+            Material3D material = ModelHelper.getMaterial(libraryName, name);
+            if (material != null) return material;
+
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Reads the vertices of a face ("v/t/n" or "v//n") and stores the zero based indices.
+     * Faces with more than three vertices (e.g. quads) are split into a fan of triangles around their first vertex.
+     */
+    private void parseFace(int vertexOffset, int normalOffset, int uvOffset) throws IOException {
+
+        int[] indices = faceIndices;
+        boolean hasUvs = true;
+        int corner = 0;
+
+        while (true) {
+
+            skipSpaces();
+            if (position >= limit || buffer.get(position) == '\r' || buffer.get(position) == '\n') break;
+
+            //The first triangle fills the three slots, every further vertex replaces the last one
+            int slot = Math.min(corner, 2);
+
+            if (corner > 2) {
+                indices[1] = indices[2];
+                indices[4] = indices[5];
+                indices[7] = indices[8];
+            }
+
+            indices[slot] = nextInt() - vertexOffset - 1;
+            expect('/');
+
+            if (corner == 0) hasUvs = buffer.get(position) != '/';
+            if (hasUvs) indices[6 + slot] = nextInt() - uvOffset - 1;
+            expect('/');
+
+            indices[3 + slot] = nextInt() - normalOffset - 1;
+
+            if (++corner >= 3) addFace(hasUvs);
+
+        }
+
+        if (corner < 3) throw new IOException("Face with less than three vertices in " + file.getName() + " at byte " + position);
+
+    }
+
+    private void addFace(boolean hasUvs) {
+
+        int[] indices = faceIndices;
+
+        if (!hasUvs) {
+
+            //Faces without texture coordinates all point to a single empty uv
+            if (uvs.size == 0) {
+                uvs.add(0);
+                uvs.add(0);
+            }
+
+            indices[6] = indices[7] = indices[8] = 0;
+
+        }
+
+        for (int index : indices) faces.add(index);
+
+    }
+
+    /**
+     * Turns the primitive data of the current sub model into its vectors and faces and resets the arrays.
+     */
+    private void finishSubModel() {
+
+        if (currentSubModelInModel) {
+
+            currentSubModel.vertices.ensureCapacity(vertices.size / 3);
+            for (int i = 0; i < vertices.size; i += 3)
+                currentSubModel.vertices.add(new Vector3f(vertices.data[i], vertices.data[i + 1], vertices.data[i + 2]));
+
+            currentSubModel.normals.ensureCapacity(normals.size / 3);
+            for (int i = 0; i < normals.size; i += 3)
+                currentSubModel.normals.add(new Vector3f(normals.data[i], normals.data[i + 1], normals.data[i + 2]));
+
+            currentSubModel.uvs.ensureCapacity(uvs.size / 2);
+            for (int i = 0; i < uvs.size; i += 2)
+                currentSubModel.uvs.add(new Vector2f(uvs.data[i], uvs.data[i + 1]));
+
+            int[] data = faces.data;
+            currentSubModel.faces.ensureCapacity(faces.size / 9);
+            for (int i = 0; i < faces.size; i += 9)
+                currentSubModel.faces.add(new Face(
+                  new Vector3f(data[i], data[i + 1], data[i + 2]),
+                  new Vector3f(data[i + 3], data[i + 4], data[i + 5]),
+                  new Vector3f(data[i + 6], data[i + 7], data[i + 8])));
+
+        }
+
+        vertices.size = 0;
+        normals.size = 0;
+        uvs.size = 0;
+        faces.size = 0;
+
+    }
+
+    private boolean startsWith(int start, String prefix) {
+
+        if (start + prefix.length() > limit) return false;
+
+        for (int i = 0; i < prefix.length(); i++)
+            if (buffer.get(start + i) != prefix.charAt(i)) return false;
+
+        return true;
+
+    }
+
+    private void skipLine() {
+        while (position < limit && buffer.get(position) != '\n') position++;
+        position++;
+    }
+
+    private void skipSpaces() {
+        while (position < limit && (buffer.get(position) == ' ' || buffer.get(position) == '\t')) position++;
+    }
+
+    private int tokenEnd() {
+
+        int end = position;
+
+        while (end < limit) {
+            byte b = buffer.get(end);
+            if (b == ' ' || b == '\t' || b == '\r' || b == '\n') break;
+            end++;
+        }
+
+        return end;
+
+    }
+
+    private String nextWord() {
+
+        skipSpaces();
+
+        int end = tokenEnd();
+        byte[] bytes = new byte[end - position];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = buffer.get(position + i);
+        position = end;
+
+        return new String(bytes, StandardCharsets.UTF_8);
+
+    }
+
+    private void expect(char c) throws IOException {
+
+        if (position >= limit || buffer.get(position) != c)
+            throw new IOException("Unsupported face definition in " + file.getName() + " (expected '" + c + "' at byte " + position + ")");
+
+        position++;
+
+    }
+
+    /**
+     * Parses an integer at the current position.
+     */
+    private int nextInt() throws IOException {
+
+        boolean negative = false;
+        if (position < limit && buffer.get(position) == '-') {
+            negative = true;
+            position++;
+        }
+
+        int start = position;
+        int value = 0;
+
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b < '0' || b > '9') break;
+            value = value * 10 + (b - '0');
+            position++;
+        }
+
+        if (position == start) throw new IOException("Missing index in " + file.getName() + " at byte " + position);
+
+        return negative ? -value : value;
+
+    }
+
+    /**
+     * Parses a float at the current position.
+     * Results are identical to Float.parseFloat(): numbers whose digits fit into a float mantissa are
+     * computed with a single correctly rounded operation, everything else falls back to the JDK.
+     */
+    private float nextFloat() {
+
+        skipSpaces();
+
+        int start = position;
+        int end = tokenEnd();
+        position = end;
+
+        int i = start;
+        boolean negative = false;
+
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        boolean anyDigit = false;
+
+        for (; i < end; i++) {
+
+            byte b = buffer.get(i);
+
+            if (b >= '0' && b <= '9') {
+
+                anyDigit = true;
+
+                if (mantissa != 0 || b != '0') {
+                    if (++digits > 18) return parseFallback(start, end);
+                    mantissa = mantissa * 10 + (b - '0');
+                }
+
+                if (fraction) exponent--;
+
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else if ((b == 'e' || b == 'E') && anyDigit) {
+                break;
+            } else {
+                return parseFallback(start, end);
+            }
+
+        }
+
+        if (!anyDigit) return parseFallback(start, end);
+
+        if (i < end) {
+
+            i++; //e or E
+            boolean negativeExponent = false;
+
+            if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+
+            if (i == end) return parseFallback(start, end);
+
+            int explicitExponent = 0;
+
+            for (; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b < '0' || b > '9' || explicitExponent > 1000) return parseFallback(start, end);
+                explicitExponent = explicitExponent * 10 + (b - '0');
+            }
+
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+
+        }
+
+        while (mantissa != 0 && mantissa % 10 == 0) {
+            mantissa /= 10;
+            exponent++;
+        }
+
+        float value;
+
+        if (mantissa == 0) value = 0;
+        else if (mantissa < MAX_EXACT_MANTISSA && exponent >= -10 && exponent <= 10) {
+            if (exponent >= 0) value = (float) mantissa * POWERS_OF_TEN[exponent];
+            else value = (float) mantissa / POWERS_OF_TEN[-exponent];
+        } else return parseFallback(start, end);
+
+        return negative ? -value : value;
+
+    }
+
+    private float parseFallback(int start, int end) {
+
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = buffer.get(start + i);
+
+        return Float.parseFloat(new String(bytes, StandardCharsets.US_ASCII));
+
+    }
+
+    private static class FloatArray {
+
+        float[] data = new float[1024];
+        int size;
+
+        void add(float value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+    }
+
+    private static class IntArray {
+
+        int[] data = new int[1024];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+    }
+
+}
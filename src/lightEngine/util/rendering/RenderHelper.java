@@ -6,9 +6,7 @@
 
 package lightEngine.util.rendering;
 
-import lightEngine.core.ObjectController;
-import lightEngine.gameObjects.GameObject;
-import lightEngine.gameObjects.modules.renderable.Camera;
+import lightEngine.graphics.RenderQueue;
 import lightEngine.graphics.Renderer;
 import lightEngine.util.math.vectors.Matrix3f;
 import lightEngine.util.math.vectors.VectorHelper;
@@ -19,6 +17,7 @@ public class RenderHelper {
 
     /**
      * Used for frustum culling.
+     * Has to be called on the render thread, the camera is read from the current render queue.
      *
      * @param vector The vertex to check.
      * @return True if on screen, false if not.
@@ -27,30 +26,13 @@ public class RenderHelper {
 
         boolean theoreticallyOnScreen = false;
 
-        Camera camera = null;
+        RenderQueue queue = Renderer.currentRenderQueue;
 
-        if (Renderer.currentRenderQueue.camera != null) camera = Renderer.currentRenderQueue.camera;
+        if (queue != null && queue.camera != null) {
 
-        else {
+            Vector3f cameraDirection = queue.getDirection(queue.camera.parent);
 
-            for (GameObject obj : ObjectController.gameObjects) {
-
-                Camera objectCamera = (Camera) obj.getModule(Camera.class);
-
-                if (objectCamera != null) {
-
-                    camera = objectCamera;
-                    break;
-
-                }
-
-            }
-
-        }
-
-        if (camera != null) {
-
-            vector = VectorHelper.subtractVectors(vector, camera.parent.position);
+            vector = VectorHelper.subtractVectors(vector, queue.getPosition(queue.camera.parent));
             vector = VectorHelper.normalizeVector(vector);
 
             float fov = (float) Math.toRadians(PreferenceHelper.getFloat("fieldOfView"));
@@ -83,10 +65,10 @@ public class RenderHelper {
 
             rightUpperCorner = xAxisRotationMatrix.multiplyByVector(rightUpperCorner);
 
-            Vector3f alphaIndicator = new Vector3f(camera.parent.percentRotation.x, 0, camera.parent.percentRotation.z);
+            Vector3f alphaIndicator = new Vector3f(cameraDirection.x, 0, cameraDirection.z);
             float alpha = VectorHelper.getAngle(zAxis, alphaIndicator);
 
-            if (VectorHelper.getScalarProduct(camera.parent.percentRotation, xAxis) < 0) alpha = -alpha;
+            if (VectorHelper.getScalarProduct(cameraDirection, xAxis) < 0) alpha = -alpha;
 
             yAxisRotationMatrix = new Matrix3f(new Vector3f((float) Math.cos(alpha), 0, (float) Math.sin(alpha)),
               new Vector3f(0, 1, 0),
@@ -94,12 +76,12 @@ public class RenderHelper {
 
             vector = yAxisRotationMatrix.multiplyByVector(vector);
 
-            if (camera.parent.percentRotation.y != 0) {
+            if (cameraDirection.y != 0) {
 
-                Vector3f betaIndicator = new Vector3f(0, camera.parent.percentRotation.y, 0);
+                Vector3f betaIndicator = new Vector3f(0, cameraDirection.y, 0);
                 float beta = VectorHelper.getAngle(zAxis, betaIndicator);
 
-                if (VectorHelper.getScalarProduct(camera.parent.percentRotation, yAxis) < 0) beta = -beta;
+                if (VectorHelper.getScalarProduct(cameraDirection, yAxis) < 0) beta = -beta;
 
                 xAxisRotationMatrix = new Matrix3f(new Vector3f(1, 0, 0),
                   new Vector3f(0, (float) Math.cos(beta), -(float) Math.sin(beta)),
@@ -6,6 +6,7 @@
 
 package lightEngine.util.rendering;
 
+import lightEngine.graphics.GraphicsController;
 import lightEngine.util.resources.ResourceHelper;
 import lightEngine.util.threading.ThreadHelper;
 
@@ -15,11 +16,12 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
-import static org.lwjgl.opengl.GL20.*;
-
 public class ShaderHelper {
 
     public static Map<String, Integer> shaderPrograms = new HashMap<>();
+    public static UniformLocator uniformLocator = (program, name) -> GraphicsController.device.getUniformLocation(program, name);
+
+    private static Map<String, UniformRegistry> uniformRegistries = new HashMap<>();
 
     /**
      * Adds a shader to the list.
@@ -28,11 +30,6 @@ public class ShaderHelper {
      */
     public static void addShader(String fileName) {
 
-        int shaderProgram = glCreateProgram();
-
-        int vertexShader = glCreateShader(GL_VERTEX_SHADER);
-        int fragmentShader = glCreateShader(GL_FRAGMENT_SHADER);
-
         StringBuilder vertexShaderSource = new StringBuilder();
         StringBuilder fragmentShaderSource = new StringBuilder();
 
@@ -62,23 +59,21 @@ public class ShaderHelper {
 
         }
 
-        glShaderSource(vertexShader, vertexShaderSource);
-        glCompileShader(vertexShader);
-
-        glShaderSource(fragmentShader, fragmentShaderSource);
-        glCompileShader(fragmentShader);
-
-        glAttachShader(shaderProgram, vertexShader);
-        glAttachShader(shaderProgram, fragmentShader);
-
-        glLinkProgram(shaderProgram);
-        glValidateProgram(shaderProgram);
+        int shaderProgram = GraphicsController.device.createProgram(vertexShaderSource, fragmentShaderSource);
 
         shaderPrograms.put(fileName, shaderProgram);
+        uniformRegistries.put(fileName, new UniformRegistry(shaderProgram, uniformLocator));
 
-        glDeleteShader(fragmentShader);
-        glDeleteShader(vertexShader);
+    }
 
+    /**
+     * Returns the uniform locations of a shader.
+     *
+     * @param shaderName The name of the shader.
+     * @return The shader's uniform registry.
+     */
+    public static UniformRegistry getUniforms(String shaderName) {
+        return uniformRegistries.get(shaderName);
     }
 
     /**
@@ -88,7 +83,7 @@ public class ShaderHelper {
      */
     public static void useShader(String shaderName) {
 
-        glUseProgram(shaderPrograms.get(shaderName));
+        GraphicsController.device.useProgram(shaderPrograms.get(shaderName));
 
     }
 
@@ -97,7 +92,7 @@ public class ShaderHelper {
      */
     public static void useNoShader() {
 
-        glUseProgram(0);
+        GraphicsController.device.useProgram(0);
 
     }
 
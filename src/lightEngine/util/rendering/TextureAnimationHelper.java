@@ -9,6 +9,7 @@ package lightEngine.util.rendering;
 import lightEngine.graphics.renderable.animations.TextureAnimation;
 import lightEngine.graphics.renderable.animations.TextureKeyFrame;
 import lightEngine.util.resources.ResourceHelper;
+import lightEngine.util.threading.LoadingCache;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
@@ -18,6 +19,41 @@ import java.util.List;
 
 public class TextureAnimationHelper {
 
+    private static LoadingCache<List<String>> loadedMetas = new LoadingCache<>(TextureAnimationHelper::loadMeta);
+
+    /**
+     * Reads the lines of an animation meta file.
+     *
+     * @param animationName The name of the animation.
+     * @return All lines of the meta file.
+     * @throws IOException if the meta file is not found.
+     */
+    private static List<String> loadMeta(String animationName) throws IOException {
+
+        List<String> lines = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(ResourceHelper.getResource(animationName, ResourceHelper.RES_TEXTURE_ANIMATED)))) {
+
+            String line;
+            while ((line = reader.readLine()) != null) lines.add(line);
+
+        }
+
+        return lines;
+
+    }
+
+    /**
+     * Reads an animation meta file without loading its textures.
+     * This is thread safe and doesn't need an OpenGL context.
+     *
+     * @param animationName The name of the desired animation.
+     * @throws java.io.IOException if the animation file is not found.
+     */
+    public static void preloadAnimation(String animationName) throws IOException {
+        loadedMetas.get(animationName);
+    }
+
     /**
      * Returns the desired texture animation.
      *
@@ -27,12 +63,10 @@ public class TextureAnimationHelper {
      */
     public static TextureAnimation getAnimation(String animationName) throws IOException {
 
-        BufferedReader reader = new BufferedReader(new FileReader(ResourceHelper.getResource(animationName, ResourceHelper.RES_TEXTURE_ANIMATED)));
         List<TextureKeyFrame> frames = new ArrayList<TextureKeyFrame>();
-        String line;
         boolean stopAfterOneCycle = false;
 
-        while ((line = reader.readLine()) != null) {
+        for (String line : loadedMetas.get(animationName)) {
 
             if (line.startsWith("f ")) {
 
@@ -50,7 +84,6 @@ public class TextureAnimationHelper {
 
         }
 
-        reader.close();
         return new TextureAnimation(frames.toArray(new TextureKeyFrame[frames.size()]), stopAfterOneCycle);
 
     }
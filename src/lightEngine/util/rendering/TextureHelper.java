@@ -6,12 +6,12 @@
 
 package lightEngine.util.rendering;
 
+import lightEngine.graphics.GraphicsController;
 import lightEngine.graphics.renderable.animations.TextureAnimation;
 import lightEngine.graphics.renderable.textures.AnimatedTexture;
 import lightEngine.graphics.renderable.textures.StaticTexture;
 import lightEngine.graphics.renderable.textures.Texture;
 import lightEngine.util.resources.ResourceHelper;
-import org.newdawn.slick.opengl.TextureLoader;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -37,9 +37,9 @@ public class TextureHelper {
 
         if (file.exists()) {
 
-            try {
+            try (FileInputStream in = new FileInputStream(getResource(fileName, RES_TEXTURE))) {
 
-                org.newdawn.slick.opengl.Texture textureData = TextureLoader.getTexture("PNG", new FileInputStream(getResource(fileName, RES_TEXTURE)));
+                org.newdawn.slick.opengl.Texture textureData = GraphicsController.device.loadTexture("PNG", in);
                 StaticTexture texture = new StaticTexture(textureData);
                 loadedTextures.put(fileName, texture);
 
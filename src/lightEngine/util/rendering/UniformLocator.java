@@ -0,0 +1,17 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.rendering;
+
+/**
+ * Looks up the location of a uniform in a linked shader program.
+ * The default implementation asks the graphics device, see ShaderHelper.uniformLocator.
+ */
+public interface UniformLocator {
+
+    int getUniformLocation(int program, String name);
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.rendering;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches the uniform locations of a shader program.
+ * Every uniform (and every element of a uniform array) is only looked up once, array elements are addressed by index so no names have to be built while rendering.
+ * Registries are created by ShaderHelper.addShader() and must only be used on the render thread.
+ */
+public class UniformRegistry {
+
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private final int program;
+    private final UniformLocator locator;
+    private final Map<String, Integer> locations = new HashMap<>();
+    private final Map<String, int[]> arrayLocations = new HashMap<>();
+
+    /**
+     * Creates a registry for a linked shader program.
+     *
+     * @param program The handle of the program.
+     * @param locator Used to look up uniforms that aren't cached yet.
+     */
+    public UniformRegistry(int program, UniformLocator locator) {
+        this.program = program;
+        this.locator = locator;
+    }
+
+    /**
+     * Returns the location of a uniform.
+     *
+     * @param name The name of the uniform.
+     * @return The location or -1 if the program has no such (active) uniform.
+     */
+    public int getLocation(String name) {
+
+        Integer location = locations.get(name);
+
+        if (location == null) {
+            location = locator.getUniformLocation(program, name);
+            locations.put(name, location);
+        }
+
+        return location;
+
+    }
+
+    /**
+     * Returns the location of an element of a uniform array.
+     *
+     * @param arrayName The name of the array without brackets.
+     * @param index     The index of the element.
+     * @return The location or -1 if the program has no such (active) element.
+     */
+    public int getLocation(String arrayName, int index) {
+
+        int[] elements = arrayLocations.get(arrayName);
+
+        if (elements == null || index >= elements.length) {
+
+            int oldLength = elements == null ? 0 : elements.length;
+            elements = elements == null ? new int[Math.max(8, index + 1)] : Arrays.copyOf(elements, Math.max(oldLength * 2, index + 1));
+            Arrays.fill(elements, oldLength, elements.length, UNKNOWN);
+            arrayLocations.put(arrayName, elements);
+
+        }
+
+        if (elements[index] == UNKNOWN) elements[index] = locator.getUniformLocation(program, arrayName + "[" + index + "]");
+
+        return elements[index];
+
+    }
+
+    public int getProgram() {
+        return program;
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.resources;
+
+import lightEngine.core.ObjectController;
+import lightEngine.graphics.renderable.LoadingScreen;
+import lightEngine.util.rendering.ModelHelper;
+import lightEngine.util.rendering.TextureAnimationHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class AssetHelper {
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private static ThreadPoolExecutor executor;
+
+    /**
+     * Loads all assets of a manifest in parallel and blocks until they are done.
+     * The work is spread over a shared pool with one thread per core, the loading screen's progress is updated after every asset.
+     * Assets that are requested again later on (e.g. via ModelHelper.getModel()) are taken from the caches.
+     *
+     * @param manifest The assets to load.
+     */
+    public static void preloadAssets(AssetManifest manifest) {
+
+        List<AssetTask> tasks = new ArrayList<>();
+
+        manifest.getModels().forEach(name -> tasks.add(new AssetTask(ResourceHelper.getResource(name, ResourceHelper.RES_MODEL).length(), () -> {
+            ModelHelper.preloadModel(name);
+            return null;
+        })));
+
+        manifest.getMaterialLibraries().forEach(name -> tasks.add(new AssetTask(ResourceHelper.getResource(name, ResourceHelper.RES_MATERIAL).length(), () -> {
+            ModelHelper.getMaterialLibrary(name);
+            return null;
+        })));
+
+        manifest.getTextureAnimations().forEach(name -> tasks.add(new AssetTask(ResourceHelper.getResource(name, ResourceHelper.RES_TEXTURE_ANIMATED).length(), () -> {
+            TextureAnimationHelper.preloadAnimation(name);
+            return null;
+        })));
+
+        if (tasks.isEmpty()) return;
+
+        //Biggest files first, so no thread ends up parsing a huge model on its own at the end
+        tasks.sort((a, b) -> Long.compare(b.size, a.size));
+
+        long totalSize = tasks.stream().mapToLong(task -> task.size).sum();
+        AtomicLong loadedSize = new AtomicLong();
+
+        ExecutorService executor = getExecutor();
+
+        setProgress(0);
+
+        try {
+
+            List<Future<Void>> futures = new ArrayList<>();
+
+            for (AssetTask task : tasks) {
+
+                futures.add(executor.submit(() -> {
+                    task.loader.call();
+                    setProgress((float) loadedSize.addAndGet(task.size) / totalSize);
+                    return null;
+                }));
+
+            }
+
+            for (Future<Void> future : futures) future.get();
+
+        } catch (InterruptedException | ExecutionException e) {
+
+            e.printStackTrace();
+            System.exit(1);
+
+        }
+
+        setProgress(1);
+
+    }
+
+    /**
+     * Returns the pool all assets are loaded on, it is created on first use.
+     * Its daemon threads stop after a while without work, so nothing has to shut it down.
+     *
+     * @return The executor.
+     */
+    private static synchronized ExecutorService getExecutor() {
+
+        if (executor == null) {
+
+            int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+            AtomicInteger threadNumber = new AtomicInteger();
+
+            executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+
+                Thread thread = new Thread(runnable, "mengine-AssetLoader-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+
+                return thread;
+
+            });
+
+            executor.allowCoreThreadTimeOut(true);
+
+        }
+
+        return executor;
+
+    }
+
+    private static void setProgress(float progress) {
+
+        LoadingScreen loadingScreen = ObjectController.getLoadingScreen();
+        if (loadingScreen != null) loadingScreen.setProgress(progress);
+
+    }
+
+    private static class AssetTask {
+
+        final long size;
+        final Callable<Void> loader;
+
+        AssetTask(long size, Callable<Void> loader) {
+            this.size = Math.max(1, size);
+            this.loader = loader;
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.resources;
+
+import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.modules.Module;
+import lightEngine.gameObjects.modules.renderable.RenderModule;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A list of assets that should be loaded before they are needed, see AssetHelper.preloadAssets().
+ */
+public class AssetManifest {
+
+    private Set<String> models = new LinkedHashSet<>();
+    private Set<String> materialLibraries = new LinkedHashSet<>();
+    private Set<String> textureAnimations = new LinkedHashSet<>();
+
+    /**
+     * Adds models to the manifest, their material libraries are loaded automatically.
+     *
+     * @param names The names of the models.
+     * @return The manifest, allows for chaining.
+     */
+    public AssetManifest addModels(String... names) {
+        Collections.addAll(models, names);
+        return this;
+    }
+
+    /**
+     * Adds the models of all render modules of the game objects that haven't loaded their model yet.
+     * Has to be called before the modules are created.
+     *
+     * @param gameObjects The game objects.
+     * @return The manifest, allows for chaining.
+     */
+    public AssetManifest addGameObjects(Collection<GameObject> gameObjects) {
+
+        for (GameObject gameObject : gameObjects)
+            for (Module module : gameObject.modules)
+                if (module instanceof RenderModule && ((RenderModule) module).model == null && ((RenderModule) module).modelFileName != null)
+                    models.add(((RenderModule) module).modelFileName);
+
+        return this;
+
+    }
+
+    /**
+     * Adds material libraries to the manifest.
+     *
+     * @param names The names of the libraries.
+     * @return The manifest, allows for chaining.
+     */
+    public AssetManifest addMaterialLibraries(String... names) {
+        Collections.addAll(materialLibraries, names);
+        return this;
+    }
+
+    /**
+     * Adds texture animation meta files to the manifest.
+     * The textures themselves still get loaded on the render thread.
+     *
+     * @param names The names of the animations.
+     * @return The manifest, allows for chaining.
+     */
+    public AssetManifest addTextureAnimations(String... names) {
+        Collections.addAll(textureAnimations, names);
+        return this;
+    }
+
+    public Set<String> getModels() {
+        return models;
+    }
+
+    public Set<String> getMaterialLibraries() {
+        return materialLibraries;
+    }
+
+    public Set<String> getTextureAnimations() {
+        return textureAnimations;
+    }
+
+    /**
+     * Returns the number of assets in the manifest.
+     *
+     * @return The asset count.
+     */
+    public int size() {
+        return models.size() + materialLibraries.size() + textureAnimations.size();
+    }
+
+}
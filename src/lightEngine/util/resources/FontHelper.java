@@ -6,6 +6,7 @@
 
 package lightEngine.util.resources;
 
+import lightEngine.graphics.GraphicsController;
 import org.newdawn.slick.TrueTypeFont;
 
 import java.awt.*;
@@ -19,12 +20,12 @@ public class FontHelper {
      * @param style        The style (bold|italic|...).
      * @param size         The font size.
      * @param antiAliasing Should anti aliasing be applied to this font?
-     * @return The true type font.
+     * @return The true type font, null if the graphics device can't draw text.
      */
     public static TrueTypeFont loadFont(String face, int style, int size, boolean antiAliasing) {
 
         Font fontTemplate = new Font(face, style, size);
-        return new TrueTypeFont(fontTemplate, antiAliasing);
+        return GraphicsController.device.createFont(fontTemplate, antiAliasing);
 
     }
 
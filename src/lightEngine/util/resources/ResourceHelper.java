@@ -28,6 +28,9 @@ public class ResourceHelper {
     public static final int RES_SHADER_V = 9;
     public static final int RES_SHADER_F = 10;
 
+    public static final int RES_CACHE = 11;
+    public static final int RES_MODEL_CACHE = 12;
+
     private static List<String> paths = new ArrayList<String>();
 
     /**
@@ -49,6 +52,9 @@ public class ResourceHelper {
         paths.add(paths.get(1) + "shaders/"); //RES_SHADER_V
         paths.add(paths.get(1) + "shaders/"); //RES_SHADER_F
 
+        paths.add(paths.get(0) + "cache/"); //RES_CACHE
+        paths.add(paths.get(11) + "models/"); //RES_MODEL_CACHE
+
     }
 
     /**
@@ -94,6 +100,9 @@ public class ResourceHelper {
             case RES_SHADER_F:
                 filePath = paths.get(type) + fileName + ".fs";
                 break;
+            case RES_MODEL_CACHE:
+                filePath = paths.get(type) + fileName + ".lem";
+                break;
 
         }
 
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.threading;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * A thread safe cache that loads every key at most once.
+ * If several threads request the same key at the same time, only the first one loads it and all others wait for its result.
+ *
+ * @param <T> The type of the cached values
+ */
+public class LoadingCache<T> {
+
+    private final ConcurrentHashMap<String, FutureTask<T>> entries = new ConcurrentHashMap<>();
+    private final Loader<T> loader;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param loader Used to load values that aren't cached yet.
+     */
+    public LoadingCache(Loader<T> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Returns the value for a key, it gets loaded on the calling thread if no other thread is already loading it.
+     *
+     * @param key The key of the desired value.
+     * @return The cached or freshly loaded value.
+     * @throws IOException if the value couldn't be loaded.
+     */
+    public T get(String key) throws IOException {
+
+        FutureTask<T> task = entries.get(key);
+
+        if (task == null) {
+
+            FutureTask<T> newTask = new FutureTask<>(() -> loader.load(key));
+            task = entries.putIfAbsent(key, newTask);
+
+            if (task == null) {
+                task = newTask;
+                task.run();
+            }
+
+        }
+
+        try {
+
+            return task.get();
+
+        } catch (ExecutionException e) {
+
+            entries.remove(key, task); //Allows for another attempt later on
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IOException("Could not load " + key, e.getCause());
+
+        } catch (InterruptedException e) {
+
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + key, e);
+
+        }
+
+    }
+
+    /**
+     * Determines if a value was already loaded or is currently being loaded.
+     *
+     * @param key The key of the value.
+     * @return True if present, false if not.
+     */
+    public boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Removes a value from the cache, it will be loaded again the next time it is requested.
+     *
+     * @param key The key of the value.
+     */
+    public void remove(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Loads a single value.
+     *
+     * @param <T> The type of the value
+     */
+    public interface Loader<T> {
+
+        T load(String key) throws IOException;
+
+    }
+
+}
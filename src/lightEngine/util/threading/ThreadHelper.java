@@ -27,6 +27,9 @@ public class ThreadHelper {
         if (name != null) newThread = new Thread(thread, name);
         else newThread = new Thread(thread);
 
+        //Finished threads don't have to be stopped anymore
+        threads.removeIf(oldThread -> !oldThread.isAlive());
+
         threads.add(newThread);
         newThread.start();
 
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.threading;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands the latest state from one producer thread to one consumer thread without locks.
+ * The producer fills the back buffer and publishes it, the consumer always gets the most recently published buffer.
+ * Neither thread ever waits for the other and no buffer is used by both threads at the same time.
+ *
+ * @param <T> The type of the buffers
+ */
+public class TripleBuffer<T> {
+
+    private static final int INDEX_MASK = 3;
+    private static final int NEW_DATA = 4;
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger pending = new AtomicInteger(1); //The index of the buffer in between, NEW_DATA is set if it was published but not consumed yet
+
+    private int back = 2; //Only used by the producer
+    private int front = 0; //Only used by the consumer
+    private boolean received; //Only used by the consumer
+
+    /**
+     * Creates the three buffers.
+     *
+     * @param factory Creates a buffer, called three times.
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < 3; i++) buffers[i] = factory.get();
+    }
+
+    /**
+     * Returns the buffer the producer may write to.
+     *
+     * @return The back buffer.
+     */
+    @SuppressWarnings("unchecked")
+    public T getBack() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Makes the back buffer available to the consumer, the producer gets a new back buffer.
+     * The buffer must not be changed anymore after calling this.
+     */
+    public void publish() {
+        back = pending.getAndSet(back | NEW_DATA) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the most recently published buffer, it stays valid until the next call.
+     *
+     * @return The front buffer or null if nothing was published yet.
+     */
+    @SuppressWarnings("unchecked")
+    public T getLatest() {
+
+        if ((pending.get() & NEW_DATA) != 0) {
+
+            front = pending.getAndSet(front) & INDEX_MASK;
+            received = true;
+
+        }
+
+        return received ? (T) buffers[front] : null;
+
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.time;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts durations in nanoseconds in log-linear buckets: every power of two is split into 32 equally sized buckets, so values are kept with about 3% precision.
+ * The counts are split into windows (e.g. one per second), percentiles can be read over the last few completed windows.
+ * The memory is allocated once, recording doesn't allocate or lock. One thread records and rotates, any thread can read.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40; //Values are capped at about 18 minutes
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final int windows;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray maxima;
+    private volatile int currentWindow;
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param windows The number of completed windows that are kept.
+     */
+    public LatencyHistogram(int windows) {
+
+        this.windows = windows + 1; //Plus the one that is being recorded
+
+        counts = new AtomicLongArray(this.windows * BUCKETS);
+        maxima = new AtomicLongArray(this.windows);
+
+    }
+
+    /**
+     * Counts a duration in the current window.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+
+        int window = currentWindow;
+        int index = window * BUCKETS + getBucket(nanos);
+
+        //Only one thread records, so the increments don't have to be atomic, only visible
+        counts.lazySet(index, counts.get(index) + 1);
+        if (nanos > maxima.get(window)) maxima.lazySet(window, nanos);
+
+    }
+
+    /**
+     * Completes the current window and starts a new one, the oldest window is dropped.
+     * Has to be called on the recording thread.
+     */
+    public void rotate() {
+
+        int next = (currentWindow + 1) % windows;
+
+        for (int i = next * BUCKETS; i < (next + 1) * BUCKETS; i++) counts.lazySet(i, 0);
+        maxima.lazySet(next, 0);
+
+        currentWindow = next;
+
+    }
+
+    /**
+     * Returns the smallest duration that is at least as long as the given share of the durations recorded in the last completed windows.
+     *
+     * @param percentile  The share of durations in percent, e.g. 99.
+     * @param windowCount The number of completed windows to look at.
+     * @return The duration in nanoseconds (up to the bucket precision), 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile, int windowCount) {
+
+        windowCount = Math.min(windowCount, windows - 1);
+        int current = currentWindow;
+
+        long total = getCount(current, windowCount);
+        if (total == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long sum = 0;
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+
+            for (int i = 1; i <= windowCount; i++) sum += counts.get(getWindow(current, i) * BUCKETS + bucket);
+
+            if (sum >= target) return Math.min(getHighestValue(bucket), getMax(windowCount));
+
+        }
+
+        return getMax(windowCount);
+
+    }
+
+    /**
+     * Returns the longest duration recorded in the last completed windows.
+     *
+     * @param windowCount The number of completed windows to look at.
+     * @return The exact duration in nanoseconds, 0 if nothing was recorded.
+     */
+    public long getMax(int windowCount) {
+
+        windowCount = Math.min(windowCount, windows - 1);
+        int current = currentWindow;
+        long max = 0;
+
+        for (int i = 1; i <= windowCount; i++) max = Math.max(max, maxima.get(getWindow(current, i)));
+
+        return max;
+
+    }
+
+    /**
+     * Returns the number of durations recorded in the last completed windows.
+     *
+     * @param windowCount The number of completed windows to look at.
+     * @return The count.
+     */
+    public long getCount(int windowCount) {
+        return getCount(currentWindow, Math.min(windowCount, windows - 1));
+    }
+
+    private long getCount(int current, int windowCount) {
+
+        long count = 0;
+
+        for (int i = 1; i <= windowCount; i++) {
+
+            int offset = getWindow(current, i) * BUCKETS;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) count += counts.get(offset + bucket);
+
+        }
+
+        return count;
+
+    }
+
+    private int getWindow(int current, int windowsBack) {
+        return (current - windowsBack + windows) % windows;
+    }
+
+    private static int getBucket(long nanos) {
+
+        if (nanos < SUB_BUCKETS) return (int) Math.max(0, nanos);
+
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(nanos), MAX_EXPONENT);
+        if (exponent == MAX_EXPONENT) return BUCKETS - 1;
+
+        int shift = exponent - SUB_BUCKET_BITS;
+
+        return (shift + 1) * SUB_BUCKETS + (int) ((nanos >>> shift) & (SUB_BUCKETS - 1));
+
+    }
+
+    private static long getHighestValue(int bucket) {
+
+        int block = bucket / SUB_BUCKETS, subBucket = bucket % SUB_BUCKETS;
+        if (block == 0) return subBucket;
+
+        int shift = block - 1;
+
+        return ((long) (SUB_BUCKETS + subBucket) << shift) + (1L << shift) - 1;
+
+    }
+
+}
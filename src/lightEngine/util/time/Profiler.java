@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.time;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Measures how long the phases of ticks and frames take.
+ * A phase is wrapped in begin() and end() with a marker that is created once, markers can be nested.
+ * Every thread records into its own preallocated arrays: a ring of the last events for the trace export and the total time per marker of the last frames.
+ * When the profiler is disabled, begin() and end() only read a flag, when it is enabled they don't allocate or lock.
+ * Reading the frame history or exporting a trace from another thread only sees completed frames, values of the frame that is overwritten meanwhile can be mixed.
+ */
+public class Profiler {
+
+    public static final int MAX_MARKERS = 64;
+    public static final int HISTORY_FRAMES = 300;
+
+    private static final int EVENT_BITS = 16;
+    private static final int EVENTS = 1 << EVENT_BITS;
+    private static final int EVENT_MASK = EVENTS - 1;
+    private static final int MAX_DEPTH = 32;
+
+    public static volatile boolean enabled;
+
+    private static final Marker[] markers = new Marker[MAX_MARKERS];
+    private static int markerCount;
+
+    private static final List<ThreadProfile> threadProfiles = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<ThreadProfile> currentProfile = ThreadLocal.withInitial(ThreadProfile::new);
+    private static final long startTime = System.nanoTime();
+
+    /**
+     * Creates a marker, this should happen once per phase, e.g. in a static final field.
+     *
+     * @param name The name that is shown in the overlay and the trace.
+     * @return The marker.
+     */
+    public static synchronized Marker addMarker(String name) {
+
+        if (markerCount == MAX_MARKERS) throw new IllegalStateException("Only " + MAX_MARKERS + " profiler markers can be created");
+
+        Marker marker = new Marker(markerCount, name);
+        markers[markerCount++] = marker;
+
+        return marker;
+
+    }
+
+    /**
+     * Returns all markers that were created.
+     *
+     * @return The markers, the index of a marker is its id.
+     */
+    public static synchronized Marker[] getMarkers() {
+
+        Marker[] result = new Marker[markerCount];
+        System.arraycopy(markers, 0, result, 0, markerCount);
+
+        return result;
+
+    }
+
+    /**
+     * Returns the recordings of all threads that have used the profiler.
+     *
+     * @return A read only list of the thread profiles.
+     */
+    public static List<ThreadProfile> getThreadProfiles() {
+        return threadProfiles;
+    }
+
+    /**
+     * Starts measuring a phase on the calling thread.
+     *
+     * @param marker The marker of the phase.
+     */
+    public static void begin(Marker marker) {
+        if (enabled) currentProfile.get().begin(marker.id);
+    }
+
+    /**
+     * Stops measuring the phase that was started last on the calling thread.
+     * If that phase has another marker (e.g. the profiler was enabled in between), nothing is recorded.
+     *
+     * @param marker The marker of the phase.
+     */
+    public static void end(Marker marker) {
+        if (enabled) currentProfile.get().end(marker.id);
+    }
+
+    /**
+     * Completes the frame (or tick) of the calling thread, the times of its phases are added to the frame history.
+     * This is called once per tick by the game loop and once per frame by the render loop.
+     */
+    public static void endFrame() {
+
+        ThreadProfile profile = currentProfile.get();
+        long now = System.nanoTime();
+
+        if (enabled) profile.completeFrame(now);
+        else profile.depth = 0;
+
+        profile.frameStart = now;
+
+    }
+
+    /**
+     * Writes the recorded events of all threads into a file in the Chrome trace format, it can be opened with chrome://tracing.
+     * The file is put into the folder "traces" and named after the current date and time.
+     */
+    public static void exportTrace() {
+
+        DateFormat format = new SimpleDateFormat("yyyy-MM-dd-HH-mm-ss");
+        File file = new File("traces/" + format.format(new Date()) + ".json");
+
+        if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) System.out.println("Couldn't create the folder " + file.getParentFile());
+
+        exportTrace(file);
+
+    }
+
+    /**
+     * Writes the recorded events of all threads into a file in the Chrome trace format.
+     * Only events of completed frames are written, at most the last 65536 per thread.
+     *
+     * @param file The file to write.
+     */
+    public static void exportTrace(File file) {
+
+        Marker[] markers = getMarkers();
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+
+            writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+            boolean first = true;
+
+            for (ThreadProfile profile : threadProfiles) {
+
+                if (!first) writer.write(',');
+                first = false;
+
+                writer.write(String.format(Locale.ROOT, "%n{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":%d,\"args\":{\"name\":\"%s\"}}",
+                  profile.threadId, escape(profile.name)));
+
+                long end = profile.publishedEvents;
+
+                for (long event = Math.max(0, end - EVENTS); event < end; event++) {
+
+                    int index = (int) (event & EVENT_MASK);
+                    long duration = profile.eventDurations[index];
+                    int markerId = profile.eventMarkers[index];
+
+                    //Still open or from a marker created after the copy
+                    if (duration < 0 || markerId >= markers.length) continue;
+
+                    writer.write(String.format(Locale.ROOT, ",%n{\"name\":\"%s\",\"cat\":\"mengine\",\"ph\":\"X\",\"ts\":%.3f,\"dur\":%.3f,\"pid\":1,\"tid\":%d}",
+                      escape(markers[markerId].name), (profile.eventStarts[index] - startTime) / 1000.0, duration / 1000.0, profile.threadId));
+
+                }
+
+            }
+
+            writer.write(String.format("%n]}%n"));
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * A phase that can be measured.
+     */
+    public static class Marker {
+
+        public final int id;
+        public final String name;
+
+        private Marker(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+    }
+
+    /**
+     * The recordings of one thread.
+     * Everything is written by that thread only, other threads read the frames and events it has published.
+     */
+    public static class ThreadProfile {
+
+        public final String name;
+        public final long threadId;
+
+        //The event ring for the trace, an event's duration is -1 until it has ended
+        private final int[] eventMarkers = new int[EVENTS];
+        private final long[] eventStarts = new long[EVENTS];
+        private final long[] eventDurations = new long[EVENTS];
+        private long eventCount;
+        private volatile long publishedEvents;
+
+        private final long[] openEvents = new long[MAX_DEPTH];
+        private int depth;
+
+        //The time per marker of the current frame and the ring of completed frames
+        private final long[] currentTotals = new long[MAX_MARKERS];
+        private final long[] frameTotals = new long[HISTORY_FRAMES * MAX_MARKERS];
+        private final long[] frameDurations = new long[HISTORY_FRAMES];
+        private long frameStart = System.nanoTime();
+        private volatile int frameCount;
+
+        private ThreadProfile() {
+
+            name = Thread.currentThread().getName();
+            threadId = Thread.currentThread().getId();
+
+            threadProfiles.add(this);
+
+        }
+
+        private void begin(int markerId) {
+
+            if (depth == MAX_DEPTH) return;
+
+            long event = eventCount++;
+            int index = (int) (event & EVENT_MASK);
+
+            eventMarkers[index] = markerId;
+            eventDurations[index] = -1;
+            eventStarts[index] = System.nanoTime();
+
+            openEvents[depth++] = event;
+
+        }
+
+        private void end(int markerId) {
+
+            long now = System.nanoTime();
+
+            if (depth == 0) return;
+
+            int index = (int) (openEvents[depth - 1] & EVENT_MASK);
+            if (eventMarkers[index] != markerId) return;
+
+            depth--;
+
+            long duration = now - eventStarts[index];
+
+            eventDurations[index] = duration;
+            currentTotals[markerId] += duration;
+
+        }
+
+        private void completeFrame(long now) {
+
+            int frame = frameCount % HISTORY_FRAMES;
+
+            System.arraycopy(currentTotals, 0, frameTotals, frame * MAX_MARKERS, MAX_MARKERS);
+            for (int i = 0; i < MAX_MARKERS; i++) currentTotals[i] = 0;
+
+            frameDurations[frame] = now - frameStart;
+
+            publishedEvents = eventCount;
+            frameCount++;
+
+        }
+
+        /**
+         * Returns the number of frames that were completed while the profiler was enabled.
+         *
+         * @return The frame count.
+         */
+        public int getFrameCount() {
+            return frameCount;
+        }
+
+        /**
+         * Returns the average time of a phase in the last frames, nested phases are included in the time of the phase around them.
+         *
+         * @param marker     The marker of the phase.
+         * @param frameCount The number of frames to look at, at most HISTORY_FRAMES - 1.
+         * @return The time per frame in milliseconds, 0 if nothing was recorded.
+         */
+        public float getAverageTime(Marker marker, int frameCount) {
+
+            int completed = this.frameCount;
+            frameCount = Math.min(Math.min(frameCount, HISTORY_FRAMES - 1), completed);
+            if (frameCount == 0) return 0;
+
+            long total = 0;
+            for (int i = 1; i <= frameCount; i++) total += frameTotals[((completed - i) % HISTORY_FRAMES) * MAX_MARKERS + marker.id];
+
+            return total / 1000000f / frameCount;
+
+        }
+
+        /**
+         * Returns the average length of the last frames, from one endFrame() to the next.
+         *
+         * @param frameCount The number of frames to look at, at most HISTORY_FRAMES - 1.
+         * @return The frame length in milliseconds, 0 if nothing was recorded.
+         */
+        public float getAverageFrameTime(int frameCount) {
+
+            int completed = this.frameCount;
+            frameCount = Math.min(Math.min(frameCount, HISTORY_FRAMES - 1), completed);
+            if (frameCount == 0) return 0;
+
+            long total = 0;
+            for (int i = 1; i <= frameCount; i++) total += frameDurations[(completed - i) % HISTORY_FRAMES];
+
+            return total / 1000000f / frameCount;
+
+        }
+
+    }
+
+}
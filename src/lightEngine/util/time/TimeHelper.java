@@ -6,6 +6,9 @@
 
 package lightEngine.util.time;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
 public class TimeHelper {
 
     public static boolean oneSecondPassed = false;
@@ -21,6 +24,39 @@ public class TimeHelper {
     private static float lastTPS;
     private static long currentTPS;
 
+    //Fixed timestep statistics, updated once per second by updateTPS()
+    public static float tickJitter; //Average delay between the scheduled and the actual start of a tick in milliseconds
+    public static float maxTickJitter; //Highest delay in the last second in milliseconds
+    public static float gameThreadCpuUsage; //Share of the last second the game thread spent on the CPU, 0 to 1
+    public static int droppedTicks; //Ticks that were skipped in the last second because the catch-up cap was reached
+
+    //Frame and tick times of the last second in milliseconds, updated once per second by updateFPS() and updateTPS()
+    public static float frameTime50, frameTime95, frameTime99, frameTimeMax;
+    public static float tickTime50, tickTime95, tickTime99, tickTimeMax;
+    public static int frameSpikes; //Frames in the last second that took more than SPIKE_FACTOR times the median of the last HISTORY_SECONDS seconds
+    public static int tickSpikes; //Ticks in the last second that took more than SPIKE_FACTOR times the median of the last HISTORY_SECONDS seconds
+
+    public static final int HISTORY_SECONDS = 10;
+    public static final float SPIKE_FACTOR = 2;
+
+    //Frame times are measured from frame start to frame start, tick times from the start to the end of a tick (without the waiting in between)
+    public static LatencyHistogram frameTimes = new LatencyHistogram(HISTORY_SECONDS);
+    public static LatencyHistogram tickTimes = new LatencyHistogram(HISTORY_SECONDS);
+    private static long lastFrameStart;
+    private static long tickStart;
+    private static long frameSpikeThreshold = Long.MAX_VALUE, tickSpikeThreshold = Long.MAX_VALUE;
+    private static int currentFrameSpikes, currentTickSpikes;
+    private static volatile boolean lastFrameSpike, lastTickSpike;
+
+    public static TimerWheel timerWheel = new TimerWheel(getTime()); //Expires all timers, advanced every tick and every frame
+    private static long tickLength = 1000000000 / 60;
+    private static volatile long lastTickTime = System.nanoTime();
+    private static long jitterSum;
+    private static long maxJitter;
+    private static int currentDroppedTicks;
+    private static long lastCpuTime = -1;
+    private static ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
     /**
      * Sets the lastTime variables to the current time so they aren't 0.
      * Only needed once.
@@ -42,6 +78,13 @@ public class TimeHelper {
         return System.nanoTime() / 1000000; //Nanoseconds give more accurate millisecond values
     }
 
+    /**
+     * Advances the timer wheel to the current time, expiring all timers that are due.
+     */
+    public static void updateTimers() {
+        timerWheel.advance(getTime());
+    }
+
     /**
      * Updates the deltaTime variable.
      */
@@ -54,11 +97,100 @@ public class TimeHelper {
 
     }
 
+    /**
+     * Sets the length of a game loop tick.
+     *
+     * @param ticksPerSecond The number of ticks per second.
+     */
+    public static void setTickRate(int ticksPerSecond) {
+        tickLength = 1000000000L / ticksPerSecond;
+    }
+
+    /**
+     * Gives you the length of a game loop tick.
+     *
+     * @return The tick length in nanoseconds.
+     */
+    public static long getTickLength() {
+        return tickLength;
+    }
+
+    /**
+     * Called by the game loop before every tick.
+     * Sets deltaTime to the fixed tick length, so the simulation behaves the same at every frame and tick rate.
+     *
+     * @param scheduledTime The time the tick was scheduled for in nanoseconds.
+     * @param startTime     The time the tick actually started in nanoseconds.
+     */
+    public static void startTick(long scheduledTime, long startTime) {
+
+        deltaTime = tickLength / 1000000f * timeModifier;
+        tickStart = System.nanoTime();
+
+        long jitter = startTime - scheduledTime;
+        jitterSum += jitter;
+        if (jitter > maxJitter) maxJitter = jitter;
+
+    }
+
+    /**
+     * Called by the game loop after every tick.
+     *
+     * @param scheduledTime The time the tick was scheduled for in nanoseconds, this is the time the game state now represents.
+     */
+    public static void endTick(long scheduledTime) {
+
+        lastTickTime = scheduledTime;
+
+        long tickTime = System.nanoTime() - tickStart;
+        tickTimes.record(tickTime);
+
+        lastTickSpike = tickTime > tickSpikeThreshold;
+        if (lastTickSpike) currentTickSpikes++;
+
+    }
+
+    /**
+     * Called by the game loop if ticks were skipped to catch up with the current time.
+     *
+     * @param ticks The number of skipped ticks.
+     */
+    public static void dropTicks(int ticks) {
+        currentDroppedTicks += ticks;
+    }
+
+    /**
+     * Returns how far the current time is between the last tick and the next one.
+     * The render thread can use this to interpolate between the previous and the current game state.
+     *
+     * @return 0 right after a tick, approaching 1 until the next tick.
+     */
+    public static float getInterpolationAlpha() {
+
+        float alpha = (float) (System.nanoTime() - lastTickTime) / tickLength;
+        return Math.max(0, Math.min(1, alpha));
+
+    }
+
     /**
      * Updates the currentFPS and lastFPS variables.
      */
     public static void updateFPS() {
 
+        long frameStart = System.nanoTime();
+
+        if (lastFrameStart != 0) {
+
+            long frameTime = frameStart - lastFrameStart;
+            frameTimes.record(frameTime);
+
+            lastFrameSpike = frameTime > frameSpikeThreshold;
+            if (lastFrameSpike) currentFrameSpikes++;
+
+        }
+
+        lastFrameStart = frameStart;
+
         oneSecondPassed = false;
         if (getTime() - lastFPS > 1000) {
 
@@ -68,6 +200,16 @@ public class TimeHelper {
             currentFPS = 0;
             lastFPS += 1000;
 
+            frameTimes.rotate();
+
+            frameTime50 = frameTimes.getPercentile(50, 1) / 1000000f;
+            frameTime95 = frameTimes.getPercentile(95, 1) / 1000000f;
+            frameTime99 = frameTimes.getPercentile(99, 1) / 1000000f;
+            frameTimeMax = frameTimes.getMax(1) / 1000000f;
+            frameSpikeThreshold = getSpikeThreshold(frameTimes);
+            frameSpikes = currentFrameSpikes;
+            currentFrameSpikes = 0;
+
         }
 
         currentFPS++;
@@ -83,6 +225,33 @@ public class TimeHelper {
 
             TPS = (int) currentTPS;
             if (currentTPS > highestTPS) highestTPS = TPS;
+
+            tickJitter = currentTPS > 0 ? jitterSum / 1000000f / currentTPS : 0;
+            maxTickJitter = maxJitter / 1000000f;
+            droppedTicks = currentDroppedTicks;
+            jitterSum = 0;
+            maxJitter = 0;
+            currentDroppedTicks = 0;
+
+            tickTimes.rotate();
+
+            tickTime50 = tickTimes.getPercentile(50, 1) / 1000000f;
+            tickTime95 = tickTimes.getPercentile(95, 1) / 1000000f;
+            tickTime99 = tickTimes.getPercentile(99, 1) / 1000000f;
+            tickTimeMax = tickTimes.getMax(1) / 1000000f;
+            tickSpikeThreshold = getSpikeThreshold(tickTimes);
+            tickSpikes = currentTickSpikes;
+            currentTickSpikes = 0;
+
+            //updateTPS() is called on the game thread, so this is the game thread's CPU time
+            if (threadBean.isCurrentThreadCpuTimeSupported()) {
+
+                long cpuTime = threadBean.getCurrentThreadCpuTime();
+                if (lastCpuTime != -1) gameThreadCpuUsage = (cpuTime - lastCpuTime) / 1000000000f;
+                lastCpuTime = cpuTime;
+
+            }
+
             currentTPS = 0;
             lastTPS += 1000;
 
@@ -92,6 +261,32 @@ public class TimeHelper {
 
     }
 
+    private static long getSpikeThreshold(LatencyHistogram histogram) {
+
+        long median = histogram.getPercentile(50, HISTORY_SECONDS);
+
+        return median > 0 ? (long) (median * SPIKE_FACTOR) : Long.MAX_VALUE;
+
+    }
+
+    /**
+     * Determines if the last frame took much longer than usual.
+     *
+     * @return True if the last frame took more than SPIKE_FACTOR times the median frame time of the last HISTORY_SECONDS seconds.
+     */
+    public static boolean isFrameSpike() {
+        return lastFrameSpike;
+    }
+
+    /**
+     * Determines if the last tick took much longer than usual.
+     *
+     * @return True if the last tick took more than SPIKE_FACTOR times the median tick time of the last HISTORY_SECONDS seconds.
+     */
+    public static boolean isTickSpike() {
+        return lastTickSpike;
+    }
+
     /**
      * Pauses the thread this method was called from by the amount of milliseconds.
      *
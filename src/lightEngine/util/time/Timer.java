@@ -9,8 +9,14 @@ package lightEngine.util.time;
 public class Timer {
 
     private int tickTime;
-    private long startTime;
     private boolean running = false;
+    private final TimerWheel wheel;
+
+    //Managed by the timer wheel
+    long deadline;
+    int slot = -1;
+    Timer previous, next;
+    volatile boolean done = true;
 
     /**
      * Initializes a new timer.
@@ -18,17 +24,35 @@ public class Timer {
      * @param tickTime The time the timer should last for.
      */
     public Timer(int tickTime) {
+        this(tickTime, TimeHelper.timerWheel);
+    }
+
+    /**
+     * Initializes a new timer that expires when a specific timer wheel is advanced.
+     *
+     * @param tickTime The time the timer should last for.
+     * @param wheel    The timer wheel.
+     */
+    public Timer(int tickTime, TimerWheel wheel) {
         this.tickTime = tickTime;
+        this.wheel = wheel;
     }
 
     /**
-     * Starts the timer.
+     * Starts the timer, or starts it over if it is already running.
      */
     public void start() {
-        startTime = TimeHelper.getTime();
+        wheel.schedule(this, tickTime);
         running = true;
     }
 
+    /**
+     * Stops the timer without it becoming done.
+     */
+    public void cancel() {
+        wheel.cancel(this);
+    }
+
     /**
      * Determines if the timer is already running.
      *
@@ -40,11 +64,12 @@ public class Timer {
 
     /**
      * Determines if the timer is done.
+     * This doesn't read the clock, the timer wheel marks the timer as done once it expires.
      *
      * @return True if done, false if running.
      */
     public boolean isDone() {
-        return tickTime <= TimeHelper.getTime() - startTime;
+        return done;
     }
 
 }
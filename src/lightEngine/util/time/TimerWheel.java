@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.time;
+
+
+/**
+ * A hierarchical timer wheel with millisecond resolution.
+ * Timers are put into the slot of their deadline, the wheel has four levels of 256 slots, each covering 256 times the range of the one below.
+ * Advancing the wheel visits one level 0 slot per millisecond and moves the timers of a higher level slot down once the time reaches it,
+ * so scheduling, cancelling and expiring a timer are O(1) (amortized) and waiting timers are never looked at.
+ * All methods are synchronized, timers can be started from any thread.
+ */
+public class TimerWheel {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_DELAY = (1L << (LEVELS * SLOT_BITS)) - 1;
+
+    private final Timer[] slots = new Timer[LEVELS * SLOTS]; //The first timer of every slot, the others are linked from it
+    private long time;
+    private int timerCount;
+
+    /**
+     * Creates an empty wheel.
+     *
+     * @param time The current time in milliseconds.
+     */
+    public TimerWheel(long time) {
+        this.time = time;
+    }
+
+    /**
+     * Returns the time the wheel was advanced to.
+     *
+     * @return The time in milliseconds.
+     */
+    public synchronized long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the number of timers that are waiting to expire.
+     *
+     * @return The timer count.
+     */
+    public synchronized int getTimerCount() {
+        return timerCount;
+    }
+
+    /**
+     * Schedules a timer, if it is already scheduled it starts over.
+     *
+     * @param timer The timer.
+     * @param delay The time until it expires in milliseconds, counted from the time the wheel was advanced to.
+     */
+    synchronized void schedule(Timer timer, long delay) {
+
+        if (timer.slot != -1) unlink(timer);
+
+        if (delay <= 0) {
+
+            timer.done = true;
+            return;
+
+        }
+
+        timer.done = false;
+        timer.deadline = time + Math.min(delay, MAX_DELAY);
+
+        link(timer);
+
+    }
+
+    /**
+     * Removes a timer from the wheel without expiring it.
+     *
+     * @param timer The timer.
+     */
+    synchronized void cancel(Timer timer) {
+        if (timer.slot != -1) unlink(timer);
+    }
+
+    /**
+     * Moves the wheel forward and expires all timers whose deadline was reached.
+     * Times before the current one are ignored, so the wheel can be advanced from several places with the same clock.
+     *
+     * @param newTime The current time in milliseconds.
+     */
+    public synchronized void advance(long newTime) {
+
+        while (time < newTime) {
+
+            time++;
+
+            //Once the lower level went around, the next slot of the level above gets distributed to the levels below
+            for (int level = 1; level < LEVELS && ((time >>> ((level - 1) * SLOT_BITS)) & SLOT_MASK) == 0; level++)
+                cascade(level * SLOTS + (int) ((time >>> (level * SLOT_BITS)) & SLOT_MASK));
+
+            int slot = (int) (time & SLOT_MASK);
+            Timer timer;
+
+            while ((timer = slots[slot]) != null) {
+
+                unlink(timer);
+                timer.done = true;
+
+            }
+
+        }
+
+    }
+
+    private void cascade(int slot) {
+
+        Timer timer = slots[slot];
+        slots[slot] = null;
+
+        while (timer != null) {
+
+            Timer next = timer.next;
+
+            timerCount--;
+            link(timer);
+
+            timer = next;
+
+        }
+
+    }
+
+    private void link(Timer timer) {
+
+        long delay = timer.deadline - time;
+        int level = 0;
+
+        while (level < LEVELS - 1 && delay >= 1L << ((level + 1) * SLOT_BITS)) level++;
+
+        int slot = level * SLOTS + (int) ((timer.deadline >>> (level * SLOT_BITS)) & SLOT_MASK);
+
+        timer.slot = slot;
+        timer.previous = null;
+        timer.next = slots[slot];
+
+        if (timer.next != null) timer.next.previous = timer;
+        slots[slot] = timer;
+
+        timerCount++;
+
+    }
+
+    private void unlink(Timer timer) {
+
+        if (timer.previous != null) timer.previous.next = timer.next;
+        else slots[timer.slot] = timer.next;
+
+        if (timer.next != null) timer.next.previous = timer.previous;
+
+        timer.previous = null;
+        timer.next = null;
+        timer.slot = -1;
+
+        timerCount--;
+
+    }
+
+}
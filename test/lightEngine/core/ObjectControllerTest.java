@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.core;
+
+import lightEngine.gameObjects.GameObject;
+import org.junit.After;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the game object list and the spatial index agree after structural changes from several threads.
+ */
+public class ObjectControllerTest {
+
+    private static final int THREAD_COUNT = 4;
+    private static final int OBJECTS_PER_THREAD = 25000;
+
+    @After
+    public void tearDown() {
+
+        ObjectController.applyStructuralChanges();
+        new ArrayList<>(ObjectController.gameObjects).forEach(GameObject::destroy);
+
+    }
+
+    @Test
+    public void concurrentChangesStayConsistent() throws InterruptedException {
+
+        List<Thread> threads = new ArrayList<>();
+        List<GameObject> keptObjects = Collections.synchronizedList(new ArrayList<>());
+
+        for (int t = 0; t < THREAD_COUNT; t++) {
+
+            threads.add(new Thread(() -> {
+
+                for (int i = 0; i < OBJECTS_PER_THREAD; i++) {
+
+                    GameObject object = new GameObject(new Vector3f(i % 100, 0, i / 100), new Vector3f());
+
+                    //Every second object gets removed again right away
+                    if (i % 2 == 0) ObjectController.removeGameObject(object);
+                    else keptObjects.add(object);
+
+                }
+
+            }));
+
+        }
+
+        threads.forEach(Thread::start);
+
+        //Applying the changes while they are queued, like the game loop
+        while (threads.stream().anyMatch(Thread::isAlive)) ObjectController.applyStructuralChanges();
+
+        for (Thread thread : threads) thread.join();
+        ObjectController.applyStructuralChanges();
+
+        assertEquals(THREAD_COUNT * OBJECTS_PER_THREAD / 2, ObjectController.gameObjects.size());
+        assertSameObjects(keptObjects, ObjectController.gameObjects);
+        assertSameObjects(keptObjects, getIndexedObjects());
+
+    }
+
+    @Test
+    public void removalMovesTheLastObjectIntoTheGap() {
+
+        List<GameObject> objects = new ArrayList<>();
+        for (int i = 0; i < 5; i++) objects.add(new GameObject(new Vector3f(i, 0, 0), new Vector3f()));
+
+        ObjectController.applyStructuralChanges();
+
+        ObjectController.removeGameObject(objects.get(1));
+        ObjectController.applyStructuralChanges();
+
+        assertEquals(4, ObjectController.gameObjects.size());
+        assertSame(objects.get(0), ObjectController.getGameObject(0));
+        assertSame(objects.get(4), ObjectController.getGameObject(1));
+        assertSame(objects.get(2), ObjectController.getGameObject(2));
+        assertSame(objects.get(3), ObjectController.getGameObject(3));
+
+        //Removing the object that was moved into the gap
+        ObjectController.removeGameObject(objects.get(4));
+        ObjectController.applyStructuralChanges();
+
+        assertSame(objects.get(3), ObjectController.getGameObject(1));
+        assertSameObjects(ObjectController.gameObjects, getIndexedObjects());
+
+    }
+
+    @Test
+    public void objectIsAddedOnce() {
+
+        GameObject object = new GameObject(new Vector3f(), new Vector3f());
+        ObjectController.addGameObject(object);
+
+        ObjectController.applyStructuralChanges();
+
+        assertEquals(1, ObjectController.gameObjects.size());
+        assertEquals(1, getIndexedObjects().size());
+
+    }
+
+    private static List<GameObject> getIndexedObjects() {
+        return ObjectController.getGameObjectsInRange(new Vector3f(), 1e6f);
+    }
+
+    private static void assertSameObjects(List<GameObject> expected, List<GameObject> actual) {
+
+        Set<GameObject> expectedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<GameObject> actualSet = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        expectedSet.addAll(expected);
+        actualSet.addAll(actual);
+
+        assertEquals("Duplicates", actual.size(), actualSet.size());
+        assertTrue(expectedSet.equals(actualSet));
+
+    }
+
+}
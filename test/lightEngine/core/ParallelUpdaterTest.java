@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.core;
+
+import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.modules.Module;
+import lightEngine.gameObjects.modules.controls.Controller;
+import lightEngine.gameObjects.modules.physics.MovementModule;
+import lightEngine.util.resources.PreferenceHelper;
+import lightEngine.util.resources.ResourceHelper;
+import lightEngine.util.time.TimeHelper;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares parallel updates with serial ones.
+ * Every 1000th game object isn't thread safe and copies the position of the game object after it,
+ * so it only ends up in the same place if the game objects are still updated in list order.
+ */
+public class ParallelUpdaterTest {
+
+    private static final int OBJECT_COUNT = 4000;
+    private static final int TICKS = 60;
+
+    @BeforeClass
+    public static void setUpClass() {
+
+        ResourceHelper.initialize();
+        PreferenceHelper.loadPreferences("lightEngine");
+        TimeHelper.setTickRate(60);
+
+    }
+
+    @After
+    public void tearDown() {
+
+        ParallelUpdater.shutdown();
+        destroyObjects();
+
+    }
+
+    @Test
+    public void parallelUpdateMatchesSerialUpdate() {
+
+        float[] expected = runTicks(0);
+
+        for (int threads = 1; threads <= 4; threads *= 2) assertArrayEquals("Threads: " + threads, expected, runTicks(threads), 0);
+
+    }
+
+    @Test
+    public void serialObjectsAreUpdatedOnTheGameThread() {
+
+        createObjects();
+        ParallelUpdater.initialize(4);
+
+        ParallelUpdater.update(ObjectController.gameObjects);
+
+        for (GameObject object : ObjectController.gameObjects) {
+
+            Follower follower = object.getModule(Follower.class);
+            if (follower != null) assertFalse(follower.updatedOnWorker);
+
+        }
+
+        assertTrue(PatternController.updatedOnWorker);
+
+    }
+
+    private static float[] runTicks(int threads) {
+
+        createObjects();
+
+        if (threads == 0) ParallelUpdater.shutdown();
+        else ParallelUpdater.initialize(threads);
+
+        for (int tick = 0; tick < TICKS; tick++) {
+
+            TimeHelper.startTick(0, 0);
+
+            if (ParallelUpdater.isEnabled()) ParallelUpdater.update(ObjectController.gameObjects);
+            else ObjectController.gameObjects.forEach(GameObject::update);
+
+        }
+
+        float[] positions = new float[OBJECT_COUNT * 3];
+
+        for (int i = 0; i < OBJECT_COUNT; i++) {
+
+            Vector3f position = ObjectController.gameObjects.get(i).position;
+            positions[i * 3] = position.x;
+            positions[i * 3 + 1] = position.y;
+            positions[i * 3 + 2] = position.z;
+
+        }
+
+        return positions;
+
+    }
+
+    private static void createObjects() {
+
+        destroyObjects();
+
+        for (int i = 0; i < OBJECT_COUNT; i++) {
+
+            GameObject object = new GameObject(new Vector3f(i % 100, 0, i / 100), new Vector3f(0, i % 360, 0));
+
+            if (i % 1000 == 500) object.addModule(new Follower(i + 1));
+            else object.addModule(new MovementModule()).addModule(new PatternController(i));
+
+            object.createModules();
+
+        }
+
+        ObjectController.applyStructuralChanges();
+
+    }
+
+    private static void destroyObjects() {
+
+        new ArrayList<>(ObjectController.gameObjects).forEach(GameObject::destroy);
+        ObjectController.applyStructuralChanges();
+
+    }
+
+    /**
+     * Moves its game object in a pattern that depends on its index, without reading any input.
+     */
+    private static class PatternController extends Controller {
+
+        private static final long serialVersionUID = 1L;
+
+        static volatile boolean updatedOnWorker;
+
+        private final int index;
+        private int tick;
+
+        PatternController(int index) {
+
+            super(new float[]{0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0}, true);
+
+            this.index = index;
+
+        }
+
+        @Override
+        protected void updateObject() {
+
+            if (ParallelUpdater.isUpdateThread()) updatedOnWorker = true;
+
+            MovementModule movementModule = parent.getModule(MovementModule.class);
+
+            if ((tick++ + index) % 60 < 30) movementModule.moveForward();
+            else movementModule.moveLeft();
+
+            if (index % 3 == 0) movementModule.moveUp();
+
+        }
+
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
+    }
+
+    /**
+     * Reads another game object, so it isn't thread safe.
+     */
+    private static class Follower extends Module {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int leaderIndex;
+        boolean updatedOnWorker;
+
+        Follower(int leaderIndex) {
+            this.leaderIndex = leaderIndex;
+        }
+
+        @Override
+        public void onCreation(GameObject obj) {
+            super.onCreation(obj);
+
+            parent.position = new Vector3f();
+        }
+
+        @Override
+        public void onUpdate() {
+
+            updatedOnWorker |= ParallelUpdater.isUpdateThread();
+            parent.position.set(ObjectController.getGameObject(leaderIndex).position);
+
+        }
+
+    }
+
+}
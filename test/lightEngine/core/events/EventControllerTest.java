@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.core.events;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Checks which listeners are called when events are triggered right away and when they are queued.
+ * Events are global, so every test uses its own event names.
+ */
+public class EventControllerTest {
+
+    @Test
+    public void onlyTheListenersOfTheEventAreCalled() {
+
+        int eventCount = 1000, handlerCount = 10000;
+        int[] calls = new int[eventCount];
+
+        List<Event<Void>> events = new ArrayList<>();
+
+        for (int i = 0; i < eventCount; i++) events.add(Event.get("onlyTheListenersOfTheEventAreCalled-" + i));
+
+        for (int i = 0; i < handlerCount; i++) {
+
+            int event = i % eventCount;
+            EventController.addEventHandler(events.get(event).getName(), () -> calls[event]++);
+
+        }
+
+        EventController.triggerEvent(events.get(7), null);
+        EventController.triggerEvent(events.get(7).getName());
+
+        for (int i = 0; i < eventCount; i++) assertEquals("Event " + i, i == 7 ? 2 * handlerCount / eventCount : 0, calls[i]);
+
+    }
+
+    @Test
+    public void listenersGetThePayload() {
+
+        Event<String> event = Event.get("listenersGetThePayload");
+        List<String> payloads = new ArrayList<>();
+
+        EventController.addEventListener(event, payloads::add);
+
+        EventController.triggerEvent(event, "first");
+        EventController.triggerEvent(event, "second");
+
+        assertEquals(2, payloads.size());
+        assertSame("first", payloads.get(0));
+        assertSame("second", payloads.get(1));
+
+    }
+
+    @Test
+    public void queuedEventsAreTriggeredInOrder() {
+
+        Event<Integer> first = Event.get("queuedEventsAreTriggeredInOrder-1");
+        Event<Integer> second = Event.get("queuedEventsAreTriggeredInOrder-2");
+        List<Integer> payloads = new ArrayList<>();
+
+        EventController.addEventListener(first, payloads::add);
+        EventController.addEventListener(second, payload -> payloads.add(-payload));
+
+        for (int i = 1; i <= 100; i++) EventController.queueEvent(i % 2 == 0 ? first : second, i);
+
+        assertEquals(0, payloads.size());
+
+        EventController.triggerQueuedEvents();
+
+        assertEquals(100, payloads.size());
+        for (int i = 1; i <= 100; i++) assertEquals(i % 2 == 0 ? i : -i, (int) payloads.get(i - 1));
+
+    }
+
+    @Test
+    public void eventsQueuedByListenersWaitForTheNextTick() {
+
+        Event<Integer> event = Event.get("eventsQueuedByListenersWaitForTheNextTick");
+        List<Integer> payloads = new ArrayList<>();
+
+        EventController.addEventListener(event, payload -> {
+
+            payloads.add(payload);
+            if (payload < 3) EventController.queueEvent(event, payload + 1);
+
+        });
+
+        EventController.queueEvent(event, 1);
+
+        for (int tick = 1; tick <= 3; tick++) {
+
+            EventController.triggerQueuedEvents();
+            assertEquals(tick, payloads.size());
+
+        }
+
+        EventController.triggerQueuedEvents();
+        assertEquals(3, payloads.size());
+
+    }
+
+    @Test
+    public void removedListenersAreNotCalled() {
+
+        Event<Void> event = Event.get("removedListenersAreNotCalled");
+        int[] calls = new int[3];
+
+        EventListener<Object> first = payload -> calls[0]++;
+        EventListener<Object> second = payload -> calls[1]++;
+        EventListener<Object> third = payload -> calls[2]++;
+
+        EventController.addEventListener(event, first);
+        EventController.addEventListener(event, second);
+        EventController.addEventListener(event, third);
+
+        EventController.removeEventListener(event, second);
+        EventController.triggerEvent(event, null);
+
+        assertEquals(1, calls[0]);
+        assertEquals(0, calls[1]);
+        assertEquals(1, calls[2]);
+
+        EventController.removeEvent(event.getName());
+        EventController.triggerEvent(event, null);
+
+        assertEquals(1, calls[0]);
+        assertEquals(1, calls[2]);
+
+    }
+
+}
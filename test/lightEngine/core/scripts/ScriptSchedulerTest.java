@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.core.scripts;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs scripts with a fake clock of 60 ticks per second.
+ */
+public class ScriptSchedulerTest {
+
+    private static final float TICK_LENGTH = 1000f / 60;
+
+    @Test
+    public void sequenceTakesAsManyTicksAsItsWaits() {
+
+        ScriptScheduler scheduler = new ScriptScheduler();
+        float[] value = new float[1];
+        boolean[] flag = new boolean[1];
+        List<String> trace = new ArrayList<>();
+        int[] tick = new int[1];
+
+        Script sequence = scheduler.start(new ScriptSequence()
+          .run(() -> trace.add("start@" + tick[0]))
+          .waitTicks(3)
+          .run(() -> trace.add("ticks@" + tick[0]))
+          .waitSeconds(0.2f)
+          .run(() -> trace.add("seconds@" + tick[0]))
+          .waitUntil(() -> flag[0])
+          .run(() -> trace.add("condition@" + tick[0]))
+          .during(0.5f, seconds -> value[0] += seconds * 2)
+          .run(() -> trace.add("during@" + tick[0])));
+
+        for (tick[0] = 0; tick[0] < 120; tick[0]++) {
+
+            if (tick[0] == 30) flag[0] = true;
+            scheduler.update(TICK_LENGTH);
+
+        }
+
+        assertEquals(Arrays.asList("start@0", "ticks@3", "seconds@15", "condition@30", "during@60"), trace);
+        assertEquals(1, value[0], 1e-4f);
+        assertTrue(sequence.isFinished());
+        assertEquals(0, scheduler.getScriptCount());
+
+    }
+
+    @Test
+    public void manyScriptsGiveTheSameResultWithoutThreads() {
+
+        long threadsBefore = ManagementFactory.getThreadMXBean().getTotalStartedThreadCount();
+
+        long[] first = runManyScripts(10000);
+        long[] second = runManyScripts(10000);
+
+        assertEquals(first[0], second[0]);
+        assertEquals(first[1], second[1]);
+        assertEquals(threadsBefore, ManagementFactory.getThreadMXBean().getTotalStartedThreadCount());
+
+    }
+
+    @Test
+    public void cancelledScriptIsNotResumed() {
+
+        ScriptScheduler scheduler = new ScriptScheduler();
+        int[] runs = new int[1];
+
+        Script script = scheduler.start(new ScriptSequence()
+          .run(() -> runs[0]++)
+          .waitTicks(2)
+          .run(() -> runs[0]++));
+
+        scheduler.update(TICK_LENGTH);
+        script.cancel();
+
+        for (int tick = 0; tick < 5; tick++) scheduler.update(TICK_LENGTH);
+
+        assertEquals(1, runs[0]);
+        assertTrue(script.isFinished());
+        assertEquals(0, scheduler.getScriptCount());
+
+    }
+
+    @Test
+    public void scriptStartsDuringTheNextUpdate() {
+
+        ScriptScheduler scheduler = new ScriptScheduler();
+        int[] runs = new int[1];
+
+        Script script = scheduler.start(new ScriptSequence().run(() -> runs[0]++));
+
+        assertEquals(0, scheduler.getScriptCount());
+        assertEquals(0, runs[0]);
+        assertFalse(script.isFinished());
+
+        scheduler.update(TICK_LENGTH);
+
+        assertEquals(1, runs[0]);
+        assertTrue(script.isFinished());
+
+    }
+
+    /**
+     * Starts scripts with different waits and updates them until all are finished.
+     *
+     * @param scriptCount The number of scripts.
+     * @return The number of ticks and a checksum over the order the scripts ran in.
+     */
+    private static long[] runManyScripts(int scriptCount) {
+
+        ScriptScheduler scheduler = new ScriptScheduler();
+        long[] checksum = new long[1];
+
+        for (int i = 0; i < scriptCount; i++) {
+
+            int index = i;
+
+            scheduler.start(new ScriptSequence()
+              .waitTicks(1 + index % 7)
+              .run(() -> checksum[0] = checksum[0] * 31 + index)
+              .waitSeconds((index % 5) * 0.1f)
+              .run(() -> checksum[0] = checksum[0] * 31 + index)
+              .during(0.25f + (index % 3) * 0.25f, seconds -> checksum[0] += 1));
+
+        }
+
+        long ticks = 0;
+
+        do {
+            scheduler.update(TICK_LENGTH);
+            ticks++;
+        } while (scheduler.getScriptCount() > 0);
+
+        return new long[]{ticks, checksum[0]};
+
+    }
+
+}
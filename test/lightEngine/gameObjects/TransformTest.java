@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.gameObjects;
+
+import org.junit.Test;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector3f;
+import org.lwjgl.util.vector.Vector4f;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Compares the cached direction with the view matrix and the model matrix with the Euler angle rotation matrices for random transforms,
+ * and checks how the direction relates to the model matrix.
+ * The model matrix of one fixed rotation is pinned against the matrix the renderer built before it read the rotation in degrees.
+ * EngineBenchmarks measures the cache.
+ */
+public class TransformTest {
+
+    private static final int COUNT = 10000;
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void directionIsTheViewForward() {
+
+        GameObject gameObject = new GameObject(new Vector3f(), new Vector3f());
+
+        for (int i = 0; i < COUNT; i++) {
+
+            setRandomTransform(gameObject);
+
+            //The direction a camera with this rotation looks in
+            Matrix4f viewMatrix = new Matrix4f();
+            Matrix4f.rotate(getRadians(gameObject.rotation.x), new Vector3f(1, 0, 0), viewMatrix, viewMatrix);
+            Matrix4f.rotate(getRadians(gameObject.rotation.y), new Vector3f(0, 1, 0), viewMatrix, viewMatrix);
+            Matrix4f.rotate(getRadians(gameObject.rotation.z), new Vector3f(0, 0, 1), viewMatrix, viewMatrix);
+
+            Vector4f expected = Matrix4f.transform(Matrix4f.invert(viewMatrix, null), new Vector4f(0, 0, -1, 0), null);
+            Vector3f direction = gameObject.transform.getDirection();
+
+            String message = "Rotation " + gameObject.rotation;
+
+            assertEquals(message, expected.x, direction.x, 1e-5f);
+            assertEquals(message, expected.y, direction.y, 1e-5f);
+            assertEquals(message, expected.z, direction.z, 1e-5f);
+
+        }
+
+    }
+
+    @Test
+    public void modelMatrixMatchesTheEulerRotations() {
+
+        GameObject gameObject = new GameObject(new Vector3f(), new Vector3f());
+
+        for (int i = 0; i < COUNT; i++) {
+
+            setRandomTransform(gameObject);
+
+            Matrix4f expected = new Matrix4f();
+            Matrix4f.translate(gameObject.position, expected, expected);
+            Matrix4f.rotate(getRadians(gameObject.rotation.y), new Vector3f(0, 1, 0), expected, expected);
+            Matrix4f.rotate(getRadians(gameObject.rotation.x), new Vector3f(1, 0, 0), expected, expected);
+            Matrix4f.rotate(getRadians(gameObject.rotation.z), new Vector3f(0, 0, 1), expected, expected);
+
+            assertMatrixEquals("Rotation " + gameObject.rotation, expected, gameObject.transform.getModelMatrix());
+
+        }
+
+    }
+
+    @Test
+    public void directionIsTheTurnedModelForward() {
+
+        GameObject gameObject = new GameObject(new Vector3f(), new Vector3f(0, 90, 0));
+
+        assertVectorEquals("Yaw 90", new Vector3f(-1, 0, 0), getModelForward(gameObject.transform.getModelMatrix()));
+        assertVectorEquals("Yaw 90", new Vector3f(1, 0, 0), gameObject.transform.getDirection());
+
+        for (int i = 0; i < COUNT; i++) {
+
+            setRandomTransform(gameObject);
+
+            //The model's forward axis turned by 180 - roll degrees around the world's z axis
+            Vector3f forward = getModelForward(gameObject.transform.getModelMatrix());
+            double angle = Math.toRadians(180 - gameObject.rotation.z);
+            float sin = (float) Math.sin(angle), cos = (float) Math.cos(angle);
+
+            Vector3f expected = new Vector3f(cos * forward.x - sin * forward.y, sin * forward.x + cos * forward.y, forward.z);
+
+            assertVectorEquals("Rotation " + gameObject.rotation, expected, gameObject.transform.getDirection());
+
+        }
+
+    }
+
+    @Test
+    public void modelMatrixReadsTheRotationInDegrees() {
+
+        GameObject gameObject = new GameObject(new Vector3f(1, 2, 3), new Vector3f(30, 45, 60));
+        Matrix4f matrix = gameObject.transform.getModelMatrix();
+
+        //Yaw 45 degrees after pitch 30 degrees after roll 60 degrees, the model's forward axis (0, 0, -1) ends up at (-0.612, 0.5, -0.612)
+        Matrix4f expected = createMatrix(1, 2, 3,
+          0.659740f, -0.435596f, 0.612372f,
+          0.750000f, 0.433013f, -0.500000f,
+          -0.047367f, 0.789149f, 0.612372f);
+
+        assertMatrixEquals("New rotation", expected, matrix);
+
+        //Before, the degrees were passed to Matrix4f.rotate() as radians in the order x, y, z, the forward axis ended up at (-0.851, -0.519, -0.081)
+        Matrix4f old = createMatrix(1, 2, 3,
+          -0.500323f, 0.160124f, 0.850904f,
+          0.753695f, -0.403171f, 0.519035f,
+          0.426170f, 0.901007f, 0.081032f);
+
+        Matrix4f oldRenderer = new Matrix4f();
+        Matrix4f.translate(gameObject.position, oldRenderer, oldRenderer);
+        Matrix4f.rotate(gameObject.rotation.x, new Vector3f(1, 0, 0), oldRenderer, oldRenderer);
+        Matrix4f.rotate(gameObject.rotation.y, new Vector3f(0, 1, 0), oldRenderer, oldRenderer);
+        Matrix4f.rotate(gameObject.rotation.z, new Vector3f(0, 0, 1), oldRenderer, oldRenderer);
+
+        assertMatrixEquals("Old rotation", old, oldRenderer);
+        assertNotEquals(old.m20, matrix.m20, 0.1f);
+
+        //Unrotated objects look the same as before
+        gameObject.rotation.set(0, 0, 0);
+        assertMatrixEquals("No rotation", createMatrix(1, 2, 3, 1, 0, 0, 0, 1, 0, 0, 0, 1), gameObject.transform.getModelMatrix());
+
+    }
+
+    @Test
+    public void cacheFollowsChangedFields() {
+
+        GameObject gameObject = new GameObject(new Vector3f(1, 2, 3), new Vector3f(0, 90, 0));
+        Transform transform = gameObject.transform;
+
+        Vector3f direction = new Vector3f(transform.getDirection());
+        Matrix4f matrix = new Matrix4f(transform.getModelMatrix());
+
+        //Changing the fields in place, like most of the engine does
+        gameObject.rotation.y = 180;
+
+        assertNotEquals(direction.x, transform.getDirection().x, 0.5f);
+        assertNotEquals(matrix.m00, transform.getModelMatrix().m00, 0.5f);
+
+        gameObject.position.x = 5;
+
+        assertEquals(5, transform.getModelMatrix().m30, 0);
+
+    }
+
+    private void setRandomTransform(GameObject gameObject) {
+
+        gameObject.position.set(random.nextInt(2001) - 1000, random.nextInt(2001) - 1000, random.nextInt(2001) - 1000);
+        gameObject.rotation.set(random.nextInt(181) - 90, random.nextInt(360), random.nextInt(360));
+
+    }
+
+    private static float getRadians(float degrees) {
+        return (float) Math.toRadians(degrees);
+    }
+
+    /**
+     * Returns where a model matrix turns the model's forward axis (0, 0, -1) to.
+     */
+    private static Vector3f getModelForward(Matrix4f matrix) {
+        return new Vector3f(-matrix.m20, -matrix.m21, -matrix.m22);
+    }
+
+    private static void assertVectorEquals(String message, Vector3f expected, Vector3f actual) {
+
+        assertEquals(message, expected.x, actual.x, 1e-5f);
+        assertEquals(message, expected.y, actual.y, 1e-5f);
+        assertEquals(message, expected.z, actual.z, 1e-5f);
+
+    }
+
+    /**
+     * Creates a model matrix from a translation and the rows of a rotation matrix.
+     */
+    private static Matrix4f createMatrix(float x, float y, float z, float... rows) {
+
+        Matrix4f matrix = new Matrix4f();
+
+        matrix.m00 = rows[0];
+        matrix.m10 = rows[1];
+        matrix.m20 = rows[2];
+        matrix.m01 = rows[3];
+        matrix.m11 = rows[4];
+        matrix.m21 = rows[5];
+        matrix.m02 = rows[6];
+        matrix.m12 = rows[7];
+        matrix.m22 = rows[8];
+        matrix.m30 = x;
+        matrix.m31 = y;
+        matrix.m32 = z;
+
+        return matrix;
+
+    }
+
+    private static void assertMatrixEquals(String message, Matrix4f expected, Matrix4f actual) {
+
+        float[] expectedValues = {expected.m00, expected.m01, expected.m02, expected.m10, expected.m11, expected.m12,
+          expected.m20, expected.m21, expected.m22, expected.m30, expected.m31, expected.m32};
+        float[] actualValues = {actual.m00, actual.m01, actual.m02, actual.m10, actual.m11, actual.m12,
+          actual.m20, actual.m21, actual.m22, actual.m30, actual.m31, actual.m32};
+
+        for (int i = 0; i < expectedValues.length; i++) assertEquals(message, expectedValues[i], actualValues[i], 1e-3f);
+
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.gameObjects.modules.interaction;
+
+import lightEngine.util.resources.PreferenceHelper;
+import lightEngine.util.resources.ResourceHelper;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that async interactions run on a bounded pool and that an active interaction isn't started a second time.
+ */
+public class AsyncInteractionExecutorTest {
+
+    @BeforeClass
+    public static void setUpClass() {
+
+        ResourceHelper.initialize();
+        PreferenceHelper.loadPreferences("lightEngine");
+
+    }
+
+    @Test
+    public void manyTriggersUseABoundedPool() throws InterruptedException {
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        long threadsBefore = threadBean.getTotalStartedThreadCount();
+
+        AtomicInteger runs = new AtomicInteger();
+        AsyncInteraction[] interactions = new AsyncInteraction[64];
+
+        for (int i = 0; i < interactions.length; i++) interactions[i] = createInteraction(runs::incrementAndGet);
+
+        int started = 0;
+
+        for (int i = 0; i < 10000; i++) {
+
+            AsyncInteraction interaction = interactions[i % interactions.length];
+            while (interaction.isActive()) Thread.yield();
+
+            if (AsyncInteractionExecutor.start(interaction)) started++;
+
+        }
+
+        for (AsyncInteraction interaction : interactions) while (interaction.isActive()) Thread.sleep(1);
+
+        assertEquals(10000, started);
+        assertEquals(started, runs.get());
+        assertTrue(threadBean.getTotalStartedThreadCount() - threadsBefore <= PreferenceHelper.getInteger("asyncInteractionThreads"));
+
+    }
+
+    @Test
+    public void activeInteractionIsNotStartedAgain() throws InterruptedException {
+
+        CountDownLatch running = new CountDownLatch(1), release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        AsyncInteraction interaction = createInteraction(() -> {
+
+            runs.incrementAndGet();
+            running.countDown();
+
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+        });
+
+        assertTrue(AsyncInteractionExecutor.start(interaction));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        assertTrue(interaction.isActive());
+        assertFalse(AsyncInteractionExecutor.start(interaction));
+
+        release.countDown();
+        while (interaction.isActive()) Thread.sleep(1);
+
+        assertEquals(1, runs.get());
+
+    }
+
+    @Test
+    public void failingInteractionCanBeStartedAgain() throws InterruptedException {
+
+        AtomicInteger runs = new AtomicInteger();
+
+        AsyncInteraction interaction = createInteraction(() -> {
+
+            runs.incrementAndGet();
+            throw new IllegalStateException("Expected by the test");
+
+        });
+
+        for (int i = 1; i <= 3; i++) {
+
+            assertTrue(AsyncInteractionExecutor.start(interaction));
+            while (interaction.isActive()) Thread.sleep(1);
+
+            assertEquals(i, runs.get());
+
+        }
+
+    }
+
+    private static AsyncInteraction createInteraction(Runnable action) {
+
+        return new AsyncInteraction() {
+
+            public void interact() {
+                action.run();
+            }
+
+        };
+
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.gameObjects.modules.physics;
+
+import lightEngine.core.ObjectController;
+import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.modules.controls.Controller;
+import lightEngine.util.resources.PreferenceHelper;
+import lightEngine.util.resources.ResourceHelper;
+import lightEngine.util.time.TimeHelper;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that game objects keep the direction convention of Transform.getDirection() when they start moving
+ * and that the movement module follows controllers that are replaced at runtime.
+ */
+public class MovementModuleTest {
+
+    private static final float[][] ROTATIONS = {{0, 0, 0}, {45, 180, 0}, {30, 90, 0}, {-20, 45, 10}, {80, 300, 90}};
+
+    @BeforeClass
+    public static void setUpClass() {
+
+        ResourceHelper.initialize();
+        PreferenceHelper.loadPreferences("lightEngine");
+        TimeHelper.setTickRate(60);
+
+    }
+
+    @After
+    public void tearDown() {
+
+        ObjectController.applyStructuralChanges();
+        new ArrayList<>(ObjectController.gameObjects).forEach(GameObject::destroy);
+
+    }
+
+    @Test
+    public void directionDoesNotChangeOnTheFirstTick() {
+
+        for (float[] rotation : ROTATIONS) {
+
+            GameObject gameObject = createMovingObject(rotation, false);
+            Vector3f initialDirection = new Vector3f(gameObject.percentRotation);
+
+            TimeHelper.startTick(0, 0);
+            gameObject.update();
+
+            assertDirection(initialDirection, gameObject.percentRotation);
+
+        }
+
+    }
+
+    @Test
+    public void movementSystemKeepsTheSameDirection() {
+
+        for (float[] rotation : ROTATIONS) {
+
+            GameObject gameObject = createMovingObject(rotation, true);
+            Vector3f initialDirection = new Vector3f(gameObject.percentRotation);
+
+            TimeHelper.startTick(0, 0);
+            gameObject.update();
+            MovementSystem.update();
+
+            assertDirection(initialDirection, gameObject.percentRotation);
+
+        }
+
+    }
+
+    @Test
+    public void directionIsWhereTheObjectMovesForward() {
+
+        GameObject gameObject = createMovingObject(new float[]{0, 90, 0}, false);
+        gameObject.getModule(TestController.class).walking = true;
+
+        for (int tick = 0; tick < 10; tick++) {
+
+            TimeHelper.startTick(0, 0);
+            gameObject.update();
+
+        }
+
+        Vector3f movement = gameObject.getModule(MovementModule.class).speed;
+        movement.normalise();
+
+        assertDirection(gameObject.percentRotation, movement);
+
+    }
+
+    @Test
+    public void replacedControllerIsUpdated() {
+
+        GameObject gameObject = createMovingObject(new float[]{0, 0, 0}, false);
+        MovementModule movementModule = gameObject.getModule(MovementModule.class);
+
+        //A removed controller isn't updated anymore
+        gameObject.getModule(TestController.class).walking = true;
+        gameObject.removeModule(TestController.class);
+
+        TimeHelper.startTick(0, 0);
+        gameObject.update();
+
+        assertEquals(0, movementModule.speed.length(), 0);
+
+        TestController replacement = new TestController();
+        replacement.walking = true;
+        gameObject.addModule(replacement);
+        replacement.onCreation(gameObject);
+
+        TimeHelper.startTick(0, 0);
+        gameObject.update();
+
+        assertTrue(movementModule.speed.length() > 0);
+
+    }
+
+    private static GameObject createMovingObject(float[] rotation, boolean useMovementSystem) {
+
+        GameObject gameObject = new GameObject(new Vector3f(), new Vector3f(rotation[0], rotation[1], rotation[2]))
+          .addModule(new MovementModule(useMovementSystem))
+          .addModule(new TestController())
+          .createModules();
+
+        ObjectController.applyStructuralChanges();
+
+        return gameObject;
+
+    }
+
+    private static void assertDirection(Vector3f expected, Vector3f actual) {
+
+        assertEquals(expected.x, actual.x, 1e-5f);
+        assertEquals(expected.y, actual.y, 1e-5f);
+        assertEquals(expected.z, actual.z, 1e-5f);
+
+    }
+
+    /**
+     * Walks forward if told to, without reading any input.
+     */
+    private static class TestController extends Controller {
+
+        private static final long serialVersionUID = 1L;
+
+        boolean walking;
+
+        TestController() {
+            super(new float[]{0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0.5f, 0}, true);
+        }
+
+        @Override
+        protected void updateObject() {
+            if (walking) parent.getModule(MovementModule.class).moveForward();
+        }
+
+    }
+
+}
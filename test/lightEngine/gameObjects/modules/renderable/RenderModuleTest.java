@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.gameObjects.modules.renderable;
+
+import lightEngine.gameObjects.GameObject;
+import lightEngine.graphics.GraphicsController;
+import lightEngine.graphics.buffers.BufferManager;
+import lightEngine.graphics.device.RecordingGraphicsDevice;
+import lightEngine.util.rendering.ShaderHelper;
+import lightEngine.util.resources.PreferenceHelper;
+import lightEngine.util.resources.ResourceHelper;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Renders dynamic render modules into a RecordingGraphicsDevice and checks that their mesh buffers are released exactly once,
+ * also when the game thread destroys them while the render thread draws them.
+ */
+public class RenderModuleTest {
+
+    private static RecordingGraphicsDevice device;
+
+    @BeforeClass
+    public static void setUpClass() {
+
+        ResourceHelper.initialize();
+        PreferenceHelper.loadPreferences("lightEngine");
+
+        device = new RecordingGraphicsDevice();
+        GraphicsController.setDevice(device);
+        ShaderHelper.addShader("lighting");
+        ShaderHelper.addShader("shadowMap");
+
+    }
+
+    @Test
+    public void destroyedModuleReleasesItsBuffersOnTheRenderThread() {
+
+        RenderModule module = createModule();
+
+        module.render();
+        int bufferedMeshes = BufferManager.getBufferedMeshCount();
+        assertTrue(bufferedMeshes > 0);
+
+        module.onDestroy();
+
+        //Nothing is released before the render thread processes the releases, a render queue can still contain the module
+        assertEquals(bufferedMeshes, BufferManager.getBufferedMeshCount());
+        module.render();
+
+        BufferManager.processReleases();
+
+        assertNull(module.acquiredMeshes);
+        assertEquals(0, BufferManager.getBufferedMeshCount());
+        assertEquals(device.getTotalCount(RecordingGraphicsDevice.Command.CREATE_BUFFER), device.getTotalCount(RecordingGraphicsDevice.Command.DELETE_BUFFER));
+
+        //Rendering the destroyed module again doesn't acquire its meshes again
+        module.render();
+        assertEquals(0, BufferManager.getBufferedMeshCount());
+
+    }
+
+    @Test
+    public void renderAndDestroyInterleave() throws InterruptedException {
+
+        Queue<RenderModule> rendered = new ConcurrentLinkedQueue<>();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> renderError = new AtomicReference<>();
+
+        //Processes the releases and renders every module once per frame, like the render loop
+        Thread renderThread = new Thread(() -> {
+
+            try {
+
+                while (running.get()) {
+
+                    BufferManager.processReleases();
+                    for (RenderModule module : rendered) module.render();
+
+                }
+
+                BufferManager.processReleases();
+
+            } catch (Throwable e) {
+                renderError.set(e);
+            }
+
+        }, "RenderModule-StressTest");
+
+        renderThread.start();
+
+        List<RenderModule> alive = new ArrayList<>();
+        long end = System.nanoTime() + 500000000L;
+
+        //Creates and destroys modules while they are rendered, destroyed ones stay in the render queue for a while
+        while (System.nanoTime() < end && renderError.get() == null) {
+
+            RenderModule module = createModule();
+            alive.add(module);
+            rendered.add(module);
+
+            if (alive.size() > 20) alive.remove(0).onDestroy();
+            if (rendered.size() > 40) rendered.poll();
+
+        }
+
+        alive.forEach(RenderModule::onDestroy);
+
+        running.set(false);
+        renderThread.join();
+
+        if (renderError.get() != null) throw new AssertionError("The render thread failed", renderError.get());
+
+        assertEquals(0, BufferManager.getBufferedMeshCount());
+        assertEquals(device.getTotalCount(RecordingGraphicsDevice.Command.CREATE_BUFFER), device.getTotalCount(RecordingGraphicsDevice.Command.DELETE_BUFFER));
+
+    }
+
+    private static RenderModule createModule() {
+
+        RenderModule module = new RenderModule("sphere", false);
+        module.onCreation(new GameObject(new Vector3f(), new Vector3f()));
+
+        return module;
+
+    }
+
+}
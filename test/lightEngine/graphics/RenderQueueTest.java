@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.graphics;
+
+import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.modules.renderable.ModuleRenderable3D;
+import lightEngine.graphics.gui.GUIScreen;
+import lightEngine.util.threading.TripleBuffer;
+import org.junit.Test;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the render state hand over and the culling of a render queue without an OpenGL context.
+ */
+public class RenderQueueTest {
+
+    private static final List<GUIScreen> NO_SCREENS = Collections.emptyList();
+
+    @Test
+    public void snapshotsAreNeverTorn() throws InterruptedException {
+
+        TripleBuffer<RenderQueue> renderQueues = new TripleBuffer<>(RenderQueue::new);
+        AtomicBoolean running = new AtomicBoolean(true);
+        long[] renderStats = new long[2]; //Checked transforms, torn transforms
+
+        //Reads the latest queue like the render loop, every transform has to be (k, k, k) for some k
+        Thread renderThread = new Thread(() -> {
+
+            while (running.get()) {
+
+                RenderQueue queue = renderQueues.getLatest();
+                if (queue == null) continue;
+
+                for (ModuleRenderable3D model : queue.modelQueue) {
+
+                    Vector3f position = queue.getPosition(model.parent);
+
+                    if (!isUniform(position, position.x) || !isUniform(queue.getRotation(model.parent), position.x)
+                      || !isUniform(queue.getDirection(model.parent), position.x)) renderStats[1]++;
+
+                    renderStats[0]++;
+
+                }
+
+            }
+
+        }, "RenderQueue-StressTest");
+
+        renderThread.start();
+
+        Random random = new Random(42);
+        List<GameObject> gameObjects = new ArrayList<>();
+        long end = System.nanoTime() + 1000000000L;
+
+        while (System.nanoTime() < end) {
+
+            //Adding and removing a few objects every round, keeping about 1000 alive
+            for (int i = random.nextInt(20); i > 0; i--) {
+
+                if (gameObjects.size() < 1000 || random.nextBoolean()) gameObjects.add(createRenderedObject(new Vector3f()));
+                else gameObjects.remove(random.nextInt(gameObjects.size()));
+
+            }
+
+            //Moving every object component by component, like code that changes vectors in place
+            for (GameObject gameObject : gameObjects) {
+
+                float k = random.nextFloat();
+
+                gameObject.position.x = k;
+                gameObject.position.y = k;
+                gameObject.position.z = k;
+                gameObject.rotation.set(k, k, k);
+                gameObject.percentRotation.set(k, k, k);
+
+            }
+
+            renderQueues.getBack().fill(gameObjects, NO_SCREENS);
+            renderQueues.publish();
+
+        }
+
+        running.set(false);
+        renderThread.join();
+
+        assertTrue(renderStats[0] > 0);
+        assertEquals(0, renderStats[1]);
+
+    }
+
+    @Test
+    public void cullUsesTheCopiedBounds() {
+
+        GameObject inFront = createRenderedObject(new Vector3f(0, 0, -10));
+        GameObject behind = createRenderedObject(new Vector3f(0, 0, 10));
+
+        RenderQueue queue = new RenderQueue();
+        queue.fill(listOf(inFront, behind), NO_SCREENS);
+
+        //Moving the game objects after the hand over must not change what the render thread sees
+        inFront.position.set(0, 0, 10);
+        behind.position.set(0, 0, -10);
+
+        queue.cull(createCameraMatrix(), new Matrix4f[0]);
+
+        assertEquals(1, queue.visibleModels.size());
+        assertSame(inFront, queue.visibleModels.get(0).parent);
+
+    }
+
+    @Test
+    public void cullReusesItsLists() {
+
+        List<GameObject> gameObjects = new ArrayList<>();
+        for (int i = 0; i < 200; i++) gameObjects.add(createRenderedObject(new Vector3f(i % 20 - 10, 0, -i)));
+
+        RenderQueue queue = new RenderQueue();
+        queue.fill(gameObjects, NO_SCREENS);
+
+        Matrix4f cameraMatrix = createCameraMatrix();
+
+        queue.cull(cameraMatrix, new Matrix4f[]{cameraMatrix, cameraMatrix});
+
+        List<ModuleRenderable3D> visibleModels = queue.visibleModels;
+        List<ModuleRenderable3D> firstShadowCasters = queue.visibleShadowCasters.get(0);
+        int visibleCount = visibleModels.size();
+
+        assertTrue(visibleCount > 0 && visibleCount < gameObjects.size());
+        assertEquals(visibleModels, firstShadowCasters);
+
+        queue.fill(gameObjects, NO_SCREENS);
+        queue.cull(cameraMatrix, new Matrix4f[]{cameraMatrix});
+
+        assertSame(visibleModels, queue.visibleModels);
+        assertSame(firstShadowCasters, queue.visibleShadowCasters.get(0));
+        assertEquals(1, queue.visibleShadowCasters.size());
+        assertEquals(visibleCount, queue.visibleModels.size());
+
+    }
+
+    @Test
+    public void cullFollowsMovedAndRemovedModels() {
+
+        GameObject moving = createRenderedObject(new Vector3f(0, 0, -10));
+        GameObject removed = createRenderedObject(new Vector3f(2, 0, -10));
+
+        RenderQueue queue = new RenderQueue();
+        Matrix4f cameraMatrix = createCameraMatrix();
+
+        queue.fill(listOf(moving, removed), NO_SCREENS);
+        queue.cull(cameraMatrix, new Matrix4f[0]);
+
+        assertEquals(2, queue.visibleModels.size());
+
+        //Further than the tree's margin, so the leaf has to move inside the tree
+        moving.position.set(0, 0, 10);
+
+        queue.fill(listOf(moving), NO_SCREENS);
+        queue.cull(cameraMatrix, new Matrix4f[0]);
+
+        assertEquals(0, queue.visibleModels.size());
+
+        moving.position.set(0, 0, -20);
+
+        queue.fill(listOf(moving, removed), NO_SCREENS);
+        queue.cull(cameraMatrix, new Matrix4f[0]);
+
+        assertEquals(2, queue.visibleModels.size());
+
+    }
+
+    private static GameObject createRenderedObject(Vector3f position) {
+
+        GameObject gameObject = new GameObject(position, new Vector3f());
+        gameObject.addModule(new ModuleRenderable3D() {
+
+            public void render() {
+            }
+
+            public void addToRenderQueue(RenderQueue queue) {
+                queue.addModel(this);
+            }
+
+        }).createModules();
+
+        return gameObject;
+
+    }
+
+    private static List<GameObject> listOf(GameObject... gameObjects) {
+
+        List<GameObject> list = new ArrayList<>();
+        Collections.addAll(list, gameObjects);
+
+        return list;
+
+    }
+
+    /**
+     * Creates the view-projection matrix of a 70 degree perspective camera at the origin, looking down the negative z axis.
+     *
+     * @return The matrix.
+     */
+    private static Matrix4f createCameraMatrix() {
+
+        Matrix4f projectionMatrix = new Matrix4f();
+        float yScale = (float) (1 / Math.tan(Math.toRadians(35)));
+
+        projectionMatrix.m00 = yScale / (16f / 9f);
+        projectionMatrix.m11 = yScale;
+        projectionMatrix.m22 = -(1000 + 0.1f) / (1000 - 0.1f);
+        projectionMatrix.m23 = -1;
+        projectionMatrix.m32 = -(2 * 0.1f * 1000) / (1000 - 0.1f);
+        projectionMatrix.m33 = 0;
+
+        return projectionMatrix;
+
+    }
+
+    private static boolean isUniform(Vector3f vector, float value) {
+        return vector.x == value && vector.y == value && vector.z == value;
+    }
+
+}
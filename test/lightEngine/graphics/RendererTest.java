@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.graphics;
+
+import lightEngine.gameObjects.GameObject;
+import lightEngine.gameObjects.modules.renderable.Camera;
+import lightEngine.gameObjects.modules.renderable.ModuleRenderable3D;
+import lightEngine.gameObjects.modules.renderable.RenderModule;
+import lightEngine.gameObjects.modules.renderable.light.SpotLightSource;
+import lightEngine.graphics.device.RecordingGraphicsDevice;
+import lightEngine.graphics.gui.GUIScreen;
+import lightEngine.util.input.Input;
+import lightEngine.util.rendering.ShaderHelper;
+import lightEngine.util.rendering.UniformRegistry;
+import lightEngine.util.resources.PreferenceHelper;
+import lightEngine.util.resources.ResourceHelper;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector3f;
+import org.lwjgl.util.vector.Vector4f;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Renders a small scene into a RecordingGraphicsDevice and checks the draw calls and the light uniform uploads of every frame.
+ */
+public class RendererTest {
+
+    private static final String[] LIGHT_UNIFORMS = {"lightPositions", "lightDirections", "lightColors", "lightStrengths", "lightAngles",
+      "transitions", "lightSourceTypes", "specularLighting", "shadowThrowing"};
+
+    private static UniformCountingDevice device;
+
+    @BeforeClass
+    public static void setUpClass() {
+
+        ResourceHelper.initialize();
+        PreferenceHelper.loadPreferences("lightEngine");
+        Input.initialize();
+
+        device = new UniformCountingDevice();
+        GraphicsController.setDevice(device);
+        GraphicsController.createDisplay();
+        ShaderHelper.addShader("lighting");
+        ShaderHelper.addShader("shadowMap");
+
+    }
+
+    @Test
+    public void everyVisibleSubModelIsDrawnOncePerView() {
+
+        RenderQueue queue = createScene();
+
+        for (int frame = 0; frame < 3; frame++) {
+
+            renderFrame(queue);
+
+            //The camera doesn't see the model behind it, the light above does
+            assertTrue(queue.visibleModels.size() > 0 && queue.visibleModels.size() < queue.modelQueue.size());
+
+            long expected = getSubModelCount(queue.visibleModels);
+            for (List<ModuleRenderable3D> shadowCasters : queue.visibleShadowCasters) expected += getSubModelCount(shadowCasters);
+
+            long draws = device.getLastFrameCount(RecordingGraphicsDevice.Command.DRAW_ELEMENTS) +
+              device.getLastFrameCount(RecordingGraphicsDevice.Command.CALL_DISPLAY_LIST);
+
+            //Static models compile their display lists during their first render, GLGraphicsDevice compiles and executes them, so that's one more draw each
+            long compiledDisplayLists = device.getLastFrameCount(RecordingGraphicsDevice.Command.BEGIN_DISPLAY_LIST);
+            assertEquals(frame == 0 ? 1 : 0, compiledDisplayLists);
+
+            assertTrue(expected > getSubModelCount(queue.visibleModels));
+            assertEquals("Frame " + frame, expected, draws - compiledDisplayLists);
+
+        }
+
+    }
+
+    @Test
+    public void lightUniformsAreUploadedOncePerFrame() {
+
+        RenderQueue queue = createScene();
+        UniformRegistry uniforms = ShaderHelper.getUniforms("lighting");
+
+        for (int frame = 0; frame < 3; frame++) {
+
+            renderFrame(queue);
+
+            assertEquals(1, device.getUploads(uniforms.getLocation("lightSourceCount")));
+            assertEquals(1, device.getUploads(uniforms.getLocation("cameraPosition")));
+
+            //Every array holds all light sources, so it is uploaded with one call
+            for (String name : LIGHT_UNIFORMS) assertEquals(name, 1, device.getUploads(uniforms.getLocation(name, 0)));
+
+        }
+
+    }
+
+    /**
+     * Creates a camera looking down the negative z axis, two spot lights and three models, one of them behind the camera.
+     */
+    private static RenderQueue createScene() {
+
+        List<GameObject> gameObjects = new ArrayList<>();
+
+        gameObjects.add(new GameObject(new Vector3f(), new Vector3f()).addModule(new Camera()).createModules());
+        gameObjects.add(new GameObject(new Vector3f(0, 20, 0), new Vector3f(90, 0, 0))
+          .addModule(new SpotLightSource(new Vector4f(255, 255, 255, 100), 160)).createModules());
+        gameObjects.add(new GameObject(new Vector3f(0, 5, 5), new Vector3f())
+          .addModule(new SpotLightSource(new Vector4f(255, 255, 255, 100), 90)).createModules());
+
+        gameObjects.add(new GameObject(new Vector3f(0, 0, -10), new Vector3f()).addModule(new RenderModule("sphere", false)).createModules());
+        gameObjects.add(new GameObject(new Vector3f(0, -2, -10), new Vector3f()).addModule(new RenderModule("plane")).createModules());
+        gameObjects.add(new GameObject(new Vector3f(0, 0, 10), new Vector3f()).addModule(new RenderModule("sphere", false)).createModules());
+
+        RenderQueue queue = new RenderQueue();
+        queue.fill(gameObjects, Collections.<GUIScreen>emptyList());
+
+        return queue;
+
+    }
+
+    private static void renderFrame(RenderQueue queue) {
+
+        Renderer.currentRenderQueue = queue;
+
+        device.clearUploads();
+        Renderer.renderScene();
+        device.updateDisplay();
+
+    }
+
+    private static long getSubModelCount(List<ModuleRenderable3D> models) {
+
+        long count = 0;
+        for (ModuleRenderable3D model : models) count += ((RenderModule) model).model.subModels.size();
+
+        return count;
+
+    }
+
+    /**
+     * Additionally counts the uploads per uniform location since the last clearUploads().
+     */
+    private static class UniformCountingDevice extends RecordingGraphicsDevice {
+
+        private final Map<Integer, Integer> uploads = new HashMap<>();
+
+        void clearUploads() {
+            uploads.clear();
+        }
+
+        int getUploads(int location) {
+            return uploads.getOrDefault(location, 0);
+        }
+
+        private void count(int location) {
+            uploads.merge(location, 1, Integer::sum);
+        }
+
+        @Override
+        public void setUniform1i(int location, int value) {
+
+            count(location);
+            super.setUniform1i(location, value);
+
+        }
+
+        @Override
+        public void setUniform3f(int location, float x, float y, float z) {
+
+            count(location);
+            super.setUniform3f(location, x, y, z);
+
+        }
+
+        @Override
+        public void setUniform1(int location, FloatBuffer values) {
+
+            count(location);
+            super.setUniform1(location, values);
+
+        }
+
+        @Override
+        public void setUniform1(int location, IntBuffer values) {
+
+            count(location);
+            super.setUniform1(location, values);
+
+        }
+
+        @Override
+        public void setUniform3(int location, FloatBuffer values) {
+
+            count(location);
+            super.setUniform3(location, values);
+
+        }
+
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.graphics.buffers;
+
+import lightEngine.graphics.renderable.models.Mesh;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Runs the BufferManager against a backend that only counts the buffer operations, so no OpenGL context is needed.
+ */
+public class BufferManagerTest {
+
+    private BufferBackend previousBackend;
+    private RecordingBufferBackend backend;
+
+    @Before
+    public void setUp() {
+
+        previousBackend = BufferManager.backend;
+        backend = new RecordingBufferBackend();
+        BufferManager.backend = backend;
+
+    }
+
+    @After
+    public void tearDown() {
+        BufferManager.backend = previousBackend;
+    }
+
+    @Test
+    public void sharedMeshIsUploadedOnce() {
+
+        Mesh mesh = createMesh();
+
+        BufferManager.acquire(mesh);
+        BufferManager.acquire(mesh);
+
+        assertEquals(4, backend.created);
+        assertEquals(4, backend.uploads);
+
+    }
+
+    @Test
+    public void steadyFramesMakeNoBufferCalls() {
+
+        Mesh mesh = createMesh();
+        BufferManager.acquire(mesh);
+
+        int calls = backend.getCallCount();
+        for (int frame = 0; frame < 100; frame++) BufferManager.getBuffers(mesh);
+
+        assertEquals(calls, backend.getCallCount());
+
+    }
+
+    @Test
+    public void changedMeshIsUpdatedInPlaceOnce() {
+
+        Mesh mesh = createMesh();
+        BufferManager.acquire(mesh);
+        MeshBuffers buffers = BufferManager.getBuffers(mesh);
+
+        mesh.vertices[0] = 5;
+        mesh.markChanged();
+
+        assertSame(buffers, BufferManager.getBuffers(mesh));
+        assertSame(buffers, BufferManager.getBuffers(mesh));
+
+        assertEquals(4, backend.updates);
+        assertEquals(4, backend.created);
+        assertEquals(5, backend.lastVertexData, 0);
+
+    }
+
+    @Test
+    public void buffersAreDeletedAfterTheLastRelease() {
+
+        Mesh mesh = createMesh();
+        BufferManager.acquire(mesh);
+        BufferManager.acquire(mesh);
+
+        BufferManager.release(mesh);
+        BufferManager.processReleases();
+
+        assertEquals(0, backend.deleted);
+
+        BufferManager.release(mesh);
+        BufferManager.processReleases();
+
+        assertEquals(4, backend.deleted);
+
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void meshHasToBeAcquired() {
+        BufferManager.getBuffers(createMesh());
+    }
+
+    private static Mesh createMesh() {
+        return new Mesh(new float[]{0, 0, 0, 1, 0, 0, 0, 1, 0}, new float[]{0, 0, 1, 0, 0, 1, 0, 0, 1}, new float[]{0, 0, 1, 0, 0, 1}, new int[]{0, 1, 2});
+    }
+
+    /**
+     * Counts the calls per operation and hands out increasing handles.
+     */
+    private static class RecordingBufferBackend implements BufferBackend {
+
+        int created, uploads, updates, deleted;
+        float lastVertexData;
+
+        int getCallCount() {
+            return created + uploads + updates + deleted;
+        }
+
+        @Override
+        public int createBuffer() {
+            return ++created;
+        }
+
+        @Override
+        public void uploadData(int target, int buffer, FloatBuffer data) {
+            uploads++;
+        }
+
+        @Override
+        public void uploadData(int target, int buffer, IntBuffer data) {
+            uploads++;
+        }
+
+        @Override
+        public void updateData(int target, int buffer, FloatBuffer data) {
+
+            updates++;
+
+            if (buffer == 1) lastVertexData = data.get(0);
+
+        }
+
+        @Override
+        public void updateData(int target, int buffer, IntBuffer data) {
+            updates++;
+        }
+
+        @Override
+        public void deleteBuffer(int buffer) {
+            deleted++;
+        }
+
+    }
+
+}
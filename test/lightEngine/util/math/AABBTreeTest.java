@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.math;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the queries of the tree with linear scans over the same boxes.
+ */
+public class AABBTreeTest {
+
+    private static final int COUNT = 5000;
+
+    private final Random random = new Random(42);
+
+    private AABBTree<Integer> tree;
+    private float[] bounds;
+    private int[] leaves;
+    private boolean[] removed;
+
+    @Before
+    public void setUp() {
+
+        tree = new AABBTree<>(1);
+        bounds = new float[COUNT * 6];
+        leaves = new int[COUNT];
+        removed = new boolean[COUNT];
+
+        for (int i = 0; i < COUNT; i++) {
+
+            setRandomBox(i);
+            leaves[i] = tree.insert(i, bounds, i * 6);
+
+        }
+
+    }
+
+    @Test
+    public void treeStaysBalanced() {
+
+        assertEquals(COUNT, tree.size());
+
+        //A balanced tree is at most about 1.44 times as high as a perfect one
+        int perfectHeight = 32 - Integer.numberOfLeadingZeros(COUNT - 1);
+        assertTrue("Height " + tree.getHeight(), tree.getHeight() <= 1.44 * perfectHeight + 2);
+
+    }
+
+    @Test
+    public void queriesMatchLinearScans() {
+
+        checkQueries();
+
+    }
+
+    @Test
+    public void queriesMatchAfterMovingAndRemoving() {
+
+        for (int i = 0; i < COUNT; i++) {
+
+            if (i % 3 == 0) {
+
+                tree.remove(leaves[i]);
+                removed[i] = true;
+
+            } else if (i % 3 == 1) {
+
+                //Small steps stay inside the fat boxes, the big ones move the leaves
+                float step = i % 2 == 0 ? 0.5f : 50;
+                for (int j = 0; j < 6; j++) bounds[i * 6 + j] += step;
+
+                assertEquals(step > 1, tree.move(leaves[i], bounds, i * 6));
+
+            }
+
+        }
+
+        assertEquals(COUNT - (COUNT + 2) / 3, tree.size());
+        checkQueries();
+
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+
+        tree.clear();
+
+        List<Integer> result = new ArrayList<>();
+        tree.queryBox(-1000, -1000, -1000, 1000, 1000, 1000, result);
+
+        assertEquals(0, tree.size());
+        assertTrue(result.isEmpty());
+
+    }
+
+    @Test
+    public void leafKeepsItsItem() {
+
+        for (int i = 0; i < COUNT; i++) assertEquals(i, (int) tree.getItem(leaves[i]));
+
+        assertFalse(tree.move(leaves[7], bounds, 7 * 6));
+
+    }
+
+    private void checkQueries() {
+
+        List<Integer> result = new ArrayList<>();
+
+        for (int q = 0; q < 200; q++) {
+
+            float x = random.nextFloat() * 200 - 100, y = random.nextFloat() * 200 - 100, z = random.nextFloat() * 200 - 100;
+            float size = random.nextFloat() * 30;
+
+            result.clear();
+            tree.queryBox(x - size, y - size, z - size, x + size, y + size, z + size, result);
+            assertEquals(scanBox(x - size, y - size, z - size, x + size, y + size, z + size), toSet(result));
+
+            result.clear();
+            tree.querySphere(x, y, z, size, result);
+            assertEquals(scanSphere(x, y, z, size), toSet(result));
+
+            float directionX = random.nextFloat() - 0.5f, directionY = random.nextFloat() - 0.5f, directionZ = random.nextFloat() - 0.5f;
+
+            result.clear();
+            tree.queryRay(x, y, z, directionX, directionY, directionZ, 100, result);
+            assertEquals(scanRay(x, y, z, directionX, directionY, directionZ, 100), toSet(result));
+
+        }
+
+        Frustum frustum = new Frustum(FrustumTest.createCameraMatrix());
+
+        result.clear();
+        tree.queryFrustum(frustum, result);
+        assertEquals(scanFrustum(frustum), toSet(result));
+
+    }
+
+    private void setRandomBox(int index) {
+
+        float x = random.nextFloat() * 200 - 100, y = random.nextFloat() * 200 - 100, z = random.nextFloat() * 200 - 100;
+        float size = random.nextFloat() * 5;
+
+        int o = index * 6;
+
+        bounds[o] = x - size;
+        bounds[o + 1] = y - size;
+        bounds[o + 2] = z - size;
+        bounds[o + 3] = x + size;
+        bounds[o + 4] = y + size;
+        bounds[o + 5] = z + size;
+
+    }
+
+    private static Set<Integer> toSet(List<Integer> items) {
+
+        Set<Integer> set = new HashSet<>(items);
+        assertEquals("Items were found twice", items.size(), set.size());
+
+        return set;
+
+    }
+
+    private Set<Integer> scanBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+
+        Set<Integer> hits = new HashSet<>();
+
+        for (int i = 0; i < COUNT; i++) {
+
+            int o = i * 6;
+
+            if (!removed[i] && bounds[o] <= maxX && bounds[o + 1] <= maxY && bounds[o + 2] <= maxZ
+              && bounds[o + 3] >= minX && bounds[o + 4] >= minY && bounds[o + 5] >= minZ) hits.add(i);
+
+        }
+
+        return hits;
+
+    }
+
+    private Set<Integer> scanSphere(float x, float y, float z, float radius) {
+
+        Set<Integer> hits = new HashSet<>();
+
+        for (int i = 0; i < COUNT; i++) {
+
+            int o = i * 6;
+
+            float dx = Math.max(0, Math.max(bounds[o] - x, x - bounds[o + 3]));
+            float dy = Math.max(0, Math.max(bounds[o + 1] - y, y - bounds[o + 4]));
+            float dz = Math.max(0, Math.max(bounds[o + 2] - z, z - bounds[o + 5]));
+
+            if (!removed[i] && dx * dx + dy * dy + dz * dz <= radius * radius) hits.add(i);
+
+        }
+
+        return hits;
+
+    }
+
+    private Set<Integer> scanRay(float originX, float originY, float originZ, float directionX, float directionY, float directionZ, float maxDistance) {
+
+        Set<Integer> hits = new HashSet<>();
+        float[] origin = {originX, originY, originZ}, direction = {directionX, directionY, directionZ};
+
+        for (int i = 0; i < COUNT; i++) {
+
+            if (removed[i]) continue;
+
+            float near = 0, far = maxDistance;
+
+            for (int axis = 0; axis < 3; axis++) {
+
+                float t1 = (bounds[i * 6 + axis] - origin[axis]) / direction[axis];
+                float t2 = (bounds[i * 6 + axis + 3] - origin[axis]) / direction[axis];
+
+                near = Math.max(near, Math.min(t1, t2));
+                far = Math.min(far, Math.max(t1, t2));
+
+            }
+
+            if (near <= far) hits.add(i);
+
+        }
+
+        return hits;
+
+    }
+
+    private Set<Integer> scanFrustum(Frustum frustum) {
+
+        Set<Integer> hits = new HashSet<>();
+
+        for (int i = 0; i < COUNT; i++) {
+
+            int o = i * 6;
+            if (!removed[i] && frustum.intersectsBox(bounds[o], bounds[o + 1], bounds[o + 2], bounds[o + 3], bounds[o + 4], bounds[o + 5])) hits.add(i);
+
+        }
+
+        return hits;
+
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.math;
+
+import org.junit.Test;
+import org.lwjgl.util.vector.Matrix4f;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FrustumTest {
+
+    /**
+     * Creates the projection matrix of a 70 degree perspective camera at the origin, looking down the negative z axis.
+     *
+     * @return The matrix, the view matrix is the identity.
+     */
+    static Matrix4f createCameraMatrix() {
+
+        Matrix4f projectionMatrix = new Matrix4f();
+        float yScale = (float) (1 / Math.tan(Math.toRadians(35)));
+
+        projectionMatrix.m00 = yScale / (16f / 9f);
+        projectionMatrix.m11 = yScale;
+        projectionMatrix.m22 = -(1000 + 0.1f) / (1000 - 0.1f);
+        projectionMatrix.m23 = -1;
+        projectionMatrix.m32 = -(2 * 0.1f * 1000) / (1000 - 0.1f);
+        projectionMatrix.m33 = 0;
+
+        return projectionMatrix;
+
+    }
+
+    @Test
+    public void defaultFrustumContainsEverything() {
+
+        Frustum frustum = new Frustum();
+
+        assertTrue(frustum.containsPoint(1e30f, -1e30f, 0));
+        assertTrue(frustum.containsBox(-1000, -1000, -1000, 1000, 1000, 1000));
+
+    }
+
+    @Test
+    public void boxesInFrontAreVisible() {
+
+        Frustum frustum = new Frustum(createCameraMatrix());
+
+        assertTrue(frustum.intersectsBox(-1, -1, -11, 1, 1, -9));
+        assertTrue(frustum.containsBox(-1, -1, -11, 1, 1, -9));
+        assertTrue(frustum.containsPoint(0, 0, -999));
+
+    }
+
+    @Test
+    public void boxesOutsideAreCulled() {
+
+        Frustum frustum = new Frustum(createCameraMatrix());
+
+        assertFalse("Behind the camera", frustum.intersectsBox(-1, -1, 9, 1, 1, 11));
+        assertFalse("Beyond the far plane", frustum.intersectsBox(-1, -1, -1100, 1, 1, -1010));
+        assertFalse("Left of the view", frustum.intersectsBox(-100, -1, -11, -90, 1, -9));
+        assertFalse("Above the view", frustum.intersectsBox(-1, 50, -11, 1, 60, -9));
+
+    }
+
+    @Test
+    public void boxOnAPlaneIntersectsButIsNotContained() {
+
+        Frustum frustum = new Frustum(createCameraMatrix());
+
+        //The left plane crosses x = -12.5 at z = -10
+        assertTrue(frustum.intersectsBox(-20, -1, -11, -10, 1, -9));
+        assertFalse(frustum.containsBox(-20, -1, -11, -10, 1, -9));
+
+    }
+
+    @Test
+    public void frustumFollowsTheViewMatrix() {
+
+        //The camera turned by 180 degrees looks down the positive z axis
+        Matrix4f viewMatrix = new Matrix4f();
+        Matrix4f.rotate((float) Math.PI, new Vector3f(0, 1, 0), viewMatrix, viewMatrix);
+
+        Frustum frustum = new Frustum(Matrix4f.mul(createCameraMatrix(), viewMatrix, null));
+
+        assertTrue(frustum.containsPoint(0, 0, 10));
+        assertFalse(frustum.containsPoint(0, 0, -10));
+
+    }
+
+    @Test
+    public void cullReturnsTheVisibleBoxesInOrder() {
+
+        Frustum frustum = new Frustum(createCameraMatrix());
+        Random random = new Random(42);
+
+        int count = 10000;
+        float[] bounds = new float[count * 6];
+
+        for (int i = 0; i < count; i++) {
+
+            float x = random.nextFloat() * 200 - 100, y = random.nextFloat() * 200 - 100, z = random.nextFloat() * 200 - 100;
+            float size = random.nextFloat() * 5;
+
+            bounds[i * 6] = x - size;
+            bounds[i * 6 + 1] = y - size;
+            bounds[i * 6 + 2] = z - size;
+            bounds[i * 6 + 3] = x + size;
+            bounds[i * 6 + 4] = y + size;
+            bounds[i * 6 + 5] = z + size;
+
+        }
+
+        int[] visible = new int[count];
+        int visibleCount = frustum.cull(bounds, count, visible);
+        int expected = 0;
+
+        for (int i = 0; i < count; i++) {
+
+            int o = i * 6;
+            if (!frustum.intersectsBox(bounds[o], bounds[o + 1], bounds[o + 2], bounds[o + 3], bounds[o + 4], bounds[o + 5])) continue;
+
+            assertEquals(i, visible[expected++]);
+
+        }
+
+        assertEquals(expected, visibleCount);
+        assertTrue(visibleCount > 0 && visibleCount < count);
+
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.rendering;
+
+import lightEngine.graphics.renderable.models.Face;
+import lightEngine.graphics.renderable.models.Mesh;
+import lightEngine.graphics.renderable.models.SubModel;
+import lightEngine.util.resources.ResourceHelper;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector2f;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that indexed meshes draw exactly the triangles that the per-face expansion of RenderModule drew before.
+ */
+public class MeshHelperTest {
+
+    @Test
+    public void sharedCornersBecomeOneVertex() {
+
+        SubModel subModel = new SubModel();
+
+        subModel.vertices.add(new Vector3f(0, 0, 0));
+        subModel.vertices.add(new Vector3f(1, 0, 0));
+        subModel.vertices.add(new Vector3f(1, 1, 0));
+        subModel.vertices.add(new Vector3f(0, 1, 0));
+        subModel.normals.add(new Vector3f(0, 0, 1));
+        subModel.uvs.add(new Vector2f(0, 0));
+        subModel.uvs.add(new Vector2f(1, 0));
+        subModel.uvs.add(new Vector2f(1, 1));
+        subModel.uvs.add(new Vector2f(0, 1));
+
+        //A quad whose triangles share two corners, and a third triangle that uses a shared vertex with another uv
+        subModel.faces.add(new Face(new Vector3f(0, 1, 2), new Vector3f(), new Vector3f(0, 1, 2)));
+        subModel.faces.add(new Face(new Vector3f(0, 2, 3), new Vector3f(), new Vector3f(0, 2, 3)));
+        subModel.faces.add(new Face(new Vector3f(2, 1, 3), new Vector3f(), new Vector3f(0, 1, 3)));
+
+        Mesh mesh = MeshHelper.compileMesh(subModel);
+
+        //9 corners: 4 unique ones in the quad, the last triangle adds vertex 2 with uv 0
+        assertEquals(9, mesh.getIndexCount());
+        assertEquals(5, mesh.getVertexCount());
+
+        assertExpansionMatches(subModel, mesh);
+
+    }
+
+    @Test
+    public void bundledModelsDrawTheSameTriangles() throws IOException {
+
+        ResourceHelper.initialize();
+
+        File[] files = ResourceHelper.getResource("", ResourceHelper.RES_MODEL).getParentFile().listFiles((dir, fileName) -> fileName.endsWith(".obj"));
+        assertTrue(files != null && files.length > 0);
+
+        int vertexCount = 0, cornerCount = 0;
+
+        for (File file : files) {
+
+            for (SubModel subModel : ObjParser.parse(file).subModels) {
+
+                Mesh mesh = MeshHelper.compileMesh(subModel);
+
+                assertTrue(file.getName(), mesh.getVertexCount() <= mesh.getIndexCount());
+                assertExpansionMatches(subModel, mesh);
+
+                vertexCount += mesh.getVertexCount();
+                cornerCount += mesh.getIndexCount();
+
+            }
+
+        }
+
+        assertTrue(vertexCount + " of " + cornerCount + " corners", vertexCount < cornerCount);
+
+    }
+
+    /**
+     * Expands the mesh's index buffer and compares it with the vertex, normal and uv stream the old per-face expansion created.
+     */
+    private static void assertExpansionMatches(SubModel subModel, Mesh mesh) {
+
+        int cornerCount = subModel.faces.size() * 3;
+
+        float[] expectedVertices = new float[cornerCount * 3], expectedNormals = new float[cornerCount * 3], expectedUvs = new float[cornerCount * 2];
+        int corner = 0;
+
+        for (Face face : subModel.faces) {
+
+            float[] vertexIndices = {face.vertexIndices.x, face.vertexIndices.y, face.vertexIndices.z};
+            float[] normalIndices = {face.normalIndices.x, face.normalIndices.y, face.normalIndices.z};
+            float[] uvIndices = {face.uvIndices.x, face.uvIndices.y, face.uvIndices.z};
+
+            for (int i = 0; i < 3; i++, corner++) {
+
+                Vector3f vertex = subModel.vertices.get((int) vertexIndices[i]);
+                Vector3f normal = subModel.normals.get((int) normalIndices[i]);
+                Vector2f uv = subModel.uvs.get((int) uvIndices[i]);
+
+                expectedVertices[corner * 3] = vertex.x;
+                expectedVertices[corner * 3 + 1] = vertex.y;
+                expectedVertices[corner * 3 + 2] = vertex.z;
+                expectedNormals[corner * 3] = normal.x;
+                expectedNormals[corner * 3 + 1] = normal.y;
+                expectedNormals[corner * 3 + 2] = normal.z;
+                expectedUvs[corner * 2] = uv.x;
+                expectedUvs[corner * 2 + 1] = 1 - uv.y;
+
+            }
+
+        }
+
+        float[] vertices = new float[cornerCount * 3], normals = new float[cornerCount * 3], uvs = new float[cornerCount * 2];
+
+        for (int i = 0; i < mesh.getIndexCount(); i++) {
+
+            int index = mesh.indices[i];
+
+            System.arraycopy(mesh.vertices, index * 3, vertices, i * 3, 3);
+            System.arraycopy(mesh.normals, index * 3, normals, i * 3, 3);
+            System.arraycopy(mesh.uvs, index * 2, uvs, i * 2, 2);
+
+        }
+
+        assertEquals(cornerCount, mesh.getIndexCount());
+        assertArrayEquals(expectedVertices, vertices, 0);
+        assertArrayEquals(expectedNormals, normals, 0);
+        assertArrayEquals(expectedUvs, uvs, 0);
+
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.rendering;
+
+import lightEngine.graphics.renderable.models.Face;
+import lightEngine.graphics.renderable.models.Model;
+import lightEngine.graphics.renderable.models.SubModel;
+import lightEngine.util.resources.ResourceHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Writes and reads compiled models of a copy of a bundled model and checks that changed sources make the compiled file outdated.
+ */
+public class ModelCacheHelperTest {
+
+    private static final String NAME = "modelCacheTest";
+
+    private File source;
+    private File cache;
+
+    @BeforeClass
+    public static void setUpClass() {
+        ResourceHelper.initialize();
+    }
+
+    @Before
+    public void setUp() throws IOException {
+
+        source = ResourceHelper.getResource(NAME, ResourceHelper.RES_MODEL);
+        cache = ResourceHelper.getResource(NAME, ResourceHelper.RES_MODEL_CACHE);
+
+        Files.copy(ResourceHelper.getResource("rotatedPlane", ResourceHelper.RES_MODEL).toPath(), source.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+    }
+
+    @After
+    public void tearDown() throws IOException {
+
+        Files.deleteIfExists(source.toPath());
+        Files.deleteIfExists(cache.toPath());
+
+    }
+
+    @Test
+    public void readModelReturnsTheWrittenModel() throws IOException {
+
+        Model model = compile();
+        Model cached = ModelCacheHelper.readModel(NAME);
+
+        assertNotNull(cached);
+        assertEquals(model.subModels.size(), cached.subModels.size());
+
+        for (int i = 0; i < model.subModels.size(); i++) {
+
+            SubModel expected = model.subModels.get(i), actual = cached.subModels.get(i);
+
+            assertEquals(expected.vertices, actual.vertices);
+            assertEquals(expected.normals, actual.normals);
+            assertEquals(expected.uvs, actual.uvs);
+            assertSame(expected.material, actual.material);
+            assertEquals(expected.faces.size(), actual.faces.size());
+
+            for (int j = 0; j < expected.faces.size(); j++) {
+
+                Face expectedFace = expected.faces.get(j), actualFace = actual.faces.get(j);
+
+                assertEquals(expectedFace.vertexIndices, actualFace.vertexIndices);
+                assertEquals(expectedFace.normalIndices, actualFace.normalIndices);
+                assertEquals(expectedFace.uvIndices, actualFace.uvIndices);
+
+            }
+
+        }
+
+    }
+
+    @Test
+    public void missingCacheIsNotRead() {
+
+        assertNull(ModelCacheHelper.readModel(NAME));
+
+    }
+
+    @Test
+    public void changedSourceIsParsedAgain() throws IOException {
+
+        compile();
+
+        Files.write(source.toPath(), "v 1.0 2.0 3.0\n".getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+
+        assertNull(ModelCacheHelper.readModel(NAME));
+
+    }
+
+    @Test
+    public void checksumDecidesWhenOnlyTheTimeChanged() throws IOException {
+
+        compile();
+
+        //A checkout changes the modification time, but not the content
+        assertTrue(source.setLastModified(source.lastModified() + 10000));
+        assertNotNull(ModelCacheHelper.readModel(NAME));
+
+        //The same length with a different content
+        String content = new String(Files.readAllBytes(source.toPath()), StandardCharsets.US_ASCII);
+        Files.write(source.toPath(), content.replace("101.938019", "101.938018").getBytes(StandardCharsets.US_ASCII));
+        assertTrue(source.setLastModified(source.lastModified() + 20000));
+
+        assertNull(ModelCacheHelper.readModel(NAME));
+
+    }
+
+    @Test
+    public void corruptCacheIsIgnored() throws IOException {
+
+        compile();
+
+        byte[] bytes = Files.readAllBytes(cache.toPath());
+        byte[] truncated = new byte[bytes.length / 2];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        Files.write(cache.toPath(), truncated);
+
+        assertNull(ModelCacheHelper.readModel(NAME));
+
+    }
+
+    /**
+     * Parses and centers the model like ModelHelper does and writes the compiled version.
+     */
+    private Model compile() throws IOException {
+
+        List<String> materialLibraries = new ArrayList<>();
+        Model model = new Model(ObjParser.parse(source, materialLibraries).subModels);
+
+        ModelCacheHelper.writeModel(NAME, model, materialLibraries);
+        assertTrue(cache.isFile());
+
+        return model;
+
+    }
+
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.rendering;
+
+import lightEngine.graphics.renderable.models.Face;
+import lightEngine.graphics.renderable.models.Model;
+import lightEngine.graphics.renderable.models.SubModel;
+import lightEngine.util.resources.ResourceHelper;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.lwjgl.util.vector.Vector2f;
+import org.lwjgl.util.vector.Vector3f;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Compares the OBJ parser with the line based parser it replaced and checks faces with more than three vertices, missing uvs and several material libraries.
+ */
+public class ObjParserTest {
+
+    private static final File TEST_MODEL = new File("test/resources/parserTest.obj");
+
+    @BeforeClass
+    public static void setUpClass() {
+        ResourceHelper.initialize();
+    }
+
+    @Test
+    public void bundledModelsMatchTheOldParser() throws IOException {
+
+        File[] files = ResourceHelper.getResource("", ResourceHelper.RES_MODEL).getParentFile().listFiles((dir, fileName) -> fileName.endsWith(".obj"));
+        assertTrue(files != null && files.length > 0);
+
+        for (File file : files) {
+
+            List<SubModel> expected = parseOld(file);
+            List<SubModel> actual = ObjParser.parse(file).subModels;
+
+            assertEquals(file.getName(), expected.size(), actual.size());
+
+            for (int i = 0; i < expected.size(); i++) assertSubModelEquals(file.getName() + ", sub model " + i, expected.get(i), actual.get(i));
+
+        }
+
+    }
+
+    @Test
+    public void quadIsSplitIntoTwoTriangles() throws IOException {
+
+        SubModel quad = ObjParser.parse(TEST_MODEL).subModels.get(0);
+
+        assertEquals(4, quad.vertices.size());
+        assertEquals(2, quad.faces.size());
+
+        assertFace(quad.faces.get(0), new Vector3f(0, 1, 2), new Vector3f(0, 1, 2), new Vector3f());
+        assertFace(quad.faces.get(1), new Vector3f(0, 2, 3), new Vector3f(0, 2, 3), new Vector3f());
+
+    }
+
+    @Test
+    public void facesWithoutUvsShareOneEmptyUv() throws IOException {
+
+        SubModel pentagon = ObjParser.parse(TEST_MODEL).subModels.get(1);
+
+        //Three triangles for the pentagon and the one triangle after it
+        assertEquals(4, pentagon.faces.size());
+        assertFace(pentagon.faces.get(2), new Vector3f(0, 3, 4), new Vector3f(), new Vector3f());
+        assertFace(pentagon.faces.get(3), new Vector3f(0, 2, 4), new Vector3f(), new Vector3f());
+
+        assertEquals(1, pentagon.uvs.size());
+        assertEquals(new Vector2f(), pentagon.uvs.get(0));
+
+    }
+
+    @Test
+    public void materialsAreFoundInTheirLibraries() throws IOException {
+
+        List<String> materialLibraries = new ArrayList<>();
+        Model model = ObjParser.parse(TEST_MODEL, materialLibraries);
+
+        assertEquals(Arrays.asList("bigPlane", "rotatedCube", "rotatedPlane"), materialLibraries);
+
+        //"Material" is defined by bigPlane and rotatedCube, the first library wins
+        assertSame(ModelHelper.getMaterialLibrary("bigPlane").get("Material"), model.subModels.get(0).material);
+        assertSame(ModelHelper.getMaterialLibrary("rotatedPlane").get("None"), model.subModels.get(1).material);
+
+    }
+
+    @Test
+    public void faceWithTwoVerticesIsRejected() throws IOException {
+
+        File file = File.createTempFile("line", ".obj");
+        file.deleteOnExit();
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("o Line");
+            writer.println("v 0 0 0");
+            writer.println("v 1 0 0");
+            writer.println("vn 0 0 1");
+            writer.println("f 1//1 2//1");
+        }
+
+        try {
+            ObjParser.parse(file);
+            fail("The face was accepted");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("less than three vertices"));
+        }
+
+    }
+
+    private static void assertSubModelEquals(String message, SubModel expected, SubModel actual) {
+
+        assertEquals(message, expected.vertices, actual.vertices);
+        assertEquals(message, expected.normals, actual.normals);
+        assertEquals(message, expected.uvs, actual.uvs);
+        assertEquals(message, expected.faces.size(), actual.faces.size());
+
+        for (int i = 0; i < expected.faces.size(); i++) {
+
+            Face expectedFace = expected.faces.get(i), actualFace = actual.faces.get(i);
+
+            assertEquals(message, expectedFace.vertexIndices, actualFace.vertexIndices);
+            assertEquals(message, expectedFace.normalIndices, actualFace.normalIndices);
+            assertEquals(message, expectedFace.uvIndices, actualFace.uvIndices);
+
+        }
+
+    }
+
+    private static void assertFace(Face face, Vector3f vertexIndices, Vector3f uvIndices, Vector3f normalIndices) {
+
+        assertEquals(vertexIndices, face.vertexIndices);
+        assertEquals(uvIndices, face.uvIndices);
+        assertEquals(normalIndices, face.normalIndices);
+
+    }
+
+    /**
+     * The geometry part of the line based parser that ModelHelper used before ObjParser, it only reads the first three vertices of a face.
+     */
+    private static List<SubModel> parseOld(File file) throws IOException {
+
+        List<SubModel> subModels = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+
+            String line;
+            int currentVertexCount = 0;
+            int currentNormalCount = 0;
+            int currentUvCount = 0;
+            SubModel currentSubModel = new SubModel();
+
+            while ((line = reader.readLine()) != null) {
+
+                String[] parts = line.split(" ");
+
+                if (line.startsWith("o ")) {
+
+                    currentVertexCount += currentSubModel.vertices.size();
+                    currentNormalCount += currentSubModel.normals.size();
+                    currentUvCount += currentSubModel.uvs.size();
+
+                    currentSubModel = new SubModel();
+                    subModels.add(currentSubModel);
+
+                } else if (line.startsWith("v ")) {
+
+                    currentSubModel.vertices.add(new Vector3f(Float.valueOf(parts[1]), Float.valueOf(parts[2]), Float.valueOf(parts[3])));
+
+                } else if (line.startsWith("vn ")) {
+
+                    currentSubModel.normals.add(new Vector3f(Float.valueOf(parts[1]), Float.valueOf(parts[2]), Float.valueOf(parts[3])));
+
+                } else if (line.startsWith("vt ")) {
+
+                    currentSubModel.uvs.add(new Vector2f(Float.valueOf(parts[1]), Float.valueOf(parts[2])));
+
+                } else if (line.startsWith("f ")) {
+
+                    Vector3f vertexIndices = new Vector3f(
+                      Float.valueOf(parts[1].split("/")[0]) - currentVertexCount - 1,
+                      Float.valueOf(parts[2].split("/")[0]) - currentVertexCount - 1,
+                      Float.valueOf(parts[3].split("/")[0]) - currentVertexCount - 1);
+
+                    Vector3f normalIndices = new Vector3f(
+                      Float.valueOf(parts[1].split("/")[2]) - currentNormalCount - 1,
+                      Float.valueOf(parts[2].split("/")[2]) - currentNormalCount - 1,
+                      Float.valueOf(parts[3].split("/")[2]) - currentNormalCount - 1);
+
+                    Vector3f uvIndices;
+
+                    if (!parts[1].split("/")[1].equals("")) uvIndices = new Vector3f(
+                      Float.valueOf(parts[1].split("/")[1]) - currentUvCount - 1,
+                      Float.valueOf(parts[2].split("/")[1]) - currentUvCount - 1,
+                      Float.valueOf(parts[3].split("/")[1]) - currentUvCount - 1);
+                    else {
+                        if (currentSubModel.uvs.size() == 0) currentSubModel.uvs.add(new Vector2f());
+                        uvIndices = new Vector3f();
+                    }
+
+                    currentSubModel.faces.add(new Face(vertexIndices, normalIndices, uvIndices));
+
+                }
+
+            }
+
+        }
+
+        return subModels;
+
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.rendering;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the UniformRegistry asks the graphics device only once per uniform, using a locator that counts the lookups.
+ */
+public class UniformRegistryTest {
+
+    private static final int PROGRAM = 3;
+
+    private List<String> lookups;
+    private UniformRegistry registry;
+
+    @Before
+    public void setUp() {
+
+        lookups = new ArrayList<>();
+
+        //Uniforms starting with "missing" don't exist, the others get increasing locations
+        registry = new UniformRegistry(PROGRAM, (program, name) -> {
+
+            assertEquals(PROGRAM, program);
+            lookups.add(name);
+
+            return name.startsWith("missing") ? -1 : lookups.size();
+
+        });
+
+    }
+
+    @Test
+    public void uniformIsLookedUpOnce() {
+
+        int location = registry.getLocation("modelMatrix");
+
+        for (int i = 0; i < 100; i++) assertEquals(location, registry.getLocation("modelMatrix"));
+
+        assertEquals(1, lookups.size());
+
+    }
+
+    @Test
+    public void missingUniformIsLookedUpOnce() {
+
+        assertEquals(-1, registry.getLocation("missingUniform"));
+        assertEquals(-1, registry.getLocation("missingUniform"));
+        assertEquals(-1, registry.getLocation("missingArray", 2));
+        assertEquals(-1, registry.getLocation("missingArray", 2));
+
+        assertEquals(2, lookups.size());
+
+    }
+
+    @Test
+    public void arrayElementsAreLookedUpByName() {
+
+        int first = registry.getLocation("lightPositions", 0);
+        int third = registry.getLocation("lightPositions", 2);
+
+        assertEquals(first, registry.getLocation("lightPositions", 0));
+        assertEquals(third, registry.getLocation("lightPositions", 2));
+
+        assertEquals(2, lookups.size());
+        assertEquals("lightPositions[0]", lookups.get(0));
+        assertEquals("lightPositions[2]", lookups.get(1));
+
+    }
+
+    @Test
+    public void arrayGrowsBeyondItsInitialSize() {
+
+        for (int frame = 0; frame < 3; frame++)
+            for (int i = 0; i < 20; i++) registry.getLocation("shadowMapCoordinates", i);
+
+        assertEquals(20, lookups.size());
+        assertEquals("shadowMapCoordinates[19]", lookups.get(19));
+
+    }
+
+    @Test
+    public void arraysAndUniformsAreCachedSeparately() {
+
+        registry.getLocation("lightColors");
+        registry.getLocation("lightColors", 0);
+
+        assertEquals(2, lookups.size());
+        assertEquals("lightColors", lookups.get(0));
+        assertEquals("lightColors[0]", lookups.get(1));
+
+    }
+
+}
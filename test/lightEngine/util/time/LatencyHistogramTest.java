@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.time;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the percentiles of the histogram with the exact ones of sorted samples and checks how the windows are rotated.
+ */
+public class LatencyHistogramTest {
+
+    private static final double PRECISION = 1.0 / 32; //The width of a bucket relative to its values
+
+    @Test
+    public void percentilesAreWithinBucketPrecision() {
+
+        Random random = new Random(42);
+        LatencyHistogram histogram = new LatencyHistogram(10);
+
+        //Frame times around 16.6 ms with some spikes, spread over 10 windows
+        long[] samples = new long[100000];
+
+        for (int i = 0; i < samples.length; i++) {
+
+            samples[i] = (long) (16600000 + random.nextGaussian() * 500000);
+            if (random.nextInt(100) == 0) samples[i] *= 3;
+            samples[i] = Math.max(0, samples[i]);
+
+            histogram.record(samples[i]);
+            if (i % 10000 == 9999) histogram.rotate();
+
+        }
+
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        for (double percentile : new double[]{50, 90, 95, 99, 99.9, 100}) {
+
+            long exact = sorted[(int) Math.ceil(sorted.length * percentile / 100) - 1];
+            long value = histogram.getPercentile(percentile, 10);
+
+            assertTrue("p" + percentile + ": " + value + " instead of " + exact, Math.abs(value - exact) / (double) exact <= PRECISION);
+
+        }
+
+        assertEquals(samples.length, histogram.getCount(10));
+        assertEquals(sorted[sorted.length - 1], histogram.getMax(10));
+        assertEquals(sorted[sorted.length - 1], histogram.getPercentile(100, 10));
+
+    }
+
+    @Test
+    public void onlyCompletedWindowsAreRead() {
+
+        LatencyHistogram histogram = new LatencyHistogram(3);
+
+        histogram.record(1000);
+
+        assertEquals(0, histogram.getCount(3));
+        assertEquals(0, histogram.getMax(3));
+        assertEquals(0, histogram.getPercentile(50, 3));
+
+        histogram.rotate();
+
+        assertEquals(1, histogram.getCount(1));
+        assertEquals(1000, histogram.getMax(1));
+
+    }
+
+    @Test
+    public void oldestWindowIsDropped() {
+
+        LatencyHistogram histogram = new LatencyHistogram(2);
+
+        //One window per value: 5 ms, then 1 ms and 2 ms
+        for (long millis : new long[]{5, 1, 2}) {
+
+            for (int i = 0; i < 10; i++) histogram.record(millis * 1000000);
+            histogram.rotate();
+
+        }
+
+        assertEquals(20, histogram.getCount(2));
+        assertEquals(2000000, histogram.getMax(2));
+
+        assertEquals(10, histogram.getCount(1));
+        assertEquals(2000000, histogram.getPercentile(50, 1));
+
+        //More windows than are kept are capped
+        assertEquals(20, histogram.getCount(10));
+
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+
+        LatencyHistogram histogram = new LatencyHistogram(1);
+
+        for (int i = 1; i <= 20; i++) histogram.record(i);
+        histogram.rotate();
+
+        assertEquals(10, histogram.getPercentile(50, 1));
+        assertEquals(19, histogram.getPercentile(95, 1));
+        assertEquals(20, histogram.getPercentile(100, 1));
+
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.time;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the frame history and the trace export of the profiler on the test thread.
+ */
+public class ProfilerTest {
+
+    private static Profiler.Marker outer;
+    private static Profiler.Marker inner;
+
+    @BeforeClass
+    public static void setUpClass() {
+
+        outer = Profiler.addMarker("Outer");
+        inner = Profiler.addMarker("Inner \"quoted\"");
+
+    }
+
+    @After
+    public void tearDown() {
+
+        Profiler.enabled = false;
+        Profiler.endFrame();
+
+    }
+
+    @Test
+    public void nestedPhasesAreIncludedInTheOuterOne() {
+
+        Profiler.enabled = true;
+        Profiler.endFrame();
+
+        for (int frame = 0; frame < 10; frame++) {
+
+            Profiler.begin(outer);
+            TimeHelper.sleep(2);
+            Profiler.begin(inner);
+            TimeHelper.sleep(1);
+            Profiler.end(inner);
+            Profiler.end(outer);
+
+            Profiler.endFrame();
+
+        }
+
+        Profiler.ThreadProfile profile = getProfile();
+        float outerTime = profile.getAverageTime(outer, 10), innerTime = profile.getAverageTime(inner, 10);
+
+        assertTrue("Inner " + innerTime + " ms", innerTime >= 1);
+        assertTrue("Outer " + outerTime + " ms", outerTime > innerTime);
+        assertTrue("Frame " + profile.getAverageFrameTime(10) + " ms", profile.getAverageFrameTime(10) >= outerTime);
+
+    }
+
+    @Test
+    public void nothingIsRecordedWhileDisabled() {
+
+        Profiler.enabled = true;
+        Profiler.endFrame();
+
+        int frameCount = getProfile().getFrameCount();
+        Profiler.enabled = false;
+
+        for (int frame = 0; frame < 10; frame++) {
+
+            Profiler.begin(outer);
+            Profiler.end(outer);
+            Profiler.endFrame();
+
+        }
+
+        assertEquals(frameCount, getProfile().getFrameCount());
+
+    }
+
+    @Test
+    public void mismatchedEndIsIgnored() {
+
+        Profiler.enabled = true;
+        Profiler.endFrame();
+
+        Profiler.begin(outer);
+        TimeHelper.sleep(1);
+        Profiler.end(inner);
+        Profiler.endFrame();
+
+        assertEquals(0, getProfile().getAverageTime(inner, 1), 0);
+
+    }
+
+    @Test
+    public void traceContainsTheEscapedMarkers() throws IOException {
+
+        Profiler.enabled = true;
+        Profiler.endFrame();
+
+        Profiler.begin(outer);
+        Profiler.begin(inner);
+        Profiler.end(inner);
+        Profiler.end(outer);
+        Profiler.endFrame();
+
+        File trace = File.createTempFile("trace", ".json");
+        trace.deleteOnExit();
+
+        Profiler.exportTrace(trace);
+        String json = new String(Files.readAllBytes(trace.toPath()), StandardCharsets.UTF_8);
+
+        assertTrue(json.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        assertTrue(json.trim().endsWith("]}"));
+        assertTrue(json.contains("\"name\":\"Outer\""));
+        assertTrue(json.contains("\"name\":\"Inner \\\"quoted\\\"\""));
+
+    }
+
+    private static Profiler.ThreadProfile getProfile() {
+
+        for (Profiler.ThreadProfile profile : Profiler.getThreadProfiles())
+            if (profile.threadId == Thread.currentThread().getId()) return profile;
+
+        throw new IllegalStateException("The test thread hasn't used the profiler");
+
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2015 mgamelabs
+ * To see our full license terms, please visit https://github.com/mgamelabs/mengine/blob/master/LICENSE.md
+ * All rights reserved.
+ */
+
+package lightEngine.util.time;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives timers with a fake clock.
+ */
+public class TimerWheelTest {
+
+    @Test
+    public void timersExpireInTheMillisecondOfTheirDeadline() {
+
+        Random random = new Random(42);
+        TimerWheel wheel = new TimerWheel(1000);
+
+        int count = 2000;
+        Timer[] timers = new Timer[count];
+        long[] deadlines = new long[count];
+        long lastDeadline = 0;
+
+        //Every tenth timer lands in one of the higher levels of the wheel
+        for (int i = 0; i < count; i++) {
+
+            long delay = i % 10 == 0 ? random.nextInt(20000000) + 1 : random.nextInt(70000) + 1;
+
+            timers[i] = new Timer((int) delay, wheel);
+            timers[i].start();
+            deadlines[i] = 1000 + delay;
+            lastDeadline = Math.max(lastDeadline, deadlines[i]);
+
+        }
+
+        //Small steps first, then big jumps that skip many slots at once
+        for (long now = 1001; now < lastDeadline + 50000; now += now < 80000 ? 1 + random.nextInt(40) : 1 + random.nextInt(50000)) {
+
+            wheel.advance(now);
+
+            for (int i = 0; i < count; i++) assertEquals("Timer " + i + " at " + now, deadlines[i] <= now, timers[i].isDone());
+
+        }
+
+        assertEquals(0, wheel.getTimerCount());
+
+    }
+
+    @Test
+    public void restartWaitsForTheWholeDelay() {
+
+        TimerWheel wheel = new TimerWheel(0);
+        Timer timer = new Timer(50, wheel);
+
+        timer.start();
+        wheel.advance(40);
+        timer.start();
+
+        wheel.advance(80);
+        assertFalse(timer.isDone());
+
+        wheel.advance(90);
+        assertTrue(timer.isDone());
+
+    }
+
+    @Test
+    public void cancelledTimerNeverExpires() {
+
+        TimerWheel wheel = new TimerWheel(0);
+        Timer timer = new Timer(50, wheel);
+
+        timer.start();
+        timer.cancel();
+        wheel.advance(200);
+
+        assertFalse(timer.isDone());
+        assertEquals(0, wheel.getTimerCount());
+
+    }
+
+}